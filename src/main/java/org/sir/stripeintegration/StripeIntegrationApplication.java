@@ -1,13 +1,11 @@
 package org.sir.stripeintegration;
 
 import io.r2dbc.spi.ConnectionFactory;
+import org.sir.stripeintegration.infrastructure.persistance.migration.SchemaMigrator;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
-import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
-import org.springframework.r2dbc.connection.init.ConnectionFactoryInitializer;
-import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
 import org.springframework.web.reactive.config.EnableWebFlux;
 
 @EnableR2dbcRepositories
@@ -16,14 +14,8 @@ import org.springframework.web.reactive.config.EnableWebFlux;
 public class StripeIntegrationApplication {
 
     @Bean
-    ConnectionFactoryInitializer initializer(ConnectionFactory connectionFactory) {
-
-        ConnectionFactoryInitializer initializer = new ConnectionFactoryInitializer();
-        initializer.setConnectionFactory(connectionFactory);
-        initializer.setDatabasePopulator(new ResourceDatabasePopulator(new ClassPathResource("schema.sql")));
-
-        System.out.println("Execute schema.sql");
-        return initializer;
+    SchemaMigrator schemaMigrator(ConnectionFactory connectionFactory) {
+        return new SchemaMigrator(connectionFactory);
     }
 
     public static void main(String[] args) {
@@ -14,4 +14,5 @@ public class CustomerDto {
     public String email;
     public String name;
     public String phone;
+    public String defaultPaymentMethodId;
 }
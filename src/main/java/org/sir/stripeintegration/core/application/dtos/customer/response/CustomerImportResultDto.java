@@ -0,0 +1,28 @@
+package org.sir.stripeintegration.core.application.dtos.customer.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CustomerImportResultDto {
+    public static final String CREATED = "created";
+    public static final String FAILED = "failed";
+    /**
+     * Processed by an earlier run of the same import.
+     */
+    public static final String SKIPPED = "skipped";
+
+    /**
+     * Line of the row in the body, starting at 1, the csv header is not counted.
+     */
+    public long line;
+    public String status;
+    public String customerId;
+    public String email;
+    public String error;
+}
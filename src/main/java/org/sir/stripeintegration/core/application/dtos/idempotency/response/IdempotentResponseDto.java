@@ -0,0 +1,18 @@
+package org.sir.stripeintegration.core.application.dtos.idempotency.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response of the first request sent with an {@code Idempotency-Key}, replayed as is to its repeats.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class IdempotentResponseDto {
+    public String requestHash;
+    public int statusCode;
+    public String contentType;
+    public byte[] body;
+}
@@ -0,0 +1,30 @@
+package org.sir.stripeintegration.core.application.dtos.invoice.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class InvoiceDto {
+    public String id;
+    public String customerId;
+    public String subscriptionId;
+    public String number;
+    public String status;
+    public String currency;
+    public Long amountDue;
+    public Long amountPaid;
+    public Long amountRemaining;
+    public Long total;
+    public Long periodStart;
+    public Long periodEnd;
+    public String hostedInvoiceUrl;
+    public Long created;
+    public List<InvoiceLineDto> lines;
+}
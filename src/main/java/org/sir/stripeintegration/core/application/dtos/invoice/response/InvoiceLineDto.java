@@ -0,0 +1,21 @@
+package org.sir.stripeintegration.core.application.dtos.invoice.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class InvoiceLineDto {
+    public String id;
+    public String priceId;
+    public String description;
+    public Long amount;
+    public String currency;
+    public Long quantity;
+    public Long periodStart;
+    public Long periodEnd;
+}
@@ -16,4 +16,5 @@ import org.sir.stripeintegration.core.application.dtos.product.ProductCommonDto;
 public class ProductDto extends ProductCommonDto {
     public String id;
     public String defaultPriceId;
+    public Long created;
 }
@@ -15,4 +15,5 @@ import org.sir.stripeintegration.core.application.dtos.productPrice.ProductPrice
 public class ProductPriceDto extends ProductPriceCommonDto {
     public String id;
     public String type;
+    public Long created;
 }
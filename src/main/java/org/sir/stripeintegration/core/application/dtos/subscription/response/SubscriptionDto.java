@@ -24,4 +24,5 @@ public class SubscriptionDto {
     public String status;
     public Long cancelAt;
     public List<SubscriptionItemDto> items;
+    public Long created;
 }
@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
 import java.util.UUID;
 
 @Data
@@ -11,8 +12,10 @@ import java.util.UUID;
 @NoArgsConstructor
 public class TransactionDto {
     public UUID id;
+    public String eventId;
     public String customerId;
     public String paymentIntentId;
     public Long amount;
     public Boolean isSuccess;
+    public Instant createdOn;
 }
@@ -0,0 +1,22 @@
+package org.sir.stripeintegration.core.application.interfaces.service;
+
+import org.sir.stripeintegration.core.application.dtos.product.response.ProductDto;
+import org.sir.stripeintegration.core.application.dtos.productPrice.response.ProductPriceDto;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Source of product catalog reads, selected by {@code catalog.read-source} ({@code stripe} or {@code local}).
+ * Single lookups complete empty when the product or price is unknown.
+ */
+public interface ICatalogReadService {
+    Mono<ProductDto> getProduct(String id);
+
+    Flux<ProductDto> getAllProducts(
+            Boolean active, Boolean shippable, Long limit, String startingAfter, String endingBefore);
+
+    Mono<ProductPriceDto> getPrice(String id);
+
+    Flux<ProductPriceDto> getProductAllPrices(
+            String productId, Boolean active, String type, Long limit, String startingAfter, String endingBefore);
+}
@@ -0,0 +1,36 @@
+package org.sir.stripeintegration.core.application.interfaces.service;
+
+import org.sir.stripeintegration.core.application.dtos.product.response.ProductDto;
+import org.sir.stripeintegration.core.application.dtos.productPrice.response.ProductPriceDto;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * Writes stripe catalog state into the local product and price tables.
+ */
+public interface ICatalogSyncService {
+    /**
+     * Stores a product just read from stripe.
+     */
+    Mono<Void> upsertProduct(ProductDto productDto);
+
+    /**
+     * @param stripeUpdatedAt time of the stripe state, stored state that is newer is kept
+     */
+    Mono<Void> upsertProduct(ProductDto productDto, Instant stripeUpdatedAt);
+
+    Mono<Void> deleteProduct(String id);
+
+    /**
+     * Stores a price just read from stripe.
+     */
+    Mono<Void> upsertPrice(ProductPriceDto productPriceDto);
+
+    /**
+     * @param stripeUpdatedAt time of the stripe state, stored state that is newer is kept
+     */
+    Mono<Void> upsertPrice(ProductPriceDto productPriceDto, Instant stripeUpdatedAt);
+
+    Mono<Void> deletePrice(String id);
+}
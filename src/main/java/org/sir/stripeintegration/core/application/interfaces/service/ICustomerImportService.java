@@ -0,0 +1,12 @@
+package org.sir.stripeintegration.core.application.interfaces.service;
+
+import org.sir.stripeintegration.core.application.dtos.customer.response.CustomerImportResultDto;
+import org.sir.stripeintegration.core.shared.constant.ImportFormat;
+import reactor.core.publisher.Flux;
+
+public interface ICustomerImportService {
+    /**
+     * @param lines body lines without their line breaks
+     */
+    Flux<CustomerImportResultDto> importCustomers(ImportFormat format, String importId, Flux<String> lines);
+}
@@ -6,10 +6,29 @@ import org.sir.stripeintegration.core.application.dtos.customer.response.Custome
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+
 public interface ICustomerService {
     Mono<CustomerDto> getCustomer(String id);
 
-    Flux<CustomerDto> getAllCustomer(Long limit, String startingAfter, String endingBefore);
+    /**
+     * Changes whenever the stored row changes, used as the etag of the single item read.
+     *
+     * @return empty when the row is unknown
+     */
+    Mono<Instant> getCustomerLastModifiedOn(String id);
+
+    /**
+     * Lists the local customers newest first with stripe list paging, stripe is not called.
+     */
+    Flux<CustomerDto> getAllCustomer(String email, String name, Long limit, String startingAfter, String endingBefore);
+
+    /**
+     * Copies every stripe customer into the local table.
+     *
+     * @return the number of inserted or changed customers
+     */
+    Mono<Long> reconcileCustomers();
 
     Mono<CustomerDto> addCustomer(CustomerCreateRequestDto requestDto);
 
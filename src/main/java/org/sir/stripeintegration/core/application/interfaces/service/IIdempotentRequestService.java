@@ -0,0 +1,23 @@
+package org.sir.stripeintegration.core.application.interfaces.service;
+
+import org.sir.stripeintegration.core.application.dtos.idempotency.response.IdempotentResponseDto;
+import reactor.core.publisher.Mono;
+
+public interface IIdempotentRequestService {
+    /**
+     * Claims the key for the caller. A repeat of a finished request gets its stored response back, a repeat of one
+     * in flight waits for it.
+     *
+     * @param requestHash hash of the method, path and body, a key is only valid for one request
+     * @return empty when the claim succeeded and the request has to be handled, then {@link #complete} or
+     * {@link #release} must follow
+     */
+    Mono<IdempotentResponseDto> begin(String principal, String idempotencyKey, String requestHash);
+
+    Mono<Void> complete(String principal, String idempotencyKey, IdempotentResponseDto response);
+
+    /**
+     * Drops the claim of a request that failed, its repeats are handled again.
+     */
+    Mono<Void> release(String principal, String idempotencyKey);
+}
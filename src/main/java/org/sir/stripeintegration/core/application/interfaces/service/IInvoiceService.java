@@ -0,0 +1,20 @@
+package org.sir.stripeintegration.core.application.interfaces.service;
+
+import org.sir.stripeintegration.core.application.dtos.invoice.response.InvoiceDto;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Invoice history from the local mirror, which the invoice webhooks keep current. Stripe is not called.
+ */
+public interface IInvoiceService {
+    Mono<InvoiceDto> getInvoice(String id);
+
+    Flux<InvoiceDto> getCustomerAllInvoice(
+            String customerId, String status, Long limit, String startingAfter, String endingBefore);
+
+    /**
+     * Stores stripe invoice state and its lines locally, stale or unchanged state is skipped.
+     */
+    Mono<Void> syncInvoice(InvoiceDto invoiceDto);
+}
@@ -6,9 +6,18 @@ import org.sir.stripeintegration.core.application.dtos.productPrice.response.Pro
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+
 public interface IProductPriceService {
     Mono<ProductPriceDto> getProductPrice(String id);
 
+    /**
+     * Changes whenever the stored row changes, used as the etag of the single item read.
+     *
+     * @return empty when the row is unknown
+     */
+    Mono<Instant> getProductPriceLastModifiedOn(String id);
+
     Flux<ProductPriceDto> getProductAllPrices(
             String productId, Boolean active, String type, Long limit, String startingAfter, String endingBefore);
 
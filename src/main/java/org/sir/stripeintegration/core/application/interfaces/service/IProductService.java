@@ -6,9 +6,18 @@ import org.sir.stripeintegration.core.application.dtos.product.response.ProductD
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+
 public interface IProductService {
     Mono<ProductDto> getProduct(String id);
 
+    /**
+     * Changes whenever the stored row changes, used as the etag of the single item read.
+     *
+     * @return empty when the row is unknown
+     */
+    Mono<Instant> getProductLastModifiedOn(String id);
+
     Flux<ProductDto> getAllProduct(
             Boolean active, Boolean shippable, Long limit, String startingAfter, String endingBefore);
 
@@ -0,0 +1,116 @@
+package org.sir.stripeintegration.core.application.interfaces.service;
+
+import org.sir.stripeintegration.core.application.dtos.customer.request.CustomerCreateRequestDto;
+import org.sir.stripeintegration.core.application.dtos.customer.request.CustomerUpdateRequestDto;
+import org.sir.stripeintegration.core.application.dtos.customer.response.CustomerDto;
+import org.sir.stripeintegration.core.application.dtos.invoice.response.InvoiceLineDto;
+import org.sir.stripeintegration.core.application.dtos.paymentIntent.request.CreatePaymentIntentRequestDto;
+import org.sir.stripeintegration.core.application.dtos.paymentIntent.response.PaymentIntentDto;
+import org.sir.stripeintegration.core.application.dtos.paymentMethod.request.CreatePaymentMethodRequestDto;
+import org.sir.stripeintegration.core.application.dtos.paymentMethod.request.UpdatePaymentMethodRequestDto;
+import org.sir.stripeintegration.core.application.dtos.paymentMethod.response.PaymentMethodDto;
+import org.sir.stripeintegration.core.application.dtos.product.request.CreateProductRequestDto;
+import org.sir.stripeintegration.core.application.dtos.product.request.UpdateProductRequestDto;
+import org.sir.stripeintegration.core.application.dtos.product.response.ProductDto;
+import org.sir.stripeintegration.core.application.dtos.productPrice.request.CreateProductPriceRequestDto;
+import org.sir.stripeintegration.core.application.dtos.productPrice.request.UpdateProductPriceRequestDto;
+import org.sir.stripeintegration.core.application.dtos.productPrice.response.ProductPriceDto;
+import org.sir.stripeintegration.core.application.dtos.subscription.request.CreateSubscriptionDto;
+import org.sir.stripeintegration.core.application.dtos.subscription.request.UpdateSubscriptionDto;
+import org.sir.stripeintegration.core.application.dtos.subscription.response.SubscriptionDto;
+import org.sir.stripeintegration.core.domain.CustomerEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive access to the Stripe api. Implementations must never block the calling thread.
+ * Creating customers, payment intents, prices and subscriptions is idempotent: a repeat with the same parameters
+ * within 24 hours returns the object the first call created.
+ */
+public interface IStripeGateway {
+    //region Customer
+    Mono<CustomerDto> createCustomer(CustomerCreateRequestDto requestDto);
+
+    /**
+     * Stripe answers a repeated call with the same idempotency key, within 24 hours, with the customer
+     * created by the first one.
+     */
+    Mono<CustomerDto> createCustomer(CustomerCreateRequestDto requestDto, String idempotencyKey);
+
+    Flux<CustomerDto> getAllCustomers(Long limit, String startingAfter, String endingBefore);
+
+    Mono<CustomerDto> updateCustomer(CustomerUpdateRequestDto requestDto);
+
+    Mono<Void> deleteCustomer(String customerId);
+
+    /**
+     * @return empty when the customer has no default payment method
+     */
+    Mono<String> getCustomerDefaultPaymentMethodId(String customerId);
+    //endregion
+
+    //region PaymentIntent
+    Mono<PaymentIntentDto> createPaymentIntent(CreatePaymentIntentRequestDto requestDto, String paymentMethodId);
+
+    Mono<PaymentIntentDto> getCustomerPaymentIntentById(String id, String customerId);
+
+    Flux<PaymentIntentDto> getCustomerAllPaymentIntents(
+            String customerId, Long limit, String startingAfter, String endingBefore);
+    //endregion
+
+    //region PaymentMethod
+    Mono<PaymentMethodDto> createPaymentMethod(CustomerEntity customer, CreatePaymentMethodRequestDto requestDto);
+
+    Mono<PaymentMethodDto> updatePaymentMethod(UpdatePaymentMethodRequestDto requestDto);
+
+    Mono<Void> deletePaymentMethod(String id);
+
+    Flux<PaymentMethodDto> getCustomerAllPaymentMethods(
+            String customerId, Long limit, String startingAfter, String endingBefore);
+
+    Mono<PaymentMethodDto> getCustomerPaymentMethodById(String id, String customerId);
+
+    Mono<PaymentMethodDto> setCustomerDefaultPaymentMethod(String customerId, String paymentMethodId);
+    //endregion
+
+    //region Product
+    Mono<ProductDto> createProduct(CreateProductRequestDto requestDto);
+
+    Mono<ProductDto> updateProduct(UpdateProductRequestDto requestDto);
+
+    Mono<ProductDto> getProductById(String id);
+
+    Flux<ProductDto> getAllProducts(
+            Boolean active, Boolean shippable, Long limit, String startingAfter, String endingBefore);
+
+    Mono<Void> deleteProductById(String id);
+    //endregion
+
+    //region ProductPrice
+    Mono<ProductPriceDto> createPrice(CreateProductPriceRequestDto requestDto);
+
+    Mono<ProductPriceDto> getPriceById(String id);
+
+    Flux<ProductPriceDto> getProductAllPrices(
+            String productId, Boolean active, String type, Long limit, String startingAfter, String endingBefore);
+
+    Mono<ProductPriceDto> updatePrice(UpdateProductPriceRequestDto requestDto);
+    //endregion
+
+    //region Subscription
+    Mono<SubscriptionDto> createSubscription(CreateSubscriptionDto requestDto);
+
+    Mono<SubscriptionDto> getSubscription(String id);
+
+    Flux<SubscriptionDto> getCustomerAllSubscriptions(
+            String customerId, String status, Long limit, String startingAfter, String endingBefore);
+
+    Mono<SubscriptionDto> updateSubscription(UpdateSubscriptionDto requestDto);
+
+    Mono<SubscriptionDto> cancelSubscription(String id);
+    //endregion
+
+    //region Invoice
+    Flux<InvoiceLineDto> getInvoiceLines(String invoiceId, Long limit, String startingAfter);
+    //endregion
+}
@@ -6,6 +6,12 @@ import org.sir.stripeintegration.core.application.dtos.subscription.response.Sub
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+
+/**
+ * Reads are served from the local subscription table, which the {@code customer.subscription.*} webhooks keep
+ * current. Stripe is only called by the write operations and by {@link #refreshSubscription(String)}.
+ */
 public interface ISubscriptionService {
     Mono<SubscriptionDto> getSubscription(String id);
 
@@ -17,4 +23,19 @@ public interface ISubscriptionService {
     Mono<SubscriptionDto> updateSubscription(UpdateSubscriptionDto requestDto);
 
     Mono<SubscriptionDto> cancelSubscription(String id);
+
+    /**
+     * Loads the subscription from stripe and stores it locally.
+     */
+    Mono<SubscriptionDto> refreshSubscription(String id);
+
+    /**
+     * Stores stripe subscription state just read from stripe locally, stale or unchanged state is skipped.
+     */
+    Mono<Void> syncSubscription(SubscriptionDto subscriptionDto);
+
+    /**
+     * @param stripeUpdatedAt time of the stripe state, stored state that is newer is kept
+     */
+    Mono<Void> syncSubscription(SubscriptionDto subscriptionDto, Instant stripeUpdatedAt);
 }
@@ -0,0 +1,13 @@
+package org.sir.stripeintegration.core.application.interfaces.service;
+
+import org.sir.stripeintegration.core.shared.constant.ExportFormat;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+
+public interface ITransactionExportService {
+    /**
+     * Streams the matching transactions as chunks of ndjson or csv text, in {@code (createdOn, id)} order.
+     */
+    Flux<String> exportTransactions(ExportFormat format, String customerId, Instant from, Instant to);
+}
@@ -1,7 +1,7 @@
 package org.sir.stripeintegration.core.application.interfaces.service;
 
 import org.sir.stripeintegration.core.application.dtos.transaction.response.TransactionDto;
-import reactor.core.publisher.Flux;
+import org.sir.stripeintegration.core.shared.dtoModels.CursorPageDto;
 import reactor.core.publisher.Mono;
 
 import java.util.UUID;
@@ -9,5 +9,5 @@ import java.util.UUID;
 public interface ITransactionService {
     Mono<TransactionDto> getTransaction(UUID id);
 
-    Flux<TransactionDto> getCustomerAllTransaction(String customerId, Integer pageSize, Integer pageIndex);
+    Mono<CursorPageDto<TransactionDto>> getCustomerAllTransaction(String customerId, Integer pageSize, String pageToken);
 }
@@ -3,10 +3,22 @@ package org.sir.stripeintegration.core.application.interfaces.service;
 import com.stripe.model.StripeObject;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+
+/**
+ * Handles one stripe event. The customer, catalog and subscription handlers get the event creation time, stripe
+ * does not deliver events in order.
+ */
 public interface IWebhookHandler {
-    Mono<Void> handlePaymentIntentEvent(StripeObject stripeObject, String eventName);
+    Mono<Void> handlePaymentIntentEvent(String eventId, StripeObject stripeObject, String eventName);
+
+    Mono<Void> handleCustomerEvent(String eventId, Instant eventCreated, StripeObject stripeObject, String eventName);
+
+    Mono<Void> handleInvoiceEvent(String eventId, StripeObject stripeObject, String eventName);
+
+    Mono<Void> handleSubscriptionEvent(String eventId, Instant eventCreated, StripeObject stripeObject, String eventName);
 
-    Mono<Void> handleInvoiceEvent(StripeObject stripeObject, String eventName);
+    Mono<Void> handleProductEvent(String eventId, Instant eventCreated, StripeObject stripeObject, String eventName);
 
-    Mono<Void> handleSubscriptionEvent(StripeObject stripeObject, String eventName);
+    Mono<Void> handlePriceEvent(String eventId, Instant eventCreated, StripeObject stripeObject, String eventName);
 }
@@ -0,0 +1,10 @@
+package org.sir.stripeintegration.core.application.interfaces.service;
+
+import reactor.core.publisher.Mono;
+
+public interface IWebhookInboxService {
+    /**
+     * Stores a verified webhook event for asynchronous processing. Redelivered events are ignored.
+     */
+    Mono<Void> enqueue(String eventId, String eventType, String payload);
+}
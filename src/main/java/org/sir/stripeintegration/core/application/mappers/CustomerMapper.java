@@ -0,0 +1,15 @@
+package org.sir.stripeintegration.core.application.mappers;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.sir.stripeintegration.core.application.dtos.customer.response.CustomerDto;
+import org.sir.stripeintegration.core.domain.CustomerEntity;
+
+@Mapper(config = EntityMapperConfig.class)
+public interface CustomerMapper {
+    CustomerDto toDto(CustomerEntity customerEntity);
+
+    @IgnoreEntityState
+    @Mapping(target = "stripeUpdatedAt", ignore = true)
+    CustomerEntity toEntity(CustomerDto customerDto);
+}
@@ -0,0 +1,12 @@
+package org.sir.stripeintegration.core.application.mappers;
+
+import org.mapstruct.MapperConfig;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Shared setup of the generated entity/dto mappers: spring singletons, and a target property that is
+ * neither mapped nor explicitly ignored fails the build.
+ */
+@MapperConfig(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface EntityMapperConfig {
+}
@@ -0,0 +1,20 @@
+package org.sir.stripeintegration.core.application.mappers;
+
+import org.mapstruct.Mapping;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Dto to entity mappings leave the audit fields to {@code EntityAuditFields} and the new entry flag to the
+ * caller.
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.METHOD)
+@Mapping(target = "createdOn", ignore = true)
+@Mapping(target = "lastModifiedOn", ignore = true)
+@Mapping(target = "newEntry", ignore = true)
+public @interface IgnoreEntityState {
+}
@@ -0,0 +1,27 @@
+package org.sir.stripeintegration.core.application.mappers;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.sir.stripeintegration.core.application.dtos.invoice.response.InvoiceDto;
+import org.sir.stripeintegration.core.application.dtos.invoice.response.InvoiceLineDto;
+import org.sir.stripeintegration.core.domain.InvoiceEntity;
+import org.sir.stripeintegration.core.domain.InvoiceLineEntity;
+
+@Mapper(config = EntityMapperConfig.class)
+public interface InvoiceMapper {
+    @IgnoreEntityState
+    InvoiceEntity toEntity(InvoiceDto invoiceDto);
+
+    @Mapping(target = "invoiceId", ignore = true)
+    @Mapping(target = "position", ignore = true)
+    InvoiceLineEntity toEntity(InvoiceLineDto invoiceLineDto);
+
+    /**
+     * Lines are stored in their own table, the caller sets them.
+     */
+    @Mapping(target = "lines", ignore = true)
+    @Mapping(target = "created", expression = "java(invoiceEntity.createdOn == null ? null : invoiceEntity.createdOn.getEpochSecond())")
+    InvoiceDto toDto(InvoiceEntity invoiceEntity);
+
+    InvoiceLineDto toDto(InvoiceLineEntity invoiceLineEntity);
+}
@@ -0,0 +1,11 @@
+package org.sir.stripeintegration.core.application.mappers;
+
+import org.mapstruct.Mapper;
+import org.sir.stripeintegration.core.application.dtos.paymentIntent.response.PaymentIntentDto;
+import org.sir.stripeintegration.core.domain.PaymentIntentEntity;
+
+@Mapper(config = EntityMapperConfig.class)
+public interface PaymentIntentMapper {
+    @IgnoreEntityState
+    PaymentIntentEntity toEntity(PaymentIntentDto paymentIntentDto);
+}
@@ -0,0 +1,11 @@
+package org.sir.stripeintegration.core.application.mappers;
+
+import org.mapstruct.Mapper;
+import org.sir.stripeintegration.core.application.dtos.paymentMethod.response.PaymentMethodDto;
+import org.sir.stripeintegration.core.domain.PaymentMethodEntity;
+
+@Mapper(config = EntityMapperConfig.class)
+public interface PaymentMethodMapper {
+    @IgnoreEntityState
+    PaymentMethodEntity toEntity(PaymentMethodDto paymentMethodDto);
+}
@@ -0,0 +1,30 @@
+package org.sir.stripeintegration.core.application.mappers;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.sir.stripeintegration.core.application.dtos.product.request.UpdateProductRequestDto;
+import org.sir.stripeintegration.core.application.dtos.product.response.ProductDto;
+import org.sir.stripeintegration.core.domain.ProductEntity;
+
+@Mapper(config = EntityMapperConfig.class)
+public interface ProductMapper {
+    /**
+     * The caller sets the time of the stripe state the dto holds.
+     */
+    @IgnoreEntityState
+    @Mapping(target = "stripeUpdatedAt", ignore = true)
+    ProductEntity toEntity(ProductDto productDto);
+
+    @Mapping(target = "images", defaultExpression = "java(new java.util.ArrayList<>())")
+    @Mapping(target = "created", expression = "java(productEntity.createdOn == null ? null : productEntity.createdOn.getEpochSecond())")
+    ProductDto toDto(ProductEntity productEntity);
+
+    /**
+     * The images are replaced rather than merged into the stored list.
+     */
+    @IgnoreEntityState
+    @Mapping(target = "stripeUpdatedAt", ignore = true)
+    @Mapping(target = "images", expression = "java(requestDto.images == null ? null : new java.util.ArrayList<>(requestDto.images))")
+    void updateEntity(UpdateProductRequestDto requestDto, @MappingTarget ProductEntity productEntity);
+}
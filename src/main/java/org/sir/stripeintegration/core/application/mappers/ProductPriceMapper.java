@@ -0,0 +1,38 @@
+package org.sir.stripeintegration.core.application.mappers;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.sir.stripeintegration.core.application.dtos.productPrice.response.ProductPriceDto;
+import org.sir.stripeintegration.core.domain.ProductPriceEntity;
+import org.sir.stripeintegration.core.shared.dtoModels.RecurringDto;
+
+@Mapper(config = EntityMapperConfig.class)
+public interface ProductPriceMapper {
+    /**
+     * The caller sets the time of the stripe state the dto holds.
+     */
+    @IgnoreEntityState
+    @Mapping(target = "stripeUpdatedAt", ignore = true)
+    @Mapping(target = "recurringInterval", source = "recurring.interval")
+    @Mapping(target = "recurringIntervalCount", source = "recurring.intervalCount")
+    @Mapping(target = "recurringUsageType", source = "recurring.usageType")
+    ProductPriceEntity toEntity(ProductPriceDto productPriceDto);
+
+    @Mapping(target = "recurring", expression = "java(getRecurring(productPriceEntity))")
+    @Mapping(target = "created", expression = "java(productPriceEntity.createdOn == null ? null : productPriceEntity.createdOn.getEpochSecond())")
+    ProductPriceDto toDto(ProductPriceEntity productPriceEntity);
+
+    /**
+     * One time prices have no recurring part.
+     */
+    default RecurringDto getRecurring(ProductPriceEntity productPriceEntity) {
+        if (productPriceEntity.recurringInterval == null) {
+            return null;
+        }
+        return RecurringDto.builder()
+                .interval(productPriceEntity.recurringInterval)
+                .intervalCount(productPriceEntity.recurringIntervalCount)
+                .usageType(productPriceEntity.recurringUsageType)
+                .build();
+    }
+}
@@ -0,0 +1,44 @@
+package org.sir.stripeintegration.core.application.mappers;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.sir.stripeintegration.core.application.dtos.subscription.response.SubscriptionDto;
+import org.sir.stripeintegration.core.domain.SubscriptionEntity;
+import org.sir.stripeintegration.core.shared.dtoModels.SubscriptionItemDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Mapper(config = EntityMapperConfig.class)
+public interface SubscriptionMapper {
+    @IgnoreEntityState
+    @Mapping(target = "stripeUpdatedAt", ignore = true)
+    @Mapping(target = "itemPriceIds", expression = "java(getItemPriceIds(subscriptionDto.items))")
+    @Mapping(target = "itemQuantities", expression = "java(getItemQuantities(subscriptionDto.items))")
+    SubscriptionEntity toEntity(SubscriptionDto subscriptionDto);
+
+    @Mapping(target = "items", expression = "java(getItems(subscriptionEntity))")
+    @Mapping(target = "created", expression = "java(subscriptionEntity.createdOn == null ? null : subscriptionEntity.createdOn.getEpochSecond())")
+    SubscriptionDto toDto(SubscriptionEntity subscriptionEntity);
+
+    default List<String> getItemPriceIds(List<SubscriptionItemDto> items) {
+        return items == null ? null : items.stream().map(SubscriptionItemDto::getPriceId).toList();
+    }
+
+    default List<Long> getItemQuantities(List<SubscriptionItemDto> items) {
+        return items == null ? null : items.stream().map(SubscriptionItemDto::getQuantity).toList();
+    }
+
+    default List<SubscriptionItemDto> getItems(SubscriptionEntity subscriptionEntity) {
+        List<SubscriptionItemDto> items = new ArrayList<>();
+        if (subscriptionEntity.itemPriceIds == null) {
+            return items;
+        }
+
+        for (int i = 0; i < subscriptionEntity.itemPriceIds.size(); i++) {
+            Long quantity = subscriptionEntity.itemQuantities == null ? null : subscriptionEntity.itemQuantities.get(i);
+            items.add(new SubscriptionItemDto(subscriptionEntity.itemPriceIds.get(i), quantity));
+        }
+        return items;
+    }
+}
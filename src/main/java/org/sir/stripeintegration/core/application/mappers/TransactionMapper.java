@@ -0,0 +1,10 @@
+package org.sir.stripeintegration.core.application.mappers;
+
+import org.mapstruct.Mapper;
+import org.sir.stripeintegration.core.application.dtos.transaction.response.TransactionDto;
+import org.sir.stripeintegration.core.domain.TransactionEntity;
+
+@Mapper(config = EntityMapperConfig.class)
+public interface TransactionMapper {
+    TransactionDto toDto(TransactionEntity transactionEntity);
+}
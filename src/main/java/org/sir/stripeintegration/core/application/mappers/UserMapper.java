@@ -0,0 +1,10 @@
+package org.sir.stripeintegration.core.application.mappers;
+
+import org.mapstruct.Mapper;
+import org.sir.stripeintegration.core.application.dtos.user.UserDto;
+import org.sir.stripeintegration.core.domain.UserEntity;
+
+@Mapper(config = EntityMapperConfig.class)
+public interface UserMapper {
+    UserDto toDto(UserEntity userEntity);
+}
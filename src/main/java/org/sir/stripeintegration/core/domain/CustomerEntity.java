@@ -11,6 +11,8 @@ import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.Transient;
 import org.springframework.data.domain.Persistable;
 
+import java.time.Instant;
+
 @EqualsAndHashCode(callSuper = true)
 @Data
 @EntityScan
@@ -28,6 +30,15 @@ public class CustomerEntity extends EntityAuditFields implements Persistable<Str
     @Nullable
     public String phone;
 
+    @Nullable
+    public String defaultPaymentMethodId;
+
+    /**
+     * Time of the stripe state this row holds, older webhook deliveries do not overwrite it.
+     */
+    @Nullable
+    public Instant stripeUpdatedAt;
+
     @Transient
     private boolean isNewEntry;
 
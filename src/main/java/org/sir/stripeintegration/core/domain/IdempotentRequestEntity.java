@@ -0,0 +1,42 @@
+package org.sir.stripeintegration.core.domain;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.sir.stripeintegration.core.shared.EntityAuditFields;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * Stored response of a POST request sent with an {@code Idempotency-Key} header, the id is the hash of the
+ * caller and the key. The status code is null while the first request is still in flight.
+ */
+@EqualsAndHashCode(callSuper = true)
+@Data
+@EntityScan
+public class IdempotentRequestEntity extends EntityAuditFields implements Persistable<String> {
+    @Id
+    public String id;
+
+    @NotNull
+    public String requestHash;
+
+    public Integer statusCode;
+    public String contentType;
+    public byte[] responseBody;
+
+    @NotNull
+    public Instant expiresOn;
+
+    @Transient
+    private boolean isNewEntry;
+
+    @Override
+    public boolean isNew() {
+        return isNewEntry;
+    }
+}
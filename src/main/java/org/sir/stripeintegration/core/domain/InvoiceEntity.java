@@ -0,0 +1,63 @@
+package org.sir.stripeintegration.core.domain;
+
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.sir.stripeintegration.core.shared.EntityAuditFields;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.domain.Persistable;
+
+@EqualsAndHashCode(callSuper = true)
+@Data
+@EntityScan
+public class InvoiceEntity extends EntityAuditFields implements Persistable<String> {
+    @Id
+    public String id;
+
+    @NotNull
+    public String customerId;
+
+    @Nullable
+    public String subscriptionId;
+
+    @Nullable
+    public String number;
+
+    @Nullable
+    public String status;
+
+    @Nullable
+    public String currency;
+
+    @Nullable
+    public Long amountDue;
+
+    @Nullable
+    public Long amountPaid;
+
+    @Nullable
+    public Long amountRemaining;
+
+    @Nullable
+    public Long total;
+
+    @Nullable
+    public Long periodStart;
+
+    @Nullable
+    public Long periodEnd;
+
+    @Nullable
+    public String hostedInvoiceUrl;
+
+    @Transient
+    private boolean isNewEntry;
+
+    @Override
+    public boolean isNew() {
+        return isNewEntry;
+    }
+}
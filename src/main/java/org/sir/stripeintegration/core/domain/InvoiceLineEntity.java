@@ -0,0 +1,44 @@
+package org.sir.stripeintegration.core.domain;
+
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.data.annotation.Id;
+
+@Data
+@EntityScan
+public class InvoiceLineEntity {
+    @Id
+    public String id;
+
+    @NotNull
+    public String invoiceId;
+
+    /**
+     * Index of the line in the stripe invoice, lines are read back in this order.
+     */
+    @NotNull
+    public Integer position;
+
+    @Nullable
+    public String priceId;
+
+    @Nullable
+    public String description;
+
+    @Nullable
+    public Long amount;
+
+    @Nullable
+    public String currency;
+
+    @Nullable
+    public Long quantity;
+
+    @Nullable
+    public Long periodStart;
+
+    @Nullable
+    public Long periodEnd;
+}
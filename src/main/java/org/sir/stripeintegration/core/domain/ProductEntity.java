@@ -12,6 +12,9 @@ import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.Transient;
 import org.springframework.data.domain.Persistable;
 
+import java.time.Instant;
+import java.util.List;
+
 @EqualsAndHashCode(callSuper = true)
 @Data
 @EntityScan
@@ -36,6 +39,15 @@ public class ProductEntity extends EntityAuditFields implements Persistable<Stri
     @Nullable
     public Boolean shippable;
 
+    @Nullable
+    public List<String> images;
+
+    /**
+     * Time of the stripe state this row holds, older webhook deliveries do not overwrite it.
+     */
+    @Nullable
+    public Instant stripeUpdatedAt;
+
     @Transient
     private boolean isNewEntry;
 
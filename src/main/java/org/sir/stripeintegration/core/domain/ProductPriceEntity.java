@@ -14,6 +14,8 @@ import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.Transient;
 import org.springframework.data.domain.Persistable;
 
+import java.time.Instant;
+
 @EqualsAndHashCode(callSuper = true)
 @Data
 @EntityScan
@@ -43,6 +45,21 @@ public class ProductPriceEntity extends EntityAuditFields implements Persistable
     @NotNull
     public Long unitAmount;
 
+    @Nullable
+    public String recurringInterval;
+
+    @Nullable
+    public Long recurringIntervalCount;
+
+    @Nullable
+    public String recurringUsageType;
+
+    /**
+     * Time of the stripe state this row holds, older webhook deliveries do not overwrite it.
+     */
+    @Nullable
+    public Instant stripeUpdatedAt;
+
     @Transient
     private boolean isNewEntry;
 
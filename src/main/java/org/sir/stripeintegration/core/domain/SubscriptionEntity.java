@@ -10,6 +10,9 @@ import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.Transient;
 import org.springframework.data.domain.Persistable;
 
+import java.time.Instant;
+import java.util.List;
+
 @EqualsAndHashCode(callSuper = true)
 @Data
 @EntityScan
@@ -38,6 +41,27 @@ public class SubscriptionEntity extends EntityAuditFields implements Persistable
     @Nullable
     public Long currentPeriodStart;
 
+    @Nullable
+    public Boolean cancelAtPeriodEnd;
+
+    @Nullable
+    public String defaultPaymentMethodId;
+
+    /**
+     * Price ids of the subscription items, {@link #itemQuantities} holds the quantity at the same index.
+     */
+    @Nullable
+    public List<String> itemPriceIds;
+
+    @Nullable
+    public List<Long> itemQuantities;
+
+    /**
+     * Time of the stripe state this row holds, older webhook deliveries do not overwrite it.
+     */
+    @Nullable
+    public Instant stripeUpdatedAt;
+
     @Transient
     private boolean isNewEntry;
 
@@ -20,6 +20,8 @@ public class TransactionEntity extends EntityAuditFields implements Persistable<
     @Id
     public UUID id;
 
+    public String eventId;
+
     @NotNull
     public String customerId;
 
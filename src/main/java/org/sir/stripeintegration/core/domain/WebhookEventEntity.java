@@ -0,0 +1,47 @@
+package org.sir.stripeintegration.core.domain;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.sir.stripeintegration.core.shared.EntityAuditFields;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * Stripe webhook event stored in the inbox, the id is the stripe event id.
+ */
+@EqualsAndHashCode(callSuper = true)
+@Data
+@EntityScan
+public class WebhookEventEntity extends EntityAuditFields implements Persistable<String> {
+    @Id
+    public String id;
+
+    @NotNull
+    public String type;
+
+    @NotNull
+    public String payload;
+
+    @NotNull
+    public String status;
+
+    @NotNull
+    public Integer attempts;
+
+    public Instant nextAttemptAt;
+    public Instant lockedUntil;
+    public String lastError;
+
+    @Transient
+    private boolean isNewEntry;
+
+    @Override
+    public boolean isNew() {
+        return isNewEntry;
+    }
+}
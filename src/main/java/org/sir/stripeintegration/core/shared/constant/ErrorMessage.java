@@ -10,7 +10,10 @@ public enum ErrorMessage {
     PRODUCT_NOT_FOUND("Product not found"),
     PRODUCT_PRICE_NOT_FOUND("Product price not found"),
     TRANSACTION_NOT_FOUND("Transaction not found"),
-    SUBSCRIPTION_NOT_FOUND("Subscription price not found");
+    SUBSCRIPTION_NOT_FOUND("Subscription price not found"),
+    INVOICE_NOT_FOUND("Invoice not found"),
+    IDEMPOTENCY_KEY_IN_USE("A request with this Idempotency-Key is in progress or failed, retry it later"),
+    IDEMPOTENCY_KEY_REUSED("This Idempotency-Key was used for a different request");
 
     private final String message;
 
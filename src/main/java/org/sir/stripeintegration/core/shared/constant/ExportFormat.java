@@ -0,0 +1,27 @@
+package org.sir.stripeintegration.core.shared.constant;
+
+import lombok.Getter;
+import org.sir.stripeintegration.core.shared.exceptions.CustomException;
+
+@Getter
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String mediaType;
+    private final String fileExtension;
+
+    ExportFormat(String mediaType, String fileExtension) {
+        this.mediaType = mediaType;
+        this.fileExtension = fileExtension;
+    }
+
+    public static ExportFormat fromValue(String value) {
+        for (ExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new CustomException("Unsupported export format: " + value);
+    }
+}
@@ -0,0 +1,17 @@
+package org.sir.stripeintegration.core.shared.constant;
+
+import org.sir.stripeintegration.core.shared.exceptions.CustomException;
+
+public enum ImportFormat {
+    NDJSON,
+    CSV;
+
+    public static ImportFormat fromValue(String value) {
+        for (ImportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new CustomException("Unsupported import format: " + value);
+    }
+}
@@ -0,0 +1,66 @@
+package org.sir.stripeintegration.core.shared.constant;
+
+import lombok.Getter;
+
+@Getter
+public enum StripeOperation {
+    CUSTOMER_CREATE("customer.create", "Error when try to create customer on stripe"),
+    CUSTOMER_LIST("customer.list", "Error when try to get customer list on stripe"),
+    CUSTOMER_RETRIEVE("customer.retrieve", "Error when try to retrieve customer on stripe"),
+    CUSTOMER_UPDATE("customer.update", "Error when try to update customer on stripe"),
+    CUSTOMER_DELETE("customer.delete", "Error when customer try to delete from stripe"),
+
+    PAYMENT_INTENT_CREATE("payment_intent.create", "Error when try to create payment intent on stripe"),
+    PAYMENT_INTENT_RETRIEVE("payment_intent.retrieve", "Error when try to retrieve customer payment method on stripe"),
+    PAYMENT_INTENT_LIST("payment_intent.list", "Error when try to retrieve customer payment intents on stripe"),
+
+    PAYMENT_METHOD_CREATE("payment_method.create", "Error when try to create customer payment method on stripe"),
+    PAYMENT_METHOD_UPDATE("payment_method.update", "Error when try to update customer payment method on stripe"),
+    PAYMENT_METHOD_DETACH("payment_method.detach", "Error when try to detach customer payment method on stripe"),
+    PAYMENT_METHOD_LIST("payment_method.list", "Error when try to retrieve customer payment methods on stripe"),
+    PAYMENT_METHOD_RETRIEVE("payment_method.retrieve", "Error when try to retrieve customer payment method on stripe"),
+    PAYMENT_METHOD_SET_DEFAULT("payment_method.set_default",
+            "Error when try to update customer default payment method on stripe"),
+
+    PRODUCT_CREATE("product.create", "Error when try to create product on stripe"),
+    PRODUCT_UPDATE("product.update", "Error when try to update product on stripe"),
+    PRODUCT_RETRIEVE("product.retrieve", "Error when try to get product on stripe"),
+    PRODUCT_LIST("product.list", "Error when try to get products on stripe"),
+    PRODUCT_DELETE("product.delete", "Error when product try to delete from stripe"),
+
+    PRICE_CREATE("price.create", "Error when try to create price on stripe"),
+    PRICE_RETRIEVE("price.retrieve", "Error when try to get price on stripe"),
+    PRICE_LIST("price.list", "Error when try to get prices on stripe"),
+    PRICE_UPDATE("price.update", "Error when try to update price on stripe"),
+
+    SUBSCRIPTION_CREATE("subscription.create", "Error when try to create subscription from stripe"),
+    SUBSCRIPTION_RETRIEVE("subscription.retrieve", "Error when try to get subscription from stripe"),
+    SUBSCRIPTION_LIST("subscription.list", "Error when try to get subscriptions from stripe"),
+    SUBSCRIPTION_UPDATE("subscription.update", "Error when try to update subscription from stripe"),
+    SUBSCRIPTION_CANCEL("subscription.cancel", "Error when try to cancel subscription from stripe"),
+
+    INVOICE_LINE_LIST("invoice_line.list", "Error when try to get invoice lines from stripe");
+
+    private final String operationName;
+    private final String errorMessage;
+
+    StripeOperation(String operationName, String errorMessage) {
+        this.operationName = operationName;
+        this.errorMessage = errorMessage;
+    }
+
+    /**
+     * Retrieve and list calls, Stripe rate limits them separately from the calls that write.
+     */
+    public boolean isRead() {
+        return operationName.endsWith(".retrieve") || operationName.endsWith(".list");
+    }
+
+    /**
+     * Whether sending the call twice has the same effect as sending it once. Creates are not, unless they carry
+     * an idempotency key.
+     */
+    public boolean isIdempotent() {
+        return !operationName.endsWith(".create");
+    }
+}
@@ -0,0 +1,8 @@
+package org.sir.stripeintegration.core.shared.constant;
+
+public enum WebhookEventStatus {
+    PENDING,
+    PROCESSING,
+    DONE,
+    DEAD
+}
@@ -0,0 +1,23 @@
+package org.sir.stripeintegration.core.shared.dtoModels;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of a keyset paged list, pass {@code nextPageToken} back to get the next page.
+ * The token is null on the last page.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CursorPageDto<T> {
+    @Builder.Default
+    private List<T> items = new ArrayList<>();
+    private String nextPageToken;
+}
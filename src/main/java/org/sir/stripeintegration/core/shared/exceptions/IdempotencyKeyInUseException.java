@@ -0,0 +1,14 @@
+package org.sir.stripeintegration.core.shared.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Another request with the same {@code Idempotency-Key} is still in flight, or failed, the client retries later.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class IdempotencyKeyInUseException extends CustomException {
+    public IdempotencyKeyInUseException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package org.sir.stripeintegration.core.shared.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * The {@code Idempotency-Key} was already used for a request with another path or body.
+ */
+@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+public class IdempotencyKeyReusedException extends CustomException {
+    public IdempotencyKeyReusedException(String message) {
+        super(message);
+    }
+}
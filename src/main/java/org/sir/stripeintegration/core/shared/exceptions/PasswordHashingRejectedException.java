@@ -0,0 +1,10 @@
+package org.sir.stripeintegration.core.shared.exceptions;
+
+/**
+ * The password hashing pool and its queue are full, callers answer with 429.
+ */
+public class PasswordHashingRejectedException extends CustomException {
+    public PasswordHashingRejectedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
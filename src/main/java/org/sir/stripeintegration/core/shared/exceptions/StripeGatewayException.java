@@ -0,0 +1,79 @@
+package org.sir.stripeintegration.core.shared.exceptions;
+
+import com.stripe.exception.StripeException;
+import lombok.Getter;
+import org.sir.stripeintegration.core.shared.constant.StripeOperation;
+
+import java.time.Duration;
+
+/**
+ * A failed Stripe call. The message stays the operation's user facing error message, the Stripe details are
+ * kept for logs and metrics.
+ */
+@Getter
+public class StripeGatewayException extends CustomException {
+    public static final int NO_RESPONSE = 0;
+    public static final int TOO_MANY_REQUESTS = 429;
+
+    private final StripeOperation operation;
+    /**
+     * Http status of the Stripe response, {@link #NO_RESPONSE} when the call failed before one arrived.
+     */
+    private final int httpStatus;
+    private final String stripeErrorCode;
+    private final String requestId;
+    private final String stripeMessage;
+    /**
+     * {@code Retry-After} of the response, null when Stripe did not send one.
+     */
+    private final Duration retryAfter;
+    /**
+     * {@code Stripe-Should-Retry} of the response, null when Stripe did not send one.
+     */
+    private final Boolean shouldRetry;
+
+    public StripeGatewayException(StripeOperation operation, int httpStatus, String stripeErrorCode,
+                                  String requestId, String stripeMessage, Throwable cause) {
+        this(operation, httpStatus, stripeErrorCode, requestId, stripeMessage, null, null, cause);
+    }
+
+    public StripeGatewayException(StripeOperation operation, int httpStatus, String stripeErrorCode,
+                                  String requestId, String stripeMessage, Duration retryAfter,
+                                  Boolean shouldRetry, Throwable cause) {
+        super(operation.getErrorMessage(), cause);
+        this.operation = operation;
+        this.httpStatus = httpStatus;
+        this.stripeErrorCode = stripeErrorCode;
+        this.requestId = requestId;
+        this.stripeMessage = stripeMessage;
+        this.retryAfter = retryAfter;
+        this.shouldRetry = shouldRetry;
+    }
+
+    public boolean isRateLimited() {
+        return httpStatus == TOO_MANY_REQUESTS;
+    }
+
+    /**
+     * Whether the same call can succeed later. {@code Stripe-Should-Retry} wins when present, otherwise rate
+     * limits, server errors and calls without a response are transient.
+     */
+    public boolean isTransient() {
+        if (shouldRetry != null) {
+            return shouldRetry;
+        }
+        return httpStatus == NO_RESPONSE || isRateLimited() || httpStatus >= 500;
+    }
+
+    public static StripeGatewayException from(StripeOperation operation, Throwable cause) {
+        if (cause instanceof StripeGatewayException stripeGatewayException) {
+            return stripeGatewayException;
+        }
+        if (cause instanceof StripeException stripeException) {
+            Integer statusCode = stripeException.getStatusCode();
+            return new StripeGatewayException(operation, statusCode == null ? NO_RESPONSE : statusCode,
+                    stripeException.getCode(), stripeException.getRequestId(), stripeException.getMessage(), cause);
+        }
+        return new StripeGatewayException(operation, NO_RESPONSE, null, null, cause.getMessage(), cause);
+    }
+}
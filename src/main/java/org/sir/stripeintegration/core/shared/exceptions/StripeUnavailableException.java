@@ -0,0 +1,14 @@
+package org.sir.stripeintegration.core.shared.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * The call was not sent to Stripe, because the circuit breaker is open or no rate limit token was free in time.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class StripeUnavailableException extends CustomException {
+    public StripeUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
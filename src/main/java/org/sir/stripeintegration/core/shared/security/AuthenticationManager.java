@@ -7,46 +7,53 @@ import org.sir.stripeintegration.core.shared.utility.JWTUtil;
 import org.springframework.security.authentication.ReactiveAuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @AllArgsConstructor
 @Component
 public class AuthenticationManager implements ReactiveAuthenticationManager {
     private JWTUtil jwtUtil;
+    private VerifiedTokenCache verifiedTokenCache;
 
     @Override
-    @SuppressWarnings("unchecked")
     public Mono<Authentication> authenticate(Authentication authentication) {
         String authToken = authentication.getCredentials().toString();
 
-        String userEmail;
+        VerifiedTokenCache.VerifiedToken verifiedToken = verifiedTokenCache.get(authToken, this::verify);
+        if (verifiedToken == null) {
+            return Mono.empty();
+        }
+        return Mono.just(new UsernamePasswordAuthenticationToken(
+                verifiedToken.userEmail(), null, verifiedToken.authorities()));
+    }
+
+    /**
+     * Parses the token once, the signature and expiration are checked by the parser.
+     */
+    @SuppressWarnings("unchecked")
+    private VerifiedTokenCache.VerifiedToken verify(String authToken) {
+        Claims claims;
         try {
-            userEmail = jwtUtil.getUserEmailFromToken(authToken);
+            claims = jwtUtil.getAllClaimsFromToken(authToken);
         } catch (Exception e) {
-            userEmail = null;
+            return null;
         }
-        if (userEmail != null && jwtUtil.validateToken(authToken)) {
-            Claims claims = jwtUtil.getAllClaimsFromToken(authToken);
-            List<String> rolesMap = claims.get("role", List.class);
-            List<Roles> roles = new ArrayList<>();
-            for (String rolemap : rolesMap) {
-                roles.add(Roles.valueOf(rolemap));
-            }
-            UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
-                    userEmail,
-                    null,
-                    roles.stream().map(authority ->
-                            new SimpleGrantedAuthority(authority.name())).collect(Collectors.toList())
-            );
-            return Mono.just(auth);
-        } else {
-            return Mono.empty();
+        if (claims.getSubject() == null || claims.getExpiration() == null) {
+            return null;
+        }
+
+        List<String> rolesMap = claims.get("role", List.class);
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        for (String rolemap : rolesMap) {
+            authorities.add(new SimpleGrantedAuthority(Roles.valueOf(rolemap).name()));
         }
+        return new VerifiedTokenCache.VerifiedToken(
+                claims.getSubject(), List.copyOf(authorities), claims.getExpiration().toInstant());
     }
 }
@@ -1,33 +1,88 @@
 package org.sir.stripeintegration.core.shared.security;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import org.sir.stripeintegration.core.shared.exceptions.CustomException;
+import org.sir.stripeintegration.core.shared.exceptions.PasswordHashingRejectedException;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.spec.InvalidKeySpecException;
 import java.util.Base64;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
 
+/**
+ * PBKDF2 password encoder. The reactive {@link #encodeAsync} and {@link #matchesAsync} run the hashing on a
+ * dedicated scheduler of {@code springbootwebflux.jjwt.password.encoder.pool-size} threads (0 means one per
+ * core), so login and signup bursts do not block the event loop. Each thread queues at most
+ * {@code springbootwebflux.jjwt.password.encoder.queue-capacity} tasks, beyond that work is rejected with
+ * {@link PasswordHashingRejectedException}.
+ * <p>
+ * Latency from submission to result is published as {@code security.password.hashing}
+ * ({@code operation=encode|matches}), rejections as {@code security.password.hashing.rejected}.
+ */
 @Component
 public class CustomEncoder implements PasswordEncoder {
+    private static final String METRIC_NAME = "security.password.hashing";
 
-    @Value("${springbootwebflux.jjwt.password.encoder.secret}")
-    private String secret;
+    private final byte[] salt;
+    private final int iteration;
+    private final int keylength;
 
-    @Value("${springbootwebflux.jjwt.password.encoder.iteration}")
-    private Integer iteration;
+    private final Scheduler hashingScheduler;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejectedCounter;
 
-    @Value("${springbootwebflux.jjwt.password.encoder.keylength}")
-    private Integer keylength;
+    public CustomEncoder(@Value("${springbootwebflux.jjwt.password.encoder.secret}") String secret,
+                         @Value("${springbootwebflux.jjwt.password.encoder.iteration}") int iteration,
+                         @Value("${springbootwebflux.jjwt.password.encoder.keylength}") int keylength,
+                         @Value("${springbootwebflux.jjwt.password.encoder.pool-size}") int poolSize,
+                         @Value("${springbootwebflux.jjwt.password.encoder.queue-capacity}") int queueCapacity,
+                         MeterRegistry meterRegistry) {
+        this.salt = secret.getBytes();
+        this.iteration = iteration;
+        this.keylength = keylength;
+
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        this.hashingScheduler = Schedulers.newBoundedElastic(threads, queueCapacity, "password-hashing");
+
+        this.encodeTimer = timer(meterRegistry, "encode");
+        this.matchesTimer = timer(meterRegistry, "matches");
+        this.rejectedCounter = Counter.builder(METRIC_NAME + ".rejected")
+                .description("Password hashing requests rejected because the hashing pool was full")
+                .register(meterRegistry);
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder(METRIC_NAME)
+                .description("Password hashing latency including the wait for a hashing thread")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void dispose() {
+        hashingScheduler.dispose();
+    }
 
     @Override
     public String encode(CharSequence cs) {
         try {
             byte[] result = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA512")
-                    .generateSecret(new PBEKeySpec(cs.toString().toCharArray(), secret.getBytes(), iteration, keylength))
+                    .generateSecret(new PBEKeySpec(cs.toString().toCharArray(), salt, iteration, keylength))
                     .getEncoded();
             return Base64.getEncoder().encodeToString(result);
         } catch (NoSuchAlgorithmException | InvalidKeySpecException ex) {
@@ -35,8 +90,35 @@ public class CustomEncoder implements PasswordEncoder {
         }
     }
 
+    /**
+     * Compares in constant time, so the response time does not tell how much of the hash matched.
+     */
     @Override
     public boolean matches(CharSequence cs, String string) {
-        return encode(cs).equals(string);
+        if (string == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(
+                encode(cs).getBytes(StandardCharsets.UTF_8), string.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Mono<String> encodeAsync(CharSequence cs) {
+        return onHashingScheduler(() -> encode(cs), encodeTimer);
+    }
+
+    public Mono<Boolean> matchesAsync(CharSequence cs, String string) {
+        return onHashingScheduler(() -> matches(cs, string), matchesTimer);
+    }
+
+    private <T> Mono<T> onHashingScheduler(Callable<T> hashing, Timer timer) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start();
+            return Mono.fromCallable(hashing)
+                    .subscribeOn(hashingScheduler)
+                    .doOnSuccess(result -> sample.stop(timer));
+        }).onErrorMap(RejectedExecutionException.class, ex -> {
+            rejectedCounter.increment();
+            return new PasswordHashingRejectedException("Too many password hashing requests", ex);
+        });
     }
 }
@@ -0,0 +1,82 @@
+package org.sir.stripeintegration.core.shared.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of already verified access tokens, so a token is parsed and its signature checked once
+ * instead of on every request. Entries are keyed by the SHA-256 of the token, raw tokens are not kept,
+ * and expire exactly at the token {@code exp}. Invalid tokens are never cached.
+ * Hit and miss counts are published as {@code cache.*} metrics with {@code cache=jwt.tokens}.
+ */
+@Component
+public class VerifiedTokenCache {
+    private final Cache<String, VerifiedToken> tokens;
+
+    public VerifiedTokenCache(@Value("${springbootwebflux.jjwt.cache.max-size}") long maxSize,
+                              MeterRegistry meterRegistry) {
+        Cache<String, VerifiedToken> cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiration())
+                .recordStats()
+                .build();
+        this.tokens = CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.tokens");
+    }
+
+    /**
+     * @param verifier parses and verifies the token, returns {@code null} for an invalid token
+     * @return the cached or freshly verified token, {@code null} when the token is invalid
+     */
+    public VerifiedToken get(String token, Function<String, VerifiedToken> verifier) {
+        return tokens.get(hash(token), key -> verifier.apply(token));
+    }
+
+    long size() {
+        tokens.cleanUp();
+        return tokens.estimatedSize();
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record VerifiedToken(String userEmail, List<GrantedAuthority> authorities, Instant expiresAt) {
+    }
+
+    private static class UntilTokenExpiration implements Expiry<String, VerifiedToken> {
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            long nanos = (value.expiresAt().toEpochMilli() - System.currentTimeMillis()) * 1_000_000;
+            return Math.max(0, nanos);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -29,6 +29,7 @@ public class WebSecurityConfig {
                 .authorizeExchange(authorizeExchangeSpec -> authorizeExchangeSpec
                         .pathMatchers(HttpMethod.OPTIONS).permitAll()
                         .pathMatchers("/api/login", "/api/signup", "/api/refresh-token").permitAll()
+                        .pathMatchers(HttpMethod.POST, "/api/webhook-handler").permitAll()
                         .anyExchange().authenticated()
                 )
                 .authenticationManager(authenticationManager)
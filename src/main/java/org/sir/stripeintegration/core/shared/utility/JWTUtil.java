@@ -1,6 +1,7 @@
 package org.sir.stripeintegration.core.shared.utility;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import jakarta.xml.bind.DatatypeConverter;
@@ -8,6 +9,7 @@ import org.sir.stripeintegration.core.domain.UserEntity;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import java.io.Serializable;
 import java.util.Date;
@@ -18,19 +20,32 @@ import java.util.Map;
 public class JWTUtil implements Serializable {
     private static final long serialVersionUID = 1L;
 
-    @Value("${springbootwebflux.jjwt.secret}")
-    private String secret;
-
-    @Value("${springbootwebflux.jjwt.tokenexpiration}")
-    private String tokenExpirationTime;
-
-    @Value("${springbootwebflux.jjwt.refreshtokenexpiration}")
-    private String refreshTokenExpirationTime;
+    private final String tokenExpirationTime;
+    private final String refreshTokenExpirationTime;
+
+    /**
+     * Built once from the secret, the parser is immutable and shared by all requests.
+     */
+    private final transient SecretKey signingKey;
+    private final transient JwtParser jwtParser;
+
+    public JWTUtil(@Value("${springbootwebflux.jjwt.secret}") String secret,
+                   @Value("${springbootwebflux.jjwt.tokenexpiration}") String tokenExpirationTime,
+                   @Value("${springbootwebflux.jjwt.refreshtokenexpiration}") String refreshTokenExpirationTime) {
+        this.tokenExpirationTime = tokenExpirationTime;
+        this.refreshTokenExpirationTime = refreshTokenExpirationTime;
+        this.signingKey = new SecretKeySpec(
+                DatatypeConverter.parseBase64Binary(secret), SignatureAlgorithm.HS256.getJcaName());
+        this.jwtParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    }
 
+    /**
+     * Verifies the signature and the expiration in one parse.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered or expired
+     */
     public Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .setSigningKey(DatatypeConverter.parseBase64Binary(secret))
-                .parseClaimsJws(token).getBody();
+        return jwtParser.parseClaimsJws(token).getBody();
     }
 
     public String getUserEmailFromToken(String token) {
@@ -68,7 +83,7 @@ public class JWTUtil implements Serializable {
                 .setSubject(userEmail)
                 .setIssuedAt(createdDate)
                 .setExpiration(expirationDate)
-                .signWith(new SecretKeySpec(DatatypeConverter.parseBase64Binary(secret), SignatureAlgorithm.HS256.getJcaName()))
+                .signWith(signingKey)
                 .compact();
     }
 
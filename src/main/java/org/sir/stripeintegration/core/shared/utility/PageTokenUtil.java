@@ -0,0 +1,37 @@
+package org.sir.stripeintegration.core.shared.utility;
+
+import org.sir.stripeintegration.core.shared.exceptions.CustomException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Encodes the keyset position {@code (createdOn, id)} of the last row of a page into an opaque url safe token.
+ */
+public final class PageTokenUtil {
+    private static final String SEPARATOR = "|";
+
+    private PageTokenUtil() {
+    }
+
+    public record PageCursor(Instant createdOn, String id) {
+    }
+
+    public static String encode(Instant createdOn, Object id) {
+        String cursor = createdOn.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String token) {
+        try {
+            String cursor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = cursor.indexOf(SEPARATOR);
+
+            return new PageCursor(Instant.parse(cursor.substring(0, separator)), cursor.substring(separator + 1));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new CustomException("Invalid page token");
+        }
+    }
+}
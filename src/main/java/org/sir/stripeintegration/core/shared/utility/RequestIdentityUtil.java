@@ -0,0 +1,25 @@
+package org.sir.stripeintegration.core.shared.utility;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.Optional;
+
+/**
+ * Carries the identity of the inbound request in the Reactor context, so calls made while handling it (e.g. the
+ * idempotency keys of Stripe creates) can be tied to that request and to its repeats.
+ */
+public final class RequestIdentityUtil {
+    private static final String CONTEXT_KEY = RequestIdentityUtil.class.getName();
+
+    private RequestIdentityUtil() {
+    }
+
+    public static Context put(Context context, String requestIdentity) {
+        return context.put(CONTEXT_KEY, requestIdentity);
+    }
+
+    public static Optional<String> get(ContextView context) {
+        return context.getOrEmpty(CONTEXT_KEY);
+    }
+}
@@ -0,0 +1,41 @@
+package org.sir.stripeintegration.host.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.function.Supplier;
+
+/**
+ * Strong etags for single item reads. The version is looked up before the body, so a matching
+ * {@code If-None-Match} is answered with 304 without loading or serializing the item.
+ */
+final class ConditionalGet {
+    private ConditionalGet() {
+    }
+
+    /**
+     * @param lastModifiedOn version of the stored row, empty when the row is unknown
+     * @param body           loads the item, only called when the client copy is stale
+     */
+    static <T> Mono<ResponseEntity<T>> ifModified(ServerWebExchange exchange,
+                                                  Mono<Instant> lastModifiedOn,
+                                                  Supplier<Mono<T>> body) {
+        return lastModifiedOn
+                .flatMap(version -> {
+                    String eTag = eTag(version);
+                    if (exchange.checkNotModified(eTag)) {
+                        return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).<T>build());
+                    }
+                    return body.get().map(item -> ResponseEntity.ok().eTag(eTag).body(item));
+                })
+                .switchIfEmpty(Mono.defer(() -> body.get().map(ResponseEntity::ok)));
+    }
+
+    static String eTag(Instant version) {
+        return "\"" + Long.toHexString(ChronoUnit.MICROS.between(Instant.EPOCH, version)) + "\"";
+    }
+}
@@ -5,32 +5,56 @@ import lombok.AllArgsConstructor;
 import org.sir.stripeintegration.core.application.dtos.customer.request.CustomerCreateRequestDto;
 import org.sir.stripeintegration.core.application.dtos.customer.request.CustomerUpdateRequestDto;
 import org.sir.stripeintegration.core.application.dtos.customer.response.CustomerDto;
+import org.sir.stripeintegration.core.application.dtos.customer.response.CustomerImportResultDto;
+import org.sir.stripeintegration.core.application.interfaces.service.ICustomerImportService;
 import org.sir.stripeintegration.core.application.interfaces.service.ICustomerService;
+import org.sir.stripeintegration.core.shared.constant.ImportFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.UUID;
+
 @AllArgsConstructor
 @RestController
 @RequestMapping("/api/customer")
 
 public class CustomerController {
+    private static final String IMPORT_ID_HEADER = "Import-Id";
+
     private final ICustomerService customerService;
+    private final ICustomerImportService customerImportService;
 
+    /**
+     * Answers 304 when {@code If-None-Match} carries the current etag.
+     */
     @GetMapping("/{id}")
-    @ResponseStatus(HttpStatus.OK)
-    public Mono<CustomerDto> getCustomer(@PathVariable String id) {
-        return customerService.getCustomer(id);
+    public Mono<ResponseEntity<CustomerDto>> getCustomer(@PathVariable String id, ServerWebExchange exchange) {
+        return ConditionalGet.ifModified(
+                exchange,
+                customerService.getCustomerLastModifiedOn(id),
+                () -> customerService.getCustomer(id));
     }
 
     @GetMapping("/all")
     @ResponseStatus(HttpStatus.OK)
     public Flux<CustomerDto> getAllCustomer(
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) String name,
             @RequestParam(required = false) Long limit,
             @RequestParam(required = false) String startingAfter,
             @RequestParam(required = false) String endingBefore) {
-        return customerService.getAllCustomer(limit, startingAfter, endingBefore);
+        return customerService.getAllCustomer(email, name, limit, startingAfter, endingBefore);
+    }
+
+    @PostMapping("/reconcile")
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<Long> reconcileCustomers() {
+        return customerService.reconcileCustomers();
     }
 
     @PostMapping("/add")
@@ -39,6 +63,27 @@ public class CustomerController {
         return customerService.addCustomer(requestDto);
     }
 
+    /**
+     * Creates a customer for every line of an ndjson or csv ({@code email,name,phone} header) body and streams
+     * back one ndjson result per line. Send the returned {@code Import-Id} header again, as a request header or as
+     * the {@code importId} query param, to resume a failed import.
+     */
+    @PostMapping("/import")
+    public ResponseEntity<Flux<CustomerImportResultDto>> importCustomers(
+            @RequestParam(required = false, defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String importId,
+            @RequestHeader(name = IMPORT_ID_HEADER, required = false) String importIdHeader,
+            @RequestBody Flux<String> lines) {
+        ImportFormat importFormat = ImportFormat.fromValue(format);
+        String resumedId = importId == null || importId.isBlank() ? importIdHeader : importId;
+        String id = resumedId == null || resumedId.isBlank() ? UUID.randomUUID().toString() : resumedId;
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(IMPORT_ID_HEADER, id)
+                .body(customerImportService.importCustomers(importFormat, id, lines));
+    }
+
     @PutMapping("/update")
     @ResponseStatus(HttpStatus.OK)
     public Mono<CustomerDto> updateCustomer(@RequestBody @Valid CustomerUpdateRequestDto requestDto) {
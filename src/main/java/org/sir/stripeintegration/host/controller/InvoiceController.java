@@ -0,0 +1,33 @@
+package org.sir.stripeintegration.host.controller;
+
+import lombok.AllArgsConstructor;
+import org.sir.stripeintegration.core.application.dtos.invoice.response.InvoiceDto;
+import org.sir.stripeintegration.core.application.interfaces.service.IInvoiceService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@AllArgsConstructor
+@RestController
+@RequestMapping("/api/invoice")
+public class InvoiceController {
+    private final IInvoiceService invoiceService;
+
+    @GetMapping("/{id}")
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<InvoiceDto> getInvoice(@PathVariable String id) {
+        return invoiceService.getInvoice(id);
+    }
+
+    @GetMapping("/all/customer/{customerId}")
+    @ResponseStatus(HttpStatus.OK)
+    public Flux<InvoiceDto> getCustomerAllInvoice(
+            @PathVariable String customerId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long limit,
+            @RequestParam(required = false) String startingAfter,
+            @RequestParam(required = false) String endingBefore) {
+        return invoiceService.getCustomerAllInvoice(customerId, status, limit, startingAfter, endingBefore);
+    }
+}
@@ -7,7 +7,9 @@ import org.sir.stripeintegration.core.application.dtos.product.request.UpdatePro
 import org.sir.stripeintegration.core.application.dtos.product.response.ProductDto;
 import org.sir.stripeintegration.core.application.interfaces.service.IProductService;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -17,10 +19,15 @@ import reactor.core.publisher.Mono;
 public class ProductController {
     private final IProductService productService;
 
+    /**
+     * Answers 304 when {@code If-None-Match} carries the current etag.
+     */
     @GetMapping("/{id}")
-    @ResponseStatus(HttpStatus.OK)
-    public Mono<ProductDto> getProduct(@PathVariable String id) {
-        return productService.getProduct(id);
+    public Mono<ResponseEntity<ProductDto>> getProduct(@PathVariable String id, ServerWebExchange exchange) {
+        return ConditionalGet.ifModified(
+                exchange,
+                productService.getProductLastModifiedOn(id),
+                () -> productService.getProduct(id));
     }
 
     @GetMapping("/all")
@@ -7,7 +7,9 @@ import org.sir.stripeintegration.core.application.dtos.productPrice.request.Upda
 import org.sir.stripeintegration.core.application.dtos.productPrice.response.ProductPriceDto;
 import org.sir.stripeintegration.core.application.interfaces.service.IProductPriceService;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -17,10 +19,15 @@ import reactor.core.publisher.Mono;
 public class ProductPriceController {
     private final IProductPriceService productPriceService;
 
+    /**
+     * Answers 304 when {@code If-None-Match} carries the current etag.
+     */
     @GetMapping("/{id}")
-    @ResponseStatus(HttpStatus.OK)
-    public Mono<ProductPriceDto> getProductPrice(@PathVariable String id) {
-        return productPriceService.getProductPrice(id);
+    public Mono<ResponseEntity<ProductPriceDto>> getProductPrice(@PathVariable String id, ServerWebExchange exchange) {
+        return ConditionalGet.ifModified(
+                exchange,
+                productPriceService.getProductPriceLastModifiedOn(id),
+                () -> productPriceService.getProductPrice(id));
     }
 
     @GetMapping("/all/product/{productId}")
@@ -23,6 +23,12 @@ public class SubscriptionController {
         return subscriptionService.getSubscription(id);
     }
 
+    @PostMapping("/{id}/refresh")
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<SubscriptionDto> refreshSubscription(@PathVariable String id) {
+        return subscriptionService.refreshSubscription(id);
+    }
+
     @GetMapping("/all/customer/{customerId}")
     @ResponseStatus(HttpStatus.OK)
     public Flux<SubscriptionDto> getCustomerAllSubscription(
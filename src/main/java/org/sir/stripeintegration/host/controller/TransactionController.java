@@ -2,12 +2,19 @@ package org.sir.stripeintegration.host.controller;
 
 import lombok.AllArgsConstructor;
 import org.sir.stripeintegration.core.application.dtos.transaction.response.TransactionDto;
+import org.sir.stripeintegration.core.application.interfaces.service.ITransactionExportService;
 import org.sir.stripeintegration.core.application.interfaces.service.ITransactionService;
+import org.sir.stripeintegration.core.shared.constant.ExportFormat;
+import org.sir.stripeintegration.core.shared.dtoModels.CursorPageDto;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
 import java.util.UUID;
 
 @AllArgsConstructor
@@ -15,6 +22,7 @@ import java.util.UUID;
 @RequestMapping("/api/transaction")
 public class TransactionController {
     private final ITransactionService transactionService;
+    private final ITransactionExportService transactionExportService;
 
     @GetMapping("/{id}")
     @ResponseStatus(HttpStatus.OK)
@@ -24,10 +32,29 @@ public class TransactionController {
 
     @GetMapping("/all/customer/{customerId}")
     @ResponseStatus(HttpStatus.OK)
-    public Flux<TransactionDto> getCustomerAllTransaction(
+    public Mono<CursorPageDto<TransactionDto>> getCustomerAllTransaction(
             @PathVariable String customerId,
             @RequestParam(required = false) Integer pageSize,
-            @RequestParam(required = false) Integer pageIndex) {
-        return transactionService.getCustomerAllTransaction(customerId, pageSize, pageIndex);
+            @RequestParam(required = false) String pageToken) {
+        return transactionService.getCustomerAllTransaction(customerId, pageSize, pageToken);
+    }
+
+    /**
+     * Streams transactions as ndjson (default) or csv, optionally filtered by customer and a
+     * {@code [from, to)} range of ISO-8601 instants on the creation time.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<Flux<String>> exportTransactions(
+            @RequestParam(required = false, defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String customerId,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to) {
+        ExportFormat exportFormat = ExportFormat.fromValue(format);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"transactions." + exportFormat.getFileExtension() + "\"")
+                .body(transactionExportService.exportTransactions(exportFormat, customerId, from, to));
     }
 }
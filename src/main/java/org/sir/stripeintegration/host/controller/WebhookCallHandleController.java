@@ -3,11 +3,9 @@ package org.sir.stripeintegration.host.controller;
 import com.google.gson.JsonSyntaxException;
 import com.stripe.exception.SignatureVerificationException;
 import com.stripe.model.Event;
-import com.stripe.model.EventDataObjectDeserializer;
-import com.stripe.model.StripeObject;
 import com.stripe.net.Webhook;
 import lombok.AllArgsConstructor;
-import org.sir.stripeintegration.core.application.interfaces.service.IWebhookHandler;
+import org.sir.stripeintegration.core.application.interfaces.service.IWebhookInboxService;
 import org.sir.stripeintegration.core.shared.exceptions.CustomException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.env.Environment;
@@ -23,32 +21,22 @@ import reactor.core.publisher.Mono;
 @RestController
 @RequestMapping("/api/webhook-handler")
 public class WebhookCallHandleController {
-    public final IWebhookHandler webhookHandler;
+    public final IWebhookInboxService webhookInboxService;
 
     @Autowired
     private Environment environment;
 
+    /**
+     * Verifies the event and stores it in the webhook inbox, the event is handled asynchronously
+     * by the inbox worker so stripe gets the response right after the insert.
+     */
     @PostMapping
     @ResponseStatus(HttpStatus.OK)
     public Mono<Void> handleWebhookEvent(HttpEntity<String> request) {
         Event event = validateStripeHeadersAndReturnEvent(
                 request.getBody(), request.getHeaders().getFirst("Stripe-Signature"));
 
-        StripeObject stripeObject = getStipeObjectFromWebhookRequest(event);
-
-        switch (event.getType()) {
-            case "payment_intent.succeeded":
-            case "payment_intent.payment_failed":
-                return webhookHandler.handlePaymentIntentEvent(stripeObject, event.getType());
-            case "invoice.paid":
-            case "invoice.payment_failed":
-                return webhookHandler.handleInvoiceEvent(stripeObject, event.getType());
-            case "customer.subscription.deleted":
-            case "customer.subscription.updated":
-                return webhookHandler.handleSubscriptionEvent(stripeObject, event.getType());
-            default:
-                return Mono.empty();
-        }
+        return webhookInboxService.enqueue(event.getId(), event.getType(), request.getBody());
     }
 
     private Event validateStripeHeadersAndReturnEvent(String payload, String headers) {
@@ -62,14 +50,4 @@ public class WebhookCallHandleController {
             throw new CustomException("Invalid Signature");
         }
     }
-
-    private StripeObject getStipeObjectFromWebhookRequest(Event event) {
-        EventDataObjectDeserializer dataObjectDeserializer = event.getDataObjectDeserializer();
-
-        if (dataObjectDeserializer.getObject().isPresent()) {
-            return dataObjectDeserializer.getObject().get();
-        } else {
-            throw new CustomException("Deserialize error");
-        }
-    }
 }
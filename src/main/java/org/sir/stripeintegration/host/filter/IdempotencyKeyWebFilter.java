@@ -0,0 +1,239 @@
+package org.sir.stripeintegration.host.filter;
+
+import org.reactivestreams.Publisher;
+import org.sir.stripeintegration.core.application.dtos.idempotency.response.IdempotentResponseDto;
+import org.sir.stripeintegration.core.application.interfaces.service.IIdempotentRequestService;
+import org.sir.stripeintegration.core.shared.utility.RequestIdentityUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebInputException;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.util.HexFormat;
+import java.util.Set;
+
+/**
+ * Honors the {@code Idempotency-Key} header on every authenticated POST endpoint. The first request is handled
+ * and its 2xx response stored by {@link IIdempotentRequestService}, repeats with the same key, path and body get
+ * the stored response back (marked with {@code Idempotent-Replayed: true}) without reaching the controller.
+ * A failed or cancelled (client went away) request is not stored, its repeat is handled again. The handler sees the key in the Reactor context
+ * through {@link RequestIdentityUtil}, so the Stripe creates of a repeat reuse the Stripe idempotency keys of the
+ * first attempt.
+ * <p>
+ * Runs after the security filter chain, keys are scoped to the authenticated user.
+ * <p>
+ * Request and response are held in memory, so the streamed {@code /api/customer/import} (resumed by sending
+ * back its {@code Import-Id} header instead) is passed through untouched, a request body over
+ * {@code idempotency.max-body-bytes} is rejected with 413 and a response over it is sent but not stored.
+ */
+@Component
+public class IdempotencyKeyWebFilter implements WebFilter {
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final Set<String> STREAMING_PATHS = Set.of("/api/customer/import");
+
+    private final IIdempotentRequestService idempotentRequestService;
+    private final int maxBodyBytes;
+
+    public IdempotencyKeyWebFilter(IIdempotentRequestService idempotentRequestService,
+                                   @Value("${idempotency.max-body-bytes}") int maxBodyBytes) {
+        this.idempotentRequestService = idempotentRequestService;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String idempotencyKey = request.getHeaders().getFirst(IDEMPOTENCY_KEY_HEADER);
+        if (request.getMethod() != HttpMethod.POST || idempotencyKey == null
+                || STREAMING_PATHS.contains(request.getPath().pathWithinApplication().value())) {
+            return chain.filter(exchange);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            return Mono.error(new ServerWebInputException(
+                    IDEMPOTENCY_KEY_HEADER + " must have 1 to " + MAX_KEY_LENGTH + " characters"));
+        }
+
+        return exchange.getPrincipal()
+                .map(Principal::getName)
+                .defaultIfEmpty("")
+                .flatMap(principal -> principal.isEmpty()
+                        ? chain.filter(exchange)
+                        : DataBufferUtils.join(request.getBody(), maxBodyBytes)
+                        .onErrorMap(DataBufferLimitException.class, ex -> new ResponseStatusException(
+                                HttpStatus.PAYLOAD_TOO_LARGE, "Requests sent with an " + IDEMPOTENCY_KEY_HEADER
+                                + " can have at most " + maxBodyBytes + " bytes"))
+                        .map(IdempotencyKeyWebFilter::readBytes)
+                        .defaultIfEmpty(new byte[0])
+                        .flatMap(body -> handle(exchange, chain, principal, idempotencyKey, body)));
+    }
+
+    private Mono<Void> handle(ServerWebExchange exchange, WebFilterChain chain,
+                              String principal, String idempotencyKey, byte[] body) {
+        ServerHttpRequest request = exchange.getRequest();
+        String requestHash = hash(request.getMethod().name() + " " + request.getPath().value(), body);
+
+        return idempotentRequestService.begin(principal, idempotencyKey, requestHash)
+                .map(Outcome::new)
+                .defaultIfEmpty(new Outcome(null))
+                .flatMap(outcome -> {
+                    if (outcome.stored != null) {
+                        return replay(exchange.getResponse(), outcome.stored);
+                    }
+
+                    CapturingResponse response = new CapturingResponse(exchange.getResponse(), maxBodyBytes);
+                    ServerWebExchange cachedExchange = exchange.mutate()
+                            .request(new CachedBodyRequest(request, body))
+                            .response(response)
+                            .build();
+                    String requestIdentity = hash(principal, idempotencyKey.getBytes(StandardCharsets.UTF_8));
+                    return chain.filter(cachedExchange)
+                            .contextWrite(context -> RequestIdentityUtil.put(context, requestIdentity))
+                            .then(Mono.defer(() -> {
+                                HttpStatusCode status = response.getStatusCode();
+                                int statusCode = status == null ? 200 : status.value();
+                                if (statusCode < 200 || statusCode >= 300 || response.isTruncated()) {
+                                    return idempotentRequestService.release(principal, idempotencyKey);
+                                }
+                                MediaType contentType = response.getHeaders().getContentType();
+                                return idempotentRequestService.complete(principal, idempotencyKey,
+                                        new IdempotentResponseDto(requestHash, statusCode,
+                                                contentType == null ? null : contentType.toString(),
+                                                response.getBody()));
+                            }))
+                            .onErrorResume(ex -> idempotentRequestService.release(principal, idempotencyKey)
+                                    .onErrorResume(releaseError -> Mono.empty())
+                                    .then(Mono.error(ex)))
+                            .doOnCancel(() -> idempotentRequestService.release(principal, idempotencyKey)
+                                    .onErrorResume(releaseError -> Mono.empty())
+                                    .subscribe());
+                });
+    }
+
+    private static Mono<Void> replay(ServerHttpResponse response, IdempotentResponseDto stored) {
+        response.setStatusCode(HttpStatusCode.valueOf(stored.statusCode));
+        if (stored.contentType != null) {
+            response.getHeaders().set(HttpHeaders.CONTENT_TYPE, stored.contentType);
+        }
+        response.getHeaders().set(REPLAYED_HEADER, "true");
+        byte[] body = stored.body == null ? new byte[0] : stored.body;
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    private static byte[] readBytes(DataBuffer buffer) {
+        byte[] bytes = new byte[buffer.readableByteCount()];
+        buffer.read(bytes);
+        DataBufferUtils.release(buffer);
+        return bytes;
+    }
+
+    static String hash(String target, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(target.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            return HexFormat.of().formatHex(digest.digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Outcome(IdempotentResponseDto stored) {
+    }
+
+    /**
+     * The body was already read to hash it, the handler reads it again from here.
+     */
+    private static class CachedBodyRequest extends ServerHttpRequestDecorator {
+        private final byte[] body;
+
+        CachedBodyRequest(ServerHttpRequest delegate, byte[] body) {
+            super(delegate);
+            this.body = body;
+        }
+
+        @Override
+        public Flux<DataBuffer> getBody() {
+            return Flux.defer(() -> Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body)));
+        }
+    }
+
+    /**
+     * Keeps a copy of the body written to the client, up to {@code maxBytes}.
+     */
+    private static class CapturingResponse extends ServerHttpResponseDecorator {
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        private final int maxBytes;
+        private boolean truncated;
+
+        CapturingResponse(ServerHttpResponse delegate, int maxBytes) {
+            super(delegate);
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return super.writeWith(Flux.from(body).map(this::copy));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return super.writeAndFlushWith(Flux.from(body).map(chunk -> Flux.from(chunk).map(this::copy)));
+        }
+
+        byte[] getBody() {
+            synchronized (body) {
+                return body.toByteArray();
+            }
+        }
+
+        boolean isTruncated() {
+            synchronized (body) {
+                return truncated;
+            }
+        }
+
+        private DataBuffer copy(DataBuffer buffer) {
+            synchronized (body) {
+                if (truncated) {
+                    return buffer;
+                }
+                if (body.size() + buffer.readableByteCount() > maxBytes) {
+                    truncated = true;
+                    body.reset();
+                    return buffer;
+                }
+                byte[] bytes = new byte[buffer.readableByteCount()];
+                int readPosition = buffer.readPosition();
+                buffer.read(bytes);
+                buffer.readPosition(readPosition);
+                body.writeBytes(bytes);
+            }
+            return buffer;
+        }
+    }
+}
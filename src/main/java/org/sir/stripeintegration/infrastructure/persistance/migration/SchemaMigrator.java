@@ -0,0 +1,213 @@
+package org.sir.stripeintegration.infrastructure.persistance.migration;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Result;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.r2dbc.connection.init.ScriptUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Forward-only schema migrations. Scripts named {@code V<version>__<description>.sql} in
+ * {@code classpath:db/migration} run once each, in version order, and are recorded with a SHA-256 checksum in
+ * {@code SCHEMA_MIGRATION}. Startup fails when a recorded script was changed afterwards, fix forward with a new
+ * version instead.
+ * <p>
+ * A script runs in one transaction together with its record, unless it has {@code CONCURRENTLY} statements,
+ * which Postgres does not allow in a transaction. Such a script has to be safe to run again after a partial
+ * failure. A Postgres advisory lock keeps instances that start together from migrating at the same time.
+ */
+public class SchemaMigrator implements InitializingBean {
+    private static final Logger logger = LoggerFactory.getLogger(SchemaMigrator.class);
+    private static final String LOCATION = "classpath:db/migration/V*__*.sql";
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(.+)\\.sql");
+    private static final Pattern NON_TRANSACTIONAL = Pattern.compile("\\bCONCURRENTLY\\b", Pattern.CASE_INSENSITIVE);
+    private static final long LOCK_KEY = 7_240_016L;
+
+    private static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS SCHEMA_MIGRATION (" +
+            "VERSION INTEGER NOT NULL PRIMARY KEY, " +
+            "DESCRIPTION VARCHAR(255) NOT NULL, " +
+            "CHECKSUM VARCHAR(64) NOT NULL, " +
+            "APPLIED_ON TIMESTAMP NOT NULL)";
+    private static final String FIND_APPLIED = "SELECT VERSION, CHECKSUM FROM SCHEMA_MIGRATION";
+    private static final String INSERT_APPLIED = "INSERT INTO SCHEMA_MIGRATION (VERSION, DESCRIPTION, CHECKSUM, APPLIED_ON) " +
+            "VALUES ($1, $2, $3, $4)";
+
+    private final ConnectionFactory connectionFactory;
+    private final ResourcePatternResolver resourceResolver = new PathMatchingResourcePatternResolver();
+
+    public SchemaMigrator(ConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        migrate().block();
+    }
+
+    /**
+     * @return the number of migrations applied by this call
+     */
+    public Mono<Integer> migrate() {
+        List<Migration> migrations = load(findScripts());
+
+        return Mono.usingWhen(connectionFactory.create(),
+                connection -> execute(connection, "SELECT pg_advisory_lock(" + LOCK_KEY + ")")
+                        .then(execute(connection, CREATE_TABLE))
+                        .then(findApplied(connection))
+                        .map(applied -> pending(applied, migrations))
+                        .flatMapMany(Flux::fromIterable)
+                        .concatMap(migration -> apply(connection, migration))
+                        .count()
+                        .map(Long::intValue)
+                        .flatMap(count -> execute(connection, "SELECT pg_advisory_unlock(" + LOCK_KEY + ")")
+                                .thenReturn(count)),
+                Connection::close);
+    }
+
+    private Mono<Migration> apply(Connection connection, Migration migration) {
+        long start = System.nanoTime();
+        Mono<Void> script = ScriptUtils.executeSqlScript(connection, new ByteArrayResource(
+                migration.script().getBytes(StandardCharsets.UTF_8), migration.fileName()));
+        Mono<Void> record = Mono.from(connection.createStatement(INSERT_APPLIED)
+                        .bind(0, migration.version())
+                        .bind(1, migration.description())
+                        .bind(2, migration.checksum())
+                        .bind(3, Instant.now())
+                        .execute())
+                .flatMap(result -> Mono.from(result.getRowsUpdated()))
+                .then();
+
+        Mono<Void> applied = migration.transactional()
+                ? Mono.from(connection.beginTransaction())
+                .then(script)
+                .then(record)
+                .then(Mono.from(connection.commitTransaction()))
+                .onErrorResume(ex -> Mono.from(connection.rollbackTransaction()).then(Mono.error(ex)))
+                : script.then(record);
+
+        return applied
+                .doOnSuccess(ignored -> logger.info("Applied migration {} in {} ms", migration.fileName(),
+                        (System.nanoTime() - start) / 1_000_000))
+                .doOnError(ex -> logger.error("Migration {} failed: {}", migration.fileName(), ex.getMessage()))
+                .thenReturn(migration);
+    }
+
+    private static Mono<Map<Integer, String>> findApplied(Connection connection) {
+        return Flux.from(connection.createStatement(FIND_APPLIED).execute())
+                .flatMap(result -> result.map((row, metadata) ->
+                        Map.entry(row.get("VERSION", Integer.class), row.get("CHECKSUM", String.class))))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+
+    private static Mono<Void> execute(Connection connection, String sql) {
+        return Flux.from(connection.createStatement(sql).execute())
+                .flatMap(Result::getRowsUpdated)
+                .then();
+    }
+
+    private Resource[] findScripts() {
+        try {
+            return resourceResolver.getResources(LOCATION);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list the schema migrations", e);
+        }
+    }
+
+    //region Migration list
+    /**
+     * Sorted by version, fails on two scripts with the same version.
+     */
+    static List<Migration> load(Resource[] resources) {
+        Map<Integer, Migration> migrations = new TreeMap<>();
+        for (Resource resource : resources) {
+            String fileName = Objects.requireNonNull(resource.getFilename());
+            Matcher matcher = FILE_NAME.matcher(fileName);
+            if (!matcher.matches()) {
+                throw new IllegalStateException("Invalid migration file name: " + fileName);
+            }
+
+            String script = read(resource);
+            Migration migration = new Migration(Integer.parseInt(matcher.group(1)),
+                    matcher.group(2).replace('_', ' '), fileName, script, checksum(script),
+                    !NON_TRANSACTIONAL.matcher(withoutComments(script)).find());
+            Migration duplicate = migrations.put(migration.version(), migration);
+            if (duplicate != null) {
+                throw new IllegalStateException("Migrations " + duplicate.fileName() + " and " + fileName +
+                        " have the same version");
+            }
+        }
+        return new ArrayList<>(migrations.values());
+    }
+
+    /**
+     * @param applied checksums of the applied migrations by version
+     * @return the migrations still to apply
+     */
+    static List<Migration> pending(Map<Integer, String> applied, List<Migration> migrations) {
+        List<Migration> pending = new ArrayList<>();
+        for (Migration migration : migrations) {
+            String checksum = applied.get(migration.version());
+            if (checksum == null) {
+                pending.add(migration);
+            } else if (!checksum.equals(migration.checksum())) {
+                throw new IllegalStateException("Migration " + migration.fileName() +
+                        " was changed after it was applied, add a new migration instead");
+            }
+        }
+
+        Set<Integer> unknown = new TreeSet<>(applied.keySet());
+        migrations.forEach(migration -> unknown.remove(migration.version()));
+        if (!unknown.isEmpty()) {
+            logger.warn("Database has migrations {} that this version does not know", unknown);
+        }
+        return pending;
+    }
+
+    /**
+     * Line endings are normalized, so a checkout with other line endings has the same checksum.
+     */
+    static String checksum(String script) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(script.replace("\r\n", "\n").getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String withoutComments(String script) {
+        return script.replaceAll("--[^\\n]*", "");
+    }
+
+    private static String read(Resource resource) {
+        try {
+            return new String(resource.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read migration " + resource.getFilename(), e);
+        }
+    }
+
+    record Migration(int version, String description, String fileName, String script, String checksum,
+                     boolean transactional) {
+    }
+    //endregion
+}
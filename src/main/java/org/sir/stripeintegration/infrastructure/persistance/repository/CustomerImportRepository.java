@@ -0,0 +1,22 @@
+package org.sir.stripeintegration.infrastructure.persistance.repository;
+
+import org.sir.stripeintegration.core.domain.CustomerEntity;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface CustomerImportRepository {
+    /**
+     * Inserts all customers with one multi-row statement, customers that are already stored are left as they are.
+     *
+     * @return the number of inserted rows
+     */
+    Mono<Long> insertBatch(List<CustomerEntity> customers);
+
+    /**
+     * @return the last line of the import that was fully processed, empty for a new import
+     */
+    Mono<Long> findImportCheckpoint(String importId);
+
+    Mono<Void> saveImportCheckpoint(String importId, long lastLine);
+}
@@ -0,0 +1,65 @@
+package org.sir.stripeintegration.infrastructure.persistance.repository;
+
+import lombok.AllArgsConstructor;
+import org.sir.stripeintegration.core.domain.CustomerEntity;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@AllArgsConstructor
+public class CustomerImportRepositoryImpl implements CustomerImportRepository {
+    private static final String INSERT = "INSERT INTO CUSTOMER_ENTITY (ID, EMAIL, NAME, PHONE, CREATED_ON, LAST_MODIFIED_ON) " +
+            "VALUES %s ON CONFLICT (ID) DO NOTHING";
+    private static final String FIND_CHECKPOINT = "SELECT LAST_LINE FROM CUSTOMER_IMPORT_CHECKPOINT WHERE IMPORT_ID = :importId";
+    private static final String SAVE_CHECKPOINT = "INSERT INTO CUSTOMER_IMPORT_CHECKPOINT (IMPORT_ID, LAST_LINE, CREATED_ON, LAST_MODIFIED_ON) " +
+            "VALUES (:importId, :lastLine, :now, :now) " +
+            "ON CONFLICT (IMPORT_ID) DO UPDATE SET LAST_LINE = GREATEST(CUSTOMER_IMPORT_CHECKPOINT.LAST_LINE, EXCLUDED.LAST_LINE), " +
+            "LAST_MODIFIED_ON = EXCLUDED.LAST_MODIFIED_ON";
+
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Mono<Long> insertBatch(List<CustomerEntity> customers) {
+        if (customers.isEmpty()) {
+            return Mono.just(0L);
+        }
+
+        String values = IntStream.range(0, customers.size())
+                .mapToObj(i -> "(:id" + i + ", :email" + i + ", :name" + i + ", :phone" + i +
+                        ", :createdOn" + i + ", :lastModifiedOn" + i + ")")
+                .collect(Collectors.joining(", "));
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(String.format(INSERT, values));
+        for (int i = 0; i < customers.size(); i++) {
+            CustomerEntity customer = customers.get(i);
+            spec = spec.bind("id" + i, customer.id)
+                    .bind("email" + i, customer.email)
+                    .bind("name" + i, customer.name)
+                    .bind("phone" + i, NullableParameter.of(customer.phone, String.class))
+                    .bind("createdOn" + i, customer.createdOn)
+                    .bind("lastModifiedOn" + i, customer.lastModifiedOn);
+        }
+        return spec.fetch().rowsUpdated();
+    }
+
+    @Override
+    public Mono<Long> findImportCheckpoint(String importId) {
+        return databaseClient.sql(FIND_CHECKPOINT)
+                .bind("importId", importId)
+                .map(row -> row.get("LAST_LINE", Long.class))
+                .one();
+    }
+
+    @Override
+    public Mono<Void> saveImportCheckpoint(String importId, long lastLine) {
+        return databaseClient.sql(SAVE_CHECKPOINT)
+                .bind("importId", importId)
+                .bind("lastLine", lastLine)
+                .bind("now", Instant.now())
+                .then();
+    }
+}
@@ -0,0 +1,21 @@
+package org.sir.stripeintegration.infrastructure.persistance.repository;
+
+import org.sir.stripeintegration.core.domain.CustomerEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface CustomerListingRepository {
+    /**
+     * @param email exact email, case insensitive
+     * @param name  name prefix, case insensitive
+     */
+    Flux<CustomerEntity> findCustomerPage(
+            String email, String name, int limit, String startingAfter, String endingBefore);
+
+    /**
+     * Inserts the customer or updates the stored one, {@code CREATED_ON} of a stored customer is kept.
+     *
+     * @return 0 when the stored customer already had the same values
+     */
+    Mono<Long> upsert(CustomerEntity customer);
+}
@@ -0,0 +1,56 @@
+package org.sir.stripeintegration.infrastructure.persistance.repository;
+
+import lombok.AllArgsConstructor;
+import org.sir.stripeintegration.core.domain.CustomerEntity;
+import org.springframework.data.r2dbc.convert.R2dbcConverter;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Locale;
+
+@AllArgsConstructor
+public class CustomerListingRepositoryImpl implements CustomerListingRepository {
+    private static final String UPSERT = "INSERT INTO CUSTOMER_ENTITY (ID, EMAIL, NAME, PHONE, DEFAULT_PAYMENT_METHOD_ID, " +
+            "STRIPE_UPDATED_AT, CREATED_ON, LAST_MODIFIED_ON) " +
+            "VALUES (:id, :email, :name, :phone, :defaultPaymentMethodId, :stripeUpdatedAt, :createdOn, :lastModifiedOn) " +
+            "ON CONFLICT (ID) DO UPDATE SET EMAIL = EXCLUDED.EMAIL, NAME = EXCLUDED.NAME, PHONE = EXCLUDED.PHONE, " +
+            "DEFAULT_PAYMENT_METHOD_ID = EXCLUDED.DEFAULT_PAYMENT_METHOD_ID, STRIPE_UPDATED_AT = EXCLUDED.STRIPE_UPDATED_AT, " +
+            "LAST_MODIFIED_ON = EXCLUDED.LAST_MODIFIED_ON " +
+            "WHERE (CUSTOMER_ENTITY.STRIPE_UPDATED_AT IS NULL OR CUSTOMER_ENTITY.STRIPE_UPDATED_AT <= EXCLUDED.STRIPE_UPDATED_AT) " +
+            "AND (CUSTOMER_ENTITY.EMAIL, CUSTOMER_ENTITY.NAME, CUSTOMER_ENTITY.PHONE, CUSTOMER_ENTITY.DEFAULT_PAYMENT_METHOD_ID) " +
+            "IS DISTINCT FROM (EXCLUDED.EMAIL, EXCLUDED.NAME, EXCLUDED.PHONE, EXCLUDED.DEFAULT_PAYMENT_METHOD_ID)";
+
+    private final DatabaseClient databaseClient;
+    private final R2dbcConverter converter;
+
+    @Override
+    public Flux<CustomerEntity> findCustomerPage(
+            String email, String name, int limit, String startingAfter, String endingBefore) {
+        return new LocalPageQuery("CUSTOMER_ENTITY")
+                .whereCondition("LOWER(EMAIL) = :email", "email", email == null ? null : email.toLowerCase(Locale.ROOT))
+                .whereCondition("LOWER(NAME) LIKE :namePrefix ESCAPE '\\'", "namePrefix",
+                        name == null ? null : likePrefix(name.toLowerCase(Locale.ROOT)))
+                .fetch(databaseClient, converter, CustomerEntity.class, limit, startingAfter, endingBefore);
+    }
+
+    @Override
+    public Mono<Long> upsert(CustomerEntity customer) {
+        return databaseClient.sql(UPSERT)
+                .bind("id", customer.id)
+                .bind("email", customer.email)
+                .bind("name", customer.name)
+                .bind("phone", NullableParameter.of(customer.phone, String.class))
+                .bind("defaultPaymentMethodId", NullableParameter.of(customer.defaultPaymentMethodId, String.class))
+                .bind("stripeUpdatedAt", NullableParameter.of(customer.stripeUpdatedAt, Instant.class))
+                .bind("createdOn", customer.createdOn)
+                .bind("lastModifiedOn", customer.lastModifiedOn)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static String likePrefix(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+}
@@ -0,0 +1,19 @@
+package org.sir.stripeintegration.infrastructure.persistance.repository;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+public interface CustomerPaymentMethodRepository {
+    /**
+     * @param paymentMethodId null clears it
+     * @param stripeUpdatedAt time of the stripe state, stored state that is newer is kept
+     * @return 0 when the customer is not stored or holds newer state
+     */
+    Mono<Long> updateDefaultPaymentMethod(String customerId, String paymentMethodId, Instant stripeUpdatedAt);
+
+    /**
+     * Clears the default payment method only while it is still the given one.
+     */
+    Mono<Long> clearDefaultPaymentMethod(String customerId, String paymentMethodId);
+}
@@ -0,0 +1,39 @@
+package org.sir.stripeintegration.infrastructure.persistance.repository;
+
+import lombok.AllArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+@AllArgsConstructor
+public class CustomerPaymentMethodRepositoryImpl implements CustomerPaymentMethodRepository {
+    static final String UPDATE_DEFAULT = "UPDATE CUSTOMER_ENTITY SET DEFAULT_PAYMENT_METHOD_ID = :paymentMethodId, " +
+            "STRIPE_UPDATED_AT = :stripeUpdatedAt, LAST_MODIFIED_ON = :now " +
+            "WHERE ID = :customerId AND (STRIPE_UPDATED_AT IS NULL OR STRIPE_UPDATED_AT <= :stripeUpdatedAt)";
+    private static final String CLEAR_DEFAULT = "UPDATE CUSTOMER_ENTITY SET DEFAULT_PAYMENT_METHOD_ID = NULL, LAST_MODIFIED_ON = :now " +
+            "WHERE ID = :customerId AND DEFAULT_PAYMENT_METHOD_ID = :paymentMethodId";
+
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Mono<Long> updateDefaultPaymentMethod(String customerId, String paymentMethodId, Instant stripeUpdatedAt) {
+        return databaseClient.sql(UPDATE_DEFAULT)
+                .bind("customerId", customerId)
+                .bind("paymentMethodId", NullableParameter.of(paymentMethodId, String.class))
+                .bind("stripeUpdatedAt", stripeUpdatedAt)
+                .bind("now", Instant.now())
+                .fetch()
+                .rowsUpdated();
+    }
+
+    @Override
+    public Mono<Long> clearDefaultPaymentMethod(String customerId, String paymentMethodId) {
+        return databaseClient.sql(CLEAR_DEFAULT)
+                .bind("customerId", customerId)
+                .bind("paymentMethodId", paymentMethodId)
+                .bind("now", Instant.now())
+                .fetch()
+                .rowsUpdated();
+    }
+}
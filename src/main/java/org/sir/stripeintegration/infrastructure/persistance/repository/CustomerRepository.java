@@ -1,9 +1,19 @@
 package org.sir.stripeintegration.infrastructure.persistance.repository;
 
 import org.sir.stripeintegration.core.domain.CustomerEntity;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
 
 @Repository
-public interface CustomerRepository extends R2dbcRepository<CustomerEntity, String> {
+public interface CustomerRepository extends R2dbcRepository<CustomerEntity, String>, CustomerImportRepository,
+        CustomerListingRepository, CustomerPaymentMethodRepository {
+    /**
+     * Version of the row for conditional requests, a primary key lookup that reads no other column.
+     */
+    @Query("SELECT COALESCE(LAST_MODIFIED_ON, CREATED_ON, TIMESTAMP 'epoch') FROM CUSTOMER_ENTITY WHERE ID = $1")
+    Mono<Instant> findLastModifiedOnById(String id);
 }
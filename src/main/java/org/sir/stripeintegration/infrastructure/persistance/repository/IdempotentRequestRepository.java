@@ -0,0 +1,61 @@
+package org.sir.stripeintegration.infrastructure.persistance.repository;
+
+import org.sir.stripeintegration.core.domain.IdempotentRequestEntity;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+@Repository
+public interface IdempotentRequestRepository extends R2dbcRepository<IdempotentRequestEntity, String> {
+    /**
+     * Claims the key for a new request. An expired row is taken over, whether it is an old response or the claim
+     * of a request that never finished.
+     *
+     * @return 1 when claimed, 0 when another request holds the key
+     */
+    @Modifying
+    @Query("INSERT INTO IDEMPOTENT_REQUEST_ENTITY (ID, REQUEST_HASH, EXPIRES_ON, CREATED_ON, LAST_MODIFIED_ON) " +
+            "VALUES ($1, $2, $3, $4, $4) " +
+            "ON CONFLICT (ID) DO UPDATE SET REQUEST_HASH = EXCLUDED.REQUEST_HASH, STATUS_CODE = NULL, " +
+            "CONTENT_TYPE = NULL, RESPONSE_BODY = NULL, EXPIRES_ON = EXCLUDED.EXPIRES_ON, " +
+            "CREATED_ON = EXCLUDED.CREATED_ON, LAST_MODIFIED_ON = EXCLUDED.LAST_MODIFIED_ON " +
+            "WHERE IDEMPOTENT_REQUEST_ENTITY.EXPIRES_ON < $4")
+    Mono<Integer> claim(String id, String requestHash, Instant lockedUntil, Instant now);
+
+    @Query("SELECT * FROM IDEMPOTENT_REQUEST_ENTITY WHERE ID = $1 AND EXPIRES_ON >= $2")
+    Mono<IdempotentRequestEntity> findLive(String id, Instant now);
+
+    /**
+     * Stores the response of the request that claimed the key at {@code claimedOn}.
+     *
+     * @return 0 when the claim was lost, i.e. it expired and another request took the key over
+     */
+    @Modifying
+    @Query("UPDATE IDEMPOTENT_REQUEST_ENTITY SET STATUS_CODE = $2, CONTENT_TYPE = $3, RESPONSE_BODY = $4, " +
+            "EXPIRES_ON = $5, LAST_MODIFIED_ON = $6 WHERE ID = $1 AND REQUEST_HASH = $7 AND CREATED_ON = $8")
+    Mono<Integer> complete(String id, Integer statusCode, String contentType, byte[] responseBody,
+                           Instant expiresOn, Instant now, String requestHash, Instant claimedOn);
+
+    /**
+     * Gives up the claim of a request that failed, so the client can retry it.
+     */
+    @Modifying
+    @Query("DELETE FROM IDEMPOTENT_REQUEST_ENTITY WHERE ID = $1 AND STATUS_CODE IS NULL")
+    Mono<Integer> release(String id);
+
+    /**
+     * Gives up a claim made at {@code claimedOn} whose request was cancelled, a claim taken by another request
+     * meanwhile is kept.
+     */
+    @Modifying
+    @Query("DELETE FROM IDEMPOTENT_REQUEST_ENTITY WHERE ID = $1 AND STATUS_CODE IS NULL AND CREATED_ON = $2")
+    Mono<Integer> releaseClaim(String id, Instant claimedOn);
+
+    @Modifying
+    @Query("DELETE FROM IDEMPOTENT_REQUEST_ENTITY WHERE EXPIRES_ON < $1")
+    Mono<Integer> deleteExpired(Instant now);
+}
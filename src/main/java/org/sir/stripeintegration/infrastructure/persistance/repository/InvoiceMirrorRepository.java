@@ -0,0 +1,27 @@
+package org.sir.stripeintegration.infrastructure.persistance.repository;
+
+import org.sir.stripeintegration.core.domain.InvoiceEntity;
+import org.sir.stripeintegration.core.domain.InvoiceLineEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface InvoiceMirrorRepository {
+    Flux<InvoiceEntity> findCustomerInvoicePage(
+            String customerId, String status, int limit, String startingAfter, String endingBefore);
+
+    /**
+     * Lines of all the given invoices in one query, ordered by invoice and position.
+     */
+    Flux<InvoiceLineEntity> findLines(List<String> invoiceIds);
+
+    /**
+     * Upserts the invoice and replaces its lines in one statement. {@code CREATED_ON} of a stored invoice is
+     * kept, and a stored {@code paid} or {@code void} invoice is never changed, so a late
+     * {@code invoice.payment_failed} delivery can not undo a payment.
+     *
+     * @return 0 when the stored invoice already had the same values or was final, its lines are then untouched
+     */
+    Mono<Long> upsertWithLines(InvoiceEntity invoice, List<InvoiceLineEntity> lines);
+}
@@ -0,0 +1,127 @@
+package org.sir.stripeintegration.infrastructure.persistance.repository;
+
+import lombok.AllArgsConstructor;
+import org.sir.stripeintegration.core.domain.InvoiceEntity;
+import org.sir.stripeintegration.core.domain.InvoiceLineEntity;
+import org.springframework.data.r2dbc.convert.R2dbcConverter;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@AllArgsConstructor
+public class InvoiceMirrorRepositoryImpl implements InvoiceMirrorRepository {
+    private static final String UPSERT_INVOICE = "INSERT INTO INVOICE_ENTITY (ID, CUSTOMER_ID, SUBSCRIPTION_ID, NUMBER, STATUS, CURRENCY, " +
+            "AMOUNT_DUE, AMOUNT_PAID, AMOUNT_REMAINING, TOTAL, PERIOD_START, PERIOD_END, HOSTED_INVOICE_URL, " +
+            "CREATED_ON, LAST_MODIFIED_ON) " +
+            "VALUES (:id, :customerId, :subscriptionId, :number, :status, :currency, " +
+            ":amountDue, :amountPaid, :amountRemaining, :total, :periodStart, :periodEnd, :hostedInvoiceUrl, " +
+            ":createdOn, :lastModifiedOn) " +
+            "ON CONFLICT (ID) DO UPDATE SET SUBSCRIPTION_ID = EXCLUDED.SUBSCRIPTION_ID, NUMBER = EXCLUDED.NUMBER, " +
+            "STATUS = EXCLUDED.STATUS, CURRENCY = EXCLUDED.CURRENCY, AMOUNT_DUE = EXCLUDED.AMOUNT_DUE, " +
+            "AMOUNT_PAID = EXCLUDED.AMOUNT_PAID, AMOUNT_REMAINING = EXCLUDED.AMOUNT_REMAINING, TOTAL = EXCLUDED.TOTAL, " +
+            "PERIOD_START = EXCLUDED.PERIOD_START, PERIOD_END = EXCLUDED.PERIOD_END, " +
+            "HOSTED_INVOICE_URL = EXCLUDED.HOSTED_INVOICE_URL, LAST_MODIFIED_ON = EXCLUDED.LAST_MODIFIED_ON " +
+            "WHERE INVOICE_ENTITY.STATUS IS DISTINCT FROM 'paid' AND INVOICE_ENTITY.STATUS IS DISTINCT FROM 'void' " +
+            "AND (INVOICE_ENTITY.SUBSCRIPTION_ID, INVOICE_ENTITY.NUMBER, INVOICE_ENTITY.STATUS, INVOICE_ENTITY.CURRENCY, " +
+            "INVOICE_ENTITY.AMOUNT_DUE, INVOICE_ENTITY.AMOUNT_PAID, INVOICE_ENTITY.AMOUNT_REMAINING, INVOICE_ENTITY.TOTAL, " +
+            "INVOICE_ENTITY.PERIOD_START, INVOICE_ENTITY.PERIOD_END, INVOICE_ENTITY.HOSTED_INVOICE_URL) " +
+            "IS DISTINCT FROM (EXCLUDED.SUBSCRIPTION_ID, EXCLUDED.NUMBER, EXCLUDED.STATUS, EXCLUDED.CURRENCY, " +
+            "EXCLUDED.AMOUNT_DUE, EXCLUDED.AMOUNT_PAID, EXCLUDED.AMOUNT_REMAINING, EXCLUDED.TOTAL, " +
+            "EXCLUDED.PERIOD_START, EXCLUDED.PERIOD_END, EXCLUDED.HOSTED_INVOICE_URL) " +
+            "RETURNING ID";
+    private static final String DELETE_LINES = "DELETE FROM INVOICE_LINE_ENTITY " +
+            "WHERE INVOICE_ID IN (SELECT ID FROM UPSERTED_INVOICE) AND ID <> ALL(:lineIds)";
+    private static final String UPSERT_LINES = "INSERT INTO INVOICE_LINE_ENTITY (ID, INVOICE_ID, POSITION, PRICE_ID, DESCRIPTION, " +
+            "AMOUNT, CURRENCY, QUANTITY, PERIOD_START, PERIOD_END) " +
+            "SELECT * FROM (VALUES %s) AS LINE (ID, INVOICE_ID, POSITION, PRICE_ID, DESCRIPTION, " +
+            "AMOUNT, CURRENCY, QUANTITY, PERIOD_START, PERIOD_END) " +
+            "WHERE EXISTS (SELECT 1 FROM UPSERTED_INVOICE) " +
+            "ON CONFLICT (ID) DO UPDATE SET INVOICE_ID = EXCLUDED.INVOICE_ID, POSITION = EXCLUDED.POSITION, " +
+            "PRICE_ID = EXCLUDED.PRICE_ID, DESCRIPTION = EXCLUDED.DESCRIPTION, AMOUNT = EXCLUDED.AMOUNT, " +
+            "CURRENCY = EXCLUDED.CURRENCY, QUANTITY = EXCLUDED.QUANTITY, PERIOD_START = EXCLUDED.PERIOD_START, " +
+            "PERIOD_END = EXCLUDED.PERIOD_END";
+    private static final String FIND_LINES = "SELECT * FROM INVOICE_LINE_ENTITY WHERE INVOICE_ID = ANY(:invoiceIds) " +
+            "ORDER BY INVOICE_ID, POSITION";
+
+    private final DatabaseClient databaseClient;
+    private final R2dbcConverter converter;
+
+    @Override
+    public Flux<InvoiceEntity> findCustomerInvoicePage(
+            String customerId, String status, int limit, String startingAfter, String endingBefore) {
+        return new LocalPageQuery("INVOICE_ENTITY")
+                .where("CUSTOMER_ID", "customerId", customerId)
+                .where("STATUS", "status", status)
+                .fetch(databaseClient, converter, InvoiceEntity.class, limit, startingAfter, endingBefore);
+    }
+
+    @Override
+    public Flux<InvoiceLineEntity> findLines(List<String> invoiceIds) {
+        if (invoiceIds.isEmpty()) {
+            return Flux.empty();
+        }
+
+        return databaseClient.sql(FIND_LINES)
+                .bind("invoiceIds", invoiceIds.toArray(new String[0]))
+                .map((row, metadata) -> converter.read(InvoiceLineEntity.class, row, metadata))
+                .all();
+    }
+
+    /**
+     * The invoice upsert, the removal of lines stripe no longer has and the multi row line upsert are
+     * data modifying CTEs of one statement, so they are applied together in one round trip.
+     */
+    @Override
+    public Mono<Long> upsertWithLines(InvoiceEntity invoice, List<InvoiceLineEntity> lines) {
+        String sql = "WITH UPSERTED_INVOICE AS (" + UPSERT_INVOICE + "), " +
+                "DELETED_LINES AS (" + DELETE_LINES + ")" +
+                (lines.isEmpty() ? "" : ", UPSERTED_LINES AS (" + String.format(UPSERT_LINES, lineValues(lines.size())) + ")") +
+                " SELECT COUNT(*) AS UPSERTED FROM UPSERTED_INVOICE";
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql)
+                .bind("id", invoice.id)
+                .bind("customerId", invoice.customerId)
+                .bind("subscriptionId", NullableParameter.of(invoice.subscriptionId, String.class))
+                .bind("number", NullableParameter.of(invoice.number, String.class))
+                .bind("status", NullableParameter.of(invoice.status, String.class))
+                .bind("currency", NullableParameter.of(invoice.currency, String.class))
+                .bind("amountDue", NullableParameter.of(invoice.amountDue, Long.class))
+                .bind("amountPaid", NullableParameter.of(invoice.amountPaid, Long.class))
+                .bind("amountRemaining", NullableParameter.of(invoice.amountRemaining, Long.class))
+                .bind("total", NullableParameter.of(invoice.total, Long.class))
+                .bind("periodStart", NullableParameter.of(invoice.periodStart, Long.class))
+                .bind("periodEnd", NullableParameter.of(invoice.periodEnd, Long.class))
+                .bind("hostedInvoiceUrl", NullableParameter.of(invoice.hostedInvoiceUrl, String.class))
+                .bind("createdOn", invoice.createdOn)
+                .bind("lastModifiedOn", invoice.lastModifiedOn)
+                .bind("lineIds", lines.stream().map(line -> line.id).toArray(String[]::new));
+
+        for (int i = 0; i < lines.size(); i++) {
+            InvoiceLineEntity line = lines.get(i);
+            spec = spec.bind("lineId" + i, line.id)
+                    .bind("lineInvoiceId" + i, line.invoiceId)
+                    .bind("linePosition" + i, line.position)
+                    .bind("linePriceId" + i, NullableParameter.of(line.priceId, String.class))
+                    .bind("lineDescription" + i, NullableParameter.of(line.description, String.class))
+                    .bind("lineAmount" + i, NullableParameter.of(line.amount, Long.class))
+                    .bind("lineCurrency" + i, NullableParameter.of(line.currency, String.class))
+                    .bind("lineQuantity" + i, NullableParameter.of(line.quantity, Long.class))
+                    .bind("linePeriodStart" + i, NullableParameter.of(line.periodStart, Long.class))
+                    .bind("linePeriodEnd" + i, NullableParameter.of(line.periodEnd, Long.class));
+        }
+
+        return spec.map(row -> row.get("UPSERTED", Long.class)).one();
+    }
+
+    private static String lineValues(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> "(:lineId" + i + ", :lineInvoiceId" + i + ", :linePosition" + i + ", :linePriceId" + i +
+                        ", :lineDescription" + i + ", :lineAmount" + i + ", :lineCurrency" + i + ", :lineQuantity" + i +
+                        ", :linePeriodStart" + i + ", :linePeriodEnd" + i + ")")
+                .collect(Collectors.joining(", "));
+    }
+}
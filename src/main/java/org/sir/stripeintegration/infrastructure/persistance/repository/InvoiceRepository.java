@@ -0,0 +1,9 @@
+package org.sir.stripeintegration.infrastructure.persistance.repository;
+
+import org.sir.stripeintegration.core.domain.InvoiceEntity;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface InvoiceRepository extends R2dbcRepository<InvoiceEntity, String>, InvoiceMirrorRepository {
+}
@@ -0,0 +1,81 @@
+package org.sir.stripeintegration.infrastructure.persistance.repository;
+
+import org.springframework.data.r2dbc.convert.R2dbcConverter;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the list queries of the local stripe mirrors (products, prices, subscriptions, customers, invoices) with
+ * stripe list semantics: newest first, at most {@code limit} rows, {@code startingAfter}/{@code endingBefore} are
+ * ids of rows the page starts after or ends before.
+ * The cursor row is resolved by id and compared on {@code (CREATED_ON, ID)}, so a page is one index range scan.
+ */
+class LocalPageQuery {
+    private final String table;
+    private final List<String> conditions = new ArrayList<>();
+    private final Map<String, Object> bindings = new LinkedHashMap<>();
+
+    LocalPageQuery(String table) {
+        this.table = table;
+    }
+
+    LocalPageQuery where(String column, String name, Object value) {
+        return whereCondition(column + " = :" + name, name, value);
+    }
+
+    /**
+     * @param condition sql condition that uses the {@code :name} binding, skipped when the value is null
+     */
+    LocalPageQuery whereCondition(String condition, String name, Object value) {
+        if (value != null) {
+            conditions.add(condition);
+            bindings.put(name, value);
+        }
+        return this;
+    }
+
+    <T> Flux<T> fetch(DatabaseClient databaseClient, R2dbcConverter converter, Class<T> type,
+                      int limit, String startingAfter, String endingBefore) {
+        boolean backwards = startingAfter == null && endingBefore != null;
+        String cursorId = backwards ? endingBefore : startingAfter;
+
+        List<String> where = new ArrayList<>(conditions);
+        if (cursorId != null) {
+            where.add("(CREATED_ON, ID) " + (backwards ? ">" : "<")
+                    + " (SELECT CREATED_ON, ID FROM " + table + " WHERE ID = :cursorId)");
+        }
+
+        String order = backwards ? "ASC" : "DESC";
+        String sql = "SELECT * FROM " + table
+                + (where.isEmpty() ? "" : " WHERE " + String.join(" AND ", where))
+                + " ORDER BY CREATED_ON " + order + ", ID " + order
+                + " LIMIT :limit";
+
+        DatabaseClient.GenericExecuteSpec executeSpec = databaseClient.sql(sql).bind("limit", limit);
+        for (Map.Entry<String, Object> binding : bindings.entrySet()) {
+            executeSpec = executeSpec.bind(binding.getKey(), binding.getValue());
+        }
+        if (cursorId != null) {
+            executeSpec = executeSpec.bind("cursorId", cursorId);
+        }
+
+        Flux<T> rows = executeSpec
+                .map((row, metadata) -> converter.read(type, row, metadata))
+                .all();
+
+        if (!backwards) {
+            return rows;
+        }
+        return rows.collectList()
+                .flatMapIterable(list -> {
+                    Collections.reverse(list);
+                    return list;
+                });
+    }
+}
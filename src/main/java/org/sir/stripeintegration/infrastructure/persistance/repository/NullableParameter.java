@@ -0,0 +1,16 @@
+package org.sir.stripeintegration.infrastructure.persistance.repository;
+
+import io.r2dbc.spi.Parameter;
+import io.r2dbc.spi.Parameters;
+
+/**
+ * Binds a column that may be null, a null value is sent as a typed null so the driver can encode it.
+ */
+final class NullableParameter {
+    private NullableParameter() {
+    }
+
+    static Parameter of(Object value, Class<?> type) {
+        return value == null ? Parameters.in(type) : Parameters.in(value);
+    }
+}
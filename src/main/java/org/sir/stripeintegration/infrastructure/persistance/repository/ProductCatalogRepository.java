@@ -0,0 +1,19 @@
+package org.sir.stripeintegration.infrastructure.persistance.repository;
+
+import org.sir.stripeintegration.core.domain.ProductEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ProductCatalogRepository {
+    Flux<ProductEntity> findProductPage(
+            Boolean active, Boolean shippable, int limit, String startingAfter, String endingBefore);
+
+    /**
+     * Inserts the product or updates the stored one, {@code CREATED_ON} of a stored product is kept.
+     * A stored product with a later {@code STRIPE_UPDATED_AT} is not changed, so a late webhook delivery can not
+     * overwrite newer state.
+     *
+     * @return 0 when the stored product already had the same values or newer state
+     */
+    Mono<Long> upsert(ProductEntity product);
+}
@@ -0,0 +1,58 @@
+package org.sir.stripeintegration.infrastructure.persistance.repository;
+
+import lombok.AllArgsConstructor;
+import org.sir.stripeintegration.core.domain.ProductEntity;
+import org.springframework.data.r2dbc.convert.R2dbcConverter;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+@AllArgsConstructor
+public class ProductCatalogRepositoryImpl implements ProductCatalogRepository {
+    private static final String UPSERT = "INSERT INTO PRODUCT_ENTITY (ID, NAME, DESCRIPTION, DEFAULT_PRICE_ID, ACTIVE, SHIPPABLE, IMAGES, " +
+            "STRIPE_UPDATED_AT, CREATED_ON, LAST_MODIFIED_ON) " +
+            "VALUES (:id, :name, :description, :defaultPriceId, :active, :shippable, :images, " +
+            ":stripeUpdatedAt, :createdOn, :lastModifiedOn) " +
+            "ON CONFLICT (ID) DO UPDATE SET NAME = EXCLUDED.NAME, DESCRIPTION = EXCLUDED.DESCRIPTION, " +
+            "DEFAULT_PRICE_ID = EXCLUDED.DEFAULT_PRICE_ID, ACTIVE = EXCLUDED.ACTIVE, " +
+            "SHIPPABLE = EXCLUDED.SHIPPABLE, IMAGES = EXCLUDED.IMAGES, STRIPE_UPDATED_AT = EXCLUDED.STRIPE_UPDATED_AT, " +
+            "LAST_MODIFIED_ON = EXCLUDED.LAST_MODIFIED_ON " +
+            "WHERE (PRODUCT_ENTITY.STRIPE_UPDATED_AT IS NULL OR PRODUCT_ENTITY.STRIPE_UPDATED_AT <= EXCLUDED.STRIPE_UPDATED_AT) " +
+            "AND (PRODUCT_ENTITY.NAME, PRODUCT_ENTITY.DESCRIPTION, PRODUCT_ENTITY.DEFAULT_PRICE_ID, " +
+            "PRODUCT_ENTITY.ACTIVE, PRODUCT_ENTITY.SHIPPABLE, PRODUCT_ENTITY.IMAGES) " +
+            "IS DISTINCT FROM (EXCLUDED.NAME, EXCLUDED.DESCRIPTION, EXCLUDED.DEFAULT_PRICE_ID, " +
+            "EXCLUDED.ACTIVE, EXCLUDED.SHIPPABLE, EXCLUDED.IMAGES)";
+
+    private final DatabaseClient databaseClient;
+    private final R2dbcConverter converter;
+
+    @Override
+    public Flux<ProductEntity> findProductPage(
+            Boolean active, Boolean shippable, int limit, String startingAfter, String endingBefore) {
+        return new LocalPageQuery("PRODUCT_ENTITY")
+                .where("ACTIVE", "active", active)
+                .where("SHIPPABLE", "shippable", shippable)
+                .fetch(databaseClient, converter, ProductEntity.class, limit, startingAfter, endingBefore);
+    }
+
+    @Override
+    public Mono<Long> upsert(ProductEntity product) {
+        String[] images = product.images == null ? null : product.images.toArray(new String[0]);
+
+        return databaseClient.sql(UPSERT)
+                .bind("id", product.id)
+                .bind("name", NullableParameter.of(product.name, String.class))
+                .bind("description", NullableParameter.of(product.description, String.class))
+                .bind("defaultPriceId", NullableParameter.of(product.defaultPriceId, String.class))
+                .bind("active", NullableParameter.of(product.active, Boolean.class))
+                .bind("shippable", NullableParameter.of(product.shippable, Boolean.class))
+                .bind("images", NullableParameter.of(images, String[].class))
+                .bind("stripeUpdatedAt", NullableParameter.of(product.stripeUpdatedAt, Instant.class))
+                .bind("createdOn", product.createdOn)
+                .bind("lastModifiedOn", product.lastModifiedOn)
+                .fetch()
+                .rowsUpdated();
+    }
+}
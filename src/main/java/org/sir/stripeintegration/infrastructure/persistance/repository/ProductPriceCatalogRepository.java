@@ -0,0 +1,17 @@
+package org.sir.stripeintegration.infrastructure.persistance.repository;
+
+import org.sir.stripeintegration.core.domain.ProductPriceEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ProductPriceCatalogRepository {
+    Flux<ProductPriceEntity> findPricePage(
+            String productId, Boolean active, String type, int limit, String startingAfter, String endingBefore);
+
+    /**
+     * Inserts the price or updates the stored one, {@code CREATED_ON} of a stored price is kept.
+     *
+     * @return 0 when the stored price already had the same values
+     */
+    Mono<Long> upsert(ProductPriceEntity price);
+}
@@ -0,0 +1,66 @@
+package org.sir.stripeintegration.infrastructure.persistance.repository;
+
+import lombok.AllArgsConstructor;
+import org.sir.stripeintegration.core.domain.ProductPriceEntity;
+import org.springframework.data.r2dbc.convert.R2dbcConverter;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+@AllArgsConstructor
+public class ProductPriceCatalogRepositoryImpl implements ProductPriceCatalogRepository {
+    private static final String UPSERT = "INSERT INTO PRODUCT_PRICE_ENTITY (ID, NICK_NAME, TYPE, CURRENCY, PRODUCT_ID, ACTIVE, UNIT_AMOUNT, " +
+            "RECURRING_INTERVAL, RECURRING_INTERVAL_COUNT, RECURRING_USAGE_TYPE, STRIPE_UPDATED_AT, CREATED_ON, LAST_MODIFIED_ON) " +
+            "VALUES (:id, :nickName, :type, :currency, :productId, :active, :unitAmount, " +
+            ":recurringInterval, :recurringIntervalCount, :recurringUsageType, :stripeUpdatedAt, :createdOn, :lastModifiedOn) " +
+            "ON CONFLICT (ID) DO UPDATE SET NICK_NAME = EXCLUDED.NICK_NAME, TYPE = EXCLUDED.TYPE, " +
+            "CURRENCY = EXCLUDED.CURRENCY, PRODUCT_ID = EXCLUDED.PRODUCT_ID, ACTIVE = EXCLUDED.ACTIVE, " +
+            "UNIT_AMOUNT = EXCLUDED.UNIT_AMOUNT, RECURRING_INTERVAL = EXCLUDED.RECURRING_INTERVAL, " +
+            "RECURRING_INTERVAL_COUNT = EXCLUDED.RECURRING_INTERVAL_COUNT, " +
+            "RECURRING_USAGE_TYPE = EXCLUDED.RECURRING_USAGE_TYPE, STRIPE_UPDATED_AT = EXCLUDED.STRIPE_UPDATED_AT, " +
+            "LAST_MODIFIED_ON = EXCLUDED.LAST_MODIFIED_ON " +
+            "WHERE (PRODUCT_PRICE_ENTITY.STRIPE_UPDATED_AT IS NULL " +
+            "OR PRODUCT_PRICE_ENTITY.STRIPE_UPDATED_AT <= EXCLUDED.STRIPE_UPDATED_AT) " +
+            "AND (PRODUCT_PRICE_ENTITY.NICK_NAME, PRODUCT_PRICE_ENTITY.TYPE, PRODUCT_PRICE_ENTITY.CURRENCY, " +
+            "PRODUCT_PRICE_ENTITY.PRODUCT_ID, PRODUCT_PRICE_ENTITY.ACTIVE, PRODUCT_PRICE_ENTITY.UNIT_AMOUNT, " +
+            "PRODUCT_PRICE_ENTITY.RECURRING_INTERVAL, PRODUCT_PRICE_ENTITY.RECURRING_INTERVAL_COUNT, " +
+            "PRODUCT_PRICE_ENTITY.RECURRING_USAGE_TYPE) " +
+            "IS DISTINCT FROM (EXCLUDED.NICK_NAME, EXCLUDED.TYPE, EXCLUDED.CURRENCY, EXCLUDED.PRODUCT_ID, " +
+            "EXCLUDED.ACTIVE, EXCLUDED.UNIT_AMOUNT, EXCLUDED.RECURRING_INTERVAL, " +
+            "EXCLUDED.RECURRING_INTERVAL_COUNT, EXCLUDED.RECURRING_USAGE_TYPE)";
+
+    private final DatabaseClient databaseClient;
+    private final R2dbcConverter converter;
+
+    @Override
+    public Flux<ProductPriceEntity> findPricePage(
+            String productId, Boolean active, String type, int limit, String startingAfter, String endingBefore) {
+        return new LocalPageQuery("PRODUCT_PRICE_ENTITY")
+                .where("PRODUCT_ID", "productId", productId)
+                .where("ACTIVE", "active", active)
+                .where("TYPE", "type", type)
+                .fetch(databaseClient, converter, ProductPriceEntity.class, limit, startingAfter, endingBefore);
+    }
+
+    @Override
+    public Mono<Long> upsert(ProductPriceEntity price) {
+        return databaseClient.sql(UPSERT)
+                .bind("id", price.id)
+                .bind("nickName", NullableParameter.of(price.nickName, String.class))
+                .bind("type", price.type)
+                .bind("currency", NullableParameter.of(price.currency, String.class))
+                .bind("productId", price.productId)
+                .bind("active", NullableParameter.of(price.active, Boolean.class))
+                .bind("unitAmount", NullableParameter.of(price.unitAmount, Long.class))
+                .bind("recurringInterval", NullableParameter.of(price.recurringInterval, String.class))
+                .bind("recurringIntervalCount", NullableParameter.of(price.recurringIntervalCount, Long.class))
+                .bind("recurringUsageType", NullableParameter.of(price.recurringUsageType, String.class))
+                .bind("stripeUpdatedAt", NullableParameter.of(price.stripeUpdatedAt, Instant.class))
+                .bind("createdOn", price.createdOn)
+                .bind("lastModifiedOn", price.lastModifiedOn)
+                .fetch()
+                .rowsUpdated();
+    }
+}
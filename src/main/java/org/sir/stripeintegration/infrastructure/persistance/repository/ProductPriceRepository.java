@@ -1,9 +1,18 @@
 package org.sir.stripeintegration.infrastructure.persistance.repository;
 
 import org.sir.stripeintegration.core.domain.ProductPriceEntity;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
 
 @Repository
-public interface ProductPriceRepository extends R2dbcRepository<ProductPriceEntity, String> {
+public interface ProductPriceRepository extends R2dbcRepository<ProductPriceEntity, String>, ProductPriceCatalogRepository {
+    /**
+     * Version of the row for conditional requests, a primary key lookup that reads no other column.
+     */
+    @Query("SELECT COALESCE(LAST_MODIFIED_ON, CREATED_ON, TIMESTAMP 'epoch') FROM PRODUCT_PRICE_ENTITY WHERE ID = $1")
+    Mono<Instant> findLastModifiedOnById(String id);
 }
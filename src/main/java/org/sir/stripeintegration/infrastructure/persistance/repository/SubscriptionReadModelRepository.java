@@ -0,0 +1,20 @@
+package org.sir.stripeintegration.infrastructure.persistance.repository;
+
+import org.sir.stripeintegration.core.domain.SubscriptionEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface SubscriptionReadModelRepository {
+    Flux<SubscriptionEntity> findCustomerSubscriptionPage(
+            String customerId, String status, int limit, String startingAfter, String endingBefore);
+
+    /**
+     * Inserts the subscription or updates the stored one, {@code CREATED_ON} of a stored subscription is kept.
+     * A stored subscription that already ended ({@code canceled}, {@code incomplete_expired}) is never changed,
+     * so a late {@code customer.subscription.updated} delivery can not bring it back. A stored subscription with a
+     * later {@code STRIPE_UPDATED_AT} is not changed either.
+     *
+     * @return 0 when the stored subscription already had the same values, newer state or had ended
+     */
+    Mono<Long> upsert(SubscriptionEntity subscription);
+}
@@ -0,0 +1,77 @@
+package org.sir.stripeintegration.infrastructure.persistance.repository;
+
+import lombok.AllArgsConstructor;
+import org.sir.stripeintegration.core.domain.SubscriptionEntity;
+import org.springframework.data.r2dbc.convert.R2dbcConverter;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+@AllArgsConstructor
+public class SubscriptionReadModelRepositoryImpl implements SubscriptionReadModelRepository {
+    private static final String UPSERT = "INSERT INTO SUBSCRIPTION_ENTITY (ID, CUSTOMER_ID, STATUS, CURRENCY, DESCRIPTION, " +
+            "CANCEL_AT, CANCEL_AT_PERIOD_END, CURRENT_PERIOD_START, CURRENT_PERIOD_END, DEFAULT_PAYMENT_METHOD_ID, " +
+            "ITEM_PRICE_IDS, ITEM_QUANTITIES, STRIPE_UPDATED_AT, CREATED_ON, LAST_MODIFIED_ON) " +
+            "VALUES (:id, :customerId, :status, :currency, :description, " +
+            ":cancelAt, :cancelAtPeriodEnd, :currentPeriodStart, :currentPeriodEnd, :defaultPaymentMethodId, " +
+            ":itemPriceIds, :itemQuantities, :stripeUpdatedAt, :createdOn, :lastModifiedOn) " +
+            "ON CONFLICT (ID) DO UPDATE SET STATUS = EXCLUDED.STATUS, CURRENCY = EXCLUDED.CURRENCY, " +
+            "DESCRIPTION = EXCLUDED.DESCRIPTION, CANCEL_AT = EXCLUDED.CANCEL_AT, " +
+            "CANCEL_AT_PERIOD_END = EXCLUDED.CANCEL_AT_PERIOD_END, CURRENT_PERIOD_START = EXCLUDED.CURRENT_PERIOD_START, " +
+            "CURRENT_PERIOD_END = EXCLUDED.CURRENT_PERIOD_END, DEFAULT_PAYMENT_METHOD_ID = EXCLUDED.DEFAULT_PAYMENT_METHOD_ID, " +
+            "ITEM_PRICE_IDS = EXCLUDED.ITEM_PRICE_IDS, ITEM_QUANTITIES = EXCLUDED.ITEM_QUANTITIES, " +
+            "STRIPE_UPDATED_AT = EXCLUDED.STRIPE_UPDATED_AT, LAST_MODIFIED_ON = EXCLUDED.LAST_MODIFIED_ON " +
+            "WHERE SUBSCRIPTION_ENTITY.STATUS NOT IN ('canceled', 'incomplete_expired') " +
+            "AND (SUBSCRIPTION_ENTITY.STRIPE_UPDATED_AT IS NULL " +
+            "OR SUBSCRIPTION_ENTITY.STRIPE_UPDATED_AT <= EXCLUDED.STRIPE_UPDATED_AT) " +
+            "AND (SUBSCRIPTION_ENTITY.STATUS, SUBSCRIPTION_ENTITY.CURRENCY, SUBSCRIPTION_ENTITY.DESCRIPTION, " +
+            "SUBSCRIPTION_ENTITY.CANCEL_AT, SUBSCRIPTION_ENTITY.CANCEL_AT_PERIOD_END, " +
+            "SUBSCRIPTION_ENTITY.CURRENT_PERIOD_START, SUBSCRIPTION_ENTITY.CURRENT_PERIOD_END, " +
+            "SUBSCRIPTION_ENTITY.DEFAULT_PAYMENT_METHOD_ID, SUBSCRIPTION_ENTITY.ITEM_PRICE_IDS, " +
+            "SUBSCRIPTION_ENTITY.ITEM_QUANTITIES) " +
+            "IS DISTINCT FROM (EXCLUDED.STATUS, EXCLUDED.CURRENCY, EXCLUDED.DESCRIPTION, " +
+            "EXCLUDED.CANCEL_AT, EXCLUDED.CANCEL_AT_PERIOD_END, EXCLUDED.CURRENT_PERIOD_START, " +
+            "EXCLUDED.CURRENT_PERIOD_END, EXCLUDED.DEFAULT_PAYMENT_METHOD_ID, EXCLUDED.ITEM_PRICE_IDS, " +
+            "EXCLUDED.ITEM_QUANTITIES)";
+
+    private final DatabaseClient databaseClient;
+    private final R2dbcConverter converter;
+
+    @Override
+    public Flux<SubscriptionEntity> findCustomerSubscriptionPage(
+            String customerId, String status, int limit, String startingAfter, String endingBefore) {
+        return new LocalPageQuery("SUBSCRIPTION_ENTITY")
+                .where("CUSTOMER_ID", "customerId", customerId)
+                .where("STATUS", "status", status)
+                .fetch(databaseClient, converter, SubscriptionEntity.class, limit, startingAfter, endingBefore);
+    }
+
+    @Override
+    public Mono<Long> upsert(SubscriptionEntity subscription) {
+        String[] itemPriceIds = subscription.itemPriceIds == null
+                ? null : subscription.itemPriceIds.toArray(new String[0]);
+        Long[] itemQuantities = subscription.itemQuantities == null
+                ? null : subscription.itemQuantities.toArray(new Long[0]);
+
+        return databaseClient.sql(UPSERT)
+                .bind("id", subscription.id)
+                .bind("customerId", subscription.customerId)
+                .bind("status", subscription.status)
+                .bind("currency", NullableParameter.of(subscription.currency, String.class))
+                .bind("description", NullableParameter.of(subscription.description, String.class))
+                .bind("cancelAt", NullableParameter.of(subscription.cancelAt, Long.class))
+                .bind("cancelAtPeriodEnd", NullableParameter.of(subscription.cancelAtPeriodEnd, Boolean.class))
+                .bind("currentPeriodStart", NullableParameter.of(subscription.currentPeriodStart, Long.class))
+                .bind("currentPeriodEnd", NullableParameter.of(subscription.currentPeriodEnd, Long.class))
+                .bind("defaultPaymentMethodId", NullableParameter.of(subscription.defaultPaymentMethodId, String.class))
+                .bind("itemPriceIds", NullableParameter.of(itemPriceIds, String[].class))
+                .bind("itemQuantities", NullableParameter.of(itemQuantities, Long[].class))
+                .bind("stripeUpdatedAt", NullableParameter.of(subscription.stripeUpdatedAt, Instant.class))
+                .bind("createdOn", subscription.createdOn)
+                .bind("lastModifiedOn", subscription.lastModifiedOn)
+                .fetch()
+                .rowsUpdated();
+    }
+}
@@ -5,5 +5,5 @@ import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface SubscriptionRepository extends R2dbcRepository<SubscriptionEntity, String> {
+public interface SubscriptionRepository extends R2dbcRepository<SubscriptionEntity, String>, SubscriptionReadModelRepository {
 }
@@ -0,0 +1,15 @@
+package org.sir.stripeintegration.infrastructure.persistance.repository;
+
+import org.sir.stripeintegration.core.domain.TransactionEntity;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+
+public interface TransactionExportRepository {
+    /**
+     * Streams the matching transactions ordered by {@code (CREATED_ON, ID)}. Rows are pulled from the
+     * database in chunks of {@code fetchSize} as the subscriber requests them, nothing is buffered.
+     * Null filters are ignored.
+     */
+    Flux<TransactionEntity> streamTransactions(String customerId, Instant from, Instant to, int fetchSize);
+}
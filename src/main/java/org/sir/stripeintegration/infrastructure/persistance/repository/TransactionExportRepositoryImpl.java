@@ -0,0 +1,52 @@
+package org.sir.stripeintegration.infrastructure.persistance.repository;
+
+import lombok.AllArgsConstructor;
+import org.sir.stripeintegration.core.domain.TransactionEntity;
+import org.springframework.data.r2dbc.convert.R2dbcConverter;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@AllArgsConstructor
+public class TransactionExportRepositoryImpl implements TransactionExportRepository {
+    private final DatabaseClient databaseClient;
+    private final R2dbcConverter converter;
+
+    @Override
+    public Flux<TransactionEntity> streamTransactions(String customerId, Instant from, Instant to, int fetchSize) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> bindings = new LinkedHashMap<>();
+
+        if (customerId != null) {
+            conditions.add("CUSTOMER_ID = :customerId");
+            bindings.put("customerId", customerId);
+        }
+        if (from != null) {
+            conditions.add("CREATED_ON >= :from");
+            bindings.put("from", from);
+        }
+        if (to != null) {
+            conditions.add("CREATED_ON < :to");
+            bindings.put("to", to);
+        }
+
+        String sql = "SELECT * FROM TRANSACTION_ENTITY"
+                + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions))
+                + " ORDER BY CREATED_ON, ID";
+
+        DatabaseClient.GenericExecuteSpec executeSpec = databaseClient.sql(sql)
+                .filter((statement, next) -> next.execute(statement.fetchSize(fetchSize)));
+        for (Map.Entry<String, Object> binding : bindings.entrySet()) {
+            executeSpec = executeSpec.bind(binding.getKey(), binding.getValue());
+        }
+
+        return executeSpec
+                .map((row, metadata) -> converter.read(TransactionEntity.class, row, metadata))
+                .all();
+    }
+}
@@ -1,15 +1,37 @@
 package org.sir.stripeintegration.infrastructure.persistance.repository;
 
 import org.sir.stripeintegration.core.domain.TransactionEntity;
+import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.Instant;
 import java.util.UUID;
 
 @Repository
-public interface TransactionRepository extends R2dbcRepository<TransactionEntity, UUID> {
-    @Query("SELECT * FROM TRANSACTION_ENTITY WHERE CUSTOMER_ID = $1 LIMIT $2 OFFSET $3")
-    Flux<TransactionEntity> getTransactionPagingData(String customerId, Integer pageSize, Integer offset);
+public interface TransactionRepository extends R2dbcRepository<TransactionEntity, UUID>, TransactionExportRepository {
+    @Query("SELECT * FROM TRANSACTION_ENTITY WHERE CUSTOMER_ID = $1 " +
+            "ORDER BY CREATED_ON DESC, ID DESC LIMIT $2")
+    Flux<TransactionEntity> getTransactionFirstPage(String customerId, Integer limit);
+
+    /**
+     * Keyset page after the {@code (createdOn, id)} of the last row of the previous page,
+     * served by the {@code (CUSTOMER_ID, CREATED_ON, ID)} index.
+     */
+    @Query("SELECT * FROM TRANSACTION_ENTITY WHERE CUSTOMER_ID = $1 AND (CREATED_ON, ID) < ($2, $3) " +
+            "ORDER BY CREATED_ON DESC, ID DESC LIMIT $4")
+    Flux<TransactionEntity> getTransactionPageAfter(String customerId, Instant createdOn, UUID id, Integer limit);
+
+    /**
+     * Inserts the transaction of a webhook event once, a redelivered event hits the unique event id index.
+     */
+    @Modifying
+    @Query("INSERT INTO TRANSACTION_ENTITY (ID, EVENT_ID, AMOUNT, CUSTOMER_ID, PAYMENT_INTENT_ID, IS_SUCCESS, CREATED_ON, LAST_MODIFIED_ON) " +
+            "VALUES (:#{#t.id}, :#{#t.eventId}, :#{#t.amount}, :#{#t.customerId}, :#{#t.paymentIntentId}, :#{#t.isSuccess}, " +
+            ":#{#t.createdOn}, :#{#t.lastModifiedOn}) ON CONFLICT (EVENT_ID) DO NOTHING")
+    Mono<Integer> insertIfAbsent(@Param("t") TransactionEntity transaction);
 }
@@ -0,0 +1,53 @@
+package org.sir.stripeintegration.infrastructure.persistance.repository;
+
+import org.sir.stripeintegration.core.domain.WebhookEventEntity;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+@Repository
+public interface WebhookEventRepository extends R2dbcRepository<WebhookEventEntity, String> {
+    @Modifying
+    @Query("INSERT INTO WEBHOOK_EVENT_ENTITY (ID, TYPE, PAYLOAD, STATUS, ATTEMPTS, NEXT_ATTEMPT_AT, CREATED_ON, LAST_MODIFIED_ON) " +
+            "VALUES ($1, $2, $3, 'PENDING', 0, $4, $4, $4) ON CONFLICT (ID) DO NOTHING")
+    Mono<Integer> insertIfAbsent(String id, String type, String payload, Instant now);
+
+    /**
+     * Claims due events for one worker, rows locked by another worker are skipped. Events whose lease ran out
+     * (worker died while processing) are claimed again while they have attempts left.
+     */
+    @Query("UPDATE WEBHOOK_EVENT_ENTITY SET STATUS = 'PROCESSING', ATTEMPTS = ATTEMPTS + 1, LOCKED_UNTIL = $3, LAST_MODIFIED_ON = $2 " +
+            "WHERE ID IN (SELECT ID FROM WEBHOOK_EVENT_ENTITY " +
+            "WHERE (STATUS = 'PENDING' AND NEXT_ATTEMPT_AT <= $2) " +
+            "OR (STATUS = 'PROCESSING' AND LOCKED_UNTIL < $2 AND ATTEMPTS < $4) " +
+            "ORDER BY NEXT_ATTEMPT_AT LIMIT $1 FOR UPDATE SKIP LOCKED) " +
+            "RETURNING *")
+    Flux<WebhookEventEntity> claimBatch(Integer batchSize, Instant now, Instant lockedUntil, Integer maxAttempts);
+
+    /**
+     * Events whose lease ran out on their last attempt crashed or hung the worker every time, they are not
+     * claimed again.
+     *
+     * @return the ids of the events marked dead
+     */
+    @Query("UPDATE WEBHOOK_EVENT_ENTITY SET STATUS = 'DEAD', LOCKED_UNTIL = NULL, LAST_ERROR = 'lease expired', " +
+            "LAST_MODIFIED_ON = $1 " +
+            "WHERE STATUS = 'PROCESSING' AND LOCKED_UNTIL < $1 AND ATTEMPTS >= $2 " +
+            "RETURNING ID")
+    Flux<String> markLeaseExpiredDead(Instant now, Integer maxAttempts);
+
+    @Modifying
+    @Query("UPDATE WEBHOOK_EVENT_ENTITY SET STATUS = 'DONE', LOCKED_UNTIL = NULL, LAST_ERROR = NULL, LAST_MODIFIED_ON = $2 " +
+            "WHERE ID = $1")
+    Mono<Integer> markDone(String id, Instant now);
+
+    @Modifying
+    @Query("UPDATE WEBHOOK_EVENT_ENTITY SET STATUS = $2, NEXT_ATTEMPT_AT = $3, LOCKED_UNTIL = NULL, LAST_ERROR = $4, " +
+            "LAST_MODIFIED_ON = $5 WHERE ID = $1")
+    Mono<Integer> markFailed(String id, String status, Instant nextAttemptAt, String lastError, Instant now);
+}
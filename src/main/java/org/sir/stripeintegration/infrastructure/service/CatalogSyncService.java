@@ -0,0 +1,121 @@
+package org.sir.stripeintegration.infrastructure.service;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.sir.stripeintegration.core.application.dtos.product.response.ProductDto;
+import org.sir.stripeintegration.core.application.dtos.productPrice.response.ProductPriceDto;
+import org.sir.stripeintegration.core.application.interfaces.service.ICatalogSyncService;
+import org.sir.stripeintegration.core.application.mappers.ProductMapper;
+import org.sir.stripeintegration.core.application.mappers.ProductPriceMapper;
+import org.sir.stripeintegration.core.domain.ProductEntity;
+import org.sir.stripeintegration.core.domain.ProductPriceEntity;
+import org.sir.stripeintegration.core.shared.EntityAuditFields;
+import org.sir.stripeintegration.infrastructure.persistance.repository.ProductPriceRepository;
+import org.sir.stripeintegration.infrastructure.persistance.repository.ProductRepository;
+import org.sir.stripeintegration.infrastructure.service.stripe.StripeCatalogCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Upserts are single statements that skip unchanged rows, so replaying webhooks or a full reconciliation
+ * only writes what actually changed. A changed row is also evicted from {@link StripeCatalogCache}.
+ */
+@Service
+@AllArgsConstructor
+@Slf4j
+public class CatalogSyncService implements ICatalogSyncService {
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSyncService.class);
+    private final ProductRepository productRepository;
+    private final ProductPriceRepository productPriceRepository;
+    private final StripeCatalogCache stripeCatalogCache;
+    private final ProductMapper productMapper;
+    private final ProductPriceMapper productPriceMapper;
+
+    @Override
+    public Mono<Void> upsertProduct(ProductDto productDto) {
+        return upsertProduct(productDto, readNow());
+    }
+
+    @Override
+    public Mono<Void> upsertProduct(ProductDto productDto, Instant stripeUpdatedAt) {
+        ProductEntity product = getEntityFromDto(productDto);
+        product.setStripeUpdatedAt(stripeUpdatedAt);
+
+        return productRepository.upsert(product)
+                .doOnNext(updated -> {
+                    if (updated > 0) {
+                        logger.debug("Product {} synced", productDto.id);
+                        stripeCatalogCache.evictProduct(productDto.id);
+                    }
+                })
+                .then();
+    }
+
+    @Override
+    public Mono<Void> deleteProduct(String id) {
+        return productRepository.deleteById(id)
+                .doOnSuccess(unused -> stripeCatalogCache.evictProduct(id));
+    }
+
+    @Override
+    public Mono<Void> upsertPrice(ProductPriceDto productPriceDto) {
+        return upsertPrice(productPriceDto, readNow());
+    }
+
+    @Override
+    public Mono<Void> upsertPrice(ProductPriceDto productPriceDto, Instant stripeUpdatedAt) {
+        ProductPriceEntity productPrice = getEntityFromDto(productPriceDto);
+        productPrice.setStripeUpdatedAt(stripeUpdatedAt);
+
+        return productPriceRepository.upsert(productPrice)
+                .doOnNext(updated -> {
+                    if (updated > 0) {
+                        logger.debug("Price {} synced", productPriceDto.id);
+                        stripeCatalogCache.evictPrice(productPriceDto.id);
+                    }
+                })
+                .then();
+    }
+
+    @Override
+    public Mono<Void> deletePrice(String id) {
+        return productPriceRepository.deleteById(id)
+                .doOnSuccess(unused -> stripeCatalogCache.evictPrice(id));
+    }
+
+    private ProductEntity getEntityFromDto(ProductDto dto) {
+        ProductEntity product = productMapper.toEntity(dto);
+        product.setNewEntry(true);
+        setCreatedOn(product, dto.created);
+        return product;
+    }
+
+    private ProductPriceEntity getEntityFromDto(ProductPriceDto dto) {
+        ProductPriceEntity productPrice = productPriceMapper.toEntity(dto);
+        productPrice.setNewEntry(true);
+        setCreatedOn(productPrice, dto.created);
+        return productPrice;
+    }
+
+    /**
+     * Webhook event times have second precision, state read at the same second as an event is applied in
+     * arrival order.
+     */
+    static Instant readNow() {
+        return Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    /**
+     * Local lists are ordered like stripe lists, by the stripe creation time when it is known.
+     */
+    private static void setCreatedOn(EntityAuditFields entity, Long created) {
+        if (created != null) {
+            entity.setCreatedOn(Instant.ofEpochSecond(created));
+        }
+    }
+}
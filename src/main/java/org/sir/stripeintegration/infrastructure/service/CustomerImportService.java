@@ -0,0 +1,221 @@
+package org.sir.stripeintegration.infrastructure.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.sir.stripeintegration.core.application.dtos.customer.request.CustomerCreateRequestDto;
+import org.sir.stripeintegration.core.application.dtos.customer.response.CustomerDto;
+import org.sir.stripeintegration.core.application.dtos.customer.response.CustomerImportResultDto;
+import org.sir.stripeintegration.core.application.interfaces.service.ICustomerImportService;
+import org.sir.stripeintegration.core.application.interfaces.service.IStripeGateway;
+import org.sir.stripeintegration.core.application.mappers.CustomerMapper;
+import org.sir.stripeintegration.core.domain.CustomerEntity;
+import org.sir.stripeintegration.core.shared.constant.ImportFormat;
+import org.sir.stripeintegration.core.shared.exceptions.CustomException;
+import org.sir.stripeintegration.infrastructure.persistance.repository.CustomerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Creates customers from a streamed ndjson or csv body. Up to {@code customer.import.concurrency} Stripe calls
+ * run at once, paced by the write budget of the Stripe rate limiter, and the created customers are stored
+ * with one multi-row insert per {@code customer.import.batch-size} rows. Per row results are streamed back
+ * in input order, a batch at a time.
+ * <p>
+ * After every batch the import id's checkpoint moves to the batch's last line. Running the same import id
+ * again skips the rows up to the checkpoint, and every Stripe call carries an idempotency key made of the
+ * import id and the line, so rows that were created but not checkpointed before a failure are not created twice
+ * (Stripe keeps the keys for 24 hours). Failed rows are not retried by a resumed run, they are reported as
+ * failed and can be sent again under a new import id.
+ */
+@Service
+@Slf4j
+public class CustomerImportService implements ICustomerImportService {
+    private static final Logger logger = LoggerFactory.getLogger(CustomerImportService.class);
+
+    private final IStripeGateway stripeGateway;
+    private final CustomerRepository customerRepository;
+    private final CustomerMapper customerMapper;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int concurrency;
+    private final int batchSize;
+
+    public CustomerImportService(IStripeGateway stripeGateway,
+                                 CustomerRepository customerRepository,
+                                 CustomerMapper customerMapper,
+                                 ObjectMapper objectMapper,
+                                 Validator validator,
+                                 @Value("${customer.import.concurrency}") int concurrency,
+                                 @Value("${customer.import.batch-size}") int batchSize) {
+        this.stripeGateway = stripeGateway;
+        this.customerRepository = customerRepository;
+        this.customerMapper = customerMapper;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.concurrency = concurrency;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public Flux<CustomerImportResultDto> importCustomers(ImportFormat format, String importId, Flux<String> lines) {
+        return customerRepository.findImportCheckpoint(importId)
+                .defaultIfEmpty(0L)
+                .flatMapMany(checkpoint -> parseRows(format, lines)
+                        .flatMapSequential(row -> row.line <= checkpoint
+                                ? Mono.just(result(row, CustomerImportResultDto.SKIPPED, null, null))
+                                : importRow(importId, row), concurrency)
+                        .buffer(batchSize)
+                        .concatMap(batch -> saveBatch(importId, checkpoint, batch)))
+                .doOnError(ex -> logger.error("Customer import {} failed: {}", importId, ex.getMessage()));
+    }
+
+    private Mono<ImportedRow> importRow(String importId, Row row) {
+        if (row.error != null) {
+            return Mono.just(result(row, CustomerImportResultDto.FAILED, null, row.error));
+        }
+
+        return stripeGateway.createCustomer(row.requestDto, "customer-import-" + importId + "-" + row.line)
+                .map(customerDto -> new ImportedRow(new CustomerImportResultDto(
+                        row.line, CustomerImportResultDto.CREATED, customerDto.getId(), row.email, null), customerDto))
+                .onErrorResume(ex -> Mono.just(result(row, CustomerImportResultDto.FAILED, null, ex.getMessage())));
+    }
+
+    private Flux<CustomerImportResultDto> saveBatch(String importId, long checkpoint, List<ImportedRow> batch) {
+        List<CustomerEntity> customers = batch.stream()
+                .map(ImportedRow::customerDto)
+                .filter(Objects::nonNull)
+                .map(customerDto -> customerMapper.toEntity(customerDto))
+                .toList();
+        long lastLine = batch.get(batch.size() - 1).result.line;
+
+        Mono<Void> checkpointSaved = lastLine <= checkpoint
+                ? Mono.empty()
+                : customerRepository.saveImportCheckpoint(importId, lastLine);
+
+        return customerRepository.insertBatch(customers)
+                .then(checkpointSaved)
+                .thenMany(Flux.fromIterable(batch).map(ImportedRow::result));
+    }
+
+    //region Parsing
+    private Flux<Row> parseRows(ImportFormat format, Flux<String> lines) {
+        Flux<String> nonBlank = lines.filter(line -> !line.isBlank());
+
+        if (format == ImportFormat.NDJSON) {
+            return nonBlank.index().map(this::parseJsonRow);
+        }
+
+        return nonBlank.switchOnFirst((header, rows) -> {
+            if (!header.hasValue()) {
+                return Flux.empty();
+            }
+            List<String> columns = parseCsvLine(header.get()).stream()
+                    .map(column -> column.trim().toLowerCase())
+                    .toList();
+            if (!columns.contains("email") || !columns.contains("name")) {
+                return Flux.error(new CustomException("Csv header must have the email and name columns"));
+            }
+            return rows.skip(1).index().map(indexedLine -> parseCsvRow(columns, indexedLine));
+        });
+    }
+
+    private Row parseJsonRow(Tuple2<Long, String> indexedLine) {
+        long line = indexedLine.getT1() + 1;
+        try {
+            return validate(line, objectMapper.readValue(indexedLine.getT2(), CustomerCreateRequestDto.class));
+        } catch (JsonProcessingException e) {
+            return new Row(line, null, null, "Invalid json: " + e.getOriginalMessage());
+        }
+    }
+
+    private Row parseCsvRow(List<String> columns, Tuple2<Long, String> indexedLine) {
+        long line = indexedLine.getT1() + 1;
+        List<String> values = parseCsvLine(indexedLine.getT2());
+        if (values.size() != columns.size()) {
+            return new Row(line, null, null, "Expected " + columns.size() + " columns but found " + values.size());
+        }
+
+        CustomerCreateRequestDto requestDto = new CustomerCreateRequestDto();
+        for (int i = 0; i < columns.size(); i++) {
+            String value = values.get(i).isEmpty() ? null : values.get(i);
+            switch (columns.get(i)) {
+                case "email" -> requestDto.email = value;
+                case "name" -> requestDto.name = value;
+                case "phone" -> requestDto.phone = value;
+                default -> {
+                    // unknown columns are ignored
+                }
+            }
+        }
+        return validate(line, requestDto);
+    }
+
+    private Row validate(long line, CustomerCreateRequestDto requestDto) {
+        String error = validator.validate(requestDto).stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+        return new Row(line, requestDto.email, error.isEmpty() ? requestDto : null, error.isEmpty() ? null : error);
+    }
+
+    /**
+     * Splits one csv line, double quoted values may contain commas and {@code ""} for a quote.
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString().trim());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString().trim());
+        return values;
+    }
+    //endregion
+
+    private static ImportedRow result(Row row, String status, String customerId, String error) {
+        return new ImportedRow(new CustomerImportResultDto(row.line, status, customerId, row.email, error), null);
+    }
+
+    /**
+     * @param requestDto null when the row is invalid, {@code error} says why
+     */
+    private record Row(long line, String email, CustomerCreateRequestDto requestDto, String error) {
+    }
+
+    /**
+     * @param customerDto set when the customer was created in Stripe and still has to be stored
+     */
+    private record ImportedRow(CustomerImportResultDto result, CustomerDto customerDto) {
+    }
+}
@@ -2,61 +2,99 @@ package org.sir.stripeintegration.infrastructure.service;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.sir.stripeintegration.core.application.dtos.customer.request.CustomerCreateRequestDto;
 import org.sir.stripeintegration.core.application.dtos.customer.request.CustomerUpdateRequestDto;
 import org.sir.stripeintegration.core.application.dtos.customer.response.CustomerDto;
 import org.sir.stripeintegration.core.application.interfaces.service.ICustomerService;
+import org.sir.stripeintegration.core.application.interfaces.service.IStripeGateway;
+import org.sir.stripeintegration.core.application.mappers.CustomerMapper;
 import org.sir.stripeintegration.core.domain.CustomerEntity;
 import org.sir.stripeintegration.core.shared.constant.ErrorMessage;
 import org.sir.stripeintegration.core.shared.exceptions.CustomException;
 import org.sir.stripeintegration.infrastructure.persistance.repository.CustomerRepository;
-import org.sir.stripeintegration.infrastructure.service.stripe.StripeRootService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.util.List;
+import java.time.Instant;
 
 @Service
 @AllArgsConstructor
 @Slf4j
 public class CustomerService implements ICustomerService {
     private static final Logger logger = LoggerFactory.getLogger(CustomerService.class);
+    private static final long RECONCILE_PAGE_SIZE = 100;
     private final CustomerRepository customerRepository;
 
-    private final StripeRootService stripeRootService;
-    private final ModelMapper mapper = new ModelMapper();
+    private final IStripeGateway stripeGateway;
+    private final CustomerMapper customerMapper;
 
     @Override
     public Mono<CustomerDto> getCustomer(String customerId) {
         Mono<CustomerEntity> customers = customerRepository.findById(customerId);
-        return customers.map(customer -> mapper.map(customer, CustomerDto.class))
+        return customers.map(customer -> customerMapper.toDto(customer))
                 .switchIfEmpty(Mono.error(new CustomException(ErrorMessage.CUSTOMER_NOT_FOUND.getMessage())));
     }
 
     @Override
-    public Flux<CustomerDto> getAllCustomer(Long limit, String startingAfter, String endingBefore) {
-        List<CustomerDto> customers = stripeRootService.getAllCustomers(limit, startingAfter, endingBefore);
-        return Mono.just(customers).flatMapIterable(list -> list);
+    public Mono<Instant> getCustomerLastModifiedOn(String customerId) {
+        return customerRepository.findLastModifiedOnById(customerId);
+    }
+
+    @Override
+    public Flux<CustomerDto> getAllCustomer(
+            String email, String name, Long limit, String startingAfter, String endingBefore) {
+        return customerRepository.findCustomerPage(
+                        email, name, LocalCatalogReadService.pageSize(limit), startingAfter, endingBefore)
+                .map(customerMapper::toDto);
+    }
+
+    /**
+     * Pages through every stripe customer and upserts it, customers stripe has without an email can not be
+     * stored and are skipped.
+     */
+    @Override
+    public Mono<Long> reconcileCustomers() {
+        return stripeGateway.getAllCustomers(RECONCILE_PAGE_SIZE, null, null).collectList()
+                .expand(page -> page.size() < RECONCILE_PAGE_SIZE
+                        ? Mono.empty()
+                        : stripeGateway.getAllCustomers(RECONCILE_PAGE_SIZE, page.get(page.size() - 1).id, null)
+                        .collectList())
+                .flatMapIterable(page -> page)
+                .filter(customerDto -> {
+                    if (customerDto.email == null) {
+                        logger.warn("Stripe customer {} has no email, not reconciled", customerDto.id);
+                        return false;
+                    }
+                    return true;
+                })
+                .concatMap(customerDto -> {
+                    CustomerEntity customer = customerMapper.toEntity(customerDto);
+                    if (customer.name == null) {
+                        customer.setName("");
+                    }
+                    customer.setStripeUpdatedAt(CatalogSyncService.readNow());
+                    return customerRepository.upsert(customer);
+                })
+                .reduce(0L, Long::sum)
+                .doOnNext(updated -> logger.info("Customer reconciliation finished, {} customers changed", updated));
     }
 
     @Override
     public Mono<CustomerDto> addCustomer(CustomerCreateRequestDto requestDto) {
-        try {
-            CustomerDto customerDto = stripeRootService.createCustomer(requestDto);
-            Mono<CustomerEntity> customer = saveCustomerEntity(customerDto);
-            return customer.map(customerEntity -> mapper.map(customerEntity, CustomerDto.class));
-        } catch (Exception ex) {
-            logger.error(ex.getMessage());
-            throw new CustomException("Error occurred on customer create");
-        }
+        return stripeGateway.createCustomer(requestDto)
+                .flatMap(this::saveCustomerEntity)
+                .map(customerEntity -> customerMapper.toDto(customerEntity))
+                .onErrorMap(ex -> !(ex instanceof CustomException), ex -> {
+                    logger.error(ex.getMessage());
+                    return new CustomException("Error occurred on customer create");
+                });
     }
 
     private Mono<CustomerEntity> saveCustomerEntity(CustomerDto customerDto) {
-        CustomerEntity customer = mapper.map(customerDto, CustomerEntity.class);
+        CustomerEntity customer = customerMapper.toEntity(customerDto);
         customer.setNewEntry(true);
 
         return customerRepository.save(customer);
@@ -64,39 +102,32 @@ public class CustomerService implements ICustomerService {
 
     @Override
     public Mono<CustomerDto> updateCustomer(CustomerUpdateRequestDto requestDto) {
-        try {
-            return updateCustomerEntity(requestDto)
-                    .switchIfEmpty(Mono.error(new CustomException(ErrorMessage.CUSTOMER_NOT_FOUND.getMessage())))
-                    .map(customerEntity -> stripeRootService.updateCustomer(requestDto));
-        } catch (Exception ex) {
-            logger.error(ex.getMessage());
-            throw new CustomException("Error occurred on customer update");
-        }
+        return customerRepository.findById(requestDto.id)
+                .switchIfEmpty(Mono.error(new CustomException(ErrorMessage.CUSTOMER_NOT_FOUND.getMessage())))
+                .flatMap(customerEntity -> stripeGateway.updateCustomer(requestDto)
+                        .flatMap(customerDto -> updateCustomerEntity(customerEntity, requestDto)
+                                .thenReturn(customerDto)));
     }
 
-    private Mono<CustomerEntity> updateCustomerEntity(CustomerUpdateRequestDto requestDto) {
-        Mono<CustomerEntity> customer = customerRepository.findById(requestDto.id);
-        return customer.flatMap(customerEntity -> {
-            customerEntity.setEmail(requestDto.email);
-            customerEntity.setName(requestDto.name);
-            customerEntity.setPhone(requestDto.phone);
-            customerEntity.setNewEntry(false);
+    /**
+     * Stored after stripe accepted the update, so the row version (and the etag derived from it) never runs
+     * ahead of what stripe holds.
+     */
+    private Mono<CustomerEntity> updateCustomerEntity(CustomerEntity customerEntity, CustomerUpdateRequestDto requestDto) {
+        customerEntity.setEmail(requestDto.email);
+        customerEntity.setName(requestDto.name);
+        customerEntity.setPhone(requestDto.phone);
+        customerEntity.setNewEntry(false);
+        customerEntity.onUpdate();
 
-            return customerRepository.save(customerEntity);
-        });
+        return customerRepository.save(customerEntity);
     }
 
     @Override
     public Mono<Void> deleteCustomer(String id) {
-        try {
-            return getCustomer(id).flatMap(customerDto -> {
-                stripeRootService.deleteCustomer(customerDto.id);
-                return deleteCustomerEntity(id);
-            });
-        } catch (Exception ex) {
-            logger.error(ex.getMessage());
-            throw new CustomException("Error occurred on customer delete");
-        }
+        return getCustomer(id)
+                .flatMap(customerDto -> stripeGateway.deleteCustomer(customerDto.id))
+                .then(deleteCustomerEntity(id));
     }
 
     private Mono<Void> deleteCustomerEntity(String id) {
@@ -0,0 +1,276 @@
+package org.sir.stripeintegration.infrastructure.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.sir.stripeintegration.core.application.dtos.idempotency.response.IdempotentResponseDto;
+import org.sir.stripeintegration.core.application.interfaces.service.IIdempotentRequestService;
+import org.sir.stripeintegration.core.domain.IdempotentRequestEntity;
+import org.sir.stripeintegration.core.shared.constant.ErrorMessage;
+import org.sir.stripeintegration.core.shared.exceptions.IdempotencyKeyInUseException;
+import org.sir.stripeintegration.core.shared.exceptions.IdempotencyKeyReusedException;
+import org.sir.stripeintegration.infrastructure.persistance.repository.IdempotentRequestRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stores the responses of requests sent with an {@code Idempotency-Key} in {@code IDEMPOTENT_REQUEST_ENTITY} for
+ * {@code idempotency.ttl-ms}, with the most recent ones in an in-memory front cache. Repeats on this instance wait
+ * on the in-flight request, repeats on another instance poll the table for up to {@code idempotency.wait-ms}.
+ * A claim whose request never finished (instance died) is taken over after {@code idempotency.lock-ms}.
+ * <p>
+ * Outcomes are counted in {@code http.server.idempotency} ({@code result=executed|replayed|rejected}), the front
+ * cache in the {@code cache.*} metrics of {@code idempotent-responses}. Expired rows are purged every
+ * {@code idempotency.purge.interval-ms}.
+ */
+@Service
+@Slf4j
+public class IdempotentRequestService implements IIdempotentRequestService {
+    private static final Logger logger = LoggerFactory.getLogger(IdempotentRequestService.class);
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(100);
+
+    private final IdempotentRequestRepository idempotentRequestRepository;
+    private final Duration ttl;
+    private final Duration lock;
+    private final Duration wait;
+    private final Duration purgeInterval;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, IdempotentResponseDto> responses;
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    private Disposable purge;
+
+    public IdempotentRequestService(IdempotentRequestRepository idempotentRequestRepository,
+                                    @Value("${idempotency.ttl-ms}") long ttlMillis,
+                                    @Value("${idempotency.lock-ms}") long lockMillis,
+                                    @Value("${idempotency.wait-ms}") long waitMillis,
+                                    @Value("${idempotency.cache.max-size}") long cacheMaxSize,
+                                    @Value("${idempotency.purge.interval-ms}") long purgeIntervalMillis,
+                                    MeterRegistry meterRegistry) {
+        this.idempotentRequestRepository = idempotentRequestRepository;
+        this.ttl = Duration.ofMillis(ttlMillis);
+        this.lock = Duration.ofMillis(lockMillis);
+        this.wait = Duration.ofMillis(waitMillis);
+        this.purgeInterval = Duration.ofMillis(purgeIntervalMillis);
+        this.meterRegistry = meterRegistry;
+        this.responses = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(cacheMaxSize)
+                .recordStats()
+                .build(), "idempotent-responses");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        purge = Flux.interval(purgeInterval, purgeInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> idempotentRequestRepository.deleteExpired(Instant.now())
+                        .onErrorResume(ex -> {
+                            logger.error("Idempotent request purge failed: {}", ex.getMessage());
+                            return Mono.empty();
+                        }), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (purge != null) {
+            purge.dispose();
+        }
+    }
+
+    @Override
+    public Mono<IdempotentResponseDto> begin(String principal, String idempotencyKey, String requestHash) {
+        return Mono.defer(() -> {
+            String id = id(principal, idempotencyKey);
+
+            IdempotentResponseDto cached = responses.getIfPresent(id);
+            if (cached != null) {
+                return replay(cached, requestHash);
+            }
+
+            // postgres keeps microseconds, the claim time is matched against CREATED_ON later
+            Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+            InFlight claim = new InFlight(requestHash, now, Sinks.one());
+            InFlight running = inFlight.putIfAbsent(id, claim);
+            if (running != null) {
+                if (!requestHash.equals(running.requestHash)) {
+                    return Mono.error(reused());
+                }
+                return running.result.asMono()
+                        .timeout(wait, Mono.empty())
+                        .switchIfEmpty(Mono.error(() -> inUse()))
+                        .flatMap(response -> replay(response, requestHash));
+            }
+
+            return idempotentRequestRepository.claim(id, requestHash, now.plus(lock), now)
+                    .flatMap(claimed -> {
+                        if (claimed > 0) {
+                            record("executed");
+                            return Mono.<IdempotentResponseDto>empty();
+                        }
+                        return awaitStored(id, requestHash)
+                                .doOnNext(response -> finish(id, response, response.statusCode != 0))
+                                .flatMap(response -> replay(response, requestHash));
+                    })
+                    .doOnError(ex -> finish(id, null, false))
+                    .doOnCancel(() -> abandon(id, now));
+        });
+    }
+
+    /**
+     * The response is only stored while this request still holds its claim. A claim that expired and was taken
+     * over meanwhile belongs to the other request, the response is then handed to the repeats waiting on this
+     * instance but neither stored nor cached.
+     */
+    @Override
+    public Mono<Void> complete(String principal, String idempotencyKey, IdempotentResponseDto response) {
+        String id = id(principal, idempotencyKey);
+        InFlight claim = inFlight.get(id);
+        Instant now = Instant.now();
+        Mono<Integer> stored = claim == null
+                ? Mono.just(0)
+                : idempotentRequestRepository.complete(id, response.statusCode, response.contentType,
+                        response.body, now.plus(ttl), now, response.requestHash, claim.claimedOn);
+        return stored
+                .doOnNext(updated -> {
+                    if (updated == 0) {
+                        logger.warn("Idempotent request {} lost its claim, its response is not stored",
+                                idempotencyKey);
+                    }
+                    finish(id, response, updated > 0);
+                })
+                .doOnError(ex -> {
+                    logger.error("Storing the response of idempotent request {} failed: {}",
+                            idempotencyKey, ex.getMessage());
+                    finish(id, response, true);
+                })
+                .doOnCancel(() -> finish(id, response, true))
+                .then();
+    }
+
+    @Override
+    public Mono<Void> release(String principal, String idempotencyKey) {
+        String id = id(principal, idempotencyKey);
+        return idempotentRequestRepository.release(id)
+                .doFinally(signal -> finish(id, null, false))
+                .then();
+    }
+
+    /**
+     * The claim of a caller that went away while it was made is dropped in the background, the repeats waiting on
+     * this instance are let go.
+     */
+    private void abandon(String id, Instant claimedOn) {
+        idempotentRequestRepository.releaseClaim(id, claimedOn)
+                .onErrorResume(ex -> {
+                    logger.error("Releasing the cancelled claim of idempotent request {} failed: {}",
+                            id, ex.getMessage());
+                    return Mono.empty();
+                })
+                .doFinally(signal -> finish(id, null, false))
+                .subscribe();
+    }
+
+    /**
+     * Polls the row held by a request on another instance until it finished. A key claimed for another request
+     * is rejected right away.
+     */
+    private Mono<IdempotentResponseDto> awaitStored(String id, String requestHash) {
+        return Mono.defer(() -> idempotentRequestRepository.findLive(id, Instant.now()))
+                .filter(entity -> entity.statusCode != null || !requestHash.equals(entity.requestHash))
+                .repeatWhenEmpty(repeats -> repeats.concatMap(repeat -> Mono.delay(POLL_INTERVAL)))
+                .timeout(wait, Mono.error(() -> inUse()))
+                .map(IdempotentRequestService::toDto);
+    }
+
+    /**
+     * Hands the response (null when the request failed) to the repeats waiting on this instance.
+     */
+    private void finish(String id, IdempotentResponseDto response, boolean cache) {
+        if (response != null && cache) {
+            responses.put(id, response);
+        }
+        InFlight claim = inFlight.remove(id);
+        if (claim != null) {
+            if (response == null) {
+                claim.result.tryEmitEmpty();
+            } else {
+                claim.result.tryEmitValue(response);
+            }
+        }
+    }
+
+    private Mono<IdempotentResponseDto> replay(IdempotentResponseDto response, String requestHash) {
+        if (!requestHash.equals(response.requestHash)) {
+            return Mono.error(reused());
+        }
+        if (response.statusCode == 0) {
+            // still in flight on another instance
+            return Mono.error(inUse());
+        }
+        record("replayed");
+        return Mono.just(response);
+    }
+
+    private IdempotencyKeyReusedException reused() {
+        record("rejected");
+        return new IdempotencyKeyReusedException(ErrorMessage.IDEMPOTENCY_KEY_REUSED.getMessage());
+    }
+
+    private IdempotencyKeyInUseException inUse() {
+        record("rejected");
+        return new IdempotencyKeyInUseException(ErrorMessage.IDEMPOTENCY_KEY_IN_USE.getMessage());
+    }
+
+    private void record(String result) {
+        Counter.builder("http.server.idempotency")
+                .description("Requests sent with an Idempotency-Key")
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static IdempotentResponseDto toDto(IdempotentRequestEntity entity) {
+        return new IdempotentResponseDto(entity.requestHash,
+                entity.statusCode == null ? 0 : entity.statusCode, entity.contentType, entity.responseBody);
+    }
+
+    /**
+     * Keys are scoped to the caller, one user can not replay another user's response.
+     */
+    static String id(String principal, String idempotencyKey) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest((principal + "\n" + idempotencyKey).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record InFlight(String requestHash, Instant claimedOn, Sinks.One<IdempotentResponseDto> result) {
+    }
+}
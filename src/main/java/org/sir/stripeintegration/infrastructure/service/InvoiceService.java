@@ -0,0 +1,100 @@
+package org.sir.stripeintegration.infrastructure.service;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.sir.stripeintegration.core.application.dtos.invoice.response.InvoiceDto;
+import org.sir.stripeintegration.core.application.interfaces.service.IInvoiceService;
+import org.sir.stripeintegration.core.application.mappers.InvoiceMapper;
+import org.sir.stripeintegration.core.domain.InvoiceEntity;
+import org.sir.stripeintegration.core.domain.InvoiceLineEntity;
+import org.sir.stripeintegration.core.shared.constant.ErrorMessage;
+import org.sir.stripeintegration.core.shared.exceptions.CustomException;
+import org.sir.stripeintegration.infrastructure.persistance.repository.CustomerRepository;
+import org.sir.stripeintegration.infrastructure.persistance.repository.InvoiceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@AllArgsConstructor
+@Slf4j
+public class InvoiceService implements IInvoiceService {
+    private static final Logger logger = LoggerFactory.getLogger(InvoiceService.class);
+    private final CustomerRepository customerRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final InvoiceMapper invoiceMapper;
+
+    @Override
+    public Mono<InvoiceDto> getInvoice(String id) {
+        return invoiceRepository.findById(id)
+                .switchIfEmpty(Mono.error(new CustomException(ErrorMessage.INVOICE_NOT_FOUND.getMessage())))
+                .flatMapMany(invoiceEntity -> withLines(List.of(invoiceEntity)))
+                .next();
+    }
+
+    /**
+     * A page and the lines of all its invoices take two queries, however many invoices the page has.
+     */
+    @Override
+    public Flux<InvoiceDto> getCustomerAllInvoice(
+            String customerId, String status, Long limit, String startingAfter, String endingBefore) {
+        return customerRepository.findById(customerId)
+                .switchIfEmpty(Mono.error(new CustomException(ErrorMessage.CUSTOMER_NOT_FOUND.getMessage())))
+                .flatMapMany(customerEntity -> invoiceRepository.findCustomerInvoicePage(
+                        customerId, status, LocalCatalogReadService.pageSize(limit), startingAfter, endingBefore))
+                .collectList()
+                .flatMapMany(this::withLines);
+    }
+
+    @Override
+    public Mono<Void> syncInvoice(InvoiceDto invoiceDto) {
+        InvoiceEntity invoiceEntity = invoiceMapper.toEntity(invoiceDto);
+        if (invoiceDto.created != null) {
+            invoiceEntity.setCreatedOn(Instant.ofEpochSecond(invoiceDto.created));
+        }
+
+        List<InvoiceLineEntity> lines = new ArrayList<>();
+        if (invoiceDto.lines != null) {
+            for (int i = 0; i < invoiceDto.lines.size(); i++) {
+                InvoiceLineEntity line = invoiceMapper.toEntity(invoiceDto.lines.get(i));
+                line.setInvoiceId(invoiceDto.id);
+                line.setPosition(i);
+                lines.add(line);
+            }
+        }
+
+        return invoiceRepository.upsertWithLines(invoiceEntity, lines)
+                .doOnNext(updated -> {
+                    if (updated > 0) {
+                        logger.debug("Invoice {} synced with status {}", invoiceDto.id, invoiceDto.status);
+                    }
+                })
+                .then();
+    }
+
+    private Flux<InvoiceDto> withLines(List<InvoiceEntity> invoices) {
+        List<String> invoiceIds = invoices.stream().map(InvoiceEntity::getId).toList();
+
+        return invoiceRepository.findLines(invoiceIds)
+                .collect(Collectors.groupingBy(InvoiceLineEntity::getInvoiceId))
+                .flatMapIterable(lines -> invoices.stream()
+                        .map(invoiceEntity -> toDto(invoiceEntity, lines))
+                        .toList());
+    }
+
+    private InvoiceDto toDto(InvoiceEntity invoiceEntity, Map<String, List<InvoiceLineEntity>> lines) {
+        InvoiceDto invoiceDto = invoiceMapper.toDto(invoiceEntity);
+        invoiceDto.setLines(lines.getOrDefault(invoiceEntity.id, List.of()).stream()
+                .map(invoiceMapper::toDto)
+                .toList());
+        return invoiceDto;
+    }
+}
@@ -0,0 +1,71 @@
+package org.sir.stripeintegration.infrastructure.service;
+
+import lombok.AllArgsConstructor;
+import org.sir.stripeintegration.core.application.dtos.product.response.ProductDto;
+import org.sir.stripeintegration.core.application.dtos.productPrice.response.ProductPriceDto;
+import org.sir.stripeintegration.core.application.interfaces.service.ICatalogReadService;
+import org.sir.stripeintegration.core.application.mappers.ProductMapper;
+import org.sir.stripeintegration.core.application.mappers.ProductPriceMapper;
+import org.sir.stripeintegration.infrastructure.persistance.repository.ProductPriceRepository;
+import org.sir.stripeintegration.infrastructure.persistance.repository.ProductRepository;
+import org.sir.stripeintegration.infrastructure.service.stripe.CatalogReconciliationJob;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Locale;
+
+/**
+ * Reads the catalog from the local tables only. They are kept in sync with stripe by the product and price
+ * webhooks and by {@link CatalogReconciliationJob}, list calls follow the stripe paging rules.
+ */
+@Service
+@AllArgsConstructor
+@ConditionalOnProperty(name = "catalog.read-source", havingValue = "local")
+public class LocalCatalogReadService implements ICatalogReadService {
+    static final int DEFAULT_LIMIT = 10;
+    static final int MAX_LIMIT = 100;
+
+    private final ProductRepository productRepository;
+    private final ProductPriceRepository productPriceRepository;
+    private final ProductMapper productMapper;
+    private final ProductPriceMapper productPriceMapper;
+
+    @Override
+    public Mono<ProductDto> getProduct(String id) {
+        return productRepository.findById(id).map(productMapper::toDto);
+    }
+
+    @Override
+    public Flux<ProductDto> getAllProducts(
+            Boolean active, Boolean shippable, Long limit, String startingAfter, String endingBefore) {
+        return productRepository.findProductPage(active, shippable, pageSize(limit), startingAfter, endingBefore)
+                .map(productMapper::toDto);
+    }
+
+    @Override
+    public Mono<ProductPriceDto> getPrice(String id) {
+        return productPriceRepository.findById(id).map(productPriceMapper::toDto);
+    }
+
+    /**
+     * @param type stripe list param style ({@code ONE_TIME}, {@code RECURRING}), the tables hold the
+     *             lower case stripe values
+     */
+    @Override
+    public Flux<ProductPriceDto> getProductAllPrices(
+            String productId, Boolean active, String type, Long limit, String startingAfter, String endingBefore) {
+        String storedType = type == null ? null : type.toLowerCase(Locale.ROOT);
+        return productPriceRepository.findPricePage(
+                        productId, active, storedType, pageSize(limit), startingAfter, endingBefore)
+                .map(productPriceMapper::toDto);
+    }
+
+    static int pageSize(Long limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        return (int) Math.max(1, Math.min(MAX_LIMIT, limit));
+    }
+}
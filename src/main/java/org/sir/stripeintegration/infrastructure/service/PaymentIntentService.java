@@ -2,16 +2,17 @@ package org.sir.stripeintegration.infrastructure.service;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.sir.stripeintegration.core.application.dtos.paymentIntent.request.CreatePaymentIntentRequestDto;
 import org.sir.stripeintegration.core.application.dtos.paymentIntent.response.PaymentIntentDto;
 import org.sir.stripeintegration.core.application.interfaces.service.IPaymentIntentService;
+import org.sir.stripeintegration.core.application.interfaces.service.IStripeGateway;
+import org.sir.stripeintegration.core.application.mappers.PaymentIntentMapper;
+import org.sir.stripeintegration.core.domain.CustomerEntity;
 import org.sir.stripeintegration.core.domain.PaymentIntentEntity;
 import org.sir.stripeintegration.core.shared.constant.ErrorMessage;
 import org.sir.stripeintegration.core.shared.exceptions.CustomException;
 import org.sir.stripeintegration.infrastructure.persistance.repository.CustomerRepository;
 import org.sir.stripeintegration.infrastructure.persistance.repository.PaymentIntentRepository;
-import org.sir.stripeintegration.infrastructure.service.stripe.StripeRootService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -26,14 +27,14 @@ public class PaymentIntentService implements IPaymentIntentService {
     private final PaymentIntentRepository paymentIntentRepository;
     private final CustomerRepository customerRepository;
 
-    private final StripeRootService stripeRootService;
-    private final ModelMapper mapper = new ModelMapper();
+    private final IStripeGateway stripeGateway;
+    private final PaymentIntentMapper paymentIntentMapper;
 
     @Override
     public Mono<PaymentIntentDto> getPaymentIntent(String id) {
         return paymentIntentRepository.findById(id)
                 .switchIfEmpty(Mono.error(new CustomException(ErrorMessage.PAYMENT_INTENT_NOT_FOUND.getMessage())))
-                .map(paymentIntentEntity -> stripeRootService.getCustomerPaymentIntentById(
+                .flatMap(paymentIntentEntity -> stripeGateway.getCustomerPaymentIntentById(
                         id, paymentIntentEntity.customerId));
     }
 
@@ -42,9 +43,8 @@ public class PaymentIntentService implements IPaymentIntentService {
             String customerId, Long limit, String startingAfter, String endingBefore) {
         return customerRepository.findById(customerId)
                 .switchIfEmpty(Mono.error(new CustomException(ErrorMessage.CUSTOMER_NOT_FOUND.getMessage())))
-                .map(customerEntity -> stripeRootService.getCustomerAllPaymentIntents(
-                        customerId, limit, startingAfter, endingBefore))
-                .flatMapIterable(list -> list);
+                .flatMapMany(customerEntity -> stripeGateway.getCustomerAllPaymentIntents(
+                        customerId, limit, startingAfter, endingBefore));
     }
 
     @Override
@@ -52,21 +52,34 @@ public class PaymentIntentService implements IPaymentIntentService {
 
         return customerRepository.findById(requestDto.customerId)
                 .switchIfEmpty(Mono.error(new CustomException(ErrorMessage.CUSTOMER_NOT_FOUND.getMessage())))
-                .flatMap(customerEntity -> {
-                    try {
-                        PaymentIntentDto paymentIntentDto = stripeRootService.createPaymentIntent(requestDto);
+                .flatMap(customerEntity -> getDefaultPaymentMethodId(customerEntity)
+                        .switchIfEmpty(Mono.error(new CustomException("Customer default payment method not set yet")))
+                        .flatMap(paymentMethodId -> stripeGateway.createPaymentIntent(requestDto, paymentMethodId))
+                        .flatMap(paymentIntentDto -> savePaymentIntentEntity(paymentIntentDto)
+                                .map(paymentIntentEntity -> paymentIntentDto))
+                        .onErrorMap(ex -> {
+                            logger.error(ex.getMessage());
+                            return new CustomException("Error on customer payment intent create", ex);
+                        }));
+    }
+
+    /**
+     * The stored default payment method saves a stripe round trip per charge. A customer stored before it was
+     * tracked is looked up in stripe once.
+     */
+    private Mono<String> getDefaultPaymentMethodId(CustomerEntity customerEntity) {
+        if (customerEntity.defaultPaymentMethodId != null) {
+            return Mono.just(customerEntity.defaultPaymentMethodId);
+        }
 
-                        return savePaymentIntentEntity(paymentIntentDto)
-                                .map(paymentMethodEntity -> paymentIntentDto);
-                    } catch (Exception ex) {
-                        logger.error(ex.getMessage());
-                        return Mono.error(new CustomException("Error on customer payment intent create"));
-                    }
-                });
+        return stripeGateway.getCustomerDefaultPaymentMethodId(customerEntity.id)
+                .flatMap(paymentMethodId -> customerRepository.updateDefaultPaymentMethod(
+                                customerEntity.id, paymentMethodId, CatalogSyncService.readNow())
+                        .thenReturn(paymentMethodId));
     }
 
     private Mono<PaymentIntentEntity> savePaymentIntentEntity(PaymentIntentDto paymentIntentDto) {
-        PaymentIntentEntity paymentIntentEntity = mapper.map(paymentIntentDto, PaymentIntentEntity.class);
+        PaymentIntentEntity paymentIntentEntity = paymentIntentMapper.toEntity(paymentIntentDto);
         paymentIntentEntity.setNewEntry(true);
 
         return paymentIntentRepository.save(paymentIntentEntity);
@@ -2,17 +2,17 @@ package org.sir.stripeintegration.infrastructure.service;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.sir.stripeintegration.core.application.dtos.paymentMethod.request.CreatePaymentMethodRequestDto;
 import org.sir.stripeintegration.core.application.dtos.paymentMethod.request.UpdatePaymentMethodRequestDto;
 import org.sir.stripeintegration.core.application.dtos.paymentMethod.response.PaymentMethodDto;
 import org.sir.stripeintegration.core.application.interfaces.service.IPaymentMethodService;
+import org.sir.stripeintegration.core.application.interfaces.service.IStripeGateway;
+import org.sir.stripeintegration.core.application.mappers.PaymentMethodMapper;
 import org.sir.stripeintegration.core.domain.PaymentMethodEntity;
 import org.sir.stripeintegration.core.shared.constant.ErrorMessage;
 import org.sir.stripeintegration.core.shared.exceptions.CustomException;
 import org.sir.stripeintegration.infrastructure.persistance.repository.CustomerRepository;
 import org.sir.stripeintegration.infrastructure.persistance.repository.PaymentMethodRepository;
-import org.sir.stripeintegration.infrastructure.service.stripe.StripeRootService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -27,14 +27,14 @@ public class PaymentMethodService implements IPaymentMethodService {
     private final PaymentMethodRepository paymentMethodRepository;
     private final CustomerRepository customerRepository;
 
-    private final StripeRootService stripeRootService;
-    private final ModelMapper mapper = new ModelMapper();
+    private final IStripeGateway stripeGateway;
+    private final PaymentMethodMapper paymentMethodMapper;
 
     @Override
     public Mono<PaymentMethodDto> getPaymentMethod(String id) {
         return paymentMethodRepository.findById(id)
                 .switchIfEmpty(Mono.error(new CustomException(ErrorMessage.PAYMENT_METHOD_NOT_FOUND.getMessage())))
-                .map(paymentMethodEntity -> stripeRootService.getCustomerPaymentMethodById(
+                .flatMap(paymentMethodEntity -> stripeGateway.getCustomerPaymentMethodById(
                         id, paymentMethodEntity.customerId));
     }
 
@@ -43,31 +43,25 @@ public class PaymentMethodService implements IPaymentMethodService {
             String customerId, Long limit, String startingAfter, String endingBefore) {
         return customerRepository.findById(customerId)
                 .switchIfEmpty(Mono.error(new CustomException(ErrorMessage.CUSTOMER_NOT_FOUND.getMessage())))
-                .map(customerEntity -> stripeRootService.getCustomerAllPaymentMethods(
-                        customerId, limit, startingAfter, endingBefore))
-                .flatMapIterable(list -> list);
+                .flatMapMany(customerEntity -> stripeGateway.getCustomerAllPaymentMethods(
+                        customerId, limit, startingAfter, endingBefore));
     }
 
     @Override
     public Mono<PaymentMethodDto> addCustomerPaymentMethod(CreatePaymentMethodRequestDto requestDto) {
         return customerRepository.findById(requestDto.customerId)
                 .switchIfEmpty(Mono.error(new CustomException(ErrorMessage.CUSTOMER_NOT_FOUND.getMessage())))
-                .flatMap(customerEntity -> {
-                    try {
-                        PaymentMethodDto paymentMethodDto = stripeRootService.createPaymentMethod(
-                                customerEntity, requestDto);
-
-                        return savePaymentMethodEntity(paymentMethodDto)
-                                .map(paymentMethodEntity -> paymentMethodDto);
-                    } catch (Exception ex) {
-                        logger.error(ex.getMessage());
-                        return Mono.error(new CustomException("Error on customer payment method create"));
-                    }
-                });
+                .flatMap(customerEntity -> stripeGateway.createPaymentMethod(customerEntity, requestDto)
+                        .flatMap(paymentMethodDto -> savePaymentMethodEntity(paymentMethodDto)
+                                .map(paymentMethodEntity -> paymentMethodDto))
+                        .onErrorMap(ex -> {
+                            logger.error(ex.getMessage());
+                            return new CustomException("Error on customer payment method create", ex);
+                        }));
     }
 
     private Mono<PaymentMethodEntity> savePaymentMethodEntity(PaymentMethodDto paymentMethodDto) {
-        PaymentMethodEntity paymentMethodEntity = mapper.map(paymentMethodDto, PaymentMethodEntity.class);
+        PaymentMethodEntity paymentMethodEntity = paymentMethodMapper.toEntity(paymentMethodDto);
         paymentMethodEntity.setNewEntry(true);
 
         return paymentMethodRepository.save(paymentMethodEntity);
@@ -77,17 +71,16 @@ public class PaymentMethodService implements IPaymentMethodService {
     public Mono<PaymentMethodDto> updateCustomerPaymentMethod(UpdatePaymentMethodRequestDto requestDto) {
         return paymentMethodRepository.findById(requestDto.id)
                 .switchIfEmpty(Mono.error(new CustomException(ErrorMessage.PAYMENT_METHOD_NOT_FOUND.getMessage())))
-                .map(paymentMethodEntity -> stripeRootService.updatePaymentMethod(requestDto));
+                .flatMap(paymentMethodEntity -> stripeGateway.updatePaymentMethod(requestDto));
     }
 
     @Override
     public Mono<Void> deletePaymentMethod(String id) {
         return paymentMethodRepository.findById(id)
                 .switchIfEmpty(Mono.error(new CustomException(ErrorMessage.PAYMENT_METHOD_NOT_FOUND.getMessage())))
-                .flatMap(paymentMethodEntity -> {
-                    stripeRootService.deletePaymentMethod(id);
-                    return deletePaymentMethodEntity(id);
-                });
+                .flatMap(paymentMethodEntity -> stripeGateway.deletePaymentMethod(id)
+                        .then(customerRepository.clearDefaultPaymentMethod(paymentMethodEntity.customerId, id)))
+                .then(deletePaymentMethodEntity(id));
     }
 
     private Mono<Void> deletePaymentMethodEntity(String id) {
@@ -98,6 +91,9 @@ public class PaymentMethodService implements IPaymentMethodService {
     public Mono<PaymentMethodDto> setCustomerDefaultPaymentMethod(String customerId, String paymentMethodId) {
         return customerRepository.findById(customerId)
                 .switchIfEmpty(Mono.error(new CustomException(ErrorMessage.CUSTOMER_NOT_FOUND.getMessage())))
-                .map(customer -> stripeRootService.setCustomerDefaultPaymentMethod(customerId, paymentMethodId));
+                .flatMap(customer -> stripeGateway.setCustomerDefaultPaymentMethod(customerId, paymentMethodId))
+                .flatMap(paymentMethodDto -> customerRepository.updateDefaultPaymentMethod(
+                                customerId, paymentMethodId, CatalogSyncService.readNow())
+                        .thenReturn(paymentMethodDto));
     }
 }
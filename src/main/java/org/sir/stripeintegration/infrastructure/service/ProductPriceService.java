@@ -5,19 +5,24 @@ import lombok.extern.slf4j.Slf4j;
 import org.sir.stripeintegration.core.application.dtos.productPrice.request.CreateProductPriceRequestDto;
 import org.sir.stripeintegration.core.application.dtos.productPrice.request.UpdateProductPriceRequestDto;
 import org.sir.stripeintegration.core.application.dtos.productPrice.response.ProductPriceDto;
+import org.sir.stripeintegration.core.application.interfaces.service.ICatalogReadService;
+import org.sir.stripeintegration.core.application.interfaces.service.ICatalogSyncService;
 import org.sir.stripeintegration.core.application.interfaces.service.IProductPriceService;
+import org.sir.stripeintegration.core.application.interfaces.service.IStripeGateway;
 import org.sir.stripeintegration.core.domain.ProductPriceEntity;
 import org.sir.stripeintegration.core.shared.constant.ErrorMessage;
 import org.sir.stripeintegration.core.shared.exceptions.CustomException;
 import org.sir.stripeintegration.infrastructure.persistance.repository.ProductPriceRepository;
 import org.sir.stripeintegration.infrastructure.persistance.repository.ProductRepository;
-import org.sir.stripeintegration.infrastructure.service.stripe.StripeRootService;
+import org.sir.stripeintegration.infrastructure.service.stripe.StripeCatalogCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+
 @Service
 @AllArgsConstructor
 @Slf4j
@@ -26,13 +31,20 @@ public class ProductPriceService implements IProductPriceService {
     private final ProductPriceRepository productPriceRepository;
     private final ProductRepository productRepository;
 
-    private final StripeRootService stripeRootService;
+    private final IStripeGateway stripeGateway;
+    private final StripeCatalogCache stripeCatalogCache;
+    private final ICatalogReadService catalogReadService;
+    private final ICatalogSyncService catalogSyncService;
 
     @Override
     public Mono<ProductPriceDto> getProductPrice(String id) {
-        return productPriceRepository.findById(id)
-                .switchIfEmpty(Mono.error(new CustomException(ErrorMessage.PRODUCT_PRICE_NOT_FOUND.getMessage())))
-                .map(productPriceEntity -> stripeRootService.getPriceById(id));
+        return catalogReadService.getPrice(id)
+                .switchIfEmpty(Mono.error(new CustomException(ErrorMessage.PRODUCT_PRICE_NOT_FOUND.getMessage())));
+    }
+
+    @Override
+    public Mono<Instant> getProductPriceLastModifiedOn(String id) {
+        return productPriceRepository.findLastModifiedOnById(id);
     }
 
     @Override
@@ -40,55 +52,45 @@ public class ProductPriceService implements IProductPriceService {
             String productId, Boolean active, String type, Long limit, String startingAfter, String endingBefore) {
         return productRepository.findById(productId)
                 .switchIfEmpty(Mono.error(new CustomException(ErrorMessage.PRODUCT_NOT_FOUND.getMessage())))
-                .map(productEntity -> stripeRootService.getProductAllPrices(
-                        productId, active, type, limit, startingAfter, endingBefore))
-                .flatMapIterable(list -> list);
+                .flatMapMany(productEntity -> catalogReadService.getProductAllPrices(
+                        productId, active, type, limit, startingAfter, endingBefore));
     }
 
+    /**
+     * The local row is upserted, the {@code price.created} webhook may already have stored it.
+     */
     @Override
     public Mono<ProductPriceDto> addProductPrice(CreateProductPriceRequestDto requestDto) {
-        try {
-            ProductPriceDto productPriceDto = stripeRootService.createPrice(requestDto);
-            Mono<ProductPriceEntity> product = saveProductPriceEntity(productPriceDto);
-
-            return product.map(productEntity -> productPriceDto);
-        } catch (Exception ex) {
-            logger.error(ex.getMessage());
-            throw new CustomException("Error occurred on price create");
-        }
-    }
-
-    private Mono<ProductPriceEntity> saveProductPriceEntity(ProductPriceDto productPriceDto) {
-        ProductPriceEntity productPrice = getEntityFromDto(productPriceDto);
-
-        return productPriceRepository.save(productPrice);
-    }
-
-    private ProductPriceEntity getEntityFromDto(ProductPriceDto dto) {
-        return new ProductPriceEntity(dto.id, dto.productId, dto.type, dto.nickName, dto.currency,
-                dto.active, dto.unitAmount, true);
+        return stripeGateway.createPrice(requestDto)
+                .flatMap(productPriceDto -> catalogSyncService.upsertPrice(productPriceDto)
+                        .thenReturn(productPriceDto))
+                .onErrorMap(ex -> !(ex instanceof CustomException), ex -> {
+                    logger.error(ex.getMessage());
+                    return new CustomException("Error occurred on price create");
+                });
     }
 
     @Override
     public Mono<ProductPriceDto> updateProductPrice(UpdateProductPriceRequestDto requestDto) {
-        try {
-            return updateProductPriceEntity(requestDto)
-                    .switchIfEmpty(Mono.error(new CustomException(ErrorMessage.PRODUCT_PRICE_NOT_FOUND.getMessage())))
-                    .map(productPriceEntity -> stripeRootService.updatePrice(requestDto));
-        } catch (Exception ex) {
-            logger.error(ex.getMessage());
-            throw new CustomException("Error occurred on price update");
-        }
+        return productPriceRepository.findById(requestDto.id)
+                .switchIfEmpty(Mono.error(new CustomException(ErrorMessage.PRODUCT_PRICE_NOT_FOUND.getMessage())))
+                .flatMap(productPriceEntity -> stripeGateway.updatePrice(requestDto)
+                        .doOnNext(productPriceDto -> stripeCatalogCache.evictPrice(requestDto.id))
+                        .flatMap(productPriceDto -> updateProductPriceEntity(productPriceEntity, requestDto)
+                                .thenReturn(productPriceDto)));
     }
 
-    private Mono<ProductPriceEntity> updateProductPriceEntity(UpdateProductPriceRequestDto requestDto) {
-        Mono<ProductPriceEntity> productPrice = productPriceRepository.findById(requestDto.id);
-        return productPrice.flatMap(productPriceEntity -> {
-            productPriceEntity.setActive(requestDto.active);
-            productPriceEntity.setNickName(requestDto.nickName);
-            productPriceEntity.setNewEntry(false);
+    /**
+     * Stored after stripe accepted the update, see {@link ProductService}.
+     */
+    private Mono<ProductPriceEntity> updateProductPriceEntity(ProductPriceEntity productPriceEntity,
+                                                             UpdateProductPriceRequestDto requestDto) {
+        productPriceEntity.setActive(requestDto.active);
+        productPriceEntity.setNickName(requestDto.nickName);
+        productPriceEntity.setStripeUpdatedAt(CatalogSyncService.readNow());
+        productPriceEntity.setNewEntry(false);
+        productPriceEntity.onUpdate();
 
-            return productPriceRepository.save(productPriceEntity);
-        });
+        return productPriceRepository.save(productPriceEntity);
     }
 }
@@ -5,19 +5,23 @@ import lombok.extern.slf4j.Slf4j;
 import org.sir.stripeintegration.core.application.dtos.product.request.CreateProductRequestDto;
 import org.sir.stripeintegration.core.application.dtos.product.request.UpdateProductRequestDto;
 import org.sir.stripeintegration.core.application.dtos.product.response.ProductDto;
+import org.sir.stripeintegration.core.application.interfaces.service.ICatalogReadService;
+import org.sir.stripeintegration.core.application.interfaces.service.ICatalogSyncService;
 import org.sir.stripeintegration.core.application.interfaces.service.IProductService;
+import org.sir.stripeintegration.core.application.interfaces.service.IStripeGateway;
+import org.sir.stripeintegration.core.application.mappers.ProductMapper;
 import org.sir.stripeintegration.core.domain.ProductEntity;
 import org.sir.stripeintegration.core.shared.constant.ErrorMessage;
 import org.sir.stripeintegration.core.shared.exceptions.CustomException;
 import org.sir.stripeintegration.infrastructure.persistance.repository.ProductRepository;
-import org.sir.stripeintegration.infrastructure.service.stripe.StripeRootService;
+import org.sir.stripeintegration.infrastructure.service.stripe.StripeCatalogCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.util.List;
+import java.time.Instant;
 
 @Service
 @AllArgsConstructor
@@ -26,82 +30,73 @@ public class ProductService implements IProductService {
     private static final Logger logger = LoggerFactory.getLogger(ProductService.class);
     private final ProductRepository productRepository;
 
-    private final StripeRootService stripeRootService;
+    private final IStripeGateway stripeGateway;
+    private final StripeCatalogCache stripeCatalogCache;
+    private final ICatalogReadService catalogReadService;
+    private final ICatalogSyncService catalogSyncService;
+    private final ProductMapper productMapper;
 
     @Override
     public Mono<ProductDto> getProduct(String id) {
-        return productRepository.findById(id)
-                .map(productEntity -> stripeRootService.getProductById(id))
+        return catalogReadService.getProduct(id)
                 .switchIfEmpty(Mono.error(new CustomException(ErrorMessage.PRODUCT_NOT_FOUND.getMessage())));
     }
 
+    @Override
+    public Mono<Instant> getProductLastModifiedOn(String id) {
+        return productRepository.findLastModifiedOnById(id);
+    }
+
     @Override
     public Flux<ProductDto> getAllProduct(
             Boolean active, Boolean shippable, Long limit, String startingAfter, String endingBefore) {
-        List<ProductDto> productDtos = stripeRootService.getAllProducts(
-                active, shippable, limit, startingAfter, endingBefore);
-
-        return Mono.just(productDtos).flatMapIterable(list -> list);
+        return catalogReadService.getAllProducts(active, shippable, limit, startingAfter, endingBefore);
     }
 
+    /**
+     * The local row is upserted, the {@code product.created} webhook may already have stored it.
+     */
     @Override
     public Mono<ProductDto> addProduct(CreateProductRequestDto requestDto) {
-        try {
-            ProductDto productDto = stripeRootService.createProduct(requestDto);
-            Mono<ProductEntity> product = saveProductEntity(productDto);
-
-            return product.map(productEntity -> productDto);
-        } catch (Exception ex) {
-            logger.error(ex.getMessage());
-            throw new CustomException("Error occurred on product create");
-        }
-    }
-
-    private Mono<ProductEntity> saveProductEntity(ProductDto productDto) {
-        ProductEntity product = getEntityFromDto(productDto);
-
-        return productRepository.save(product);
-    }
-
-    private ProductEntity getEntityFromDto(ProductDto dto) {
-        return new ProductEntity(
-                dto.id, dto.name, dto.description, dto.defaultPriceId, dto.active, dto.shippable, true);
+        return stripeGateway.createProduct(requestDto)
+                .flatMap(productDto -> catalogSyncService.upsertProduct(productDto)
+                        .thenReturn(productDto))
+                .onErrorMap(ex -> !(ex instanceof CustomException), ex -> {
+                    logger.error(ex.getMessage());
+                    return new CustomException("Error occurred on product create");
+                });
     }
 
     @Override
     public Mono<ProductDto> updateProduct(UpdateProductRequestDto requestDto) {
-        try {
-            return updateProductEntity(requestDto)
-                    .switchIfEmpty(Mono.error(new CustomException(ErrorMessage.PRODUCT_NOT_FOUND.getMessage())))
-                    .map(productEntity -> stripeRootService.updateProduct(requestDto));
-        } catch (Exception ex) {
-            logger.error(ex.getMessage());
-            throw new CustomException("Error occurred on customer update");
-        }
+        return productRepository.findById(requestDto.id)
+                .switchIfEmpty(Mono.error(new CustomException(ErrorMessage.PRODUCT_NOT_FOUND.getMessage())))
+                .flatMap(productEntity -> stripeGateway.updateProduct(requestDto)
+                        .doOnNext(productDto -> stripeCatalogCache.evictProduct(requestDto.id))
+                        .flatMap(productDto -> updateProductEntity(productEntity, requestDto)
+                                .thenReturn(productDto)));
     }
 
-    private Mono<ProductEntity> updateProductEntity(UpdateProductRequestDto requestDto) {
-        Mono<ProductEntity> product = productRepository.findById(requestDto.id);
-        return product.flatMap(productEntity -> {
-            productEntity.setName(requestDto.name);
-            productEntity.setDescription(requestDto.description);
-            productEntity.setActive(requestDto.active);
-            productEntity.setShippable(requestDto.shippable);
-            productEntity.setDefaultPriceId(requestDto.defaultPriceId);
-            productEntity.setNewEntry(false);
-
-            return productRepository.save(productEntity);
-        });
+    /**
+     * Stored after stripe accepted the update and the cached copy was evicted, so the row version (and the etag
+     * derived from it) never runs ahead of what is served.
+     */
+    private Mono<ProductEntity> updateProductEntity(ProductEntity productEntity, UpdateProductRequestDto requestDto) {
+        productMapper.updateEntity(requestDto, productEntity);
+        productEntity.setStripeUpdatedAt(CatalogSyncService.readNow());
+        productEntity.setNewEntry(false);
+        productEntity.onUpdate();
+
+        return productRepository.save(productEntity);
     }
 
     @Override
     public Mono<Void> deleteProduct(String id) {
         return productRepository.findById(id)
                 .switchIfEmpty(Mono.error(new CustomException(ErrorMessage.PRODUCT_NOT_FOUND.getMessage())))
-                .flatMap(productEntity -> {
-                    stripeRootService.deleteProductById(id);
-                    return deleteProductEntity(id);
-                });
+                .flatMap(productEntity -> stripeGateway.deleteProductById(id))
+                .then(deleteProductEntity(id))
+                .doOnSuccess(unused -> stripeCatalogCache.evictProduct(id));
     }
 
     private Mono<Void> deleteProductEntity(String id) {
@@ -2,23 +2,25 @@ package org.sir.stripeintegration.infrastructure.service;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.sir.stripeintegration.core.application.dtos.subscription.request.CreateSubscriptionDto;
 import org.sir.stripeintegration.core.application.dtos.subscription.request.UpdateSubscriptionDto;
 import org.sir.stripeintegration.core.application.dtos.subscription.response.SubscriptionDto;
+import org.sir.stripeintegration.core.application.interfaces.service.IStripeGateway;
 import org.sir.stripeintegration.core.application.interfaces.service.ISubscriptionService;
+import org.sir.stripeintegration.core.application.mappers.SubscriptionMapper;
 import org.sir.stripeintegration.core.domain.SubscriptionEntity;
 import org.sir.stripeintegration.core.shared.constant.ErrorMessage;
 import org.sir.stripeintegration.core.shared.exceptions.CustomException;
 import org.sir.stripeintegration.infrastructure.persistance.repository.CustomerRepository;
 import org.sir.stripeintegration.infrastructure.persistance.repository.SubscriptionRepository;
-import org.sir.stripeintegration.infrastructure.service.stripe.StripeRootService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+
 @Service
 @AllArgsConstructor
 @Slf4j
@@ -27,14 +29,14 @@ public class SubscriptionService implements ISubscriptionService {
     private final CustomerRepository customerRepository;
     private final SubscriptionRepository subscriptionRepository;
 
-    private final StripeRootService stripeRootService;
-    private final ModelMapper mapper = new ModelMapper();
+    private final IStripeGateway stripeGateway;
+    private final SubscriptionMapper subscriptionMapper;
 
     @Override
     public Mono<SubscriptionDto> getSubscription(String id) {
         return subscriptionRepository.findById(id)
                 .switchIfEmpty(Mono.error(new CustomException(ErrorMessage.SUBSCRIPTION_NOT_FOUND.getMessage())))
-                .map(subscriptionEntity -> stripeRootService.getSubscription(id));
+                .map(subscriptionMapper::toDto);
     }
 
     @Override
@@ -42,67 +44,68 @@ public class SubscriptionService implements ISubscriptionService {
             String customerId, String status, Long limit, String startingAfter, String endingBefore) {
         return customerRepository.findById(customerId)
                 .switchIfEmpty(Mono.error(new CustomException(ErrorMessage.CUSTOMER_NOT_FOUND.getMessage())))
-                .map(customerEntity -> stripeRootService.getCustomerAllSubscriptions(
-                        customerId, status, limit, startingAfter, endingBefore))
-                .flatMapIterable(list -> list);
+                .flatMapMany(customerEntity -> subscriptionRepository.findCustomerSubscriptionPage(
+                        customerId, status, LocalCatalogReadService.pageSize(limit), startingAfter, endingBefore))
+                .map(subscriptionMapper::toDto);
     }
 
     @Override
     public Mono<SubscriptionDto> addSubscription(CreateSubscriptionDto requestDto) {
         return customerRepository.findById(requestDto.customerId)
                 .switchIfEmpty(Mono.error(new CustomException(ErrorMessage.CUSTOMER_NOT_FOUND.getMessage())))
-                .flatMap(customerEntity -> {
-                    try {
-                        SubscriptionDto subscriptionDto = stripeRootService.createSubscription(requestDto);
-
-                        return saveSubscriptionEntity(subscriptionDto)
-                                .map(subscriptionEntity -> subscriptionDto);
-                    } catch (Exception ex) {
-                        logger.error(ex.getMessage());
-                        return Mono.error(new CustomException("Error on subscription create"));
-                    }
-                });
-    }
-
-    private Mono<SubscriptionEntity> saveSubscriptionEntity(SubscriptionDto subscriptionDto) {
-        SubscriptionEntity subscriptionEntity = mapper.map(subscriptionDto, SubscriptionEntity.class);
-        subscriptionEntity.setNewEntry(true);
-
-        return subscriptionRepository.save(subscriptionEntity);
+                .flatMap(customerEntity -> stripeGateway.createSubscription(requestDto)
+                        .flatMap(subscriptionDto -> syncSubscription(subscriptionDto).thenReturn(subscriptionDto))
+                        .onErrorMap(ex -> {
+                            logger.error(ex.getMessage());
+                            return new CustomException("Error on subscription create", ex);
+                        }));
     }
 
     @Override
     public Mono<SubscriptionDto> updateSubscription(UpdateSubscriptionDto requestDto) {
-        return updateSubscriptionEntity(requestDto)
+        return subscriptionRepository.findById(requestDto.id)
                 .switchIfEmpty(Mono.error(new CustomException(ErrorMessage.SUBSCRIPTION_NOT_FOUND.getMessage())))
-                .map(subscriptionEntity -> stripeRootService.updateSubscription(requestDto));
+                .flatMap(subscriptionEntity -> stripeGateway.updateSubscription(requestDto))
+                .flatMap(subscriptionDto -> syncSubscription(subscriptionDto).thenReturn(subscriptionDto));
     }
 
-    private Mono<SubscriptionEntity> updateSubscriptionEntity(UpdateSubscriptionDto requestDto) {
-        return subscriptionRepository.findById(requestDto.id)
-                .flatMap(subscriptionEntity -> {
-                    subscriptionEntity.setCancelAt(requestDto.cancelAt);
-                    subscriptionEntity.setDescription(requestDto.description);
-                    subscriptionEntity.setNewEntry(false);
-
-                    return subscriptionRepository.save(subscriptionEntity);
-                });
-    }
-    
     @Override
     public Mono<SubscriptionDto> cancelSubscription(String id) {
-        return updateSubscriptionEntityStatus(id, "canceled")
+        return subscriptionRepository.findById(id)
                 .switchIfEmpty(Mono.error(new CustomException(ErrorMessage.SUBSCRIPTION_NOT_FOUND.getMessage())))
-                .map(subscriptionEntity -> stripeRootService.cancelSubscription(id));
+                .flatMap(subscriptionEntity -> stripeGateway.cancelSubscription(id))
+                .flatMap(subscriptionDto -> syncSubscription(subscriptionDto).thenReturn(subscriptionDto));
     }
 
-    private Mono<SubscriptionEntity> updateSubscriptionEntityStatus(String id, String status) {
-        Mono<SubscriptionEntity> subscription = subscriptionRepository.findById(id);
-        return subscription.flatMap(subscriptionEntity -> {
-            subscriptionEntity.setStatus(status);
-            subscriptionEntity.setNewEntry(false);
+    @Override
+    public Mono<SubscriptionDto> refreshSubscription(String id) {
+        return stripeGateway.getSubscription(id)
+                .flatMap(subscriptionDto -> syncSubscription(subscriptionDto).thenReturn(subscriptionDto));
+    }
 
-            return subscriptionRepository.save(subscriptionEntity);
-        });
+    /**
+     * The local row is written from the stripe response, so a webhook that arrives before or after it
+     * stores the same state.
+     */
+    @Override
+    public Mono<Void> syncSubscription(SubscriptionDto subscriptionDto) {
+        return syncSubscription(subscriptionDto, CatalogSyncService.readNow());
+    }
+
+    @Override
+    public Mono<Void> syncSubscription(SubscriptionDto subscriptionDto, Instant stripeUpdatedAt) {
+        SubscriptionEntity subscriptionEntity = subscriptionMapper.toEntity(subscriptionDto);
+        subscriptionEntity.setStripeUpdatedAt(stripeUpdatedAt);
+        if (subscriptionDto.created != null) {
+            subscriptionEntity.setCreatedOn(Instant.ofEpochSecond(subscriptionDto.created));
+        }
+
+        return subscriptionRepository.upsert(subscriptionEntity)
+                .doOnNext(updated -> {
+                    if (updated > 0) {
+                        logger.debug("Subscription {} synced with status {}", subscriptionDto.id, subscriptionDto.status);
+                    }
+                })
+                .then();
     }
 }
@@ -0,0 +1,87 @@
+package org.sir.stripeintegration.infrastructure.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.sir.stripeintegration.core.application.dtos.transaction.response.TransactionDto;
+import org.sir.stripeintegration.core.application.interfaces.service.ITransactionExportService;
+import org.sir.stripeintegration.core.application.mappers.TransactionMapper;
+import org.sir.stripeintegration.core.shared.constant.ExportFormat;
+import org.sir.stripeintegration.core.shared.exceptions.CustomException;
+import org.sir.stripeintegration.infrastructure.persistance.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Streams transactions straight from a database cursor to the response. Rows are read in chunks of
+ * {@code transaction.export.fetch-size} as the client consumes the response, so the heap stays flat
+ * regardless of the export size.
+ */
+@Service
+@Slf4j
+public class TransactionExportService implements ITransactionExportService {
+    private static final Logger logger = LoggerFactory.getLogger(TransactionExportService.class);
+    private static final String CSV_HEADER = "id,eventId,customerId,paymentIntentId,amount,isSuccess,createdOn\n";
+
+    private final TransactionRepository transactionRepository;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+    private final TransactionMapper transactionMapper;
+
+    public TransactionExportService(TransactionRepository transactionRepository,
+                                    ObjectMapper objectMapper,
+                                    @Value("${transaction.export.fetch-size}") int fetchSize,
+                                    TransactionMapper transactionMapper) {
+        this.transactionRepository = transactionRepository;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+        this.transactionMapper = transactionMapper;
+    }
+
+    @Override
+    public Flux<String> exportTransactions(ExportFormat format, String customerId, Instant from, Instant to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            return Flux.error(new CustomException("Export range start must be before its end"));
+        }
+
+        Flux<String> lines = transactionRepository.streamTransactions(customerId, from, to, fetchSize)
+                .map(transactionEntity -> transactionMapper.toDto(transactionEntity))
+                .map(transactionDto -> format == ExportFormat.CSV ? toCsvLine(transactionDto) : toJsonLine(transactionDto));
+
+        Flux<String> chunks = lines.buffer(fetchSize).map(chunk -> String.join("", chunk));
+
+        return (format == ExportFormat.CSV ? Flux.just(CSV_HEADER).concatWith(chunks) : chunks)
+                .doOnError(ex -> logger.error("Transaction export failed: {}", ex.getMessage()));
+    }
+
+    private String toJsonLine(TransactionDto transactionDto) {
+        try {
+            return objectMapper.writeValueAsString(transactionDto) + "\n";
+        } catch (JsonProcessingException e) {
+            throw new CustomException("Error occurred on transaction export", e);
+        }
+    }
+
+    private String toCsvLine(TransactionDto transactionDto) {
+        return Stream.of(transactionDto.id, transactionDto.eventId, transactionDto.customerId,
+                        transactionDto.paymentIntentId, transactionDto.amount, transactionDto.isSuccess,
+                        transactionDto.createdOn)
+                .map(value -> escapeCsv(Objects.toString(value, "")))
+                .collect(Collectors.joining(",", "", "\n"));
+    }
+
+    private static String escapeCsv(String value) {
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
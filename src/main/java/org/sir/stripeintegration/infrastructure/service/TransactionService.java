@@ -2,11 +2,14 @@ package org.sir.stripeintegration.infrastructure.service;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.sir.stripeintegration.core.application.dtos.transaction.response.TransactionDto;
 import org.sir.stripeintegration.core.application.interfaces.service.ITransactionService;
+import org.sir.stripeintegration.core.application.mappers.TransactionMapper;
+import org.sir.stripeintegration.core.domain.TransactionEntity;
 import org.sir.stripeintegration.core.shared.constant.ErrorMessage;
+import org.sir.stripeintegration.core.shared.dtoModels.CursorPageDto;
 import org.sir.stripeintegration.core.shared.exceptions.CustomException;
+import org.sir.stripeintegration.core.shared.utility.PageTokenUtil;
 import org.sir.stripeintegration.infrastructure.persistance.repository.TransactionRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,6 +17,7 @@ import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
 import java.util.UUID;
 
 @Service
@@ -21,23 +25,59 @@ import java.util.UUID;
 @Slf4j
 public class TransactionService implements ITransactionService {
     private static final Logger logger = LoggerFactory.getLogger(TransactionService.class);
+    private static final int DEFAULT_PAGE_SIZE = 10;
+    private static final int MAX_PAGE_SIZE = 100;
     private final TransactionRepository transactionRepository;
 
-    private final ModelMapper mapper = new ModelMapper();
+    private final TransactionMapper transactionMapper;
 
     @Override
     public Mono<TransactionDto> getTransaction(UUID id) {
         return transactionRepository.findById(id)
-                .map(transactionEntity -> mapper.map(transactionEntity, TransactionDto.class))
+                .map(transactionEntity -> transactionMapper.toDto(transactionEntity))
                 .switchIfEmpty(Mono.error(new CustomException(ErrorMessage.TRANSACTION_NOT_FOUND.getMessage())));
     }
 
     @Override
-    public Flux<TransactionDto> getCustomerAllTransaction(String customerId, Integer pageSize, Integer pageIndex) {
-        pageSize = pageSize == null ? 10 : pageSize;
-        pageIndex = pageIndex == null ? 0 : pageIndex;
+    public Mono<CursorPageDto<TransactionDto>> getCustomerAllTransaction(
+            String customerId, Integer pageSize, String pageToken) {
+        int limit = pageSize == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
 
-        return transactionRepository.getTransactionPagingData(customerId, pageSize, pageIndex * pageSize)
-                .map(transactionEntity -> mapper.map(transactionEntity, TransactionDto.class));
+        return getTransactionPage(customerId, pageToken, limit + 1)
+                .collectList()
+                .map(transactionEntities -> makeTransactionPage(transactionEntities, limit));
+    }
+
+    private Flux<TransactionEntity> getTransactionPage(String customerId, String pageToken, int limit) {
+        if (pageToken == null || pageToken.isBlank()) {
+            return transactionRepository.getTransactionFirstPage(customerId, limit);
+        }
+
+        return Mono.fromCallable(() -> PageTokenUtil.decode(pageToken))
+                .flatMapMany(cursor -> transactionRepository.getTransactionPageAfter(
+                        customerId, cursor.createdOn(), getUuidFromCursorId(cursor.id()), limit));
+    }
+
+    private CursorPageDto<TransactionDto> makeTransactionPage(List<TransactionEntity> transactionEntities, int limit) {
+        boolean hasNextPage = transactionEntities.size() > limit;
+        List<TransactionEntity> pageEntities = hasNextPage
+                ? transactionEntities.subList(0, limit)
+                : transactionEntities;
+        TransactionEntity lastEntity = pageEntities.isEmpty() ? null : pageEntities.get(pageEntities.size() - 1);
+
+        return CursorPageDto.<TransactionDto>builder()
+                .items(pageEntities.stream()
+                        .map(transactionEntity -> transactionMapper.toDto(transactionEntity))
+                        .toList())
+                .nextPageToken(hasNextPage ? PageTokenUtil.encode(lastEntity.getCreatedOn(), lastEntity.getId()) : null)
+                .build();
+    }
+
+    private UUID getUuidFromCursorId(String id) {
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            throw new CustomException("Invalid page token");
+        }
     }
 }
@@ -2,21 +2,23 @@ package org.sir.stripeintegration.infrastructure.service;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.sir.stripeintegration.core.application.dtos.loginSignup.request.LoginRequestDto;
 import org.sir.stripeintegration.core.application.dtos.loginSignup.request.RefreshTokenDto;
 import org.sir.stripeintegration.core.application.dtos.loginSignup.request.SignupRequestDto;
 import org.sir.stripeintegration.core.application.dtos.loginSignup.response.LoginResponseDto;
 import org.sir.stripeintegration.core.application.dtos.user.UserDto;
 import org.sir.stripeintegration.core.application.interfaces.service.IUserService;
+import org.sir.stripeintegration.core.application.mappers.UserMapper;
 import org.sir.stripeintegration.core.domain.UserEntity;
 import org.sir.stripeintegration.core.shared.exceptions.CustomException;
+import org.sir.stripeintegration.core.shared.exceptions.PasswordHashingRejectedException;
 import org.sir.stripeintegration.core.shared.security.CustomEncoder;
 import org.sir.stripeintegration.core.shared.utility.JWTUtil;
 import org.sir.stripeintegration.core.shared.utility.UtilService;
 import org.sir.stripeintegration.infrastructure.persistance.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
@@ -31,7 +33,7 @@ import java.util.UUID;
 public class UserService implements IUserService {
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
     private final UserRepository userRepository;
-    private final ModelMapper mapper = new ModelMapper();
+    private final UserMapper userMapper;
 
     private JWTUtil jwtUtil;
     private UtilService utilService;
@@ -40,15 +42,24 @@ public class UserService implements IUserService {
     @Override
     public Mono<ResponseEntity<?>> validateLoginRequestAndGetTokenResponse(LoginRequestDto request) {
         return findUserByUserName(request.getUserEmail())
-                .map(userDetails -> {
-                    if (passwordEncoder.encode(request.getPassword()).equals(userDetails.getPassword())) {
-                        return ResponseEntity.ok(generateTokenResponseOnLogin(userDetails));
-                    } else {
-                        logger.info("Password not matched");
-                        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-                    }
-                })
-                .defaultIfEmpty(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+                .flatMap(userDetails -> passwordEncoder.matchesAsync(request.getPassword(), userDetails.getPassword())
+                        .<ResponseEntity<?>>map(matched -> {
+                            if (matched) {
+                                return ResponseEntity.ok(generateTokenResponseOnLogin(userDetails));
+                            } else {
+                                logger.info("Password not matched");
+                                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+                            }
+                        }))
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build())
+                .onErrorResume(PasswordHashingRejectedException.class, this::tooManyRequests);
+    }
+
+    private Mono<ResponseEntity<?>> tooManyRequests(PasswordHashingRejectedException ex) {
+        logger.warn(ex.getMessage());
+        return Mono.just(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .build());
     }
 
     private Mono<LoginResponseDto> generateTokenResponseOnLogin(UserEntity userDetails) {
@@ -78,8 +89,12 @@ public class UserService implements IUserService {
     public Mono<ResponseEntity<?>> createUserOnSignup(SignupRequestDto userdata) {
         String message = utilService.validation(userdata);
         if (message.isEmpty()) {
-            userdata.setPassword(passwordEncoder.encode(userdata.getPassword()));
-            return Mono.just(ResponseEntity.ok(createUser(userdata)));
+            return passwordEncoder.encodeAsync(userdata.getPassword())
+                    .<ResponseEntity<?>>map(encodedPassword -> {
+                        userdata.setPassword(encodedPassword);
+                        return ResponseEntity.ok(createUser(userdata));
+                    })
+                    .onErrorResume(PasswordHashingRejectedException.class, this::tooManyRequests);
         } else {
             return Mono.just(ResponseEntity.badRequest().body(message));
         }
@@ -113,7 +128,7 @@ public class UserService implements IUserService {
         user.setNewEntry(true);
 
         return userRepository.save(user)
-                .map(userEntity -> mapper.map(userEntity, UserDto.class));
+                .map(userEntity -> userMapper.toDto(userEntity));
     }
 
     private Mono<UserEntity> updateUserRefreshToken(UserEntity user, String refreshToken) {
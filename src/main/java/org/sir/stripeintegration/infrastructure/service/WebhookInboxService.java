@@ -0,0 +1,45 @@
+package org.sir.stripeintegration.infrastructure.service;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.sir.stripeintegration.core.application.interfaces.service.IWebhookInboxService;
+import org.sir.stripeintegration.core.shared.exceptions.CustomException;
+import org.sir.stripeintegration.infrastructure.persistance.repository.WebhookEventRepository;
+import org.sir.stripeintegration.infrastructure.service.stripe.WebhookEventDeduplicator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+@Service
+@AllArgsConstructor
+@Slf4j
+public class WebhookInboxService implements IWebhookInboxService {
+    private static final Logger logger = LoggerFactory.getLogger(WebhookInboxService.class);
+    private final WebhookEventRepository webhookEventRepository;
+    private final WebhookEventDeduplicator webhookEventDeduplicator;
+
+    @Override
+    public Mono<Void> enqueue(String eventId, String eventType, String payload) {
+        if (webhookEventDeduplicator.isRecentDuplicate(eventId)) {
+            logger.info("Webhook event {} received recently, skipped", eventId);
+            return Mono.empty();
+        }
+
+        return webhookEventRepository.insertIfAbsent(eventId, eventType, payload, Instant.now())
+                .doOnNext(inserted -> {
+                    webhookEventDeduplicator.markSeen(eventId);
+                    webhookEventDeduplicator.record(WebhookEventDeduplicator.LAYER_INBOX, inserted == 0);
+                    if (inserted == 0) {
+                        logger.info("Webhook event {} already received, skipped", eventId);
+                    }
+                })
+                .onErrorMap(ex -> {
+                    logger.error(ex.getMessage());
+                    return new CustomException("Error occurred on webhook event save");
+                })
+                .then();
+    }
+}
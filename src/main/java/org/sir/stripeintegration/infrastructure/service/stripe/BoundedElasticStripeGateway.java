@@ -0,0 +1,259 @@
+package org.sir.stripeintegration.infrastructure.service.stripe;
+
+import lombok.AllArgsConstructor;
+import org.sir.stripeintegration.core.application.dtos.customer.request.CustomerCreateRequestDto;
+import org.sir.stripeintegration.core.application.dtos.customer.request.CustomerUpdateRequestDto;
+import org.sir.stripeintegration.core.application.dtos.customer.response.CustomerDto;
+import org.sir.stripeintegration.core.application.dtos.invoice.response.InvoiceLineDto;
+import org.sir.stripeintegration.core.application.dtos.paymentIntent.request.CreatePaymentIntentRequestDto;
+import org.sir.stripeintegration.core.application.dtos.paymentIntent.response.PaymentIntentDto;
+import org.sir.stripeintegration.core.application.dtos.paymentMethod.request.CreatePaymentMethodRequestDto;
+import org.sir.stripeintegration.core.application.dtos.paymentMethod.request.UpdatePaymentMethodRequestDto;
+import org.sir.stripeintegration.core.application.dtos.paymentMethod.response.PaymentMethodDto;
+import org.sir.stripeintegration.core.application.dtos.product.request.CreateProductRequestDto;
+import org.sir.stripeintegration.core.application.dtos.product.request.UpdateProductRequestDto;
+import org.sir.stripeintegration.core.application.dtos.product.response.ProductDto;
+import org.sir.stripeintegration.core.application.dtos.productPrice.request.CreateProductPriceRequestDto;
+import org.sir.stripeintegration.core.application.dtos.productPrice.request.UpdateProductPriceRequestDto;
+import org.sir.stripeintegration.core.application.dtos.productPrice.response.ProductPriceDto;
+import org.sir.stripeintegration.core.application.dtos.subscription.request.CreateSubscriptionDto;
+import org.sir.stripeintegration.core.application.dtos.subscription.request.UpdateSubscriptionDto;
+import org.sir.stripeintegration.core.application.dtos.subscription.response.SubscriptionDto;
+import org.sir.stripeintegration.core.application.interfaces.service.IStripeGateway;
+import org.sir.stripeintegration.core.domain.CustomerEntity;
+import org.sir.stripeintegration.core.shared.constant.StripeOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Fallback gateway that keeps using the blocking Stripe SDK through {@link StripeRootService},
+ * but moves every call off the event loop onto the bounded elastic scheduler.
+ * Enabled with {@code stripe.gateway.mode=blocking}. Calls are timed by {@link StripeCallMetrics} like the
+ * reactive gateway's, the scheduler queueing time included, rate limited by {@link StripeCallGuard} and retried by
+ * {@link StripeRetryPolicy}. Creates are sent with idempotency keys through {@link StripeIdempotencyCache}.
+ * Concurrent retrieves of the same product, price or subscription share one call through {@link StripeSingleFlight}.
+ */
+@Service
+@AllArgsConstructor
+@ConditionalOnProperty(name = "stripe.gateway.mode", havingValue = "blocking")
+public class BoundedElasticStripeGateway implements IStripeGateway {
+    private final StripeRootService stripeRootService;
+    private final StripeCallMetrics stripeCallMetrics;
+    private final StripeCallGuard stripeCallGuard;
+    private final StripeSingleFlight stripeSingleFlight;
+    private final StripeRetryPolicy stripeRetryPolicy;
+    private final StripeIdempotencyCache stripeIdempotencyCache;
+
+    private <T> Mono<T> call(StripeOperation operation, Callable<T> callable) {
+        return call(operation, false, callable);
+    }
+
+    private <T> Mono<T> call(StripeOperation operation, boolean idempotencyKeyed, Callable<T> callable) {
+        return stripeRetryPolicy.retry(operation, idempotencyKeyed, stripeCallGuard.guard(operation,
+                stripeCallMetrics.instrument(operation,
+                        Mono.fromCallable(callable).subscribeOn(Schedulers.boundedElastic()))));
+    }
+
+    private <T> Flux<T> callList(StripeOperation operation, Callable<List<T>> callable) {
+        return call(operation, callable).flatMapIterable(list -> list);
+    }
+
+    private Mono<Void> run(StripeOperation operation, Runnable runnable) {
+        return stripeRetryPolicy.retry(operation, false, stripeCallGuard.guard(operation,
+                stripeCallMetrics.instrument(operation,
+                        Mono.fromRunnable(runnable).subscribeOn(Schedulers.boundedElastic()).then())));
+    }
+
+    //region Customer
+    @Override
+    public Mono<CustomerDto> createCustomer(CustomerCreateRequestDto requestDto) {
+        return stripeIdempotencyCache.execute(StripeOperation.CUSTOMER_CREATE,
+                idempotencyKey -> createCustomer(requestDto, idempotencyKey));
+    }
+
+    @Override
+    public Mono<CustomerDto> createCustomer(CustomerCreateRequestDto requestDto, String idempotencyKey) {
+        return call(StripeOperation.CUSTOMER_CREATE, idempotencyKey != null,
+                () -> stripeRootService.createCustomer(requestDto, idempotencyKey));
+    }
+
+    @Override
+    public Flux<CustomerDto> getAllCustomers(Long limit, String startingAfter, String endingBefore) {
+        return callList(StripeOperation.CUSTOMER_LIST, () -> stripeRootService.getAllCustomers(limit, startingAfter, endingBefore));
+    }
+
+    @Override
+    public Mono<CustomerDto> updateCustomer(CustomerUpdateRequestDto requestDto) {
+        return call(StripeOperation.CUSTOMER_UPDATE, () -> stripeRootService.updateCustomer(requestDto));
+    }
+
+    @Override
+    public Mono<Void> deleteCustomer(String customerId) {
+        return run(StripeOperation.CUSTOMER_DELETE, () -> stripeRootService.deleteCustomer(customerId));
+    }
+
+    @Override
+    public Mono<String> getCustomerDefaultPaymentMethodId(String customerId) {
+        return call(StripeOperation.CUSTOMER_RETRIEVE, () -> stripeRootService.getCustomerDefaultPaymentMethodId(customerId));
+    }
+    //endregion
+
+    //region PaymentIntent
+    @Override
+    public Mono<PaymentIntentDto> createPaymentIntent(CreatePaymentIntentRequestDto requestDto, String paymentMethodId) {
+        return stripeIdempotencyCache.execute(StripeOperation.PAYMENT_INTENT_CREATE,
+                idempotencyKey -> call(StripeOperation.PAYMENT_INTENT_CREATE, true,
+                        () -> stripeRootService.createPaymentIntent(requestDto, paymentMethodId, idempotencyKey)));
+    }
+
+    @Override
+    public Mono<PaymentIntentDto> getCustomerPaymentIntentById(String id, String customerId) {
+        return call(StripeOperation.PAYMENT_INTENT_RETRIEVE, () -> stripeRootService.getCustomerPaymentIntentById(id, customerId));
+    }
+
+    @Override
+    public Flux<PaymentIntentDto> getCustomerAllPaymentIntents(
+            String customerId, Long limit, String startingAfter, String endingBefore) {
+        return callList(StripeOperation.PAYMENT_INTENT_LIST, () -> stripeRootService.getCustomerAllPaymentIntents(
+                customerId, limit, startingAfter, endingBefore));
+    }
+    //endregion
+
+    //region PaymentMethod
+    @Override
+    public Mono<PaymentMethodDto> createPaymentMethod(
+            CustomerEntity customer, CreatePaymentMethodRequestDto requestDto) {
+        return call(StripeOperation.PAYMENT_METHOD_CREATE, () -> stripeRootService.createPaymentMethod(customer, requestDto));
+    }
+
+    @Override
+    public Mono<PaymentMethodDto> updatePaymentMethod(UpdatePaymentMethodRequestDto requestDto) {
+        return call(StripeOperation.PAYMENT_METHOD_UPDATE, () -> stripeRootService.updatePaymentMethod(requestDto));
+    }
+
+    @Override
+    public Mono<Void> deletePaymentMethod(String id) {
+        return run(StripeOperation.PAYMENT_METHOD_DETACH, () -> stripeRootService.deletePaymentMethod(id));
+    }
+
+    @Override
+    public Flux<PaymentMethodDto> getCustomerAllPaymentMethods(
+            String customerId, Long limit, String startingAfter, String endingBefore) {
+        return callList(StripeOperation.PAYMENT_METHOD_LIST, () -> stripeRootService.getCustomerAllPaymentMethods(
+                customerId, limit, startingAfter, endingBefore));
+    }
+
+    @Override
+    public Mono<PaymentMethodDto> getCustomerPaymentMethodById(String id, String customerId) {
+        return call(StripeOperation.PAYMENT_METHOD_RETRIEVE, () -> stripeRootService.getCustomerPaymentMethodById(id, customerId));
+    }
+
+    @Override
+    public Mono<PaymentMethodDto> setCustomerDefaultPaymentMethod(String customerId, String paymentMethodId) {
+        return call(StripeOperation.PAYMENT_METHOD_SET_DEFAULT, () -> stripeRootService.setCustomerDefaultPaymentMethod(customerId, paymentMethodId));
+    }
+    //endregion
+
+    //region Product
+    @Override
+    public Mono<ProductDto> createProduct(CreateProductRequestDto requestDto) {
+        return call(StripeOperation.PRODUCT_CREATE, () -> stripeRootService.createProduct(requestDto));
+    }
+
+    @Override
+    public Mono<ProductDto> updateProduct(UpdateProductRequestDto requestDto) {
+        return call(StripeOperation.PRODUCT_UPDATE, () -> stripeRootService.updateProduct(requestDto));
+    }
+
+    @Override
+    public Mono<ProductDto> getProductById(String id) {
+        return stripeSingleFlight.execute(StripeOperation.PRODUCT_RETRIEVE, id,
+                () -> call(StripeOperation.PRODUCT_RETRIEVE, () -> stripeRootService.getProductById(id)));
+    }
+
+    @Override
+    public Flux<ProductDto> getAllProducts(
+            Boolean active, Boolean shippable, Long limit, String startingAfter, String endingBefore) {
+        return callList(StripeOperation.PRODUCT_LIST, () -> stripeRootService.getAllProducts(
+                active, shippable, limit, startingAfter, endingBefore));
+    }
+
+    @Override
+    public Mono<Void> deleteProductById(String id) {
+        return run(StripeOperation.PRODUCT_DELETE, () -> stripeRootService.deleteProductById(id));
+    }
+    //endregion
+
+    //region ProductPrice
+    @Override
+    public Mono<ProductPriceDto> createPrice(CreateProductPriceRequestDto requestDto) {
+        return stripeIdempotencyCache.execute(StripeOperation.PRICE_CREATE,
+                idempotencyKey -> call(StripeOperation.PRICE_CREATE, true,
+                        () -> stripeRootService.createPrice(requestDto, idempotencyKey)));
+    }
+
+    @Override
+    public Mono<ProductPriceDto> getPriceById(String id) {
+        return stripeSingleFlight.execute(StripeOperation.PRICE_RETRIEVE, id,
+                () -> call(StripeOperation.PRICE_RETRIEVE, () -> stripeRootService.getPriceById(id)));
+    }
+
+    @Override
+    public Flux<ProductPriceDto> getProductAllPrices(
+            String productId, Boolean active, String type, Long limit, String startingAfter, String endingBefore) {
+        return callList(StripeOperation.PRICE_LIST, () -> stripeRootService.getProductAllPrices(
+                productId, active, type, limit, startingAfter, endingBefore));
+    }
+
+    @Override
+    public Mono<ProductPriceDto> updatePrice(UpdateProductPriceRequestDto requestDto) {
+        return call(StripeOperation.PRICE_UPDATE, () -> stripeRootService.updatePrice(requestDto));
+    }
+    //endregion
+
+    //region Subscription
+    @Override
+    public Mono<SubscriptionDto> createSubscription(CreateSubscriptionDto requestDto) {
+        return stripeIdempotencyCache.execute(StripeOperation.SUBSCRIPTION_CREATE,
+                idempotencyKey -> call(StripeOperation.SUBSCRIPTION_CREATE, true,
+                        () -> stripeRootService.createSubscription(requestDto, idempotencyKey)));
+    }
+
+    @Override
+    public Mono<SubscriptionDto> getSubscription(String id) {
+        return stripeSingleFlight.execute(StripeOperation.SUBSCRIPTION_RETRIEVE, id,
+                () -> call(StripeOperation.SUBSCRIPTION_RETRIEVE, () -> stripeRootService.getSubscription(id)));
+    }
+
+    @Override
+    public Flux<SubscriptionDto> getCustomerAllSubscriptions(
+            String customerId, String status, Long limit, String startingAfter, String endingBefore) {
+        return callList(StripeOperation.SUBSCRIPTION_LIST, () -> stripeRootService.getCustomerAllSubscriptions(
+                customerId, status, limit, startingAfter, endingBefore));
+    }
+
+    @Override
+    public Mono<SubscriptionDto> updateSubscription(UpdateSubscriptionDto requestDto) {
+        return call(StripeOperation.SUBSCRIPTION_UPDATE, () -> stripeRootService.updateSubscription(requestDto));
+    }
+
+    @Override
+    public Mono<SubscriptionDto> cancelSubscription(String id) {
+        return call(StripeOperation.SUBSCRIPTION_CANCEL, () -> stripeRootService.cancelSubscription(id));
+    }
+    //endregion
+
+    //region Invoice
+    @Override
+    public Flux<InvoiceLineDto> getInvoiceLines(String invoiceId, Long limit, String startingAfter) {
+        return callList(StripeOperation.INVOICE_LINE_LIST,
+                () -> stripeRootService.getInvoiceLines(invoiceId, limit, startingAfter));
+    }
+    //endregion
+}
@@ -0,0 +1,132 @@
+package org.sir.stripeintegration.infrastructure.service.stripe;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.sir.stripeintegration.core.application.dtos.product.response.ProductDto;
+import org.sir.stripeintegration.core.application.dtos.productPrice.response.ProductPriceDto;
+import org.sir.stripeintegration.core.application.interfaces.service.ICatalogSyncService;
+import org.sir.stripeintegration.core.application.interfaces.service.IStripeGateway;
+import org.sir.stripeintegration.core.shared.exceptions.StripeGatewayException;
+import org.sir.stripeintegration.infrastructure.persistance.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Periodically copies the whole stripe catalog into the local tables when catalog reads are served locally,
+ * it repairs anything the webhooks missed. Once a full product scan completed, local products it did not see
+ * are deleted when they were created before the scan started and stripe answers 404 for them, so products
+ * created while the scan runs are kept. Runs once on start and then every {@code catalog.reconcile.interval-ms}.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "catalog.read-source", havingValue = "local")
+public class CatalogReconciliationJob {
+    private static final Logger logger = LoggerFactory.getLogger(CatalogReconciliationJob.class);
+    static final long PAGE_SIZE = 100;
+
+    private final IStripeGateway stripeGateway;
+    private final ICatalogSyncService catalogSyncService;
+    private final ProductRepository productRepository;
+    private final Duration interval;
+
+    private Disposable subscription;
+
+    public CatalogReconciliationJob(IStripeGateway stripeGateway,
+                                    ICatalogSyncService catalogSyncService,
+                                    ProductRepository productRepository,
+                                    @Value("${catalog.reconcile.interval-ms}") long intervalMs) {
+        this.stripeGateway = stripeGateway;
+        this.catalogSyncService = catalogSyncService;
+        this.productRepository = productRepository;
+        this.interval = Duration.ofMillis(intervalMs);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        subscription = Flux.interval(Duration.ZERO, interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> reconcile()
+                        .onErrorResume(ex -> {
+                            logger.error("Catalog reconciliation failed: {}", ex.getMessage());
+                            return Mono.empty();
+                        }), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    public Mono<Void> reconcile() {
+        return reconcileProducts()
+                .then(listAll(startingAfter -> stripeGateway.getProductAllPrices(
+                                null, null, null, PAGE_SIZE, startingAfter, null),
+                        ProductPriceDto::getId)
+                        .concatMap(catalogSyncService::upsertPrice)
+                        .then())
+                .doOnSuccess(unused -> logger.info("Catalog reconciliation finished"));
+    }
+
+    private Mono<Void> reconcileProducts() {
+        return Mono.defer(() -> {
+            Instant scanStartedAt = Instant.now();
+
+            return listAll(startingAfter -> stripeGateway.getAllProducts(null, null, PAGE_SIZE, startingAfter, null),
+                    ProductDto::getId)
+                    .concatMap(productDto -> catalogSyncService.upsertProduct(productDto).thenReturn(productDto.id))
+                    .collect(HashSet<String>::new, Set::add)
+                    .flatMap(stripeProductIds -> productRepository.findAll()
+                            .filter(product -> !stripeProductIds.contains(product.getId()))
+                            .filter(product -> product.getCreatedOn() == null
+                                    || product.getCreatedOn().isBefore(scanStartedAt))
+                            .concatMap(product -> deleteIfGoneInStripe(product.getId()))
+                            .then());
+        });
+    }
+
+    /**
+     * Any answer other than 404 keeps the local product, the next run looks at it again.
+     */
+    private Mono<Void> deleteIfGoneInStripe(String id) {
+        return stripeGateway.getProductById(id)
+                .flatMap(catalogSyncService::upsertProduct)
+                .onErrorResume(StripeGatewayException.class, ex -> {
+                    if (ex.getHttpStatus() != HttpStatus.NOT_FOUND.value()) {
+                        logger.warn("Product {} was not listed by stripe and could not be checked: {}",
+                                id, ex.getStripeMessage());
+                        return Mono.empty();
+                    }
+                    logger.info("Product {} is no longer in stripe, deleted", id);
+                    return catalogSyncService.deleteProduct(id);
+                });
+    }
+
+    /**
+     * Follows {@code startingAfter} from the last id of each page until a page comes back short.
+     */
+    private static <T> Flux<T> listAll(Function<String, Flux<T>> page, Function<T, String> id) {
+        return page.apply(null).collectList()
+                .expand(items -> items.size() < PAGE_SIZE
+                        ? Mono.empty()
+                        : page.apply(id.apply(items.get(items.size() - 1))).collectList())
+                .flatMapIterable(items -> items);
+    }
+}
@@ -0,0 +1,78 @@
+package org.sir.stripeintegration.infrastructure.service.stripe;
+
+import com.stripe.Stripe;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.StripeException;
+import com.stripe.net.HttpClient;
+import com.stripe.net.HttpContent;
+import com.stripe.net.HttpHeaders;
+import com.stripe.net.StripeRequest;
+import com.stripe.net.StripeResponse;
+import io.netty.handler.codec.http.HttpMethod;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stripe sdk http client on top of the pooled {@link StripeHttpTransport}, it replaces the sdk default that uses
+ * {@code HttpURLConnection}. Requests block the calling thread, like every sdk call, so it must only be used from
+ * the bounded elastic scheduler. Streamed responses (file downloads) are not supported.
+ */
+public class ReactorNettyStripeHttpClient extends HttpClient {
+    private final reactor.netty.http.client.HttpClient httpClient;
+    private final Duration blockTimeout;
+
+    public ReactorNettyStripeHttpClient(StripeHttpTransport transport) {
+        this.httpClient = transport.getHttpClient();
+        this.blockTimeout = transport.getResponseTimeout().plusSeconds(5);
+    }
+
+    @Override
+    public StripeResponse request(StripeRequest request) throws StripeException {
+        HttpContent content = request.content();
+        byte[] body = content == null ? null : content.byteArrayContent();
+
+        try {
+            StripeResponse response = httpClient
+                    .headers(headers -> {
+                        request.headers().map().forEach(headers::add);
+                        headers.set("User-Agent", buildUserAgentString());
+                        headers.set("X-Stripe-Client-User-Agent", buildXStripeClientUserAgentString());
+                        if (content != null) {
+                            headers.set("Content-Type", content.contentType());
+                        }
+                    })
+                    .request(HttpMethod.valueOf(request.method().name()))
+                    .uri(request.url().toString())
+                    .send((httpRequest, outbound) -> body == null
+                            ? outbound
+                            : outbound.sendByteArray(Mono.just(body)))
+                    .responseSingle((httpResponse, bytes) -> bytes.asString(StandardCharsets.UTF_8)
+                            .defaultIfEmpty("")
+                            .map(responseBody -> new StripeResponse(httpResponse.status().code(),
+                                    getHeaders(httpResponse.responseHeaders()), responseBody)))
+                    .block(blockTimeout);
+
+            if (response == null) {
+                throw new ApiConnectionException("No response from Stripe (" + Stripe.getApiBase() + ")");
+            }
+            return response;
+        } catch (RuntimeException e) {
+            throw new ApiConnectionException(String.format(
+                    "IOException during API request to Stripe (%s): %s", Stripe.getApiBase(), e.getMessage()), e);
+        }
+    }
+
+    private static HttpHeaders getHeaders(io.netty.handler.codec.http.HttpHeaders nettyHeaders) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : nettyHeaders.names()) {
+            headers.put(name, new ArrayList<>(nettyHeaders.getAll(name)));
+        }
+        return HttpHeaders.of(headers);
+    }
+}
@@ -0,0 +1,139 @@
+package org.sir.stripeintegration.infrastructure.service.stripe;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.sir.stripeintegration.core.shared.constant.StripeOperation;
+import org.sir.stripeintegration.core.shared.exceptions.StripeGatewayException;
+import org.sir.stripeintegration.core.shared.exceptions.StripeUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Client side rate limiting and circuit breaking in front of every Stripe call.
+ * <p>
+ * Read (retrieve/list) and write calls take a token from their own bucket ({@code stripe.rate-limit.*}).
+ * A call waits for its token on a timer, without holding a thread, and fails fast with
+ * {@link StripeUnavailableException} when the wait would be longer than {@code max-wait-ms}. A 429 pauses
+ * its bucket for the {@code Retry-After} Stripe sent, or {@code pause-ms}.
+ * <p>
+ * Transient failures (5xx, no response, or {@code Stripe-Should-Retry: true}) feed a circuit breaker
+ * ({@code stripe.circuit-breaker.*}), while it is open calls fail fast with {@link StripeUnavailableException}.
+ * Its state is published in the {@code resilience4j.circuitbreaker.*} metrics, token waits and rejections in
+ * {@code stripe.client.rate-limit.*}.
+ */
+@Component
+public class StripeCallGuard {
+    private static final Logger logger = LoggerFactory.getLogger(StripeCallGuard.class);
+    private static final String BUDGET_READ = "read";
+    private static final String BUDGET_WRITE = "write";
+
+    private final StripeTokenBucket readBucket;
+    private final StripeTokenBucket writeBucket;
+    private final long maxWaitNanos;
+    private final Duration defaultPause;
+    private final CircuitBreaker circuitBreaker;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public StripeCallGuard(@Value("${stripe.rate-limit.read-per-second}") double readPerSecond,
+                           @Value("${stripe.rate-limit.write-per-second}") double writePerSecond,
+                           @Value("${stripe.rate-limit.max-wait-ms}") long maxWaitMillis,
+                           @Value("${stripe.rate-limit.pause-ms}") long pauseMillis,
+                           @Value("${stripe.circuit-breaker.failure-rate-threshold}") float failureRateThreshold,
+                           @Value("${stripe.circuit-breaker.window-size}") int windowSize,
+                           @Value("${stripe.circuit-breaker.open-ms}") long openMillis,
+                           MeterRegistry meterRegistry) {
+        this(readPerSecond, writePerSecond, maxWaitMillis, pauseMillis, CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slidingWindowSize(windowSize)
+                .minimumNumberOfCalls(windowSize)
+                .waitDurationInOpenState(Duration.ofMillis(openMillis))
+                .recordException(StripeCallGuard::isStripeDegraded)
+                .ignoreExceptions(StripeUnavailableException.class)
+                .build(), System::nanoTime, meterRegistry);
+    }
+
+    StripeCallGuard(double readPerSecond, double writePerSecond, long maxWaitMillis, long pauseMillis,
+                    CircuitBreakerConfig circuitBreakerConfig, LongSupplier nanoClock, MeterRegistry meterRegistry) {
+        this.readBucket = new StripeTokenBucket(readPerSecond, nanoClock);
+        this.writeBucket = new StripeTokenBucket(writePerSecond, nanoClock);
+        this.maxWaitNanos = Duration.ofMillis(maxWaitMillis).toNanos();
+        this.defaultPause = Duration.ofMillis(pauseMillis);
+        this.meterRegistry = meterRegistry;
+
+        CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.of(circuitBreakerConfig);
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("stripe");
+    }
+
+    /**
+     * The breaker is asked first, so an open breaker does not use up a token.
+     */
+    public <T> Mono<T> guard(StripeOperation operation, Mono<T> call) {
+        return Mono.defer(() -> {
+                    String budget = operation.isRead() ? BUDGET_READ : BUDGET_WRITE;
+                    StripeTokenBucket bucket = operation.isRead() ? readBucket : writeBucket;
+
+                    long waitNanos = bucket.reserve(maxWaitNanos);
+                    if (waitNanos == StripeTokenBucket.REJECTED) {
+                        rejected(budget, "rate_limit").increment();
+                        return Mono.error(new StripeUnavailableException(operation.getErrorMessage(), null));
+                    }
+                    waitTimer(budget).record(Duration.ofNanos(waitNanos));
+
+                    Mono<T> limitedCall = call.doOnError(StripeGatewayException.class, ex -> {
+                        if (ex.isRateLimited()) {
+                            Duration pause = ex.getRetryAfter() != null ? ex.getRetryAfter() : defaultPause;
+                            logger.warn("Stripe rate limited {}, pausing {} calls for {}",
+                                    operation.getOperationName(), budget, pause);
+                            bucket.pause(pause);
+                        }
+                    });
+                    return waitNanos == 0 ? limitedCall : Mono.delay(Duration.ofNanos(waitNanos)).then(limitedCall);
+                })
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .onErrorMap(CallNotPermittedException.class, ex -> {
+                    rejected(operation.isRead() ? BUDGET_READ : BUDGET_WRITE, "circuit_open").increment();
+                    return new StripeUnavailableException(operation.getErrorMessage(), ex);
+                });
+    }
+
+    CircuitBreaker.State getCircuitBreakerState() {
+        return circuitBreaker.getState();
+    }
+
+    private static boolean isStripeDegraded(Throwable ex) {
+        return ex instanceof StripeGatewayException stripeGatewayException
+                && stripeGatewayException.isTransient()
+                && !stripeGatewayException.isRateLimited();
+    }
+
+    private Timer waitTimer(String budget) {
+        return Timer.builder("stripe.client.rate-limit.wait")
+                .description("Time Stripe calls waited for a rate limit token")
+                .tag("budget", budget)
+                .register(meterRegistry);
+    }
+
+    private Counter rejected(String budget, String reason) {
+        return Counter.builder("stripe.client.rate-limit.rejected")
+                .description("Stripe calls failed fast without being sent")
+                .tag("budget", budget)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,80 @@
+package org.sir.stripeintegration.infrastructure.service.stripe;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.sir.stripeintegration.core.shared.constant.StripeOperation;
+import org.sir.stripeintegration.core.shared.exceptions.CustomException;
+import org.sir.stripeintegration.core.shared.exceptions.StripeGatewayException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Times every outbound Stripe call as {@code stripe.client.requests}, tagged with the operation
+ * ({@code customer.create}, {@code subscription.list}, ...), the http status class and the Stripe error code.
+ * The timer publishes a latency histogram and p50/p95/p99, retries are counted in {@code stripe.client.retries}.
+ * Failed calls are logged once here with the Stripe request id, which is too high cardinality for a tag.
+ */
+@Component
+public class StripeCallMetrics {
+    private static final Logger logger = LoggerFactory.getLogger(StripeCallMetrics.class);
+    private static final String TIMER_NAME = "stripe.client.requests";
+    private static final String NONE = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    public StripeCallMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> Mono<T> instrument(StripeOperation operation, Mono<T> call) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return call
+                    .doOnSuccess(result -> sample.stop(timer(operation, "2xx", NONE)))
+                    .doOnError(ex -> {
+                        if (ex instanceof CustomException && !(ex instanceof StripeGatewayException)) {
+                            // Stripe answered, the result was rejected locally (e.g. owned by another customer)
+                            sample.stop(timer(operation, "2xx", NONE));
+                            return;
+                        }
+                        StripeGatewayException failure = StripeGatewayException.from(operation, ex);
+                        sample.stop(timer(operation, statusClass(failure.getHttpStatus()),
+                                failure.getStripeErrorCode() == null ? NONE : failure.getStripeErrorCode()));
+                        logger.error("{} failed with status {} code {} request {}: {}", operation.getOperationName(),
+                                failure.getHttpStatus(), failure.getStripeErrorCode(), failure.getRequestId(),
+                                failure.getStripeMessage());
+                    })
+                    .doOnCancel(() -> sample.stop(timer(operation, "cancelled", NONE)));
+        });
+    }
+
+    public void recordRetry(StripeOperation operation) {
+        Counter.builder("stripe.client.retries")
+                .description("Retried outbound Stripe calls")
+                .tag("operation", operation.getOperationName())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private Timer timer(StripeOperation operation, String status, String errorCode) {
+        return Timer.builder(TIMER_NAME)
+                .description("Outbound Stripe call latency")
+                .tag("operation", operation.getOperationName())
+                .tag("status", status)
+                .tag("error_code", errorCode)
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry);
+    }
+
+    private static String statusClass(int httpStatus) {
+        return httpStatus == StripeGatewayException.NO_RESPONSE ? "io_error" : httpStatus / 100 + "xx";
+    }
+}
@@ -0,0 +1,90 @@
+package org.sir.stripeintegration.infrastructure.service.stripe;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.sir.stripeintegration.core.application.dtos.product.response.ProductDto;
+import org.sir.stripeintegration.core.application.dtos.productPrice.response.ProductPriceDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of Stripe catalog lookups (products, prices and their lists), bounded by size and
+ * expiring after {@code stripe.catalog.cache.ttl-ms}. Concurrent misses of the same key share one Stripe call.
+ * <p>
+ * Entries are evicted by the local update/delete paths and by {@code product.*}/{@code price.*} webhooks,
+ * other application instances catch up after the ttl. Hit, miss and eviction counts are published as
+ * {@code cache.*} metrics tagged with the cache name.
+ */
+@Component
+public class StripeCatalogCache {
+    private final AsyncCache<String, ProductDto> products;
+    private final AsyncCache<String, ProductPriceDto> prices;
+    private final AsyncCache<List<Object>, List<ProductDto>> productLists;
+    private final AsyncCache<List<Object>, List<ProductPriceDto>> priceLists;
+
+    public StripeCatalogCache(@Value("${stripe.catalog.cache.ttl-ms}") long ttlMillis,
+                              @Value("${stripe.catalog.cache.max-size}") long maxSize,
+                              MeterRegistry meterRegistry) {
+        Duration ttl = Duration.ofMillis(ttlMillis);
+
+        this.products = CaffeineCacheMetrics.monitor(meterRegistry, newCache(ttl, maxSize), "stripe.products");
+        this.prices = CaffeineCacheMetrics.monitor(meterRegistry, newCache(ttl, maxSize), "stripe.prices");
+        this.productLists = CaffeineCacheMetrics.monitor(meterRegistry, newCache(ttl, maxSize), "stripe.product-lists");
+        this.priceLists = CaffeineCacheMetrics.monitor(meterRegistry, newCache(ttl, maxSize), "stripe.price-lists");
+    }
+
+    private static <K, V> AsyncCache<K, V> newCache(Duration ttl, long maxSize) {
+        return Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .buildAsync();
+    }
+
+    public Mono<ProductDto> getProduct(String id, Supplier<Mono<ProductDto>> loader) {
+        return get(products, id, loader);
+    }
+
+    public Mono<ProductPriceDto> getPrice(String id, Supplier<Mono<ProductPriceDto>> loader) {
+        return get(prices, id, loader);
+    }
+
+    /**
+     * @param key every parameter of the list call, in a fixed order
+     */
+    public Flux<ProductDto> getProducts(List<Object> key, Supplier<Flux<ProductDto>> loader) {
+        return get(productLists, key, () -> loader.get().collectList()).flatMapIterable(list -> list);
+    }
+
+    /**
+     * @param key every parameter of the list call, in a fixed order
+     */
+    public Flux<ProductPriceDto> getPrices(List<Object> key, Supplier<Flux<ProductPriceDto>> loader) {
+        return get(priceLists, key, () -> loader.get().collectList()).flatMapIterable(list -> list);
+    }
+
+    public void evictProduct(String id) {
+        products.synchronous().invalidate(id);
+        productLists.synchronous().invalidateAll();
+    }
+
+    public void evictPrice(String id) {
+        prices.synchronous().invalidate(id);
+        priceLists.synchronous().invalidateAll();
+    }
+
+    /**
+     * A failed or empty load is not cached. The shared future is never cancelled by a single subscriber.
+     */
+    private static <K, V> Mono<V> get(AsyncCache<K, V> cache, K key, Supplier<Mono<V>> loader) {
+        return Mono.fromFuture(() -> cache.get(key, (k, executor) -> loader.get().toFuture()), true);
+    }
+}
@@ -0,0 +1,57 @@
+package org.sir.stripeintegration.infrastructure.service.stripe;
+
+import lombok.AllArgsConstructor;
+import org.sir.stripeintegration.core.application.dtos.product.response.ProductDto;
+import org.sir.stripeintegration.core.application.dtos.productPrice.response.ProductPriceDto;
+import org.sir.stripeintegration.core.application.interfaces.service.ICatalogReadService;
+import org.sir.stripeintegration.core.application.interfaces.service.IStripeGateway;
+import org.sir.stripeintegration.infrastructure.persistance.repository.ProductPriceRepository;
+import org.sir.stripeintegration.infrastructure.persistance.repository.ProductRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+
+/**
+ * Reads the catalog from stripe through {@link StripeCatalogCache}, the local tables are only used to check
+ * that a product or price belongs to this application.
+ */
+@Service
+@AllArgsConstructor
+@ConditionalOnProperty(name = "catalog.read-source", havingValue = "stripe", matchIfMissing = true)
+public class StripeCatalogReadService implements ICatalogReadService {
+    private final ProductRepository productRepository;
+    private final ProductPriceRepository productPriceRepository;
+
+    private final IStripeGateway stripeGateway;
+    private final StripeCatalogCache stripeCatalogCache;
+
+    @Override
+    public Mono<ProductDto> getProduct(String id) {
+        return productRepository.findById(id)
+                .flatMap(productEntity -> stripeCatalogCache.getProduct(id, () -> stripeGateway.getProductById(id)));
+    }
+
+    @Override
+    public Flux<ProductDto> getAllProducts(
+            Boolean active, Boolean shippable, Long limit, String startingAfter, String endingBefore) {
+        return stripeCatalogCache.getProducts(Arrays.asList(active, shippable, limit, startingAfter, endingBefore),
+                () -> stripeGateway.getAllProducts(active, shippable, limit, startingAfter, endingBefore));
+    }
+
+    @Override
+    public Mono<ProductPriceDto> getPrice(String id) {
+        return productPriceRepository.findById(id)
+                .flatMap(productPriceEntity -> stripeCatalogCache.getPrice(id, () -> stripeGateway.getPriceById(id)));
+    }
+
+    @Override
+    public Flux<ProductPriceDto> getProductAllPrices(
+            String productId, Boolean active, String type, Long limit, String startingAfter, String endingBefore) {
+        return stripeCatalogCache.getPrices(
+                Arrays.asList(productId, active, type, limit, startingAfter, endingBefore),
+                () -> stripeGateway.getProductAllPrices(productId, active, type, limit, startingAfter, endingBefore));
+    }
+}
@@ -0,0 +1,160 @@
+package org.sir.stripeintegration.infrastructure.service.stripe;
+
+import com.stripe.model.*;
+import org.modelmapper.ModelMapper;
+import org.sir.stripeintegration.core.application.dtos.customer.response.CustomerDto;
+import org.sir.stripeintegration.core.application.dtos.invoice.response.InvoiceDto;
+import org.sir.stripeintegration.core.application.dtos.invoice.response.InvoiceLineDto;
+import org.sir.stripeintegration.core.application.dtos.paymentIntent.response.PaymentIntentDto;
+import org.sir.stripeintegration.core.application.dtos.paymentMethod.response.PaymentMethodDto;
+import org.sir.stripeintegration.core.application.dtos.product.response.ProductDto;
+import org.sir.stripeintegration.core.application.dtos.productPrice.response.ProductPriceDto;
+import org.sir.stripeintegration.core.application.dtos.subscription.response.SubscriptionDto;
+import org.sir.stripeintegration.core.shared.dtoModels.BillingDetailsDto;
+import org.sir.stripeintegration.core.shared.dtoModels.CardDto;
+import org.sir.stripeintegration.core.shared.dtoModels.RecurringDto;
+import org.sir.stripeintegration.core.shared.dtoModels.SubscriptionItemDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converts Stripe model objects into the application response dtos.
+ */
+public final class StripeDtoConverter {
+    private static final ModelMapper mapper = new ModelMapper();
+
+    private StripeDtoConverter() {
+    }
+
+    public static CustomerDto getCustomerDtoFromCustomerObject(Customer customer) {
+        return CustomerDto.builder()
+                .id(customer.getId())
+                .email(customer.getEmail())
+                .name(customer.getName())
+                .phone(customer.getPhone())
+                .defaultPaymentMethodId(customer.getInvoiceSettings() == null
+                        ? null : customer.getInvoiceSettings().getDefaultPaymentMethod())
+                .build();
+    }
+
+    public static PaymentIntentDto getPaymentIntentDtoFromPaymentIntentObject(PaymentIntent paymentIntent) {
+        return PaymentIntentDto.builder()
+                .id(paymentIntent.getId())
+                .amount(paymentIntent.getAmount().intValue())
+                .status(paymentIntent.getStatus())
+                .currency(paymentIntent.getCurrency())
+                .customerId(paymentIntent.getCustomer())
+                .paymentMethodId(paymentIntent.getPaymentMethod())
+                .build();
+    }
+
+    public static PaymentMethodDto makePaymentMethodResponseDtoFromStripeResponse(PaymentMethod paymentMethod) {
+        return PaymentMethodDto.builder()
+                .id(paymentMethod.getId())
+                .customerId(paymentMethod.getCustomer())
+                .type(paymentMethod.getType())
+                .billingDetails(mapper.map(paymentMethod.getBillingDetails(), BillingDetailsDto.class))
+                .card(mapper.map(paymentMethod.getCard(), CardDto.class))
+                .build();
+    }
+
+    public static ProductDto getProductDtoFromProductObject(Product product) {
+        return ProductDto.builder()
+                .id(product.getId())
+                .defaultPriceId(product.getDefaultPrice())
+                .name(product.getName())
+                .active(product.getActive())
+                .shippable(product.getShippable())
+                .description(product.getDescription())
+                .images(product.getImages())
+                .created(product.getCreated())
+                .build();
+    }
+
+    public static ProductPriceDto getProductPriceDtoFromPriceObject(Price price) {
+        return ProductPriceDto.builder()
+                .id(price.getId())
+                .type(price.getType())
+                .active(price.getActive())
+                .productId(price.getProduct())
+                .currency(price.getCurrency())
+                .nickName(price.getNickname())
+                .unitAmount(price.getUnitAmount())
+                .recurring(price.getRecurring() == null ? null : mapper.map(price.getRecurring(), RecurringDto.class))
+                .created(price.getCreated())
+                .build();
+    }
+
+    public static SubscriptionDto getSubscriptionDtoFromSubscriptionObject(Subscription subscription) {
+        return SubscriptionDto.builder()
+                .id(subscription.getId())
+                .customerId(subscription.getCustomer())
+                .status(subscription.getStatus())
+                .description(subscription.getDescription())
+                .cancelAt(subscription.getCancelAt())
+                .currentPeriodEnd(subscription.getCurrentPeriodEnd())
+                .defaultPaymentMethodId(subscription.getDefaultPaymentMethod())
+                .currency(subscription.getCurrency())
+                .cancelAtPeriodEnd(subscription.getCancelAtPeriodEnd())
+                .currentPeriodStart(subscription.getCurrentPeriodStart())
+                .created(subscription.getCreated())
+                .items(getSubscriptionItemDtosFromStripeSubscriptionItems(subscription.getItems().getData()))
+                .build();
+    }
+
+    /**
+     * Only the lines included in the object are converted, stripe includes the first page of them, the rest is
+     * listed with {@code getInvoiceLines} when {@code lines.has_more} is set.
+     */
+    public static InvoiceDto getInvoiceDtoFromInvoiceObject(Invoice invoice) {
+        List<InvoiceLineDto> lines = new ArrayList<>();
+        if (invoice.getLines() != null && invoice.getLines().getData() != null) {
+            invoice.getLines().getData().forEach(line -> lines.add(getInvoiceLineDtoFromInvoiceLineItemObject(line)));
+        }
+
+        return InvoiceDto.builder()
+                .id(invoice.getId())
+                .customerId(invoice.getCustomer())
+                .subscriptionId(invoice.getSubscription())
+                .number(invoice.getNumber())
+                .status(invoice.getStatus())
+                .currency(invoice.getCurrency())
+                .amountDue(invoice.getAmountDue())
+                .amountPaid(invoice.getAmountPaid())
+                .amountRemaining(invoice.getAmountRemaining())
+                .total(invoice.getTotal())
+                .periodStart(invoice.getPeriodStart())
+                .periodEnd(invoice.getPeriodEnd())
+                .hostedInvoiceUrl(invoice.getHostedInvoiceUrl())
+                .created(invoice.getCreated())
+                .lines(lines)
+                .build();
+    }
+
+    public static InvoiceLineDto getInvoiceLineDtoFromInvoiceLineItemObject(InvoiceLineItem line) {
+        return InvoiceLineDto.builder()
+                .id(line.getId())
+                .priceId(line.getPrice() == null ? null : line.getPrice().getId())
+                .description(line.getDescription())
+                .amount(line.getAmount())
+                .currency(line.getCurrency())
+                .quantity(line.getQuantity())
+                .periodStart(line.getPeriod() == null ? null : line.getPeriod().getStart())
+                .periodEnd(line.getPeriod() == null ? null : line.getPeriod().getEnd())
+                .build();
+    }
+
+    private static List<SubscriptionItemDto> getSubscriptionItemDtosFromStripeSubscriptionItems(
+            List<SubscriptionItem> items) {
+        List<SubscriptionItemDto> itemDtos = new ArrayList<>();
+
+        items.forEach(item -> itemDtos.add(SubscriptionItemDto.builder()
+                .priceId(item.getPrice().getId())
+                .quantity(item.getQuantity())
+                .build())
+        );
+
+        return itemDtos;
+    }
+}
@@ -0,0 +1,72 @@
+package org.sir.stripeintegration.infrastructure.service.stripe;
+
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * The one pooled, keep-alive http client every stripe call goes through, the reactive gateway and the stripe sdk
+ * ({@link ReactorNettyStripeHttpClient}) alike. Connections are reused until they idled {@code max-idle-ms} or lived
+ * {@code max-life-ms}, so most calls skip the tcp and tls handshakes. HTTP/2 is negotiated with ALPN on https.
+ * <p>
+ * Pool usage is published as {@code reactor.netty.connection.provider.*} ({@code name=stripe}), connect and tls
+ * handshake times as {@code reactor.netty.http.client.connect.time} and {@code ...tls.handshake.time}.
+ */
+@Component
+public class StripeHttpTransport {
+    static final String POOL_NAME = "stripe";
+
+    private final ConnectionProvider connectionProvider;
+    private final HttpClient httpClient;
+    private final Duration responseTimeout;
+
+    @Autowired
+    public StripeHttpTransport(@Value("${stripe.api.base}") String apiBase,
+                               @Value("${stripe.http.max-connections}") int maxConnections,
+                               @Value("${stripe.http.pending-acquire-timeout-ms}") long pendingAcquireTimeoutMs,
+                               @Value("${stripe.http.max-idle-ms}") long maxIdleMs,
+                               @Value("${stripe.http.max-life-ms}") long maxLifeMs,
+                               @Value("${stripe.http.connect-timeout-ms}") int connectTimeoutMs,
+                               @Value("${stripe.http.response-timeout-ms}") long responseTimeoutMs,
+                               @Value("${stripe.http.http2}") boolean http2) {
+        this.responseTimeout = Duration.ofMillis(responseTimeoutMs);
+        this.connectionProvider = ConnectionProvider.builder(POOL_NAME)
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMs))
+                .maxIdleTime(Duration.ofMillis(maxIdleMs))
+                .maxLifeTime(Duration.ofMillis(maxLifeMs))
+                .evictInBackground(Duration.ofMillis(maxIdleMs))
+                .metrics(true)
+                .build();
+
+        HttpClient client = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .keepAlive(true)
+                .responseTimeout(responseTimeout)
+                .metrics(true, uri -> POOL_NAME);
+        if (http2 && apiBase.startsWith("https:")) {
+            client = client.protocol(HttpProtocol.H2, HttpProtocol.HTTP11).secure();
+        }
+        this.httpClient = client;
+    }
+
+    public HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    public Duration getResponseTimeout() {
+        return responseTimeout;
+    }
+
+    @PreDestroy
+    public void close() {
+        connectionProvider.disposeLater().block(Duration.ofSeconds(5));
+    }
+}
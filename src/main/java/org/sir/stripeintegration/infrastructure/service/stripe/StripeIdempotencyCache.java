@@ -0,0 +1,61 @@
+package org.sir.stripeintegration.infrastructure.service.stripe;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.sir.stripeintegration.core.shared.constant.StripeOperation;
+import org.sir.stripeintegration.core.shared.utility.RequestIdentityUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Makes Stripe creates safe to repeat. The idempotency key of a create is derived from the identity of the inbound
+ * request it is made for, never from its parameters, so two legitimate identical creates from different requests
+ * stay two creates.
+ * <p>
+ * A request sent with an {@code Idempotency-Key} header carries its identity in the Reactor context (see
+ * {@link RequestIdentityUtil}), its repeats derive the same Stripe key and the completed response is kept for
+ * {@code stripe.idempotency.cache.ttl-ms}, by default Stripe's 24 hour idempotency window. A repeat is answered
+ * from here without a Stripe round trip, concurrent repeats share one call. One such request makes at most one
+ * create per operation. Any other create gets a random key of its own, its retries by {@link StripeRetryPolicy}
+ * reuse it and its response is not cached. Hits and misses are published as {@code cache.*} metrics of
+ * {@code stripe.idempotent-responses}.
+ */
+@Component
+public class StripeIdempotencyCache {
+    private final AsyncCache<String, Object> responses;
+
+    public StripeIdempotencyCache(@Value("${stripe.idempotency.cache.ttl-ms}") long ttlMillis,
+                                  @Value("${stripe.idempotency.cache.max-size}") long maxSize,
+                                  MeterRegistry meterRegistry) {
+        this.responses = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .maximumSize(maxSize)
+                .recordStats()
+                .buildAsync(), "stripe.idempotent-responses");
+    }
+
+    /**
+     * A failed call is not cached, its retry is sent to Stripe again with the same key.
+     *
+     * @param call sends the create with the idempotency key it is given
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> execute(StripeOperation operation, Function<String, Mono<T>> call) {
+        return Mono.deferContextual(context -> RequestIdentityUtil.get(context)
+                .map(requestIdentity -> Mono.fromFuture(() -> responses.get(idempotencyKey(operation, requestIdentity),
+                                (key, executor) -> call.apply(key).map(response -> (Object) response).toFuture()), true)
+                        .map(response -> (T) response))
+                .orElseGet(() -> call.apply(idempotencyKey(operation, UUID.randomUUID().toString()))));
+    }
+
+    static String idempotencyKey(StripeOperation operation, String requestIdentity) {
+        return operation.getOperationName() + "-" + requestIdentity;
+    }
+}
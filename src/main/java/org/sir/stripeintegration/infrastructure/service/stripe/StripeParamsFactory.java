@@ -0,0 +1,315 @@
+package org.sir.stripeintegration.infrastructure.service.stripe;
+
+import com.stripe.param.*;
+import org.sir.stripeintegration.core.application.dtos.customer.request.CustomerCreateRequestDto;
+import org.sir.stripeintegration.core.application.dtos.customer.request.CustomerUpdateRequestDto;
+import org.sir.stripeintegration.core.application.dtos.paymentIntent.request.CreatePaymentIntentRequestDto;
+import org.sir.stripeintegration.core.application.dtos.paymentMethod.request.CreatePaymentMethodRequestDto;
+import org.sir.stripeintegration.core.application.dtos.paymentMethod.request.UpdatePaymentMethodRequestDto;
+import org.sir.stripeintegration.core.application.dtos.product.request.CreateProductRequestDto;
+import org.sir.stripeintegration.core.application.dtos.product.request.UpdateProductRequestDto;
+import org.sir.stripeintegration.core.application.dtos.productPrice.request.CreateProductPriceRequestDto;
+import org.sir.stripeintegration.core.application.dtos.productPrice.request.UpdateProductPriceRequestDto;
+import org.sir.stripeintegration.core.application.dtos.subscription.request.CreateSubscriptionDto;
+import org.sir.stripeintegration.core.application.dtos.subscription.request.UpdateSubscriptionDto;
+import org.sir.stripeintegration.core.domain.CustomerEntity;
+import org.sir.stripeintegration.core.shared.dtoModels.AddressDto;
+import org.sir.stripeintegration.core.shared.dtoModels.SubscriptionItemDto;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the Stripe request parameters for every gateway call, so the blocking SDK calls and
+ * the non-blocking http calls always send the same payload.
+ */
+public final class StripeParamsFactory {
+    private StripeParamsFactory() {
+    }
+
+    //region Customer
+    public static CustomerCreateParams customerCreate(CustomerCreateRequestDto requestDto) {
+        return CustomerCreateParams.builder()
+                .setEmail(requestDto.email)
+                .setName(requestDto.name)
+                .setPhone(requestDto.phone)
+                .build();
+    }
+
+    public static CustomerListParams customerList(Long limit, String startingAfter, String endingBefore) {
+        return CustomerListParams.builder()
+                .setLimit(limit)
+                .setStartingAfter(startingAfter)
+                .setEndingBefore(endingBefore)
+                .build();
+    }
+
+    public static CustomerUpdateParams customerUpdate(CustomerUpdateRequestDto requestDto) {
+        return CustomerUpdateParams.builder()
+                .setEmail(requestDto.email)
+                .setName(requestDto.name)
+                .setPhone(requestDto.phone)
+                .build();
+    }
+
+    public static Map<String, Object> customerDefaultPaymentMethod(String paymentMethodId) {
+        Map<String, Object> invoiceSettings = new HashMap<>();
+        invoiceSettings.put("default_payment_method", paymentMethodId);
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("invoice_settings", invoiceSettings);
+
+        return params;
+    }
+    //endregion
+
+    //region PaymentIntent
+    public static PaymentIntentCreateParams paymentIntentCreate(
+            CreatePaymentIntentRequestDto requestDto, String paymentMethodId) {
+        return PaymentIntentCreateParams.builder()
+                .setAmount(requestDto.amount.longValue())
+                .setCurrency(requestDto.currency)
+                .setConfirm(true)
+                .setCustomer(requestDto.customerId)
+                .setPaymentMethod(paymentMethodId)
+                .build();
+    }
+
+    public static PaymentIntentListParams paymentIntentList(
+            String customerId, Long limit, String startingAfter, String endingBefore) {
+        return PaymentIntentListParams.builder()
+                .setCustomer(customerId)
+                .setLimit(limit)
+                .setStartingAfter(startingAfter)
+                .setEndingBefore(endingBefore)
+                .build();
+    }
+    //endregion
+
+    //region PaymentMethod
+    public static Map<String, Object> paymentMethodCreate(
+            CustomerEntity customer, CreatePaymentMethodRequestDto requestDto) {
+        Map<String, Object> card = new HashMap<>();
+        card.put("number", requestDto.cardNumber);
+        card.put("exp_month", requestDto.expMonth);
+        card.put("exp_year", requestDto.expYear);
+        card.put("cvc", requestDto.cvc);
+
+        Map<String, Object> billingDetails = makeBillingAddressRequestParam(customer, requestDto.address);
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("type", "card");
+        params.put("card", card);
+        params.put("billing_details", billingDetails);
+
+        return params;
+    }
+
+    public static Map<String, Object> paymentMethodAttach(String customerId) {
+        Map<String, Object> attachParams = new HashMap<>();
+        attachParams.put("customer", customerId);
+
+        return attachParams;
+    }
+
+    public static Map<String, Object> paymentMethodUpdate(UpdatePaymentMethodRequestDto requestDto) {
+        Map<String, Object> address = makeAddressRequestParam(requestDto.address);
+        Map<String, Object> billingDetails = new HashMap<>();
+        billingDetails.put("address", address);
+
+        Map<String, Object> card = new HashMap<>();
+        card.put("exp_month", requestDto.expMonth);
+        card.put("exp_year", requestDto.expYear);
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("card", card);
+        params.put("billing_details", billingDetails);
+
+        return params;
+    }
+
+    public static CustomerListPaymentMethodsParams customerPaymentMethodList(
+            Long limit, String startingAfter, String endingBefore) {
+        return CustomerListPaymentMethodsParams.builder()
+                .setType(CustomerListPaymentMethodsParams.Type.CARD)
+                .setLimit(limit)
+                .setStartingAfter(startingAfter)
+                .setEndingBefore(endingBefore)
+                .build();
+    }
+
+    private static Map<String, Object> makeBillingAddressRequestParam(CustomerEntity customer, AddressDto addressDto) {
+        Map<String, Object> billingDetails = new HashMap<>();
+        billingDetails.put("address", makeAddressRequestParam(addressDto));
+        billingDetails.put("email", customer.email);
+        billingDetails.put("name", customer.name);
+        billingDetails.put("phone", customer.phone);
+
+        return billingDetails;
+    }
+
+    private static Map<String, Object> makeAddressRequestParam(AddressDto addressDto) {
+        Map<String, Object> address = new HashMap<>();
+
+        if (addressDto != null) {
+            address.put("city", addressDto.city);
+            address.put("country", addressDto.country);
+            address.put("state", addressDto.state);
+            address.put("postal_code", addressDto.postalCode);
+        }
+
+        return address;
+    }
+    //endregion
+
+    //region Product
+    public static ProductCreateParams productCreate(CreateProductRequestDto requestDto) {
+        return ProductCreateParams.builder()
+                .setName(requestDto.name)
+                .setDescription(requestDto.description)
+                .setActive(requestDto.active)
+                .setShippable(requestDto.shippable)
+                .build();
+    }
+
+    public static ProductUpdateParams productUpdate(UpdateProductRequestDto requestDto) {
+        return ProductUpdateParams.builder()
+                .setActive(requestDto.active)
+                .setName(requestDto.name)
+                .setDescription(requestDto.description)
+                .setShippable(requestDto.shippable)
+                .setImages(requestDto.images)
+                .setDefaultPrice(requestDto.defaultPriceId)
+                .build();
+    }
+
+    public static ProductListParams productList(
+            Boolean active, Boolean shippable, Long limit, String startingAfter, String endingBefore) {
+        return ProductListParams.builder()
+                .setActive(active)
+                .setShippable(shippable)
+                .setLimit(limit)
+                .setStartingAfter(startingAfter)
+                .setEndingBefore(endingBefore)
+                .build();
+    }
+    //endregion
+
+    //region ProductPrice
+    public static Map<String, Object> priceCreate(CreateProductPriceRequestDto requestDto) {
+        Map<String, Object> params = new HashMap<>();
+
+        if (requestDto.recurring != null) {
+            Map<String, Object> recurring = new HashMap<>();
+            recurring.put("interval", requestDto.recurring.getInterval());
+            recurring.put("interval_count", requestDto.recurring.getIntervalCount());
+            recurring.put("usage_type", requestDto.recurring.getUsageType());
+
+            params.put("recurring", recurring);
+        }
+
+        params.put("unit_amount", requestDto.unitAmount);
+        params.put("currency", requestDto.currency);
+        params.put("product", requestDto.productId);
+        params.put("nickname", requestDto.nickName);
+        params.put("active", requestDto.active);
+
+        return params;
+    }
+
+    public static PriceListParams priceList(
+            String productId, Boolean active, String type, Long limit, String startingAfter, String endingBefore) {
+        return PriceListParams.builder()
+                .setProduct(productId)
+                .setActive(active)
+                .setType(type == null ? null : PriceListParams.Type.valueOf(type))
+                .setLimit(limit)
+                .setStartingAfter(startingAfter)
+                .setEndingBefore(endingBefore)
+                .build();
+    }
+
+    public static PriceUpdateParams priceUpdate(UpdateProductPriceRequestDto requestDto) {
+        return PriceUpdateParams.builder()
+                .setActive(requestDto.active)
+                .setNickname(requestDto.nickName)
+                .build();
+    }
+    //endregion
+
+    //region Subscription
+    public static SubscriptionCreateParams subscriptionCreate(CreateSubscriptionDto requestDto) {
+        return SubscriptionCreateParams.builder()
+                .setCustomer(requestDto.customerId)
+                .setCurrency(requestDto.currency)
+                .setCancelAt(requestDto.cancelAt)
+                .setDescription(requestDto.description)
+                .setDefaultPaymentMethod(requestDto.defaultPaymentMethodId)
+                .setCancelAtPeriodEnd(requestDto.cancelAtPeriodEnd)
+                .addAllItem(getCreateSubscriptionItemsParamsMapFromRequestItems(requestDto.items))
+                .build();
+    }
+
+    private static List<SubscriptionCreateParams.Item> getCreateSubscriptionItemsParamsMapFromRequestItems(
+            List<SubscriptionItemDto> items) {
+        List<SubscriptionCreateParams.Item> subscriptionItems = new ArrayList<>();
+
+        items.forEach(item -> {
+            SubscriptionCreateParams.Item itemMap = SubscriptionCreateParams.Item.builder()
+                    .setPrice(item.priceId)
+                    .setQuantity(item.quantity)
+                    .build();
+            subscriptionItems.add(itemMap);
+        });
+
+        return subscriptionItems;
+    }
+
+    public static SubscriptionListParams subscriptionList(
+            String customerId, String status, Long limit, String startingAfter, String endingBefore) {
+        return SubscriptionListParams.builder()
+                .setCustomer(customerId)
+                .setLimit(limit)
+                .setStartingAfter(startingAfter)
+                .setEndingBefore(endingBefore)
+                .setStatus(status == null ? null : SubscriptionListParams.Status.valueOf(status))
+                .build();
+    }
+
+    public static SubscriptionUpdateParams subscriptionUpdate(UpdateSubscriptionDto requestDto) {
+        return SubscriptionUpdateParams.builder()
+                .setCancelAt(requestDto.cancelAt)
+                .setCancelAtPeriodEnd(requestDto.cancelAtPeriodEnd)
+                .setDescription(requestDto.description)
+                .setDefaultPaymentMethod(requestDto.defaultPaymentMethodId)
+                .addAllItem(getUpdateSubscriptionItemsParamsMapFromRequestItems(requestDto.items))
+                .build();
+    }
+
+    private static List<SubscriptionUpdateParams.Item> getUpdateSubscriptionItemsParamsMapFromRequestItems(
+            List<SubscriptionItemDto> items) {
+        List<SubscriptionUpdateParams.Item> subscriptionItems = new ArrayList<>();
+
+        items.forEach(item -> {
+            SubscriptionUpdateParams.Item itemMap = SubscriptionUpdateParams.Item.builder()
+                    .setPrice(item.priceId)
+                    .setQuantity(item.quantity)
+                    .build();
+            subscriptionItems.add(itemMap);
+        });
+
+        return subscriptionItems;
+    }
+    //endregion
+
+    //region Invoice
+    public static InvoiceLineItemCollectionListParams invoiceLineList(Long limit, String startingAfter) {
+        return InvoiceLineItemCollectionListParams.builder()
+                .setLimit(limit)
+                .setStartingAfter(startingAfter)
+                .build();
+    }
+    //endregion
+}
@@ -0,0 +1,58 @@
+package org.sir.stripeintegration.infrastructure.service.stripe;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Caps retries at a share of the traffic: every first attempt deposits {@code ratio} of a retry, every retry
+ * withdraws a whole one. A small reserve of {@code minPerSecond} keeps low traffic retryable. The balance is
+ * capped, so a long quiet period does not save up a retry storm.
+ */
+final class StripeRetryBudget {
+    private final double ratio;
+    private final double refillPerNano;
+    private final double maxBalance;
+    private final LongSupplier nanoClock;
+
+    private double balance;
+    private long refilledAt;
+
+    StripeRetryBudget(double ratio, double minPerSecond, double maxBalance, LongSupplier nanoClock) {
+        this.ratio = ratio;
+        this.refillPerNano = minPerSecond / Duration.ofSeconds(1).toNanos();
+        this.maxBalance = maxBalance;
+        this.nanoClock = nanoClock;
+        this.balance = Math.min(maxBalance, minPerSecond);
+        this.refilledAt = nanoClock.getAsLong();
+    }
+
+    synchronized void deposit() {
+        refill();
+        balance = Math.min(maxBalance, balance + ratio);
+    }
+
+    /**
+     * @return false without taking anything when less than one retry is left
+     */
+    synchronized boolean tryWithdraw() {
+        refill();
+        if (balance < 1) {
+            return false;
+        }
+        balance--;
+        return true;
+    }
+
+    synchronized double getBalance() {
+        refill();
+        return balance;
+    }
+
+    private void refill() {
+        long now = nanoClock.getAsLong();
+        if (now > refilledAt) {
+            balance = Math.min(maxBalance, balance + (now - refilledAt) * refillPerNano);
+            refilledAt = now;
+        }
+    }
+}
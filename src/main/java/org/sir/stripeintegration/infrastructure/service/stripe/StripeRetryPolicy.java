@@ -0,0 +1,124 @@
+package org.sir.stripeintegration.infrastructure.service.stripe;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.sir.stripeintegration.core.shared.constant.StripeOperation;
+import org.sir.stripeintegration.core.shared.exceptions.StripeGatewayException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Retries transient Stripe failures (see {@link StripeGatewayException#isTransient()}, so
+ * {@code Stripe-Should-Retry} wins) of calls that are safe to send twice: idempotent operations and calls that
+ * carry an idempotency key. Each attempt goes through {@link StripeCallGuard} and {@link StripeCallMetrics} again.
+ * <p>
+ * Attempts are spaced with decorrelated jitter between {@code base-delay-ms} and {@code max-delay-ms}, never
+ * earlier than the {@code Retry-After} Stripe sent. A shared {@link StripeRetryBudget} ({@code stripe.retry.budget.*})
+ * keeps retries to a share of the traffic, so they cannot multiply the load of an outage.
+ * Retries are counted in {@code stripe.client.retries}, retries refused by the budget in
+ * {@code stripe.client.retry-budget.exhausted}.
+ */
+@Component
+public class StripeRetryPolicy {
+    private static final Logger logger = LoggerFactory.getLogger(StripeRetryPolicy.class);
+
+    private final int maxAttempts;
+    private final Duration baseDelay;
+    private final Duration maxDelay;
+    private final StripeRetryBudget retryBudget;
+    private final StripeCallMetrics stripeCallMetrics;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public StripeRetryPolicy(@Value("${stripe.retry.max-attempts}") int maxAttempts,
+                             @Value("${stripe.retry.base-delay-ms}") long baseDelayMillis,
+                             @Value("${stripe.retry.max-delay-ms}") long maxDelayMillis,
+                             @Value("${stripe.retry.budget.ratio}") double budgetRatio,
+                             @Value("${stripe.retry.budget.min-per-second}") double budgetMinPerSecond,
+                             @Value("${stripe.retry.budget.max-balance}") double budgetMaxBalance,
+                             StripeCallMetrics stripeCallMetrics,
+                             MeterRegistry meterRegistry) {
+        this(maxAttempts, baseDelayMillis, maxDelayMillis, budgetRatio, budgetMinPerSecond, budgetMaxBalance,
+                System::nanoTime, stripeCallMetrics, meterRegistry);
+    }
+
+    StripeRetryPolicy(int maxAttempts, long baseDelayMillis, long maxDelayMillis, double budgetRatio,
+                      double budgetMinPerSecond, double budgetMaxBalance, LongSupplier nanoClock,
+                      StripeCallMetrics stripeCallMetrics, MeterRegistry meterRegistry) {
+        this.maxAttempts = maxAttempts;
+        this.baseDelay = Duration.ofMillis(baseDelayMillis);
+        this.maxDelay = Duration.ofMillis(maxDelayMillis);
+        this.retryBudget = new StripeRetryBudget(budgetRatio, budgetMinPerSecond, budgetMaxBalance, nanoClock);
+        this.stripeCallMetrics = stripeCallMetrics;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("stripe.client.retry-budget.balance", retryBudget, StripeRetryBudget::getBalance)
+                .description("Retries the Stripe retry budget still allows")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param call             one attempt, subscribed again for every retry
+     * @param idempotencyKeyed whether the call sends an idempotency key, which makes a create safe to repeat
+     */
+    public <T> Mono<T> retry(StripeOperation operation, boolean idempotencyKeyed, Mono<T> call) {
+        boolean retryable = idempotencyKeyed || operation.isIdempotent();
+        return Mono.defer(() -> {
+            retryBudget.deposit();
+            return attempt(operation, retryable, call, 1, baseDelay);
+        });
+    }
+
+    private <T> Mono<T> attempt(StripeOperation operation, boolean retryable, Mono<T> call,
+                                int attempt, Duration previousDelay) {
+        return call.onErrorResume(StripeGatewayException.class, ex -> {
+            if (!retryable || !ex.isTransient() || attempt >= maxAttempts) {
+                return Mono.error(ex);
+            }
+
+            Duration delay = nextDelay(previousDelay);
+            if (ex.getRetryAfter() != null) {
+                if (ex.getRetryAfter().compareTo(maxDelay) > 0) {
+                    return Mono.error(ex);
+                }
+                delay = delay.compareTo(ex.getRetryAfter()) < 0 ? ex.getRetryAfter() : delay;
+            }
+
+            if (!retryBudget.tryWithdraw()) {
+                budgetExhausted(operation).increment();
+                logger.warn("Stripe retry budget exhausted, {} is not retried", operation.getOperationName());
+                return Mono.error(ex);
+            }
+
+            stripeCallMetrics.recordRetry(operation);
+            logger.warn("Retrying {} in {} ms after status {} (attempt {} of {})", operation.getOperationName(),
+                    delay.toMillis(), ex.getHttpStatus(), attempt + 1, maxAttempts);
+            return Mono.delay(delay).then(attempt(operation, true, call, attempt + 1, delay));
+        });
+    }
+
+    /**
+     * Decorrelated jitter: a random delay between the base and three times the previous one, capped.
+     */
+    private Duration nextDelay(Duration previousDelay) {
+        long base = baseDelay.toMillis();
+        long upper = Math.max(base, Math.min(maxDelay.toMillis(), previousDelay.toMillis() * 3));
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(base, upper + 1));
+    }
+
+    private Counter budgetExhausted(StripeOperation operation) {
+        return Counter.builder("stripe.client.retry-budget.exhausted")
+                .description("Stripe calls not retried because the retry budget was used up")
+                .tag("operation", operation.getOperationName())
+                .register(meterRegistry);
+    }
+}
@@ -3,13 +3,15 @@ package org.sir.stripeintegration.infrastructure.service.stripe;
 import com.stripe.Stripe;
 import com.stripe.exception.StripeException;
 import com.stripe.model.*;
-import com.stripe.param.*;
+import com.stripe.net.ApiResource;
+import com.stripe.net.LiveStripeResponseGetter;
+import com.stripe.net.RequestOptions;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.sir.stripeintegration.core.application.dtos.customer.request.CustomerCreateRequestDto;
 import org.sir.stripeintegration.core.application.dtos.customer.request.CustomerUpdateRequestDto;
 import org.sir.stripeintegration.core.application.dtos.customer.response.CustomerDto;
+import org.sir.stripeintegration.core.application.dtos.invoice.response.InvoiceLineDto;
 import org.sir.stripeintegration.core.application.dtos.paymentIntent.request.CreatePaymentIntentRequestDto;
 import org.sir.stripeintegration.core.application.dtos.paymentIntent.response.PaymentIntentDto;
 import org.sir.stripeintegration.core.application.dtos.paymentMethod.request.CreatePaymentMethodRequestDto;
@@ -25,18 +27,23 @@ import org.sir.stripeintegration.core.application.dtos.subscription.request.Crea
 import org.sir.stripeintegration.core.application.dtos.subscription.request.UpdateSubscriptionDto;
 import org.sir.stripeintegration.core.application.dtos.subscription.response.SubscriptionDto;
 import org.sir.stripeintegration.core.domain.CustomerEntity;
-import org.sir.stripeintegration.core.shared.dtoModels.*;
+import org.sir.stripeintegration.core.shared.constant.StripeOperation;
 import org.sir.stripeintegration.core.shared.exceptions.CustomException;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.sir.stripeintegration.core.shared.exceptions.StripeGatewayException;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
+import static org.sir.stripeintegration.infrastructure.service.stripe.StripeDtoConverter.*;
+
+/**
+ * Blocking Stripe SDK calls. Never call this from an event loop thread directly, go through
+ * {@link org.sir.stripeintegration.core.application.interfaces.service.IStripeGateway} instead.
+ * Failures are thrown as {@link StripeGatewayException} and logged by {@link StripeCallMetrics}.
+ */
 @Service
 @Slf4j
 public class StripeRootService {
@@ -46,75 +53,57 @@ public class StripeRootService {
     @Value("${stripe.key.private}")
     private String stripeSecretKey;
 
-    private static final Logger logger = LoggerFactory.getLogger(StripeRootService.class);
-    private final ModelMapper mapper = new ModelMapper();
+    @Value("${stripe.api.base}")
+    private String stripeApiBase;
+
+    @Autowired
+    private StripeHttpTransport stripeHttpTransport;
 
     @PostConstruct
     public void init() {
         Stripe.apiKey = stripeSecretKey;
+        Stripe.overrideApiBase(stripeApiBase);
+        ApiResource.setStripeResponseGetter(
+                new LiveStripeResponseGetter(new ReactorNettyStripeHttpClient(stripeHttpTransport)));
     }
 
     //region Customer
     public CustomerDto createCustomer(CustomerCreateRequestDto requestDto) {
-        CustomerCreateParams params = CustomerCreateParams.builder()
-                .setEmail(requestDto.email)
-                .setName(requestDto.name)
-                .setPhone(requestDto.phone)
-                .build();
+        return createCustomer(requestDto, null);
+    }
 
+    public CustomerDto createCustomer(CustomerCreateRequestDto requestDto, String idempotencyKey) {
         try {
-            Customer customer = Customer.create(params);
+            Customer customer = Customer.create(StripeParamsFactory.customerCreate(requestDto),
+                    RequestOptions.builder().setIdempotencyKey(idempotencyKey).build());
             return getCustomerDtoFromCustomerObject(customer);
         } catch (StripeException e) {
-            logger.error(e.getMessage());
-            throw new CustomException("Error when try to create customer on stripe");
+            throw StripeGatewayException.from(StripeOperation.CUSTOMER_CREATE, e);
         }
     }
 
     public List<CustomerDto> getAllCustomers(Long limit, String startingAfter, String endingBefore) {
         try {
-            CustomerListParams params = CustomerListParams.builder()
-                    .setLimit(limit)
-                    .setStartingAfter(startingAfter)
-                    .setEndingBefore(endingBefore)
-                    .build();
-
-            CustomerCollection customers = Customer.list(params);
+            CustomerCollection customers = Customer.list(
+                    StripeParamsFactory.customerList(limit, startingAfter, endingBefore));
 
             List<CustomerDto> customerDtos = new ArrayList<>();
             customers.getData().forEach(customer -> customerDtos.add(getCustomerDtoFromCustomerObject(customer)));
 
             return customerDtos;
-        } catch (Exception e) {
-            logger.error(e.getMessage());
-            throw new CustomException("Error when try to get customer list on stripe");
+        } catch (StripeException e) {
+            throw StripeGatewayException.from(StripeOperation.CUSTOMER_LIST, e);
         }
     }
 
-    private CustomerDto getCustomerDtoFromCustomerObject(Customer customer) {
-        return CustomerDto.builder()
-                .id(customer.getId())
-                .email(customer.getEmail())
-                .name(customer.getName())
-                .phone(customer.getPhone())
-                .build();
-    }
-
     public CustomerDto updateCustomer(CustomerUpdateRequestDto requestDto) {
-        CustomerUpdateParams params = CustomerUpdateParams.builder()
-                .setEmail(requestDto.email)
-                .setName(requestDto.name)
-                .setPhone(requestDto.phone)
-                .build();
-
         try {
             Customer customer = Customer.retrieve(requestDto.id);
-            customer = customer.update(params);
+            customer = customer.update(StripeParamsFactory.customerUpdate(requestDto));
 
             return getCustomerDtoFromCustomerObject(customer);
         } catch (StripeException e) {
-            logger.error(e.getMessage());
-            throw new CustomException("Error when try to update customer on stripe");
+            throw StripeGatewayException.from(StripeOperation.CUSTOMER_UPDATE, e);
         }
     }
 
@@ -123,49 +112,35 @@ public class StripeRootService {
             Customer customer = Customer.retrieve(customerId);
             customer.delete();
         } catch (StripeException e) {
-            logger.error(e.getMessage());
-            throw new CustomException("Error when customer try to delete from stripe");
+            throw StripeGatewayException.from(StripeOperation.CUSTOMER_DELETE, e);
         }
     }
-    //endregion
 
-    //region PaymentIntent
-    public PaymentIntentDto createPaymentIntent(CreatePaymentIntentRequestDto requestDto) {
+    public String getCustomerDefaultPaymentMethodId(String customerId) {
         try {
-            Customer customer = Customer.retrieve(requestDto.customerId);
-
-            if (customer.getInvoiceSettings().getDefaultPaymentMethod() == null) {
-                throw new CustomException("Customer default payment method not set yet");
-            }
+            Customer customer = Customer.retrieve(customerId);
 
-            PaymentIntentCreateParams params = PaymentIntentCreateParams.builder()
-                    .setAmount(requestDto.amount.longValue())
-                    .setCurrency(requestDto.currency)
-                    .setConfirm(true)
-                    .setCustomer(requestDto.customerId)
-                    .setPaymentMethod(customer.getInvoiceSettings().getDefaultPaymentMethod())
-                    .build();
+            return customer.getInvoiceSettings() == null ? null : customer.getInvoiceSettings().getDefaultPaymentMethod();
+        } catch (StripeException e) {
+            throw StripeGatewayException.from(StripeOperation.CUSTOMER_RETRIEVE, e);
+        }
+    }
+    //endregion
 
-            PaymentIntent paymentIntent = PaymentIntent.create(params);
+    //region PaymentIntent
+    public PaymentIntentDto createPaymentIntent(CreatePaymentIntentRequestDto requestDto, String paymentMethodId,
+                                                String idempotencyKey) {
+        try {
+            PaymentIntent paymentIntent = PaymentIntent.create(
+                    StripeParamsFactory.paymentIntentCreate(requestDto, paymentMethodId),
+                    RequestOptions.builder().setIdempotencyKey(idempotencyKey).build());
 
             return getPaymentIntentDtoFromPaymentIntentObject(paymentIntent);
-        } catch (Exception e) {
-            logger.error(e.getMessage());
-            throw new CustomException("Error when try to create payment intent on stripe");
+        } catch (StripeException e) {
+            throw StripeGatewayException.from(StripeOperation.PAYMENT_INTENT_CREATE, e);
         }
     }
 
-    private PaymentIntentDto getPaymentIntentDtoFromPaymentIntentObject(PaymentIntent paymentIntent) {
-        return PaymentIntentDto.builder()
-                .id(paymentIntent.getId())
-                .amount(paymentIntent.getAmount().intValue())
-                .status(paymentIntent.getStatus())
-                .currency(paymentIntent.getCurrency())
-                .customerId(paymentIntent.getCustomer())
-                .paymentMethodId(paymentIntent.getPaymentMethod())
-                .build();
-    }
-
     public PaymentIntentDto getCustomerPaymentIntentById(String id, String customerId) {
         try {
             PaymentIntent paymentIntent = PaymentIntent.retrieve(id);
@@ -175,23 +150,16 @@ public class StripeRootService {
             }
 
             return getPaymentIntentDtoFromPaymentIntentObject(paymentIntent);
-        } catch (Exception e) {
-            logger.error(e.getMessage());
-            throw new CustomException("Error when try to retrieve customer payment method on stripe");
+        } catch (StripeException e) {
+            throw StripeGatewayException.from(StripeOperation.PAYMENT_INTENT_RETRIEVE, e);
         }
     }
 
     public List<PaymentIntentDto> getCustomerAllPaymentIntents(
             String customerId, Long limit, String startingAfter, String endingBefore) {
         try {
-            PaymentIntentListParams params = PaymentIntentListParams.builder()
-                    .setCustomer(customerId)
-                    .setLimit(limit)
-                    .setStartingAfter(startingAfter)
-                    .setEndingBefore(endingBefore)
-                    .build();
-
-            PaymentIntentCollection paymentIntents = PaymentIntent.list(params);
+            PaymentIntentCollection paymentIntents = PaymentIntent.list(
+                    StripeParamsFactory.paymentIntentList(customerId, limit, startingAfter, endingBefore));
 
             List<PaymentIntentDto> paymentIntentDtos = new ArrayList<>();
             paymentIntents.getData().forEach(paymentIntent ->
@@ -199,94 +167,31 @@ public class StripeRootService {
 
             return paymentIntentDtos;
         } catch (StripeException e) {
-            logger.error(e.getMessage());
-            throw new CustomException("Error when try to retrieve customer payment intents on stripe");
+            throw StripeGatewayException.from(StripeOperation.PAYMENT_INTENT_LIST, e);
         }
     }
     //endregion
 
     //region PaymentMethod
     public PaymentMethodDto createPaymentMethod(CustomerEntity customer, CreatePaymentMethodRequestDto requestDto) {
-        Map<String, Object> card = new HashMap<>();
-        card.put("number", requestDto.cardNumber);
-        card.put("exp_month", requestDto.expMonth);
-        card.put("exp_year", requestDto.expYear);
-        card.put("cvc", requestDto.cvc);
-
-        Map<String, Object> billingDetails = makeBillingAddressRequestParam(customer, requestDto.address);
-
-        Map<String, Object> params = new HashMap<>();
-        params.put("type", "card");
-        params.put("card", card);
-        params.put("billing_details", billingDetails);
-
         try {
-            PaymentMethod paymentMethod = PaymentMethod.create(params);
-
-            Map<String, Object> attachParams = new HashMap<>();
-            attachParams.put("customer", customer.id);
-            paymentMethod = paymentMethod.attach(attachParams);
+            PaymentMethod paymentMethod = PaymentMethod.create(
+                    StripeParamsFactory.paymentMethodCreate(customer, requestDto));
+            paymentMethod = paymentMethod.attach(StripeParamsFactory.paymentMethodAttach(customer.id));
 
             return makePaymentMethodResponseDtoFromStripeResponse(paymentMethod);
         } catch (StripeException e) {
-            logger.error(e.getMessage());
-            throw new CustomException("Error when try to create customer payment method on stripe");
-        }
-    }
-
-    private Map<String, Object> makeBillingAddressRequestParam(CustomerEntity customer, AddressDto addressDto) {
-        Map<String, Object> billingDetails = new HashMap<>();
-        billingDetails.put("address", makeAddressRequestParam(addressDto));
-        billingDetails.put("email", customer.email);
-        billingDetails.put("name", customer.name);
-        billingDetails.put("phone", customer.phone);
-
-        return billingDetails;
-    }
-
-    private Map<String, Object> makeAddressRequestParam(AddressDto addressDto) {
-        Map<String, Object> address = new HashMap<>();
-
-        if (addressDto != null) {
-            address.put("city", addressDto.city);
-            address.put("country", addressDto.country);
-            address.put("state", addressDto.state);
-            address.put("postal_code", addressDto.postalCode);
+            throw StripeGatewayException.from(StripeOperation.PAYMENT_METHOD_CREATE, e);
         }
-
-        return address;
-    }
-
-    private PaymentMethodDto makePaymentMethodResponseDtoFromStripeResponse(PaymentMethod paymentMethod) {
-        return PaymentMethodDto.builder()
-                .id(paymentMethod.getId())
-                .customerId(paymentMethod.getCustomer())
-                .type(paymentMethod.getType())
-                .billingDetails(mapper.map(paymentMethod.getBillingDetails(), BillingDetailsDto.class))
-                .card(mapper.map(paymentMethod.getCard(), CardDto.class))
-                .build();
     }
 
     public PaymentMethodDto updatePaymentMethod(UpdatePaymentMethodRequestDto requestDto) {
-        Map<String, Object> address = makeAddressRequestParam(requestDto.address);
-        Map<String, Object> billingDetails = new HashMap<>();
-        billingDetails.put("address", address);
-
-        Map<String, Object> card = new HashMap<>();
-        card.put("exp_month", requestDto.expMonth);
-        card.put("exp_year", requestDto.expYear);
-
-        Map<String, Object> params = new HashMap<>();
-        params.put("card", card);
-        params.put("billing_details", billingDetails);
-
         try {
             PaymentMethod paymentMethod = PaymentMethod.retrieve(requestDto.id);
-            paymentMethod = paymentMethod.update(params);
+            paymentMethod = paymentMethod.update(StripeParamsFactory.paymentMethodUpdate(requestDto));
             return makePaymentMethodResponseDtoFromStripeResponse(paymentMethod);
         } catch (StripeException e) {
-            logger.error(e.getMessage());
-            throw new CustomException("Error when try to update customer payment method on stripe");
+            throw StripeGatewayException.from(StripeOperation.PAYMENT_METHOD_UPDATE, e);
         }
     }
 
@@ -295,8 +200,7 @@ public class StripeRootService {
             PaymentMethod paymentMethod = PaymentMethod.retrieve(id);
             paymentMethod.detach();
         } catch (StripeException e) {
-            logger.error(e.getMessage());
-            throw new CustomException("Error when try to detach customer payment method on stripe");
+            throw StripeGatewayException.from(StripeOperation.PAYMENT_METHOD_DETACH, e);
         }
     }
 
@@ -305,14 +209,8 @@ public class StripeRootService {
         try {
             Customer customer = Customer.retrieve(customerId);
 
-            CustomerListPaymentMethodsParams params = CustomerListPaymentMethodsParams.builder()
-                    .setType(CustomerListPaymentMethodsParams.Type.CARD)
-                    .setLimit(limit)
-                    .setStartingAfter(startingAfter)
-                    .setEndingBefore(endingBefore)
-                    .build();
-
-            PaymentMethodCollection paymentMethods = customer.listPaymentMethods(params);
+            PaymentMethodCollection paymentMethods = customer.listPaymentMethods(
+                    StripeParamsFactory.customerPaymentMethodList(limit, startingAfter, endingBefore));
 
             List<PaymentMethodDto> paymentMethodDtos = new ArrayList<>();
             paymentMethods.getData().forEach(paymentMethod ->
@@ -320,8 +218,7 @@ public class StripeRootService {
 
             return paymentMethodDtos;
         } catch (StripeException e) {
-            logger.error(e.getMessage());
-            throw new CustomException("Error when try to retrieve customer payment methods on stripe");
+            throw StripeGatewayException.from(StripeOperation.PAYMENT_METHOD_LIST, e);
         }
     }
 
@@ -334,82 +231,44 @@ public class StripeRootService {
             }
 
             return makePaymentMethodResponseDtoFromStripeResponse(paymentMethod);
-        } catch (Exception e) {
-            logger.error(e.getMessage());
-            throw new CustomException("Error when try to retrieve customer payment method on stripe");
+        } catch (StripeException e) {
+            throw StripeGatewayException.from(StripeOperation.PAYMENT_METHOD_RETRIEVE, e);
         }
     }
 
     public PaymentMethodDto setCustomerDefaultPaymentMethod(String customerId, String paymentMethodId) {
-        Map<String, Object> invoiceSettings = new HashMap<>();
-        invoiceSettings.put("default_payment_method", paymentMethodId);
-
-        Map<String, Object> params = new HashMap<>();
-        params.put("invoice_settings", invoiceSettings);
-
         try {
             PaymentMethodDto paymentMethodDto = getCustomerPaymentMethodById(paymentMethodId, customerId);
 
             Customer customer = Customer.retrieve(customerId);
-            customer.update(params);
+            customer.update(StripeParamsFactory.customerDefaultPaymentMethod(paymentMethodId));
 
             return paymentMethodDto;
         } catch (StripeException e) {
-            logger.error(e.getMessage());
-            throw new CustomException("Error when try to update customer default payment method on stripe");
+            throw StripeGatewayException.from(StripeOperation.PAYMENT_METHOD_SET_DEFAULT, e);
         }
     }
     //endregion
 
     //region Product
     public ProductDto createProduct(CreateProductRequestDto requestDto) {
-        ProductCreateParams params = ProductCreateParams.builder()
-                .setName(requestDto.name)
-                .setDescription(requestDto.description)
-                .setActive(requestDto.active)
-                .setShippable(requestDto.shippable)
-                .build();
-
         try {
-            Product product = Product.create(params);
+            Product product = Product.create(StripeParamsFactory.productCreate(requestDto));
 
             return getProductDtoFromProductObject(product);
         } catch (StripeException e) {
-            logger.error(e.getMessage());
-            throw new CustomException("Error when try to create product on stripe");
+            throw StripeGatewayException.from(StripeOperation.PRODUCT_CREATE, e);
         }
     }
 
-    private ProductDto getProductDtoFromProductObject(Product product) {
-        return ProductDto.builder()
-                .id(product.getId())
-                .defaultPriceId(product.getDefaultPrice())
-                .name(product.getName())
-                .active(product.getActive())
-                .shippable(product.getShippable())
-                .description(product.getDescription())
-                .images(product.getImages())
-                .build();
-    }
-
     public ProductDto updateProduct(UpdateProductRequestDto requestDto) {
-        ProductUpdateParams params = ProductUpdateParams.builder()
-                .setActive(requestDto.active)
-                .setName(requestDto.name)
-                .setDescription(requestDto.description)
-                .setShippable(requestDto.shippable)
-                .setImages(requestDto.images)
-                .setDefaultPrice(requestDto.defaultPriceId)
-                .build();
-
         try {
             Product product = Product.retrieve(requestDto.id);
-            product = product.update(params);
+            product = product.update(StripeParamsFactory.productUpdate(requestDto));
 
             return getProductDtoFromProductObject(product);
         } catch (StripeException e) {
-            logger.error(e.getMessage());
-            throw new CustomException("Error when try to update product on stripe");
+            throw StripeGatewayException.from(StripeOperation.PRODUCT_UPDATE, e);
         }
     }
 
@@ -418,30 +277,21 @@ public class StripeRootService {
             Product product = Product.retrieve(id);
             return getProductDtoFromProductObject(product);
         } catch (StripeException e) {
-            logger.error(e.getMessage());
-            throw new CustomException("Error when try to get product on stripe");
+            throw StripeGatewayException.from(StripeOperation.PRODUCT_RETRIEVE, e);
         }
     }
 
     public List<ProductDto> getAllProducts(
             Boolean active, Boolean shippable, Long limit, String startingAfter, String endingBefore) {
-        ProductListParams params = ProductListParams.builder()
-                .setActive(active)
-                .setShippable(shippable)
-                .setLimit(limit)
-                .setStartingAfter(startingAfter)
-                .setEndingBefore(endingBefore)
-                .build();
-
         try {
-            ProductCollection products = Product.list(params);
+            ProductCollection products = Product.list(
+                    StripeParamsFactory.productList(active, shippable, limit, startingAfter, endingBefore));
             List<ProductDto> productDtos = new ArrayList<>();
 
             products.getData().forEach(product -> productDtos.add(getProductDtoFromProductObject(product)));
             return productDtos;
         } catch (StripeException e) {
-            logger.error(e.getMessage());
-            throw new CustomException("Error when try to get products on stripe");
+            throw StripeGatewayException.from(StripeOperation.PRODUCT_LIST, e);
         }
     }
 
@@ -450,76 +300,36 @@ public class StripeRootService {
             Product product = Product.retrieve(id);
             product.delete();
         } catch (StripeException e) {
-            logger.error(e.getMessage());
-            throw new CustomException("Error when product try to delete from stripe");
+            throw StripeGatewayException.from(StripeOperation.PRODUCT_DELETE, e);
         }
     }
     //endregion
 
     //region ProductPrice
-    public ProductPriceDto createPrice(CreateProductPriceRequestDto requestDto) {
-        Map<String, Object> params = new HashMap<>();
-
-        if (requestDto.recurring != null) {
-            Map<String, Object> recurring = new HashMap<>();
-            recurring.put("interval", requestDto.recurring.getInterval());
-            recurring.put("interval_count", requestDto.recurring.getIntervalCount());
-            recurring.put("usage_type", requestDto.recurring.getUsageType());
-
-            params.put("recurring", recurring);
-        }
-
-        params.put("unit_amount", requestDto.unitAmount);
-        params.put("currency", requestDto.currency);
-        params.put("product", requestDto.productId);
-        params.put("nickname", requestDto.nickName);
-        params.put("active", requestDto.active);
-
+    public ProductPriceDto createPrice(CreateProductPriceRequestDto requestDto, String idempotencyKey) {
         try {
-            Price price = Price.create(params);
+            Price price = Price.create(StripeParamsFactory.priceCreate(requestDto),
+                    RequestOptions.builder().setIdempotencyKey(idempotencyKey).build());
             return getProductPriceDtoFromPriceObject(price);
         } catch (StripeException e) {
-            logger.error(e.getMessage());
-            throw new CustomException("Error when try to create price on stripe");
+            throw StripeGatewayException.from(StripeOperation.PRICE_CREATE, e);
         }
     }
 
-    public ProductPriceDto getProductPriceDtoFromPriceObject(Price price) {
-        return ProductPriceDto.builder()
-                .id(price.getId())
-                .type(price.getType())
-                .active(price.getActive())
-                .productId(price.getProduct())
-                .currency(price.getCurrency())
-                .nickName(price.getNickname())
-                .unitAmount(price.getUnitAmount())
-                .recurring(price.getRecurring() == null ? null : mapper.map(price.getRecurring(), RecurringDto.class))
-                .build();
-    }
-
     public ProductPriceDto getPriceById(String id) {
         try {
             Price price = Price.retrieve(id);
             return getProductPriceDtoFromPriceObject(price);
         } catch (StripeException e) {
-            logger.error(e.getMessage());
-            throw new CustomException("Error when try to get price on stripe");
+            throw StripeGatewayException.from(StripeOperation.PRICE_RETRIEVE, e);
         }
     }
 
     public List<ProductPriceDto> getProductAllPrices(
             String productId, Boolean active, String type, Long limit, String startingAfter, String endingBefore) {
-        PriceListParams params = PriceListParams.builder()
-                .setProduct(productId)
-                .setActive(active)
-                .setType(type == null ? null : PriceListParams.Type.valueOf(type))
-                .setLimit(limit)
-                .setStartingAfter(startingAfter)
-                .setEndingBefore(endingBefore)
-                .build();
-
         try {
-            PriceCollection prices = Price.list(params);
+            PriceCollection prices = Price.list(StripeParamsFactory.priceList(
+                    productId, active, type, limit, startingAfter, endingBefore));
 
             List<ProductPriceDto> productPriceDtos = new ArrayList<>();
             prices.getData().forEach(price ->
@@ -527,111 +337,46 @@ public class StripeRootService {
 
             return productPriceDtos;
         } catch (StripeException e) {
-            logger.error(e.getMessage());
-            throw new CustomException("Error when try to get prices on stripe");
+            throw StripeGatewayException.from(StripeOperation.PRICE_LIST, e);
         }
     }
 
     public ProductPriceDto updatePrice(UpdateProductPriceRequestDto requestDto) {
-        PriceUpdateParams params = PriceUpdateParams.builder()
-                .setActive(requestDto.active)
-                .setNickname(requestDto.nickName)
-                .build();
-
         try {
             Price price = Price.retrieve(requestDto.id);
-            price = price.update(params);
+            price = price.update(StripeParamsFactory.priceUpdate(requestDto));
             return getProductPriceDtoFromPriceObject(price);
         } catch (StripeException e) {
-            logger.error(e.getMessage());
-            throw new CustomException("Error when try to update price on stripe");
+            throw StripeGatewayException.from(StripeOperation.PRICE_UPDATE, e);
         }
     }
     //endregion
 
     //region Subscription
-    public SubscriptionDto createSubscription(CreateSubscriptionDto requestDto) {
-        SubscriptionCreateParams params = SubscriptionCreateParams.builder()
-                .setCustomer(requestDto.customerId)
-                .setCurrency(requestDto.currency)
-                .setCancelAt(requestDto.cancelAt)
-                .setDescription(requestDto.description)
-                .setDefaultPaymentMethod(requestDto.defaultPaymentMethodId)
-                .setCancelAtPeriodEnd(requestDto.cancelAtPeriodEnd)
-                .addAllItem(getCreateSubscriptionItemsParamsMapFromRequestItems(requestDto.items))
-                .build();
+    public SubscriptionDto createSubscription(CreateSubscriptionDto requestDto, String idempotencyKey) {
         try {
-            Subscription subscription = Subscription.create(params);
+            Subscription subscription = Subscription.create(StripeParamsFactory.subscriptionCreate(requestDto),
+                    RequestOptions.builder().setIdempotencyKey(idempotencyKey).build());
             return getSubscriptionDtoFromSubscriptionObject(subscription);
         } catch (StripeException e) {
-            logger.error(e.getMessage());
-            throw new CustomException("Error when try to create subscription from stripe");
+            throw StripeGatewayException.from(StripeOperation.SUBSCRIPTION_CREATE, e);
         }
     }
 
-    private List<SubscriptionCreateParams.Item> getCreateSubscriptionItemsParamsMapFromRequestItems(List<SubscriptionItemDto> items) {
-        List<SubscriptionCreateParams.Item> subscriptionItems = new ArrayList<>();
-
-        items.forEach(item -> {
-            SubscriptionCreateParams.Item itemMap = SubscriptionCreateParams.Item.builder()
-                    .setPrice(item.priceId)
-                    .setQuantity(item.quantity)
-                    .build();
-            subscriptionItems.add(itemMap);
-        });
-
-        return subscriptionItems;
-    }
-
-    private SubscriptionDto getSubscriptionDtoFromSubscriptionObject(Subscription subscription) {
-        return SubscriptionDto.builder()
-                .id(subscription.getId())
-                .customerId(subscription.getCustomer())
-                .status(subscription.getStatus())
-                .description(subscription.getDescription())
-                .cancelAt(subscription.getCancelAt())
-                .currentPeriodEnd(subscription.getCurrentPeriodEnd())
-                .defaultPaymentMethodId(subscription.getDefaultPaymentMethod())
-                .currency(subscription.getCurrency())
-                .cancelAtPeriodEnd(subscription.getCancelAtPeriodEnd())
-                .currentPeriodStart(subscription.getCurrentPeriodStart())
-                .items(getSubscriptionItemDtosFromStripeSubscriptionItems(subscription.getItems().getData()))
-                .build();
-    }
-
-    private List<SubscriptionItemDto> getSubscriptionItemDtosFromStripeSubscriptionItems(List<SubscriptionItem> items) {
-        List<SubscriptionItemDto> itemDtos = new ArrayList<>();
-
-        items.forEach(item -> itemDtos.add(SubscriptionItemDto.builder()
-                .priceId(item.getPrice().getId())
-                .quantity(item.getQuantity())
-                .build())
-        );
-
-        return itemDtos;
-    }
-
     public SubscriptionDto getSubscription(String id) {
         try {
             Subscription subscription = Subscription.retrieve(id);
             return getSubscriptionDtoFromSubscriptionObject(subscription);
         } catch (StripeException e) {
-            logger.error(e.getMessage());
-            throw new CustomException("Error when try to get subscription from stripe");
+            throw StripeGatewayException.from(StripeOperation.SUBSCRIPTION_RETRIEVE, e);
         }
     }
 
     public List<SubscriptionDto> getCustomerAllSubscriptions(
             String customerId, String status, Long limit, String startingAfter, String endingBefore) {
-        SubscriptionListParams params = SubscriptionListParams.builder()
-                .setCustomer(customerId)
-                .setLimit(limit)
-                .setStartingAfter(startingAfter)
-                .setEndingBefore(endingBefore)
-                .setStatus(status == null ? null : SubscriptionListParams.Status.valueOf(status))
-                .build();
         try {
-            SubscriptionCollection subscriptions = Subscription.list(params);
+            SubscriptionCollection subscriptions = Subscription.list(StripeParamsFactory.subscriptionList(
+                    customerId, status, limit, startingAfter, endingBefore));
 
             List<SubscriptionDto> subscriptionDtos = new ArrayList<>();
 
@@ -640,45 +385,21 @@ public class StripeRootService {
 
             return subscriptionDtos;
         } catch (StripeException e) {
-            logger.error(e.getMessage());
-            throw new CustomException("Error when try to get subscriptions from stripe");
+            throw StripeGatewayException.from(StripeOperation.SUBSCRIPTION_LIST, e);
         }
     }
 
     public SubscriptionDto updateSubscription(UpdateSubscriptionDto requestDto) {
-        SubscriptionUpdateParams params = SubscriptionUpdateParams.builder()
-                .setCancelAt(requestDto.cancelAt)
-                .setCancelAtPeriodEnd(requestDto.cancelAtPeriodEnd)
-                .setDescription(requestDto.description)
-                .setDefaultPaymentMethod(requestDto.defaultPaymentMethodId)
-                .addAllItem(getUpdateSubscriptionItemsParamsMapFromRequestItems(requestDto.items))
-                .build();
         try {
             Subscription subscription = Subscription.retrieve(requestDto.id);
-            subscription = subscription.update(params);
+            subscription = subscription.update(StripeParamsFactory.subscriptionUpdate(requestDto));
 
             return getSubscriptionDtoFromSubscriptionObject(subscription);
         } catch (StripeException e) {
-            logger.error(e.getMessage());
-            throw new CustomException("Error when try to update subscription from stripe");
+            throw StripeGatewayException.from(StripeOperation.SUBSCRIPTION_UPDATE, e);
         }
     }
 
-    private List<SubscriptionUpdateParams.Item> getUpdateSubscriptionItemsParamsMapFromRequestItems(List<SubscriptionItemDto> items) {
-        List<SubscriptionUpdateParams.Item> subscriptionItems = new ArrayList<>();
-
-        items.forEach(item -> {
-            SubscriptionUpdateParams.Item itemMap = SubscriptionUpdateParams.Item.builder()
-                    .setPrice(item.priceId)
-                    .setQuantity(item.quantity)
-                    .build();
-            subscriptionItems.add(itemMap);
-        });
-
-        return subscriptionItems;
-    }
-
-
     public SubscriptionDto cancelSubscription(String id) {
         try {
             Subscription subscription = Subscription.retrieve(id);
@@ -686,8 +407,24 @@ public class StripeRootService {
 
             return getSubscriptionDtoFromSubscriptionObject(subscription);
         } catch (StripeException e) {
-            logger.error(e.getMessage());
-            throw new CustomException("Error when try to cancel subscription from stripe");
+            throw StripeGatewayException.from(StripeOperation.SUBSCRIPTION_CANCEL, e);
+        }
+    }
+    //endregion
+
+    //region Invoice
+    public List<InvoiceLineDto> getInvoiceLines(String invoiceId, Long limit, String startingAfter) {
+        try {
+            InvoiceLineItemCollection lines = new InvoiceLineItemCollection();
+            lines.setUrl("/v1/invoices/" + invoiceId + "/lines");
+            lines = lines.list(StripeParamsFactory.invoiceLineList(limit, startingAfter));
+
+            List<InvoiceLineDto> lineDtos = new ArrayList<>();
+            lines.getData().forEach(line -> lineDtos.add(getInvoiceLineDtoFromInvoiceLineItemObject(line)));
+
+            return lineDtos;
+        } catch (StripeException e) {
+            throw StripeGatewayException.from(StripeOperation.INVOICE_LINE_LIST, e);
         }
     }
     //endregion
@@ -0,0 +1,81 @@
+package org.sir.stripeintegration.infrastructure.service.stripe;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.sir.stripeintegration.core.shared.constant.StripeOperation;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical Stripe retrieves: while a call for an operation and id is in flight, later
+ * callers join it and get the same result or error instead of sending their own. Nothing is kept once the call
+ * finished, so unlike {@link StripeCatalogCache} no stale result is ever served.
+ * <p>
+ * Callers are counted in {@code stripe.client.single-flight} ({@code result=leader|joined}), the calls
+ * in flight in {@code stripe.client.single-flight.in-flight}.
+ */
+@Component
+public class StripeSingleFlight {
+    private static final String METRIC_NAME = "stripe.client.single-flight";
+
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public StripeSingleFlight(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder(METRIC_NAME + ".in-flight", inFlight, Map::size)
+                .description("Stripe retrieves currently shared by concurrent callers")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A caller cancelling does not cancel the shared call, the other callers still wait for it.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> execute(StripeOperation operation, String id, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            Key key = new Key(operation, id);
+            CompletableFuture<Object> created = new CompletableFuture<>();
+            CompletableFuture<Object> existing = inFlight.putIfAbsent(key, created);
+            if (existing != null) {
+                record(operation, "joined");
+                return Mono.fromFuture((CompletableFuture<T>) existing, true);
+            }
+
+            record(operation, "leader");
+            // deferred, a supplier that throws fails this call instead of leaving the key in flight forever
+            Mono.defer(call).toFuture().whenComplete((result, ex) -> {
+                inFlight.remove(key, created);
+                if (ex != null) {
+                    created.completeExceptionally(ex);
+                } else {
+                    created.complete(result);
+                }
+            });
+            return Mono.fromFuture((CompletableFuture<T>) created, true);
+        });
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private void record(StripeOperation operation, String result) {
+        Counter.builder(METRIC_NAME)
+                .description("Stripe retrieve callers, leaders send the call and joined callers share it")
+                .tag("operation", operation.getOperationName())
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private record Key(StripeOperation operation, String id) {
+    }
+}
@@ -0,0 +1,71 @@
+package org.sir.stripeintegration.infrastructure.service.stripe;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket that never blocks: a caller reserves the next token and gets back how long to wait for it,
+ * so waiting callers queue up in time instead of on threads. It holds at most one second worth of tokens.
+ */
+final class StripeTokenBucket {
+    static final long REJECTED = -1;
+
+    private final double tokensPerNano;
+    private final double capacity;
+    private final LongSupplier nanoClock;
+
+    private double tokens;
+    /**
+     * Time the token count was last brought up to date, in the future while the bucket is paused.
+     */
+    private long refilledAt;
+
+    StripeTokenBucket(double permitsPerSecond, LongSupplier nanoClock) {
+        this.tokensPerNano = permitsPerSecond / Duration.ofSeconds(1).toNanos();
+        this.capacity = Math.max(1, permitsPerSecond);
+        this.nanoClock = nanoClock;
+        this.tokens = capacity;
+        this.refilledAt = nanoClock.getAsLong();
+    }
+
+    /**
+     * @return nanos to wait before the call may be sent, or {@link #REJECTED} without taking a token when
+     * that is longer than {@code maxWaitNanos}
+     */
+    synchronized long reserve(long maxWaitNanos) {
+        long now = nanoClock.getAsLong();
+        refill(now);
+
+        long availableAt = tokens >= 1 ? refilledAt : refilledAt + (long) Math.ceil((1 - tokens) / tokensPerNano);
+        long waitNanos = Math.max(0, availableAt - now);
+        if (waitNanos > maxWaitNanos) {
+            return REJECTED;
+        }
+
+        tokens--;
+        return waitNanos;
+    }
+
+    /**
+     * Hands out no token before {@code duration} has passed, e.g. after Stripe answered 429.
+     * Reservations already handed out are kept.
+     */
+    synchronized void pause(Duration duration) {
+        long now = nanoClock.getAsLong();
+        refill(now);
+
+        long pausedUntil = now + duration.toNanos();
+        if (pausedUntil > refilledAt) {
+            refilledAt = pausedUntil;
+            // one call goes out right when the pause ends, queued reservations keep their place
+            tokens = tokens < 0 ? tokens : 1;
+        }
+    }
+
+    private void refill(long now) {
+        if (now > refilledAt) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+        }
+    }
+}
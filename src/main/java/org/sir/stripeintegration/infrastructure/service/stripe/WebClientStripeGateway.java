@@ -0,0 +1,434 @@
+package org.sir.stripeintegration.infrastructure.service.stripe;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.stripe.Stripe;
+import com.stripe.model.*;
+import com.stripe.net.ApiResource;
+import com.stripe.net.FormEncoder;
+import lombok.extern.slf4j.Slf4j;
+import org.sir.stripeintegration.core.application.dtos.customer.request.CustomerCreateRequestDto;
+import org.sir.stripeintegration.core.application.dtos.customer.request.CustomerUpdateRequestDto;
+import org.sir.stripeintegration.core.application.dtos.customer.response.CustomerDto;
+import org.sir.stripeintegration.core.application.dtos.invoice.response.InvoiceLineDto;
+import org.sir.stripeintegration.core.application.dtos.paymentIntent.request.CreatePaymentIntentRequestDto;
+import org.sir.stripeintegration.core.application.dtos.paymentIntent.response.PaymentIntentDto;
+import org.sir.stripeintegration.core.application.dtos.paymentMethod.request.CreatePaymentMethodRequestDto;
+import org.sir.stripeintegration.core.application.dtos.paymentMethod.request.UpdatePaymentMethodRequestDto;
+import org.sir.stripeintegration.core.application.dtos.paymentMethod.response.PaymentMethodDto;
+import org.sir.stripeintegration.core.application.dtos.product.request.CreateProductRequestDto;
+import org.sir.stripeintegration.core.application.dtos.product.request.UpdateProductRequestDto;
+import org.sir.stripeintegration.core.application.dtos.product.response.ProductDto;
+import org.sir.stripeintegration.core.application.dtos.productPrice.request.CreateProductPriceRequestDto;
+import org.sir.stripeintegration.core.application.dtos.productPrice.request.UpdateProductPriceRequestDto;
+import org.sir.stripeintegration.core.application.dtos.productPrice.response.ProductPriceDto;
+import org.sir.stripeintegration.core.application.dtos.subscription.request.CreateSubscriptionDto;
+import org.sir.stripeintegration.core.application.dtos.subscription.request.UpdateSubscriptionDto;
+import org.sir.stripeintegration.core.application.dtos.subscription.response.SubscriptionDto;
+import org.sir.stripeintegration.core.application.interfaces.service.IStripeGateway;
+import org.sir.stripeintegration.core.domain.CustomerEntity;
+import org.sir.stripeintegration.core.shared.constant.StripeOperation;
+import org.sir.stripeintegration.core.shared.exceptions.CustomException;
+import org.sir.stripeintegration.core.shared.exceptions.StripeGatewayException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.sir.stripeintegration.infrastructure.service.stripe.StripeDtoConverter.*;
+
+/**
+ * Non-blocking gateway that talks to the Stripe REST api through {@link WebClient}. Request parameters
+ * are built by {@link StripeParamsFactory} and responses are parsed with the Stripe SDK's own gson setup,
+ * so the payloads are the same as the ones the blocking SDK sends and receives.
+ * Concurrent retrieves of the same product, price or subscription share one call through {@link StripeSingleFlight}.
+ * Connections come from the pool of {@link StripeHttpTransport}, shared with the SDK. Transient failures are
+ * retried by {@link StripeRetryPolicy}. Creates are sent with idempotency keys through {@link StripeIdempotencyCache}.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "stripe.gateway.mode", havingValue = "reactive", matchIfMissing = true)
+public class WebClientStripeGateway implements IStripeGateway {
+    private static final Logger logger = LoggerFactory.getLogger(WebClientStripeGateway.class);
+    private static final String REQUEST_ID_HEADER = "Request-Id";
+    private static final String SHOULD_RETRY_HEADER = "Stripe-Should-Retry";
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    private final String apiBase;
+    private final WebClient webClient;
+    private final StripeCallMetrics stripeCallMetrics;
+    private final StripeCallGuard stripeCallGuard;
+    private final StripeSingleFlight stripeSingleFlight;
+    private final StripeRetryPolicy stripeRetryPolicy;
+    private final StripeIdempotencyCache stripeIdempotencyCache;
+
+    public WebClientStripeGateway(WebClient.Builder webClientBuilder,
+                                  @Value("${stripe.key.private}") String stripeSecretKey,
+                                  @Value("${stripe.api.base}") String apiBase,
+                                  StripeCallMetrics stripeCallMetrics,
+                                  StripeCallGuard stripeCallGuard,
+                                  StripeSingleFlight stripeSingleFlight,
+                                  StripeHttpTransport stripeHttpTransport,
+                                  StripeRetryPolicy stripeRetryPolicy,
+                                  StripeIdempotencyCache stripeIdempotencyCache) {
+        this.apiBase = apiBase;
+        this.stripeCallMetrics = stripeCallMetrics;
+        this.stripeCallGuard = stripeCallGuard;
+        this.stripeSingleFlight = stripeSingleFlight;
+        this.stripeRetryPolicy = stripeRetryPolicy;
+        this.stripeIdempotencyCache = stripeIdempotencyCache;
+        this.webClient = webClientBuilder
+                .clientConnector(new ReactorClientHttpConnector(stripeHttpTransport.getHttpClient()))
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + stripeSecretKey)
+                .defaultHeader("Stripe-Version", Stripe.API_VERSION)
+                .build();
+    }
+
+    //region Customer
+    @Override
+    public Mono<CustomerDto> createCustomer(CustomerCreateRequestDto requestDto) {
+        return stripeIdempotencyCache.execute(StripeOperation.CUSTOMER_CREATE,
+                idempotencyKey -> createCustomer(requestDto, idempotencyKey));
+    }
+
+    @Override
+    public Mono<CustomerDto> createCustomer(CustomerCreateRequestDto requestDto, String idempotencyKey) {
+        return request(StripeOperation.CUSTOMER_CREATE, HttpMethod.POST, "/v1/customers",
+                StripeParamsFactory.customerCreate(requestDto).toMap(), Customer.class, idempotencyKey)
+                .map(StripeDtoConverter::getCustomerDtoFromCustomerObject);
+    }
+
+    @Override
+    public Flux<CustomerDto> getAllCustomers(Long limit, String startingAfter, String endingBefore) {
+        return request(StripeOperation.CUSTOMER_LIST, HttpMethod.GET, "/v1/customers",
+                StripeParamsFactory.customerList(limit, startingAfter, endingBefore).toMap(), CustomerCollection.class)
+                .flatMapIterable(CustomerCollection::getData)
+                .map(StripeDtoConverter::getCustomerDtoFromCustomerObject);
+    }
+
+    @Override
+    public Mono<CustomerDto> updateCustomer(CustomerUpdateRequestDto requestDto) {
+        return request(StripeOperation.CUSTOMER_UPDATE, HttpMethod.POST, "/v1/customers/" + encode(requestDto.id),
+                StripeParamsFactory.customerUpdate(requestDto).toMap(), Customer.class)
+                .map(StripeDtoConverter::getCustomerDtoFromCustomerObject);
+    }
+
+    @Override
+    public Mono<Void> deleteCustomer(String customerId) {
+        return request(StripeOperation.CUSTOMER_DELETE, HttpMethod.DELETE, "/v1/customers/" + encode(customerId),
+                Collections.emptyMap(), Customer.class)
+                .then();
+    }
+
+    @Override
+    public Mono<String> getCustomerDefaultPaymentMethodId(String customerId) {
+        return request(StripeOperation.CUSTOMER_RETRIEVE, HttpMethod.GET, "/v1/customers/" + encode(customerId),
+                Collections.emptyMap(), Customer.class)
+                .mapNotNull(customer -> customer.getInvoiceSettings() == null
+                        ? null : customer.getInvoiceSettings().getDefaultPaymentMethod());
+    }
+    //endregion
+
+    //region PaymentIntent
+    @Override
+    public Mono<PaymentIntentDto> createPaymentIntent(CreatePaymentIntentRequestDto requestDto, String paymentMethodId) {
+        Map<String, Object> params = StripeParamsFactory.paymentIntentCreate(requestDto, paymentMethodId).toMap();
+        return stripeIdempotencyCache.execute(StripeOperation.PAYMENT_INTENT_CREATE,
+                idempotencyKey -> request(StripeOperation.PAYMENT_INTENT_CREATE, HttpMethod.POST,
+                        "/v1/payment_intents", params, PaymentIntent.class, idempotencyKey)
+                        .map(StripeDtoConverter::getPaymentIntentDtoFromPaymentIntentObject));
+    }
+
+    @Override
+    public Mono<PaymentIntentDto> getCustomerPaymentIntentById(String id, String customerId) {
+        return request(StripeOperation.PAYMENT_INTENT_RETRIEVE, HttpMethod.GET,
+                "/v1/payment_intents/" + encode(id), Collections.emptyMap(), PaymentIntent.class)
+                .flatMap(paymentIntent -> customerId.equals(paymentIntent.getCustomer())
+                        ? Mono.just(getPaymentIntentDtoFromPaymentIntentObject(paymentIntent))
+                        : Mono.error(new CustomException("This payment intent is not belongs to this customer")));
+    }
+
+    @Override
+    public Flux<PaymentIntentDto> getCustomerAllPaymentIntents(
+            String customerId, Long limit, String startingAfter, String endingBefore) {
+        return request(StripeOperation.PAYMENT_INTENT_LIST, HttpMethod.GET, "/v1/payment_intents",
+                StripeParamsFactory.paymentIntentList(customerId, limit, startingAfter, endingBefore).toMap(),
+                PaymentIntentCollection.class)
+                .flatMapIterable(PaymentIntentCollection::getData)
+                .map(StripeDtoConverter::getPaymentIntentDtoFromPaymentIntentObject);
+    }
+    //endregion
+
+    //region PaymentMethod
+    @Override
+    public Mono<PaymentMethodDto> createPaymentMethod(
+            CustomerEntity customer, CreatePaymentMethodRequestDto requestDto) {
+        return request(StripeOperation.PAYMENT_METHOD_CREATE, HttpMethod.POST, "/v1/payment_methods",
+                StripeParamsFactory.paymentMethodCreate(customer, requestDto), PaymentMethod.class)
+                .flatMap(paymentMethod -> request(StripeOperation.PAYMENT_METHOD_CREATE, HttpMethod.POST,
+                        "/v1/payment_methods/" + encode(paymentMethod.getId()) + "/attach",
+                        StripeParamsFactory.paymentMethodAttach(customer.id), PaymentMethod.class))
+                .map(StripeDtoConverter::makePaymentMethodResponseDtoFromStripeResponse);
+    }
+
+    @Override
+    public Mono<PaymentMethodDto> updatePaymentMethod(UpdatePaymentMethodRequestDto requestDto) {
+        return request(StripeOperation.PAYMENT_METHOD_UPDATE, HttpMethod.POST,
+                "/v1/payment_methods/" + encode(requestDto.id),
+                StripeParamsFactory.paymentMethodUpdate(requestDto), PaymentMethod.class)
+                .map(StripeDtoConverter::makePaymentMethodResponseDtoFromStripeResponse);
+    }
+
+    @Override
+    public Mono<Void> deletePaymentMethod(String id) {
+        return request(StripeOperation.PAYMENT_METHOD_DETACH, HttpMethod.POST,
+                "/v1/payment_methods/" + encode(id) + "/detach", Collections.emptyMap(), PaymentMethod.class)
+                .then();
+    }
+
+    @Override
+    public Flux<PaymentMethodDto> getCustomerAllPaymentMethods(
+            String customerId, Long limit, String startingAfter, String endingBefore) {
+        return request(StripeOperation.PAYMENT_METHOD_LIST, HttpMethod.GET,
+                "/v1/customers/" + encode(customerId) + "/payment_methods",
+                StripeParamsFactory.customerPaymentMethodList(limit, startingAfter, endingBefore).toMap(),
+                PaymentMethodCollection.class)
+                .flatMapIterable(PaymentMethodCollection::getData)
+                .map(StripeDtoConverter::makePaymentMethodResponseDtoFromStripeResponse);
+    }
+
+    @Override
+    public Mono<PaymentMethodDto> getCustomerPaymentMethodById(String id, String customerId) {
+        return request(StripeOperation.PAYMENT_METHOD_RETRIEVE, HttpMethod.GET,
+                "/v1/payment_methods/" + encode(id), Collections.emptyMap(), PaymentMethod.class)
+                .flatMap(paymentMethod -> customerId.equals(paymentMethod.getCustomer())
+                        ? Mono.just(makePaymentMethodResponseDtoFromStripeResponse(paymentMethod))
+                        : Mono.error(new CustomException("This payment method is not belongs to this customer")));
+    }
+
+    @Override
+    public Mono<PaymentMethodDto> setCustomerDefaultPaymentMethod(String customerId, String paymentMethodId) {
+        return getCustomerPaymentMethodById(paymentMethodId, customerId)
+                .flatMap(paymentMethodDto -> request(StripeOperation.PAYMENT_METHOD_SET_DEFAULT, HttpMethod.POST,
+                        "/v1/customers/" + encode(customerId),
+                        StripeParamsFactory.customerDefaultPaymentMethod(paymentMethodId), Customer.class)
+                        .thenReturn(paymentMethodDto));
+    }
+    //endregion
+
+    //region Product
+    @Override
+    public Mono<ProductDto> createProduct(CreateProductRequestDto requestDto) {
+        return request(StripeOperation.PRODUCT_CREATE, HttpMethod.POST, "/v1/products",
+                StripeParamsFactory.productCreate(requestDto).toMap(), Product.class)
+                .map(StripeDtoConverter::getProductDtoFromProductObject);
+    }
+
+    @Override
+    public Mono<ProductDto> updateProduct(UpdateProductRequestDto requestDto) {
+        return request(StripeOperation.PRODUCT_UPDATE, HttpMethod.POST, "/v1/products/" + encode(requestDto.id),
+                StripeParamsFactory.productUpdate(requestDto).toMap(), Product.class)
+                .map(StripeDtoConverter::getProductDtoFromProductObject);
+    }
+
+    @Override
+    public Mono<ProductDto> getProductById(String id) {
+        return stripeSingleFlight.execute(StripeOperation.PRODUCT_RETRIEVE, id, () -> request(
+                StripeOperation.PRODUCT_RETRIEVE, HttpMethod.GET, "/v1/products/" + encode(id), Collections.emptyMap(), Product.class)
+                .map(StripeDtoConverter::getProductDtoFromProductObject));
+    }
+
+    @Override
+    public Flux<ProductDto> getAllProducts(
+            Boolean active, Boolean shippable, Long limit, String startingAfter, String endingBefore) {
+        return request(StripeOperation.PRODUCT_LIST, HttpMethod.GET, "/v1/products",
+                StripeParamsFactory.productList(active, shippable, limit, startingAfter, endingBefore).toMap(),
+                ProductCollection.class)
+                .flatMapIterable(ProductCollection::getData)
+                .map(StripeDtoConverter::getProductDtoFromProductObject);
+    }
+
+    @Override
+    public Mono<Void> deleteProductById(String id) {
+        return request(StripeOperation.PRODUCT_DELETE, HttpMethod.DELETE, "/v1/products/" + encode(id),
+                Collections.emptyMap(), Product.class)
+                .then();
+    }
+    //endregion
+
+    //region ProductPrice
+    @Override
+    public Mono<ProductPriceDto> createPrice(CreateProductPriceRequestDto requestDto) {
+        Map<String, Object> params = StripeParamsFactory.priceCreate(requestDto);
+        return stripeIdempotencyCache.execute(StripeOperation.PRICE_CREATE,
+                idempotencyKey -> request(StripeOperation.PRICE_CREATE, HttpMethod.POST, "/v1/prices",
+                        params, Price.class, idempotencyKey)
+                        .map(StripeDtoConverter::getProductPriceDtoFromPriceObject));
+    }
+
+    @Override
+    public Mono<ProductPriceDto> getPriceById(String id) {
+        return stripeSingleFlight.execute(StripeOperation.PRICE_RETRIEVE, id, () -> request(
+                StripeOperation.PRICE_RETRIEVE, HttpMethod.GET, "/v1/prices/" + encode(id), Collections.emptyMap(), Price.class)
+                .map(StripeDtoConverter::getProductPriceDtoFromPriceObject));
+    }
+
+    @Override
+    public Flux<ProductPriceDto> getProductAllPrices(
+            String productId, Boolean active, String type, Long limit, String startingAfter, String endingBefore) {
+        return request(StripeOperation.PRICE_LIST, HttpMethod.GET, "/v1/prices",
+                StripeParamsFactory.priceList(productId, active, type, limit, startingAfter, endingBefore).toMap(),
+                PriceCollection.class)
+                .flatMapIterable(PriceCollection::getData)
+                .map(StripeDtoConverter::getProductPriceDtoFromPriceObject);
+    }
+
+    @Override
+    public Mono<ProductPriceDto> updatePrice(UpdateProductPriceRequestDto requestDto) {
+        return request(StripeOperation.PRICE_UPDATE, HttpMethod.POST, "/v1/prices/" + encode(requestDto.id),
+                StripeParamsFactory.priceUpdate(requestDto).toMap(), Price.class)
+                .map(StripeDtoConverter::getProductPriceDtoFromPriceObject);
+    }
+    //endregion
+
+    //region Subscription
+    @Override
+    public Mono<SubscriptionDto> createSubscription(CreateSubscriptionDto requestDto) {
+        Map<String, Object> params = StripeParamsFactory.subscriptionCreate(requestDto).toMap();
+        return stripeIdempotencyCache.execute(StripeOperation.SUBSCRIPTION_CREATE,
+                idempotencyKey -> request(StripeOperation.SUBSCRIPTION_CREATE, HttpMethod.POST,
+                        "/v1/subscriptions", params, Subscription.class, idempotencyKey)
+                        .map(StripeDtoConverter::getSubscriptionDtoFromSubscriptionObject));
+    }
+
+    @Override
+    public Mono<SubscriptionDto> getSubscription(String id) {
+        return stripeSingleFlight.execute(StripeOperation.SUBSCRIPTION_RETRIEVE, id, () -> request(
+                StripeOperation.SUBSCRIPTION_RETRIEVE, HttpMethod.GET, "/v1/subscriptions/" + encode(id), Collections.emptyMap(), Subscription.class)
+                .map(StripeDtoConverter::getSubscriptionDtoFromSubscriptionObject));
+    }
+
+    @Override
+    public Flux<SubscriptionDto> getCustomerAllSubscriptions(
+            String customerId, String status, Long limit, String startingAfter, String endingBefore) {
+        return request(StripeOperation.SUBSCRIPTION_LIST, HttpMethod.GET, "/v1/subscriptions",
+                StripeParamsFactory.subscriptionList(customerId, status, limit, startingAfter, endingBefore).toMap(),
+                SubscriptionCollection.class)
+                .flatMapIterable(SubscriptionCollection::getData)
+                .map(StripeDtoConverter::getSubscriptionDtoFromSubscriptionObject);
+    }
+
+    @Override
+    public Mono<SubscriptionDto> updateSubscription(UpdateSubscriptionDto requestDto) {
+        return request(StripeOperation.SUBSCRIPTION_UPDATE, HttpMethod.POST,
+                "/v1/subscriptions/" + encode(requestDto.id),
+                StripeParamsFactory.subscriptionUpdate(requestDto).toMap(), Subscription.class)
+                .map(StripeDtoConverter::getSubscriptionDtoFromSubscriptionObject);
+    }
+
+    @Override
+    public Mono<SubscriptionDto> cancelSubscription(String id) {
+        return request(StripeOperation.SUBSCRIPTION_CANCEL, HttpMethod.DELETE, "/v1/subscriptions/" + encode(id),
+                Collections.emptyMap(), Subscription.class)
+                .map(StripeDtoConverter::getSubscriptionDtoFromSubscriptionObject);
+    }
+    //endregion
+
+    //region Invoice
+    @Override
+    public Flux<InvoiceLineDto> getInvoiceLines(String invoiceId, Long limit, String startingAfter) {
+        return request(StripeOperation.INVOICE_LINE_LIST, HttpMethod.GET, "/v1/invoices/" + encode(invoiceId) + "/lines",
+                StripeParamsFactory.invoiceLineList(limit, startingAfter).toMap(), InvoiceLineItemCollection.class)
+                .flatMapIterable(InvoiceLineItemCollection::getData)
+                .map(StripeDtoConverter::getInvoiceLineDtoFromInvoiceLineItemObject);
+    }
+    //endregion
+
+    private <T> Mono<T> request(StripeOperation operation, HttpMethod method, String path,
+                                Map<String, Object> params, Class<T> responseType) {
+        return request(operation, method, path, params, responseType, null);
+    }
+
+    private <T> Mono<T> request(StripeOperation operation, HttpMethod method, String path,
+                                Map<String, Object> params, Class<T> responseType, String idempotencyKey) {
+        String encodedParams = FormEncoder.createQueryString(params);
+        boolean hasBody = method == HttpMethod.POST;
+        String query = hasBody || encodedParams.isEmpty() ? "" : "?" + encodedParams;
+
+        WebClient.RequestBodySpec requestSpec = webClient.method(method).uri(URI.create(apiBase + path + query));
+        if (idempotencyKey != null) {
+            requestSpec.header(IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+        }
+        WebClient.RequestHeadersSpec<?> headersSpec = hasBody
+                ? requestSpec.contentType(MediaType.APPLICATION_FORM_URLENCODED).bodyValue(encodedParams)
+                : requestSpec;
+
+        return stripeRetryPolicy.retry(operation, idempotencyKey != null, stripeCallGuard.guard(operation,
+                stripeCallMetrics.instrument(operation, headersSpec
+                        .exchangeToMono(response -> response.bodyToMono(String.class)
+                                .defaultIfEmpty("")
+                                .flatMap(body -> response.statusCode().isError()
+                                        ? Mono.error(getExceptionFromErrorResponse(
+                                        operation, response.statusCode(), response.headers().asHttpHeaders(), body))
+                                        : Mono.just(ApiResource.GSON.fromJson(body, responseType))))
+                        .onErrorMap(ex -> !(ex instanceof CustomException),
+                                ex -> StripeGatewayException.from(operation, ex)))));
+    }
+
+    /**
+     * The failure itself is logged by {@link StripeCallMetrics}, together with the request id.
+     */
+    private StripeGatewayException getExceptionFromErrorResponse(
+            StripeOperation operation, HttpStatusCode statusCode, HttpHeaders headers, String body) {
+        String stripeMessage = body;
+        String stripeErrorCode = null;
+        try {
+            JsonObject error = JsonParser.parseString(body).getAsJsonObject().getAsJsonObject("error");
+            if (error != null) {
+                StripeError stripeError = ApiResource.GSON.fromJson(error, StripeError.class);
+                stripeMessage = stripeError.getMessage();
+                stripeErrorCode = stripeError.getCode();
+            }
+        } catch (RuntimeException ignored) {
+            // keep the raw body as message, Stripe did not send its usual error envelope
+        }
+
+        String shouldRetry = headers.getFirst(SHOULD_RETRY_HEADER);
+        return new StripeGatewayException(operation, statusCode.value(), stripeErrorCode,
+                headers.getFirst(REQUEST_ID_HEADER), stripeMessage, getRetryAfter(headers),
+                shouldRetry == null ? null : Boolean.valueOf(shouldRetry), null);
+    }
+
+    /**
+     * Stripe sends {@code Retry-After} in seconds.
+     */
+    private static Duration getRetryAfter(HttpHeaders headers) {
+        String retryAfter = headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (retryAfter == null) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Long.parseLong(retryAfter.trim()));
+        } catch (NumberFormatException ignored) {
+            return null;
+        }
+    }
+
+    private static String encode(String id) {
+        return ApiResource.urlEncode(id);
+    }
+}
@@ -0,0 +1,112 @@
+package org.sir.stripeintegration.infrastructure.service.stripe;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, time windowed set of recently seen stripe event ids. It rejects hot duplicate deliveries
+ * without a database round trip, the unique event id constraints in the database stay the durable backstop.
+ * <p>
+ * Hits and misses are counted per layer in {@code stripe.webhook.dedup}
+ * ({@code layer=memory|inbox|transaction}, {@code result=hit|miss}).
+ */
+@Component
+public class WebhookEventDeduplicator {
+    public static final String LAYER_MEMORY = "memory";
+    public static final String LAYER_INBOX = "inbox";
+    public static final String LAYER_TRANSACTION = "transaction";
+
+    private static final String METRIC_NAME = "stripe.webhook.dedup";
+
+    private final int maxSize;
+    private final long windowMillis;
+    private final Clock clock;
+    private final MeterRegistry meterRegistry;
+    private final LinkedHashMap<String, Long> seenEvents = new LinkedHashMap<>();
+
+    @Autowired
+    public WebhookEventDeduplicator(@Value("${webhook.dedup.max-size}") int maxSize,
+                                    @Value("${webhook.dedup.window-ms}") long windowMillis,
+                                    MeterRegistry meterRegistry) {
+        this(maxSize, windowMillis, Clock.systemUTC(), meterRegistry);
+    }
+
+    WebhookEventDeduplicator(int maxSize, long windowMillis, Clock clock, MeterRegistry meterRegistry) {
+        this.maxSize = maxSize;
+        this.windowMillis = windowMillis;
+        this.clock = clock;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder(METRIC_NAME + ".cache.size", this, WebhookEventDeduplicator::size)
+                .description("Event ids held by the in-memory webhook dedup window")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Checks the in-memory window and records the result, the id is not added here.
+     */
+    public boolean isRecentDuplicate(String eventId) {
+        boolean duplicate = contains(eventId);
+        record(LAYER_MEMORY, duplicate);
+        return duplicate;
+    }
+
+    /**
+     * Adds the id to the window, call it once the event is durably stored.
+     */
+    public synchronized void markSeen(String eventId) {
+        long now = clock.millis();
+        seenEvents.remove(eventId);
+        seenEvents.put(eventId, now);
+        evict(now);
+    }
+
+    public void record(String layer, boolean duplicate) {
+        Counter.builder(METRIC_NAME)
+                .description("Stripe webhook event deduplication checks")
+                .tag("layer", layer)
+                .tag("result", duplicate ? "hit" : "miss")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    synchronized int size() {
+        return seenEvents.size();
+    }
+
+    private synchronized boolean contains(String eventId) {
+        Long seenAt = seenEvents.get(eventId);
+        if (seenAt == null) {
+            return false;
+        }
+
+        if (clock.millis() - seenAt > windowMillis) {
+            seenEvents.remove(eventId);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Entries are kept in insertion order, so the oldest ones are always at the head.
+     */
+    private void evict(long now) {
+        Iterator<Map.Entry<String, Long>> iterator = seenEvents.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            if (seenEvents.size() <= maxSize && now - eldest.getValue() <= windowMillis) {
+                break;
+            }
+            iterator.remove();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.sir.stripeintegration.infrastructure.service.stripe;
+
+import com.google.gson.JsonSyntaxException;
+import com.stripe.model.Event;
+import com.stripe.model.EventDataObjectDeserializer;
+import com.stripe.model.StripeObject;
+import com.stripe.net.ApiResource;
+import lombok.AllArgsConstructor;
+import org.sir.stripeintegration.core.application.interfaces.service.IWebhookHandler;
+import org.sir.stripeintegration.core.shared.exceptions.CustomException;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * Routes a stored webhook event payload to the matching {@link IWebhookHandler} method.
+ */
+@Component
+@AllArgsConstructor
+public class WebhookEventDispatcher {
+    private final IWebhookHandler webhookHandler;
+
+    public Mono<Void> dispatch(String payload) {
+        return Mono.defer(() -> {
+            Event event = getEventFromPayload(payload);
+
+            switch (event.getType()) {
+                case "payment_intent.succeeded":
+                case "payment_intent.payment_failed":
+                    return webhookHandler.handlePaymentIntentEvent(
+                            event.getId(), getStripeObjectFromEvent(event), event.getType());
+                case "customer.updated":
+                    return webhookHandler.handleCustomerEvent(
+                            event.getId(), getEventCreated(event), getStripeObjectFromEvent(event), event.getType());
+                case "invoice.paid":
+                case "invoice.payment_failed":
+                    return webhookHandler.handleInvoiceEvent(
+                            event.getId(), getStripeObjectFromEvent(event), event.getType());
+                case "customer.subscription.created":
+                case "customer.subscription.deleted":
+                case "customer.subscription.updated":
+                    return webhookHandler.handleSubscriptionEvent(
+                            event.getId(), getEventCreated(event), getStripeObjectFromEvent(event), event.getType());
+                case "product.created":
+                case "product.updated":
+                case "product.deleted":
+                    return webhookHandler.handleProductEvent(
+                            event.getId(), getEventCreated(event), getStripeObjectFromEvent(event), event.getType());
+                case "price.created":
+                case "price.updated":
+                case "price.deleted":
+                    return webhookHandler.handlePriceEvent(
+                            event.getId(), getEventCreated(event), getStripeObjectFromEvent(event), event.getType());
+                default:
+                    return Mono.empty();
+            }
+        });
+    }
+
+    private Event getEventFromPayload(String payload) {
+        try {
+            return ApiResource.GSON.fromJson(payload, Event.class);
+        } catch (JsonSyntaxException e) {
+            throw new CustomException("Invalid payload");
+        }
+    }
+
+    private Instant getEventCreated(Event event) {
+        return event.getCreated() == null ? null : Instant.ofEpochSecond(event.getCreated());
+    }
+
+    private StripeObject getStripeObjectFromEvent(Event event) {
+        EventDataObjectDeserializer dataObjectDeserializer = event.getDataObjectDeserializer();
+
+        if (dataObjectDeserializer.getObject().isPresent()) {
+            return dataObjectDeserializer.getObject().get();
+        } else {
+            throw new CustomException("Deserialize error");
+        }
+    }
+}
@@ -1,56 +1,158 @@
 package org.sir.stripeintegration.infrastructure.service.stripe;
 
+import com.stripe.model.Customer;
+import com.stripe.model.Invoice;
 import com.stripe.model.PaymentIntent;
+import com.stripe.model.Price;
+import com.stripe.model.Product;
 import com.stripe.model.StripeObject;
+import com.stripe.model.Subscription;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.sir.stripeintegration.core.application.dtos.invoice.response.InvoiceDto;
+import org.sir.stripeintegration.core.application.dtos.invoice.response.InvoiceLineDto;
+import org.sir.stripeintegration.core.application.interfaces.service.ICatalogSyncService;
+import org.sir.stripeintegration.core.application.interfaces.service.IInvoiceService;
+import org.sir.stripeintegration.core.application.interfaces.service.IStripeGateway;
+import org.sir.stripeintegration.core.application.interfaces.service.ISubscriptionService;
 import org.sir.stripeintegration.core.application.interfaces.service.IWebhookHandler;
 import org.sir.stripeintegration.core.domain.TransactionEntity;
 import org.sir.stripeintegration.core.shared.exceptions.CustomException;
+import org.sir.stripeintegration.infrastructure.persistance.repository.CustomerRepository;
 import org.sir.stripeintegration.infrastructure.persistance.repository.TransactionRepository;
-import org.sir.stripeintegration.infrastructure.service.CustomerService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 @Service
 @AllArgsConstructor
 @Slf4j
 public class WebhookHandlerService implements IWebhookHandler {
-    private static final Logger logger = LoggerFactory.getLogger(CustomerService.class);
+    private static final Logger logger = LoggerFactory.getLogger(WebhookHandlerService.class);
+    static final long INVOICE_LINE_PAGE_SIZE = 100;
+
     private final TransactionRepository transactionRepository;
+    private final CustomerRepository customerRepository;
+    private final WebhookEventDeduplicator webhookEventDeduplicator;
+    private final StripeCatalogCache stripeCatalogCache;
+    private final ICatalogSyncService catalogSyncService;
+    private final ISubscriptionService subscriptionService;
+    private final IInvoiceService invoiceService;
+    private final IStripeGateway stripeGateway;
 
     @Override
-    public Mono<Void> handlePaymentIntentEvent(StripeObject stripeObject, String eventName) {
+    public Mono<Void> handlePaymentIntentEvent(String eventId, StripeObject stripeObject, String eventName) {
         PaymentIntent paymentIntent = (PaymentIntent) stripeObject;
 
         TransactionEntity transactionEntity = TransactionEntity.builder()
                 .id(UUID.randomUUID())
+                .eventId(eventId)
                 .customerId(paymentIntent.getCustomer())
                 .amount(paymentIntent.getAmount())
                 .paymentIntentId(paymentIntent.getId())
                 .isSuccess(eventName.equals("payment_intent.succeeded"))
                 .isNewEntry(true)
                 .build();
-        try {
-            return transactionRepository.save(transactionEntity)
-                    .flatMap(transactionEntity1 -> Mono.empty());
-        } catch (Exception ex) {
-            logger.error(ex.getMessage());
-            throw new CustomException("Error occurred on transaction create");
+
+        return transactionRepository.insertIfAbsent(transactionEntity)
+                .doOnNext(inserted -> {
+                    webhookEventDeduplicator.record(WebhookEventDeduplicator.LAYER_TRANSACTION, inserted == 0);
+                    if (inserted == 0) {
+                        logger.info("Transaction of webhook event {} already exists, skipped", eventId);
+                    }
+                })
+                .onErrorMap(ex -> {
+                    logger.error(ex.getMessage());
+                    return new CustomException("Error occurred on transaction create");
+                })
+                .then();
+    }
+
+    /**
+     * Keeps the stored default payment method current, it is what charges are made with. A delivery older than
+     * the stored state does not switch it back.
+     */
+    @Override
+    public Mono<Void> handleCustomerEvent(String eventId, Instant eventCreated, StripeObject stripeObject, String eventName) {
+        Customer customer = (Customer) stripeObject;
+        String defaultPaymentMethodId = customer.getInvoiceSettings() == null
+                ? null : customer.getInvoiceSettings().getDefaultPaymentMethod();
+
+        return customerRepository.updateDefaultPaymentMethod(customer.getId(), defaultPaymentMethodId, eventCreated)
+                .then();
+    }
+
+    /**
+     * The event carries the first page of the invoice lines, the rest is listed from stripe before the invoice
+     * is stored so the mirror never holds a truncated invoice.
+     */
+    @Override
+    public Mono<Void> handleInvoiceEvent(String eventId, StripeObject stripeObject, String eventName) {
+        Invoice invoice = (Invoice) stripeObject;
+        InvoiceDto invoiceDto = StripeDtoConverter.getInvoiceDtoFromInvoiceObject(invoice);
+
+        if (invoice.getLines() == null || !Boolean.TRUE.equals(invoice.getLines().getHasMore())
+                || invoiceDto.lines.isEmpty()) {
+            return invoiceService.syncInvoice(invoiceDto);
         }
+
+        return getRemainingInvoiceLines(invoiceDto.id, invoiceDto.lines.get(invoiceDto.lines.size() - 1).id)
+                .flatMap(remainingLines -> {
+                    List<InvoiceLineDto> lines = new ArrayList<>(invoiceDto.lines);
+                    lines.addAll(remainingLines);
+                    invoiceDto.setLines(lines);
+                    logger.debug("Invoice {} has {} lines, {} listed from stripe",
+                            invoiceDto.id, lines.size(), remainingLines.size());
+                    return invoiceService.syncInvoice(invoiceDto);
+                });
+    }
+
+    /**
+     * Follows {@code startingAfter} from the last line of each page until a page comes back short.
+     */
+    private Mono<List<InvoiceLineDto>> getRemainingInvoiceLines(String invoiceId, String lastLineId) {
+        return stripeGateway.getInvoiceLines(invoiceId, INVOICE_LINE_PAGE_SIZE, lastLineId).collectList()
+                .expand(page -> page.size() < INVOICE_LINE_PAGE_SIZE
+                        ? Mono.empty()
+                        : stripeGateway.getInvoiceLines(invoiceId, INVOICE_LINE_PAGE_SIZE, page.get(page.size() - 1).id)
+                        .collectList())
+                .flatMapIterable(page -> page)
+                .collectList();
+    }
+
+    @Override
+    public Mono<Void> handleSubscriptionEvent(String eventId, Instant eventCreated, StripeObject stripeObject, String eventName) {
+        Subscription subscription = (Subscription) stripeObject;
+
+        return subscriptionService.syncSubscription(
+                StripeDtoConverter.getSubscriptionDtoFromSubscriptionObject(subscription), eventCreated);
     }
 
     @Override
-    public Mono<Void> handleInvoiceEvent(StripeObject stripeObject, String eventName) {
-        return null;
+    public Mono<Void> handleProductEvent(String eventId, Instant eventCreated, StripeObject stripeObject, String eventName) {
+        Product product = (Product) stripeObject;
+        stripeCatalogCache.evictProduct(product.getId());
+
+        if (eventName.equals("product.deleted")) {
+            return catalogSyncService.deleteProduct(product.getId());
+        }
+        return catalogSyncService.upsertProduct(StripeDtoConverter.getProductDtoFromProductObject(product), eventCreated);
     }
 
     @Override
-    public Mono<Void> handleSubscriptionEvent(StripeObject stripeObject, String eventName) {
-        return null;
+    public Mono<Void> handlePriceEvent(String eventId, Instant eventCreated, StripeObject stripeObject, String eventName) {
+        Price price = (Price) stripeObject;
+        stripeCatalogCache.evictPrice(price.getId());
+
+        if (eventName.equals("price.deleted")) {
+            return catalogSyncService.deletePrice(price.getId());
+        }
+        return catalogSyncService.upsertPrice(StripeDtoConverter.getProductPriceDtoFromPriceObject(price), eventCreated);
     }
 }
@@ -0,0 +1,142 @@
+package org.sir.stripeintegration.infrastructure.service.stripe;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.sir.stripeintegration.core.domain.WebhookEventEntity;
+import org.sir.stripeintegration.core.shared.constant.WebhookEventStatus;
+import org.sir.stripeintegration.infrastructure.persistance.repository.WebhookEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Drains the webhook inbox in the background. Every poll claims batches of due events until the inbox is
+ * empty and hands them to {@link WebhookEventDispatcher} with bounded concurrency. Failed events are
+ * retried with exponential backoff and marked {@code DEAD} after the max attempts.
+ * Several application instances can run the worker at the same time, claimed rows are locked per batch.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "webhook.inbox.worker.enabled", havingValue = "true", matchIfMissing = true)
+public class WebhookInboxWorker {
+    private static final Logger logger = LoggerFactory.getLogger(WebhookInboxWorker.class);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final WebhookEventRepository webhookEventRepository;
+    private final WebhookEventDispatcher webhookEventDispatcher;
+
+    private final int batchSize;
+    private final int concurrency;
+    private final int maxAttempts;
+    private final Duration pollInterval;
+    private final Duration lease;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    private Disposable subscription;
+
+    public WebhookInboxWorker(WebhookEventRepository webhookEventRepository,
+                              WebhookEventDispatcher webhookEventDispatcher,
+                              @Value("${webhook.inbox.batch-size}") int batchSize,
+                              @Value("${webhook.inbox.concurrency}") int concurrency,
+                              @Value("${webhook.inbox.max-attempts}") int maxAttempts,
+                              @Value("${webhook.inbox.poll-interval-ms}") long pollIntervalMs,
+                              @Value("${webhook.inbox.lease-ms}") long leaseMs,
+                              @Value("${webhook.inbox.initial-backoff-ms}") long initialBackoffMs,
+                              @Value("${webhook.inbox.max-backoff-ms}") long maxBackoffMs) {
+        this.webhookEventRepository = webhookEventRepository;
+        this.webhookEventDispatcher = webhookEventDispatcher;
+        this.batchSize = batchSize;
+        this.concurrency = concurrency;
+        this.maxAttempts = maxAttempts;
+        this.pollInterval = Duration.ofMillis(pollIntervalMs);
+        this.lease = Duration.ofMillis(leaseMs);
+        this.initialBackoff = Duration.ofMillis(initialBackoffMs);
+        this.maxBackoff = Duration.ofMillis(maxBackoffMs);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        subscription = Flux.interval(pollInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> drain()
+                        .onErrorResume(ex -> {
+                            logger.error("Webhook inbox poll failed: {}", ex.getMessage());
+                            return Mono.empty();
+                        }), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    /**
+     * Processes batches while they come back full, so a backlog is drained without waiting for the next poll.
+     */
+    Mono<Long> drain() {
+        return processBatch()
+                .expand(processed -> processed < batchSize ? Mono.empty() : processBatch())
+                .reduce(0L, Long::sum);
+    }
+
+    private Mono<Long> processBatch() {
+        Instant now = Instant.now();
+
+        return markLeaseExpiredDead(now)
+                .thenMany(webhookEventRepository.claimBatch(batchSize, now, now.plus(lease), maxAttempts))
+                .flatMap(this::process, concurrency)
+                .count();
+    }
+
+    private Mono<Void> markLeaseExpiredDead(Instant now) {
+        return webhookEventRepository.markLeaseExpiredDead(now, maxAttempts)
+                .doOnNext(id -> logger.error("Webhook event {} lease expired after {} attempts, marked dead",
+                        id, maxAttempts))
+                .then();
+    }
+
+    private Mono<WebhookEventEntity> process(WebhookEventEntity event) {
+        return webhookEventDispatcher.dispatch(event.getPayload())
+                .then(Mono.defer(() -> webhookEventRepository.markDone(event.getId(), Instant.now())))
+                .onErrorResume(ex -> markFailed(event, ex))
+                .thenReturn(event);
+    }
+
+    private Mono<Integer> markFailed(WebhookEventEntity event, Throwable ex) {
+        String error = ex.getMessage() == null ? ex.getClass().getName() : ex.getMessage();
+        error = error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        Instant now = Instant.now();
+
+        if (event.getAttempts() >= maxAttempts) {
+            logger.error("Webhook event {} ({}) failed {} times, marked dead: {}",
+                    event.getId(), event.getType(), event.getAttempts(), error);
+            return webhookEventRepository.markFailed(
+                    event.getId(), WebhookEventStatus.DEAD.name(), null, error, now);
+        }
+
+        logger.warn("Webhook event {} ({}) failed on attempt {}, will retry: {}",
+                event.getId(), event.getType(), event.getAttempts(), error);
+        return webhookEventRepository.markFailed(
+                event.getId(), WebhookEventStatus.PENDING.name(), now.plus(backoff(event.getAttempts())), error, now);
+    }
+
+    private Duration backoff(int attempts) {
+        long multiplier = 1L << Math.min(attempts - 1, 20);
+        Duration backoff = initialBackoff.multipliedBy(multiplier);
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+}
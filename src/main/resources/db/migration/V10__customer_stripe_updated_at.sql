@@ -0,0 +1,4 @@
+-- Time of the stripe state a customer row holds, see V8. An older customer.updated delivery does not switch the
+-- default payment method back, it is what charges are made with.
+
+ALTER TABLE CUSTOMER_ENTITY ADD COLUMN IF NOT EXISTS STRIPE_UPDATED_AT TIMESTAMP DEFAULT NULL;
@@ -1,4 +1,6 @@
-DROP TABLE IF EXISTS USER_ENTITY;
+-- Baseline: the schema.sql that used to run on every start, without dropping USER_ENTITY.
+-- Every statement is guarded, so databases created by schema.sql adopt it unchanged.
+
 CREATE TABLE IF NOT EXISTS USER_ENTITY
 (
     ID UUID DEFAULT gen_random_uuid() NOT NULL PRIMARY KEY,
@@ -15,9 +17,9 @@ CREATE TABLE IF NOT EXISTS USER_ENTITY
 );
 
 INSERT INTO USER_ENTITY (FIRST_NAME, LAST_NAME, PASSWORD, ADDRESS, EMAIL, ROLES)
-VALUES ('saiful','rasel', 'yUIixNNy9y/I3Y3goS4IDOtklaJmm8QNAUv2cpwXOE8=', 'Bangladesh', 'abc.test@abc.com', '{"ROLE_USER"}');
+VALUES ('saiful','rasel', 'yUIixNNy9y/I3Y3goS4IDOtklaJmm8QNAUv2cpwXOE8=', 'Bangladesh', 'abc.test@abc.com', '{"ROLE_USER"}')
+ON CONFLICT (EMAIL) DO NOTHING;
 
---DROP TABLE IF EXISTS CUSTOMER_ENTITY;
 CREATE TABLE IF NOT EXISTS CUSTOMER_ENTITY (
     ID VARCHAR(255) NOT NULL PRIMARY KEY,
     EMAIL VARCHAR(255) NOT NULL,
@@ -27,7 +29,6 @@ CREATE TABLE IF NOT EXISTS CUSTOMER_ENTITY (
     LAST_MODIFIED_ON TIMESTAMP DEFAULT NULL
 );
 
---DROP TABLE IF EXISTS PAYMENT_METHOD_ENTITY;
 CREATE TABLE IF NOT EXISTS PAYMENT_METHOD_ENTITY (
     ID VARCHAR(255) NOT NULL PRIMARY KEY,
     CUSTOMER_ID VARCHAR(255) NOT NULL,
@@ -35,7 +36,6 @@ CREATE TABLE IF NOT EXISTS PAYMENT_METHOD_ENTITY (
     LAST_MODIFIED_ON TIMESTAMP DEFAULT NULL
 );
 
---DROP TABLE IF EXISTS PAYMENT_INTENT_ENTITY;
 CREATE TABLE IF NOT EXISTS PAYMENT_INTENT_ENTITY (
     ID VARCHAR(255) NOT NULL PRIMARY KEY,
     AMOUNT INTEGER DEFAULT NULL,
@@ -47,7 +47,6 @@ CREATE TABLE IF NOT EXISTS PAYMENT_INTENT_ENTITY (
     LAST_MODIFIED_ON TIMESTAMP DEFAULT NULL
 );
 
---DROP TABLE IF EXISTS PRODUCT_ENTITY;
 CREATE TABLE IF NOT EXISTS PRODUCT_ENTITY (
     ID VARCHAR(255) NOT NULL PRIMARY KEY,
     NAME VARCHAR(255) DEFAULT NULL,
@@ -59,7 +58,9 @@ CREATE TABLE IF NOT EXISTS PRODUCT_ENTITY (
     LAST_MODIFIED_ON TIMESTAMP DEFAULT NULL
 );
 
---DROP TABLE IF EXISTS PRODUCT_PRICE_ENTITY;
+ALTER TABLE PRODUCT_ENTITY ADD COLUMN IF NOT EXISTS IMAGES VARCHAR[] DEFAULT NULL;
+CREATE INDEX IF NOT EXISTS PRODUCT_ENTITY_CREATED_IDX ON PRODUCT_ENTITY (CREATED_ON, ID);
+
 CREATE TABLE IF NOT EXISTS PRODUCT_PRICE_ENTITY (
     ID VARCHAR(255) NOT NULL PRIMARY KEY,
     NICK_NAME VARCHAR(255) DEFAULT NULL,
@@ -72,7 +73,11 @@ CREATE TABLE IF NOT EXISTS PRODUCT_PRICE_ENTITY (
     LAST_MODIFIED_ON TIMESTAMP DEFAULT NULL
 );
 
---DROP TABLE IF EXISTS SUBSCRIPTION_ENTITY;
+ALTER TABLE PRODUCT_PRICE_ENTITY ADD COLUMN IF NOT EXISTS RECURRING_INTERVAL VARCHAR(255) DEFAULT NULL;
+ALTER TABLE PRODUCT_PRICE_ENTITY ADD COLUMN IF NOT EXISTS RECURRING_INTERVAL_COUNT INTEGER DEFAULT NULL;
+ALTER TABLE PRODUCT_PRICE_ENTITY ADD COLUMN IF NOT EXISTS RECURRING_USAGE_TYPE VARCHAR(255) DEFAULT NULL;
+CREATE INDEX IF NOT EXISTS PRODUCT_PRICE_ENTITY_PRODUCT_CREATED_IDX ON PRODUCT_PRICE_ENTITY (PRODUCT_ID, CREATED_ON, ID);
+
 CREATE TABLE IF NOT EXISTS SUBSCRIPTION_ENTITY (
     ID VARCHAR(255) NOT NULL PRIMARY KEY,
     DESCRIPTION VARCHAR(255) DEFAULT NULL,
@@ -86,7 +91,6 @@ CREATE TABLE IF NOT EXISTS SUBSCRIPTION_ENTITY (
     LAST_MODIFIED_ON TIMESTAMP DEFAULT NULL
 );
 
---DROP TABLE IF EXISTS TRANSACTION_ENTITY;
 CREATE TABLE IF NOT EXISTS TRANSACTION_ENTITY (
     ID UUID NOT NULL PRIMARY KEY,
     AMOUNT INTEGER DEFAULT NULL,
@@ -95,4 +99,31 @@ CREATE TABLE IF NOT EXISTS TRANSACTION_ENTITY (
     IS_SUCCESS BOOLEAN NOT NULL,
     CREATED_ON TIMESTAMP DEFAULT NULL,
     LAST_MODIFIED_ON TIMESTAMP DEFAULT NULL
-);
\ No newline at end of file
+);
+
+ALTER TABLE TRANSACTION_ENTITY ADD COLUMN IF NOT EXISTS EVENT_ID VARCHAR(255) DEFAULT NULL;
+CREATE UNIQUE INDEX IF NOT EXISTS TRANSACTION_ENTITY_EVENT_ID_UIDX ON TRANSACTION_ENTITY (EVENT_ID);
+CREATE INDEX IF NOT EXISTS TRANSACTION_ENTITY_CUSTOMER_CREATED_IDX ON TRANSACTION_ENTITY (CUSTOMER_ID, CREATED_ON, ID);
+
+CREATE TABLE IF NOT EXISTS WEBHOOK_EVENT_ENTITY (
+    ID VARCHAR(255) NOT NULL PRIMARY KEY,
+    TYPE VARCHAR(255) NOT NULL,
+    PAYLOAD TEXT NOT NULL,
+    STATUS VARCHAR(50) NOT NULL,
+    ATTEMPTS INTEGER NOT NULL DEFAULT 0,
+    NEXT_ATTEMPT_AT TIMESTAMP DEFAULT NULL,
+    LOCKED_UNTIL TIMESTAMP DEFAULT NULL,
+    LAST_ERROR TEXT DEFAULT NULL,
+    CREATED_ON TIMESTAMP DEFAULT NULL,
+    LAST_MODIFIED_ON TIMESTAMP DEFAULT NULL
+);
+
+CREATE INDEX IF NOT EXISTS WEBHOOK_EVENT_ENTITY_DUE_IDX
+    ON WEBHOOK_EVENT_ENTITY (NEXT_ATTEMPT_AT) WHERE STATUS IN ('PENDING', 'PROCESSING');
+
+CREATE TABLE IF NOT EXISTS CUSTOMER_IMPORT_CHECKPOINT (
+    IMPORT_ID VARCHAR(255) NOT NULL PRIMARY KEY,
+    LAST_LINE BIGINT NOT NULL,
+    CREATED_ON TIMESTAMP DEFAULT NULL,
+    LAST_MODIFIED_ON TIMESTAMP DEFAULT NULL
+);
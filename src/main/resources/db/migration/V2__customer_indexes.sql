@@ -0,0 +1,13 @@
+-- Indexes for the per-customer reads. TRANSACTION_ENTITY (CUSTOMER_ID, CREATED_ON, ID) and
+-- PRODUCT_PRICE_ENTITY (PRODUCT_ID, CREATED_ON, ID) already exist since the baseline.
+-- Built concurrently so writes are not blocked. The migration runs outside a transaction, an index left
+-- invalid by a failed run is dropped and built again by the next one.
+
+DROP INDEX CONCURRENTLY IF EXISTS PAYMENT_INTENT_ENTITY_CUSTOMER_CREATED_IDX;
+CREATE INDEX CONCURRENTLY PAYMENT_INTENT_ENTITY_CUSTOMER_CREATED_IDX ON PAYMENT_INTENT_ENTITY (CUSTOMER_ID, CREATED_ON, ID);
+
+DROP INDEX CONCURRENTLY IF EXISTS PAYMENT_METHOD_ENTITY_CUSTOMER_IDX;
+CREATE INDEX CONCURRENTLY PAYMENT_METHOD_ENTITY_CUSTOMER_IDX ON PAYMENT_METHOD_ENTITY (CUSTOMER_ID);
+
+DROP INDEX CONCURRENTLY IF EXISTS SUBSCRIPTION_ENTITY_CUSTOMER_CREATED_IDX;
+CREATE INDEX CONCURRENTLY SUBSCRIPTION_ENTITY_CUSTOMER_CREATED_IDX ON SUBSCRIPTION_ENTITY (CUSTOMER_ID, CREATED_ON, ID);
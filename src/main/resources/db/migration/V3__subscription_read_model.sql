@@ -0,0 +1,7 @@
+-- SUBSCRIPTION_ENTITY becomes the read model of stripe subscriptions, kept current by the
+-- customer.subscription.* webhooks. Items are stored as two arrays of the same length, price id and quantity.
+
+ALTER TABLE SUBSCRIPTION_ENTITY ADD COLUMN IF NOT EXISTS CANCEL_AT_PERIOD_END BOOLEAN DEFAULT NULL;
+ALTER TABLE SUBSCRIPTION_ENTITY ADD COLUMN IF NOT EXISTS DEFAULT_PAYMENT_METHOD_ID VARCHAR(255) DEFAULT NULL;
+ALTER TABLE SUBSCRIPTION_ENTITY ADD COLUMN IF NOT EXISTS ITEM_PRICE_IDS VARCHAR[] DEFAULT NULL;
+ALTER TABLE SUBSCRIPTION_ENTITY ADD COLUMN IF NOT EXISTS ITEM_QUANTITIES BIGINT[] DEFAULT NULL;
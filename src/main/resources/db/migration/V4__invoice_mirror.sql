@@ -0,0 +1,36 @@
+-- Local mirror of stripe invoices and their line items, written by the invoice webhooks.
+
+CREATE TABLE IF NOT EXISTS INVOICE_ENTITY (
+    ID VARCHAR(255) NOT NULL PRIMARY KEY,
+    CUSTOMER_ID VARCHAR(255) NOT NULL,
+    SUBSCRIPTION_ID VARCHAR(255) DEFAULT NULL,
+    NUMBER VARCHAR(255) DEFAULT NULL,
+    STATUS VARCHAR(255) DEFAULT NULL,
+    CURRENCY VARCHAR(255) DEFAULT NULL,
+    AMOUNT_DUE BIGINT DEFAULT NULL,
+    AMOUNT_PAID BIGINT DEFAULT NULL,
+    AMOUNT_REMAINING BIGINT DEFAULT NULL,
+    TOTAL BIGINT DEFAULT NULL,
+    PERIOD_START BIGINT DEFAULT NULL,
+    PERIOD_END BIGINT DEFAULT NULL,
+    HOSTED_INVOICE_URL VARCHAR(1024) DEFAULT NULL,
+    CREATED_ON TIMESTAMP DEFAULT NULL,
+    LAST_MODIFIED_ON TIMESTAMP DEFAULT NULL
+);
+
+CREATE INDEX IF NOT EXISTS INVOICE_ENTITY_CUSTOMER_CREATED_IDX ON INVOICE_ENTITY (CUSTOMER_ID, CREATED_ON, ID);
+
+CREATE TABLE IF NOT EXISTS INVOICE_LINE_ENTITY (
+    ID VARCHAR(255) NOT NULL PRIMARY KEY,
+    INVOICE_ID VARCHAR(255) NOT NULL REFERENCES INVOICE_ENTITY (ID) ON DELETE CASCADE,
+    POSITION INTEGER NOT NULL,
+    PRICE_ID VARCHAR(255) DEFAULT NULL,
+    DESCRIPTION VARCHAR(1024) DEFAULT NULL,
+    AMOUNT BIGINT DEFAULT NULL,
+    CURRENCY VARCHAR(255) DEFAULT NULL,
+    QUANTITY BIGINT DEFAULT NULL,
+    PERIOD_START BIGINT DEFAULT NULL,
+    PERIOD_END BIGINT DEFAULT NULL
+);
+
+CREATE INDEX IF NOT EXISTS INVOICE_LINE_ENTITY_INVOICE_IDX ON INVOICE_LINE_ENTITY (INVOICE_ID);
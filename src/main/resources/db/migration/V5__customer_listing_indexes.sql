@@ -0,0 +1,11 @@
+-- Indexes for the local customer listing: newest first paging, exact email and name prefix filters,
+-- both case insensitive. Built concurrently like V2.
+
+DROP INDEX CONCURRENTLY IF EXISTS CUSTOMER_ENTITY_CREATED_IDX;
+CREATE INDEX CONCURRENTLY CUSTOMER_ENTITY_CREATED_IDX ON CUSTOMER_ENTITY (CREATED_ON, ID);
+
+DROP INDEX CONCURRENTLY IF EXISTS CUSTOMER_ENTITY_EMAIL_IDX;
+CREATE INDEX CONCURRENTLY CUSTOMER_ENTITY_EMAIL_IDX ON CUSTOMER_ENTITY (LOWER(EMAIL));
+
+DROP INDEX CONCURRENTLY IF EXISTS CUSTOMER_ENTITY_NAME_IDX;
+CREATE INDEX CONCURRENTLY CUSTOMER_ENTITY_NAME_IDX ON CUSTOMER_ENTITY (LOWER(NAME) text_pattern_ops);
@@ -0,0 +1,3 @@
+-- Default payment method of the customer, so a charge does not have to retrieve the customer from stripe first.
+
+ALTER TABLE CUSTOMER_ENTITY ADD COLUMN IF NOT EXISTS DEFAULT_PAYMENT_METHOD_ID VARCHAR(255) DEFAULT NULL;
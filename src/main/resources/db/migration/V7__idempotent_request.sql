@@ -0,0 +1,15 @@
+-- Responses of POST requests sent with an Idempotency-Key header. The id is the hash of the caller and the key,
+-- STATUS_CODE stays null while the first request is in flight.
+
+CREATE TABLE IF NOT EXISTS IDEMPOTENT_REQUEST_ENTITY (
+    ID VARCHAR(64) NOT NULL PRIMARY KEY,
+    REQUEST_HASH VARCHAR(64) NOT NULL,
+    STATUS_CODE INTEGER DEFAULT NULL,
+    CONTENT_TYPE VARCHAR(255) DEFAULT NULL,
+    RESPONSE_BODY BYTEA DEFAULT NULL,
+    EXPIRES_ON TIMESTAMP NOT NULL,
+    CREATED_ON TIMESTAMP DEFAULT NULL,
+    LAST_MODIFIED_ON TIMESTAMP DEFAULT NULL
+);
+
+CREATE INDEX IF NOT EXISTS IDEMPOTENT_REQUEST_ENTITY_EXPIRES_IDX ON IDEMPOTENT_REQUEST_ENTITY (EXPIRES_ON);
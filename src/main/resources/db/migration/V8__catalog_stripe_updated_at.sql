@@ -0,0 +1,5 @@
+-- Time of the stripe state a synced catalog row holds: the event creation time for webhooks, the response time
+-- for direct stripe reads. Upserts with an older time are skipped, stripe does not deliver webhooks in order.
+
+ALTER TABLE PRODUCT_ENTITY ADD COLUMN IF NOT EXISTS STRIPE_UPDATED_AT TIMESTAMP DEFAULT NULL;
+ALTER TABLE PRODUCT_PRICE_ENTITY ADD COLUMN IF NOT EXISTS STRIPE_UPDATED_AT TIMESTAMP DEFAULT NULL;
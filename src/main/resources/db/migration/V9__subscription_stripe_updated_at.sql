@@ -0,0 +1,3 @@
+-- Time of the stripe state a subscription row holds, see V8. Older customer.subscription.* deliveries are skipped.
+
+ALTER TABLE SUBSCRIPTION_ENTITY ADD COLUMN IF NOT EXISTS STRIPE_UPDATED_AT TIMESTAMP DEFAULT NULL;
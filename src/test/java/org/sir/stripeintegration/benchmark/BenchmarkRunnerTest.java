@@ -0,0 +1,27 @@
+package org.sir.stripeintegration.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH benchmarks of this package. Excluded from the default build, run it with
+ * {@code mvn test -P benchmark}, a single benchmark with {@code -Dbenchmark.include=<regex>}.
+ * Allocation per call is reported by the gc profiler.
+ */
+@Tag("benchmark")
+class BenchmarkRunnerTest {
+
+    @Test
+    void runBenchmarks() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(System.getProperty("benchmark.include", BenchmarkRunnerTest.class.getPackageName() + "."))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
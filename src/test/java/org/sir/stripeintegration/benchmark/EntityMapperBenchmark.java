@@ -0,0 +1,53 @@
+package org.sir.stripeintegration.benchmark;
+
+import org.mapstruct.factory.Mappers;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+import org.sir.stripeintegration.core.application.dtos.transaction.response.TransactionDto;
+import org.sir.stripeintegration.core.application.mappers.TransactionMapper;
+import org.sir.stripeintegration.core.domain.TransactionEntity;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call cost of mapping a transaction row to its dto, the hot path of {@code /api/transaction} listing:
+ * reflective {@link ModelMapper} against the generated {@link TransactionMapper}. The gc profiler of
+ * {@link BenchmarkRunnerTest} reports the allocation per call ({@code gc.alloc.rate.norm}).
+ * Run it with {@code mvn test -P benchmark -Dbenchmark.include=EntityMapperBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityMapperBenchmark {
+    private ModelMapper modelMapper;
+    private TransactionMapper transactionMapper;
+    private TransactionEntity transactionEntity;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        transactionMapper = Mappers.getMapper(TransactionMapper.class);
+        transactionEntity = TransactionEntity.builder()
+                .id(UUID.randomUUID())
+                .eventId("evt_1")
+                .customerId("cus_1")
+                .paymentIntentId("pi_1")
+                .amount(1000L)
+                .isSuccess(true)
+                .build();
+    }
+
+    @Benchmark
+    public TransactionDto modelMapper() {
+        return modelMapper.map(transactionEntity, TransactionDto.class);
+    }
+
+    @Benchmark
+    public TransactionDto generatedMapper() {
+        return transactionMapper.toDto(transactionEntity);
+    }
+}
@@ -0,0 +1,76 @@
+package org.sir.stripeintegration.benchmark;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.xml.bind.DatatypeConverter;
+import org.openjdk.jmh.annotations.*;
+import org.sir.stripeintegration.core.domain.UserEntity;
+import org.sir.stripeintegration.core.shared.security.AuthenticationManager;
+import org.sir.stripeintegration.core.shared.security.VerifiedTokenCache;
+import org.sir.stripeintegration.core.shared.utility.JWTUtil;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of authenticating one request with a bearer token:
+ * <ul>
+ *     <li>{@code legacyTripleParse} - the former path, three parses with the secret decoded every time</li>
+ *     <li>{@code singleParse} - one parse with the precomputed key</li>
+ *     <li>{@code cachedAuthenticate} - {@link AuthenticationManager} with a hot token in {@link VerifiedTokenCache}</li>
+ * </ul>
+ * Run it with {@code mvn test -P benchmark}, see {@link BenchmarkRunnerTest}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationBenchmark {
+    private static final String SECRET = "ThisIsSecretForJWTHS512SignatureAlgorithmThatMUSTHave512bitsKeySize";
+
+    private JWTUtil jwtUtil;
+    private AuthenticationManager authenticationManager;
+    private String token;
+    private Authentication authentication;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JWTUtil(SECRET, "3600", "36000");
+        authenticationManager = new AuthenticationManager(
+                jwtUtil, new VerifiedTokenCache(10000, new SimpleMeterRegistry()));
+
+        UserEntity user = new UserEntity(UUID.randomUUID(), "abc", "test", "password", "abc.test@abc.com",
+                null, List.of("ROLE_USER"), true, null);
+        token = jwtUtil.generateToken(user);
+        authentication = new UsernamePasswordAuthenticationToken(token, token);
+    }
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public Object legacyTripleParse() {
+        String email = Jwts.parser().setSigningKey(DatatypeConverter.parseBase64Binary(SECRET))
+                .parseClaimsJws(token).getBody().getSubject();
+        Date expiration = Jwts.parser().setSigningKey(DatatypeConverter.parseBase64Binary(SECRET))
+                .parseClaimsJws(token).getBody().getExpiration();
+        Claims claims = Jwts.parser().setSigningKey(DatatypeConverter.parseBase64Binary(SECRET))
+                .parseClaimsJws(token).getBody();
+        return email.length() + expiration.getTime() + claims.size();
+    }
+
+    @Benchmark
+    public Object singleParse() {
+        return jwtUtil.getAllClaimsFromToken(token);
+    }
+
+    @Benchmark
+    public Object cachedAuthenticate() {
+        return authenticationManager.authenticate(authentication).block();
+    }
+}
@@ -0,0 +1,206 @@
+package org.sir.stripeintegration.core.application.mappers;
+
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.sir.stripeintegration.core.application.dtos.customer.response.CustomerDto;
+import org.sir.stripeintegration.core.application.dtos.invoice.response.InvoiceDto;
+import org.sir.stripeintegration.core.application.dtos.invoice.response.InvoiceLineDto;
+import org.sir.stripeintegration.core.application.dtos.paymentIntent.response.PaymentIntentDto;
+import org.sir.stripeintegration.core.application.dtos.paymentMethod.response.PaymentMethodDto;
+import org.sir.stripeintegration.core.application.dtos.product.request.UpdateProductRequestDto;
+import org.sir.stripeintegration.core.application.dtos.product.response.ProductDto;
+import org.sir.stripeintegration.core.application.dtos.productPrice.response.ProductPriceDto;
+import org.sir.stripeintegration.core.application.dtos.subscription.response.SubscriptionDto;
+import org.sir.stripeintegration.core.domain.CustomerEntity;
+import org.sir.stripeintegration.core.domain.InvoiceEntity;
+import org.sir.stripeintegration.core.domain.InvoiceLineEntity;
+import org.sir.stripeintegration.core.domain.ProductEntity;
+import org.sir.stripeintegration.core.domain.ProductPriceEntity;
+import org.sir.stripeintegration.core.domain.SubscriptionEntity;
+import org.sir.stripeintegration.core.domain.TransactionEntity;
+import org.sir.stripeintegration.core.domain.UserEntity;
+import org.sir.stripeintegration.core.shared.dtoModels.RecurringDto;
+import org.sir.stripeintegration.core.shared.dtoModels.SubscriptionItemDto;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fills every field of the source and checks that every target field was copied, so a field added on one
+ * side only fails here as well as in the mapper build.
+ */
+class EntityMappersTest {
+    private static final Set<String> ENTITY_STATE = Set.of("createdOn", "lastModifiedOn", "isNewEntry");
+
+    @Test
+    void customerMapsBothWays() throws Exception {
+        CustomerMapper mapper = Mappers.getMapper(CustomerMapper.class);
+
+        assertCopied(filled(new CustomerEntity()), mapper::toDto, Set.of());
+        assertCopied(filled(new CustomerDto()), mapper::toEntity, union(ENTITY_STATE, Set.of("stripeUpdatedAt")));
+    }
+
+    @Test
+    void paymentIntentMapsToEntity() throws Exception {
+        assertCopied(filled(new PaymentIntentDto()), Mappers.getMapper(PaymentIntentMapper.class)::toEntity,
+                ENTITY_STATE);
+    }
+
+    @Test
+    void paymentMethodMapsToEntity() throws Exception {
+        assertCopied(filled(new PaymentMethodDto()), Mappers.getMapper(PaymentMethodMapper.class)::toEntity,
+                ENTITY_STATE);
+    }
+
+    @Test
+    void subscriptionMapsBothWays() throws Exception {
+        SubscriptionMapper mapper = Mappers.getMapper(SubscriptionMapper.class);
+        Set<String> items = Set.of("items", "itemPriceIds", "itemQuantities", "created");
+
+        SubscriptionDto dto = filled(new SubscriptionDto());
+        dto.setItems(List.of(new SubscriptionItemDto("price_1", 1L), new SubscriptionItemDto("price_2", 3L)));
+        SubscriptionEntity entity = mapper.toEntity(dto);
+        assertCopied(dto, mapper::toEntity, union(union(ENTITY_STATE, items), Set.of("stripeUpdatedAt")));
+        assertEquals(List.of("price_1", "price_2"), entity.getItemPriceIds());
+        assertEquals(List.of(1L, 3L), entity.getItemQuantities());
+
+        SubscriptionDto copy = mapper.toDto(entity);
+        assertCopied(entity, mapper::toDto, items);
+        assertEquals(dto.getItems(), copy.getItems());
+    }
+
+    @Test
+    void invoiceMapsBothWays() throws Exception {
+        InvoiceMapper mapper = Mappers.getMapper(InvoiceMapper.class);
+
+        assertCopied(filled(new InvoiceDto()), mapper::toEntity, ENTITY_STATE);
+        assertCopied(filled(new InvoiceEntity()), mapper::toDto, Set.of("lines", "created"));
+        assertCopied(filled(new InvoiceLineDto()), mapper::toEntity, Set.of("invoiceId", "position"));
+        assertCopied(filled(new InvoiceLineEntity()), mapper::toDto, Set.of());
+    }
+
+    @Test
+    void productMapsBothWays() throws Exception {
+        ProductMapper mapper = Mappers.getMapper(ProductMapper.class);
+
+        assertCopied(filled(new ProductDto()), mapper::toEntity, union(ENTITY_STATE, Set.of("stripeUpdatedAt")));
+        ProductEntity entity = filled(new ProductEntity());
+        assertCopied(entity, mapper::toDto, Set.of("created"));
+        assertEquals(entity.createdOn.getEpochSecond(), mapper.toDto(entity).getCreated());
+        assertEquals(List.of(), mapper.toDto(new ProductEntity()).images);
+
+        UpdateProductRequestDto requestDto = filled(new UpdateProductRequestDto());
+        ProductEntity updated = new ProductEntity();
+        mapper.updateEntity(requestDto, updated);
+        assertCopied(requestDto, source -> updated, union(ENTITY_STATE, Set.of("stripeUpdatedAt")));
+    }
+
+    @Test
+    void productPriceMapsBothWays() throws Exception {
+        ProductPriceMapper mapper = Mappers.getMapper(ProductPriceMapper.class);
+        Set<String> recurring = Set.of("recurring", "recurringInterval", "recurringIntervalCount", "recurringUsageType");
+
+        ProductPriceDto dto = filled(new ProductPriceDto());
+        dto.recurring = new RecurringDto("month", 3L, "metered");
+        ProductPriceEntity entity = mapper.toEntity(dto);
+        assertCopied(dto, mapper::toEntity, union(union(ENTITY_STATE, recurring), Set.of("stripeUpdatedAt")));
+        assertEquals("month", entity.getRecurringInterval());
+        assertEquals(3L, entity.getRecurringIntervalCount());
+        assertEquals("metered", entity.getRecurringUsageType());
+
+        ProductPriceDto copy = mapper.toDto(entity);
+        assertCopied(entity, mapper::toDto, union(recurring, Set.of("created")));
+        assertEquals(dto.recurring, copy.recurring);
+        assertNull(mapper.toDto(new ProductPriceEntity()).recurring);
+    }
+
+    @Test
+    void transactionMapsToDto() throws Exception {
+        assertCopied(filled(TransactionEntity.builder().build()), Mappers.getMapper(TransactionMapper.class)::toDto,
+                Set.of());
+    }
+
+    @Test
+    void userMapsToDto() throws Exception {
+        UserEntity entity = filled(new UserEntity(null, null, null, null, null, null, null, null, null));
+        assertCopied(entity, Mappers.getMapper(UserMapper.class)::toDto, Set.of());
+    }
+
+    private static Set<String> union(Set<String> first, Set<String> second) {
+        Set<String> union = new HashSet<>(first);
+        union.addAll(second);
+        return union;
+    }
+
+    private static <S, T> void assertCopied(S source, Function<S, T> mapper, Set<String> ignored)
+            throws IllegalAccessException {
+        T target = mapper.apply(source);
+
+        for (Field targetField : fields(target.getClass())) {
+            if (ignored.contains(targetField.getName())) {
+                continue;
+            }
+            Field sourceField = field(source.getClass(), targetField.getName());
+            assertNotNull(sourceField, () -> "no source for " + target.getClass().getSimpleName()
+                    + "." + targetField.getName());
+            assertEquals(sourceField.get(source), targetField.get(target),
+                    () -> target.getClass().getSimpleName() + "." + targetField.getName() + " not mapped");
+        }
+    }
+
+    private static <T> T filled(T object) throws IllegalAccessException {
+        for (Field field : fields(object.getClass())) {
+            Object value = sample(field);
+            if (value != null) {
+                field.set(object, value);
+            }
+        }
+        return object;
+    }
+
+    private static Object sample(Field field) {
+        Class<?> type = field.getType();
+        if (type == String.class) {
+            return field.getName() + "-value";
+        } else if (type == int.class || type == Integer.class) {
+            return 7;
+        } else if (type == long.class || type == Long.class) {
+            return 7L;
+        } else if (type == boolean.class || type == Boolean.class) {
+            return !field.getName().equals("isNewEntry");
+        } else if (type == UUID.class) {
+            return UUID.randomUUID();
+        } else if (type == Instant.class) {
+            return Instant.parse("2024-01-01T00:00:00Z");
+        } else if (type == List.class) {
+            return new ArrayList<>(List.of("ROLE_USER"));
+        }
+        return null;
+    }
+
+    private static List<Field> fields(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> current = type; current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    field.setAccessible(true);
+                    fields.add(field);
+                }
+            }
+        }
+        return fields;
+    }
+
+    private static Field field(Class<?> type, String name) {
+        return fields(type).stream().filter(field -> field.getName().equals(name)).findFirst().orElse(null);
+    }
+}
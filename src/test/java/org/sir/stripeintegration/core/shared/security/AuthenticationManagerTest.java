@@ -0,0 +1,79 @@
+package org.sir.stripeintegration.core.shared.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sir.stripeintegration.core.domain.UserEntity;
+import org.sir.stripeintegration.core.shared.utility.JWTUtil;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class AuthenticationManagerTest {
+    private static final String SECRET = "ThisIsSecretForJWTHS512SignatureAlgorithmThatMUSTHave512bitsKeySize";
+
+    private JWTUtil jwtUtil;
+    private VerifiedTokenCache verifiedTokenCache;
+    private AuthenticationManager authenticationManager;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = spy(new JWTUtil(SECRET, "3600", "36000"));
+        verifiedTokenCache = new VerifiedTokenCache(100, new SimpleMeterRegistry());
+        authenticationManager = new AuthenticationManager(jwtUtil, verifiedTokenCache);
+    }
+
+    @Test
+    void hotTokenIsParsedOnce() {
+        String token = jwtUtil.generateToken(user());
+
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(authenticationManager.authenticate(bearer(token)))
+                    .assertNext(authentication -> {
+                        assertEquals("abc.test@abc.com", authentication.getPrincipal());
+                        assertEquals(List.of("ROLE_USER"), authentication.getAuthorities().stream()
+                                .map(GrantedAuthority::getAuthority).toList());
+                    })
+                    .verifyComplete();
+        }
+
+        verify(jwtUtil, times(1)).getAllClaimsFromToken(anyString());
+    }
+
+    @Test
+    void invalidTokenIsRejectedAndNotCached() {
+        String valid = jwtUtil.generateToken(user());
+        int i = valid.lastIndexOf('.') + 5;
+        String token = valid.substring(0, i) + (valid.charAt(i) == 'A' ? 'B' : 'A') + valid.substring(i + 1);
+
+        StepVerifier.create(authenticationManager.authenticate(bearer(token))).verifyComplete();
+        StepVerifier.create(authenticationManager.authenticate(bearer(token))).verifyComplete();
+
+        verify(jwtUtil, times(2)).getAllClaimsFromToken(anyString());
+        assertEquals(0, verifiedTokenCache.size());
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        JWTUtil expiringJwtUtil = new JWTUtil(SECRET, "-1", "-1");
+        String token = expiringJwtUtil.generateToken(user());
+
+        StepVerifier.create(authenticationManager.authenticate(bearer(token))).verifyComplete();
+    }
+
+    private static UsernamePasswordAuthenticationToken bearer(String token) {
+        return new UsernamePasswordAuthenticationToken(token, token);
+    }
+
+    private static UserEntity user() {
+        return new UserEntity(UUID.randomUUID(), "abc", "test", "password", "abc.test@abc.com",
+                null, List.of("ROLE_USER"), true, null);
+    }
+}
@@ -0,0 +1,52 @@
+package org.sir.stripeintegration.core.shared.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.sir.stripeintegration.core.shared.exceptions.PasswordHashingRejectedException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomEncoderTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CustomEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        encoder.dispose();
+    }
+
+    @Test
+    void matchesAsyncRunsOffTheCallerAndRecordsLatency() {
+        encoder = new CustomEncoder("secret", 33, 256, 2, 10, meterRegistry);
+        String encoded = encoder.encode("12345");
+
+        StepVerifier.create(encoder.matchesAsync("12345", encoded)).expectNext(true).verifyComplete();
+        StepVerifier.create(encoder.matchesAsync("54321", encoded)).expectNext(false).verifyComplete();
+        StepVerifier.create(encoder.matchesAsync("12345", null)).expectNext(false).verifyComplete();
+
+        assertEquals(3, meterRegistry.get("security.password.hashing").tag("operation", "matches")
+                .timer().count());
+    }
+
+    @Test
+    void workBeyondPoolAndQueueIsRejected() {
+        encoder = new CustomEncoder("secret", 500_000, 256, 1, 1, meterRegistry);
+
+        List<Object> results = Flux.range(0, 5)
+                .flatMap(i -> encoder.encodeAsync("12345")
+                        .<Object>map(encoded -> encoded)
+                        .onErrorResume(PasswordHashingRejectedException.class, Mono::just))
+                .collectList()
+                .block();
+
+        long rejected = results.stream().filter(PasswordHashingRejectedException.class::isInstance).count();
+        assertTrue(rejected >= 3 && rejected < 5, "rejected " + rejected);
+        assertEquals(rejected, meterRegistry.get("security.password.hashing.rejected").counter().count());
+    }
+}
@@ -0,0 +1,66 @@
+package org.sir.stripeintegration.host.controller;
+
+import org.junit.jupiter.api.Test;
+import org.sir.stripeintegration.core.shared.exceptions.CustomException;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConditionalGetTest {
+    private static final Instant VERSION = Instant.parse("2024-01-01T00:00:00.123456Z");
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void matchingEtagIsAnsweredWithoutLoadingBody() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/product/prod_1")
+                .ifNoneMatch(ConditionalGet.eTag(VERSION)));
+
+        StepVerifier.create(ConditionalGet.ifModified(exchange, Mono.just(VERSION), this::load))
+                .assertNext(response -> {
+                    assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+                    assertNull(response.getBody());
+                })
+                .verifyComplete();
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void staleEtagGetsBodyWithCurrentEtag() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/product/prod_1")
+                .ifNoneMatch(ConditionalGet.eTag(VERSION.minusMillis(1))));
+
+        StepVerifier.create(ConditionalGet.ifModified(exchange, Mono.just(VERSION), this::load))
+                .assertNext(response -> {
+                    assertEquals(HttpStatus.OK, response.getStatusCode());
+                    assertEquals(ConditionalGet.eTag(VERSION), response.getHeaders().getETag());
+                    assertEquals("prod_1", response.getBody());
+                })
+                .verifyComplete();
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void unknownRowSurfacesLoadError() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/product/prod_1"));
+
+        StepVerifier.create(ConditionalGet.ifModified(exchange, Mono.<Instant>empty(),
+                        () -> Mono.<String>error(new CustomException("not found"))))
+                .expectError(CustomException.class)
+                .verify();
+    }
+
+    private Mono<String> load() {
+        return Mono.fromSupplier(() -> {
+            loads.incrementAndGet();
+            return "prod_1";
+        });
+    }
+}
@@ -0,0 +1,158 @@
+package org.sir.stripeintegration.host.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sir.stripeintegration.core.shared.exceptions.IdempotencyKeyReusedException;
+import org.sir.stripeintegration.infrastructure.persistance.repository.IdempotentRequestRepository;
+import org.sir.stripeintegration.infrastructure.service.IdempotentRequestService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class IdempotencyKeyWebFilterTest {
+    private IdempotentRequestRepository idempotentRequestRepository;
+    private IdempotencyKeyWebFilter filter;
+    private final AtomicInteger handled = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        idempotentRequestRepository = mock(IdempotentRequestRepository.class);
+        when(idempotentRequestRepository.claim(anyString(), anyString(), any(), any())).thenReturn(Mono.just(1));
+        when(idempotentRequestRepository.complete(anyString(), any(), any(), any(), any(), any(), anyString(), any()))
+                .thenReturn(Mono.just(1));
+        when(idempotentRequestRepository.release(anyString())).thenReturn(Mono.just(1));
+        when(idempotentRequestRepository.releaseClaim(anyString(), any())).thenReturn(Mono.just(1));
+        filter = new IdempotencyKeyWebFilter(new IdempotentRequestService(idempotentRequestRepository,
+                60000, 1000, 200, 100, 60000, new SimpleMeterRegistry()), 64);
+    }
+
+    @Test
+    void repeatGetsStoredResponseWithoutReachingHandler() {
+        ServerWebExchange first = exchange("{\"amount\":1000}");
+        filter.filter(first, respond(HttpStatus.CREATED)).block();
+
+        ServerWebExchange repeat = exchange("{\"amount\":1000}");
+        StepVerifier.create(filter.filter(repeat, respond(HttpStatus.CREATED))).verifyComplete();
+
+        MockServerHttpResponse response = (MockServerHttpResponse) repeat.getResponse();
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals("true", response.getHeaders().getFirst(IdempotencyKeyWebFilter.REPLAYED_HEADER));
+        assertEquals("handled 1", response.getBodyAsString().block());
+        assertEquals(1, handled.get());
+    }
+
+    @Test
+    void sameKeyWithAnotherBodyIsRejected() {
+        filter.filter(exchange("{\"amount\":1000}"), respond(HttpStatus.CREATED)).block();
+
+        StepVerifier.create(filter.filter(exchange("{\"amount\":2000}"), respond(HttpStatus.CREATED)))
+                .expectError(IdempotencyKeyReusedException.class)
+                .verify();
+        assertEquals(1, handled.get());
+    }
+
+    @Test
+    void failedResponseIsNotStored() {
+        StepVerifier.create(filter.filter(exchange("{\"amount\":1000}"), respond(HttpStatus.BAD_REQUEST)))
+                .verifyComplete();
+        StepVerifier.create(filter.filter(exchange("{\"amount\":1000}"), respond(HttpStatus.CREATED)))
+                .verifyComplete();
+
+        verify(idempotentRequestRepository).release(anyString());
+        verify(idempotentRequestRepository, times(1)).complete(anyString(), any(), any(), any(), any(), any(), anyString(), any());
+        assertEquals(2, handled.get());
+    }
+
+    @Test
+    void cancelledRequestReleasesItsKey() {
+        StepVerifier.create(filter.filter(exchange("{\"amount\":1000}"), exchange -> Mono.never()))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(50))
+                .thenCancel()
+                .verify();
+        verify(idempotentRequestRepository).release(anyString());
+
+        StepVerifier.create(filter.filter(exchange("{\"amount\":1000}"), respond(HttpStatus.CREATED)))
+                .verifyComplete();
+        assertEquals(1, handled.get());
+    }
+
+    @Test
+    void oversizedRequestIsRejected() {
+        StepVerifier.create(filter.filter(exchange("{\"note\":\"" + "x".repeat(100) + "\"}"),
+                        respond(HttpStatus.CREATED)))
+                .expectErrorSatisfies(ex -> assertEquals(HttpStatus.PAYLOAD_TOO_LARGE,
+                        ((ResponseStatusException) ex).getStatusCode()))
+                .verify();
+        assertEquals(0, handled.get());
+    }
+
+    @Test
+    void oversizedResponseIsSentButNotStored() {
+        ServerWebExchange exchange = exchange("{\"amount\":1000}");
+        StepVerifier.create(filter.filter(exchange, respond(HttpStatus.CREATED, "x".repeat(100))))
+                .verifyComplete();
+
+        assertEquals(100, ((MockServerHttpResponse) exchange.getResponse()).getBodyAsString().block().length());
+        verify(idempotentRequestRepository).release(anyString());
+        verify(idempotentRequestRepository, never()).complete(anyString(), any(), any(), any(), any(), any(), anyString(), any());
+    }
+
+    @Test
+    void streamedImportIsPassedThrough() {
+        Principal principal = () -> "jane";
+        ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/customer/import")
+                        .header(IdempotencyKeyWebFilter.IDEMPOTENCY_KEY_HEADER, "key_1")
+                        .body("x".repeat(100)))
+                .mutate()
+                .principal(Mono.just(principal))
+                .build();
+
+        StepVerifier.create(filter.filter(exchange, respond(HttpStatus.OK))).verifyComplete();
+        assertEquals(1, handled.get());
+        verifyNoInteractions(idempotentRequestRepository);
+    }
+
+    private WebFilterChain respond(HttpStatus status) {
+        return respond(status, null);
+    }
+
+    private WebFilterChain respond(HttpStatus status, String text) {
+        return exchange -> exchange.getRequest().getBody().then(Mono.defer(() -> {
+            exchange.getResponse().setStatusCode(status);
+            exchange.getResponse().getHeaders().setContentType(MediaType.TEXT_PLAIN);
+            int count = handled.incrementAndGet();
+            byte[] body = (text == null ? "handled " + count : text).getBytes(StandardCharsets.UTF_8);
+            return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(body)));
+        }));
+    }
+
+    private static ServerWebExchange exchange(String body) {
+        Principal principal = () -> "jane";
+        return MockServerWebExchange.from(MockServerHttpRequest.post("/api/payment-intent")
+                        .header(IdempotencyKeyWebFilter.IDEMPOTENCY_KEY_HEADER, "key_1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(body))
+                .mutate()
+                .principal(Mono.just(principal))
+                .build();
+    }
+}
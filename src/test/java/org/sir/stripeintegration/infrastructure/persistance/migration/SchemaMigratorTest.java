@@ -0,0 +1,78 @@
+package org.sir.stripeintegration.infrastructure.persistance.migration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaMigratorTest {
+
+    @Test
+    void migrationsAreSortedByVersion() {
+        List<SchemaMigrator.Migration> migrations = SchemaMigrator.load(new Resource[]{
+                script("V10__later.sql", "SELECT 10;"),
+                script("V2__add_index.sql", "CREATE INDEX CONCURRENTLY IF NOT EXISTS X_IDX ON X (Y);"),
+                script("V1__baseline.sql", "-- not CONCURRENTLY\nCREATE TABLE X (Y INT);")});
+
+        assertEquals(List.of(1, 2, 10), migrations.stream().map(SchemaMigrator.Migration::version).toList());
+        assertEquals("add index", migrations.get(1).description());
+        assertTrue(migrations.get(0).transactional());
+        assertFalse(migrations.get(1).transactional());
+    }
+
+    @Test
+    void duplicateVersionIsRejected() {
+        Resource[] resources = {script("V1__a.sql", "SELECT 1;"), script("V01__b.sql", "SELECT 2;")};
+
+        assertThrows(IllegalStateException.class, () -> SchemaMigrator.load(resources));
+    }
+
+    @Test
+    void onlyMissingMigrationsArePending() {
+        List<SchemaMigrator.Migration> migrations = SchemaMigrator.load(new Resource[]{
+                script("V1__a.sql", "SELECT 1;"), script("V2__b.sql", "SELECT 2;")});
+
+        List<SchemaMigrator.Migration> pending = SchemaMigrator.pending(
+                Map.of(1, migrations.get(0).checksum(), 99, "unknown"), migrations);
+
+        assertEquals(List.of(2), pending.stream().map(SchemaMigrator.Migration::version).toList());
+    }
+
+    @Test
+    void changedMigrationFailsStartup() {
+        List<SchemaMigrator.Migration> migrations = SchemaMigrator.load(new Resource[]{script("V1__a.sql", "SELECT 1;")});
+
+        assertThrows(IllegalStateException.class,
+                () -> SchemaMigrator.pending(Map.of(1, SchemaMigrator.checksum("SELECT 2;")), migrations));
+    }
+
+    @Test
+    void checksumIgnoresLineEndings() {
+        assertEquals(SchemaMigrator.checksum("SELECT 1;\nSELECT 2;"), SchemaMigrator.checksum("SELECT 1;\r\nSELECT 2;"));
+    }
+
+    @Test
+    void shippedMigrationsLoad() throws Exception {
+        Resource[] resources = new PathMatchingResourcePatternResolver().getResources("classpath:db/migration/V*__*.sql");
+
+        List<SchemaMigrator.Migration> migrations = SchemaMigrator.load(resources);
+
+        assertEquals(1, migrations.get(0).version());
+        assertTrue(migrations.get(0).transactional());
+    }
+
+    private static Resource script(String fileName, String sql) {
+        return new ByteArrayResource(sql.getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public String getFilename() {
+                return fileName;
+            }
+        };
+    }
+}
@@ -0,0 +1,39 @@
+package org.sir.stripeintegration.infrastructure.persistance.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.FetchSpec;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CustomerPaymentMethodRepositoryImplTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void outOfOrderUpdateIsSkippedByTheEventTimeGuard() {
+        Instant older = Instant.parse("2024-01-01T00:00:05Z");
+        DatabaseClient databaseClient = mock(DatabaseClient.class);
+        DatabaseClient.GenericExecuteSpec executeSpec = mock(DatabaseClient.GenericExecuteSpec.class, RETURNS_SELF);
+        FetchSpec<Map<String, Object>> fetchSpec = mock(FetchSpec.class);
+        when(databaseClient.sql(any(String.class))).thenReturn(executeSpec);
+        when(executeSpec.fetch()).thenReturn(fetchSpec);
+        when(fetchSpec.rowsUpdated()).thenReturn(Mono.just(0L));
+
+        StepVerifier.create(new CustomerPaymentMethodRepositoryImpl(databaseClient)
+                        .updateDefaultPaymentMethod("cus_1", "pm_old", older))
+                .expectNext(0L)
+                .verifyComplete();
+
+        verify(databaseClient).sql(CustomerPaymentMethodRepositoryImpl.UPDATE_DEFAULT);
+        verify(executeSpec).bind("stripeUpdatedAt", older);
+        assertTrue(CustomerPaymentMethodRepositoryImpl.UPDATE_DEFAULT
+                .endsWith("AND (STRIPE_UPDATED_AT IS NULL OR STRIPE_UPDATED_AT <= :stripeUpdatedAt)"));
+    }
+}
@@ -0,0 +1,113 @@
+package org.sir.stripeintegration.infrastructure.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.sir.stripeintegration.core.application.dtos.customer.request.CustomerCreateRequestDto;
+import org.sir.stripeintegration.core.application.dtos.customer.response.CustomerDto;
+import org.sir.stripeintegration.core.application.dtos.customer.response.CustomerImportResultDto;
+import org.sir.stripeintegration.core.application.interfaces.service.IStripeGateway;
+import org.sir.stripeintegration.core.application.mappers.CustomerMapper;
+import org.sir.stripeintegration.core.shared.constant.ImportFormat;
+import org.sir.stripeintegration.core.shared.exceptions.CustomException;
+import org.sir.stripeintegration.infrastructure.persistance.repository.CustomerRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CustomerImportServiceTest {
+    private IStripeGateway stripeGateway;
+    private CustomerRepository customerRepository;
+    private CustomerImportService customerImportService;
+
+    @BeforeEach
+    void setUp() {
+        stripeGateway = mock(IStripeGateway.class);
+        customerRepository = mock(CustomerRepository.class);
+        customerImportService = new CustomerImportService(stripeGateway, customerRepository,
+                Mappers.getMapper(CustomerMapper.class), new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(), 4, 2);
+
+        when(customerRepository.findImportCheckpoint("imp_1")).thenReturn(Mono.empty());
+        when(customerRepository.insertBatch(anyList()))
+                .thenAnswer(invocation -> Mono.just((long) invocation.<List<?>>getArgument(0).size()));
+        when(customerRepository.saveImportCheckpoint(eq("imp_1"), anyLong())).thenReturn(Mono.empty());
+        when(stripeGateway.createCustomer(any(CustomerCreateRequestDto.class), anyString()))
+                .thenAnswer(invocation -> {
+                    CustomerCreateRequestDto requestDto = invocation.getArgument(0);
+                    return Mono.just(new CustomerDto("cus_" + requestDto.name, requestDto.email, requestDto.name, null, null));
+                });
+    }
+
+    @Test
+    void csvRowsAreCreatedInOrderAndStoredPerBatch() {
+        Flux<String> lines = Flux.just("email,name,phone", "a@example.com,A,", "not-an-email,B,",
+                "\"c@example.com\",\"C, Jr.\",123");
+
+        StepVerifier.create(customerImportService.importCustomers(ImportFormat.CSV, "imp_1", lines))
+                .assertNext(result -> assertResult(result, 1, CustomerImportResultDto.CREATED, "cus_A"))
+                .assertNext(result -> assertResult(result, 2, CustomerImportResultDto.FAILED, null))
+                .assertNext(result -> assertResult(result, 3, CustomerImportResultDto.CREATED, "cus_C, Jr."))
+                .verifyComplete();
+
+        verify(stripeGateway).createCustomer(any(CustomerCreateRequestDto.class), eq("customer-import-imp_1-1"));
+        verify(customerRepository, times(2)).insertBatch(argThat(customers -> customers.size() == 1));
+        verify(customerRepository).saveImportCheckpoint("imp_1", 2);
+        verify(customerRepository).saveImportCheckpoint("imp_1", 3);
+    }
+
+    @Test
+    void resumedImportSkipsRowsUpToTheCheckpoint() {
+        when(customerRepository.findImportCheckpoint("imp_1")).thenReturn(Mono.just(2L));
+        Flux<String> lines = Flux.just("{\"email\":\"a@example.com\",\"name\":\"A\"}",
+                "{\"email\":\"b@example.com\",\"name\":\"B\"}", "", "{\"email\":\"c@example.com\",\"name\":\"C\"}");
+
+        StepVerifier.create(customerImportService.importCustomers(ImportFormat.NDJSON, "imp_1", lines))
+                .assertNext(result -> assertResult(result, 1, CustomerImportResultDto.SKIPPED, null))
+                .assertNext(result -> assertResult(result, 2, CustomerImportResultDto.SKIPPED, null))
+                .assertNext(result -> assertResult(result, 3, CustomerImportResultDto.CREATED, "cus_C"))
+                .verifyComplete();
+
+        verify(stripeGateway, times(1)).createCustomer(any(CustomerCreateRequestDto.class), anyString());
+        verify(customerRepository, never()).saveImportCheckpoint("imp_1", 2);
+        verify(customerRepository).saveImportCheckpoint("imp_1", 3);
+    }
+
+    @Test
+    void stripeFailureFailsOnlyItsRow() {
+        when(stripeGateway.createCustomer(any(CustomerCreateRequestDto.class), eq("customer-import-imp_1-1")))
+                .thenReturn(Mono.error(new CustomException("Error when try to create customer on stripe")));
+        Flux<String> lines = Flux.just("{\"email\":\"a@example.com\",\"name\":\"A\"}",
+                "{\"email\":\"b@example.com\",\"name\":\"B\"}");
+
+        StepVerifier.create(customerImportService.importCustomers(ImportFormat.NDJSON, "imp_1", lines))
+                .assertNext(result -> {
+                    assertResult(result, 1, CustomerImportResultDto.FAILED, null);
+                    assertEquals("Error when try to create customer on stripe", result.getError());
+                })
+                .assertNext(result -> assertResult(result, 2, CustomerImportResultDto.CREATED, "cus_B"))
+                .verifyComplete();
+    }
+
+    @Test
+    void csvWithoutRequiredColumnsIsRejected() {
+        StepVerifier.create(customerImportService.importCustomers(
+                        ImportFormat.CSV, "imp_1", Flux.just("email,phone", "a@example.com,1")))
+                .expectError(CustomException.class)
+                .verify();
+    }
+
+    private static void assertResult(CustomerImportResultDto result, long line, String status, String customerId) {
+        assertEquals(line, result.getLine());
+        assertEquals(status, result.getStatus());
+        assertEquals(customerId, result.getCustomerId());
+    }
+}
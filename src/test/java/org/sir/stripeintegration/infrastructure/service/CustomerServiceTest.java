@@ -0,0 +1,67 @@
+package org.sir.stripeintegration.infrastructure.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.sir.stripeintegration.core.application.dtos.customer.response.CustomerDto;
+import org.sir.stripeintegration.core.application.interfaces.service.IStripeGateway;
+import org.sir.stripeintegration.core.application.mappers.CustomerMapper;
+import org.sir.stripeintegration.core.domain.CustomerEntity;
+import org.sir.stripeintegration.infrastructure.persistance.repository.CustomerRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CustomerServiceTest {
+    private CustomerRepository customerRepository;
+    private IStripeGateway stripeGateway;
+    private CustomerService customerService;
+
+    @BeforeEach
+    void setUp() {
+        customerRepository = mock(CustomerRepository.class);
+        stripeGateway = mock(IStripeGateway.class);
+        customerService = new CustomerService(customerRepository, stripeGateway,
+                Mappers.getMapper(CustomerMapper.class));
+    }
+
+    @Test
+    void customersAreListedLocally() {
+        CustomerEntity customer = new CustomerEntity();
+        customer.setId("cus_1");
+        customer.setEmail("a@example.com");
+        when(customerRepository.findCustomerPage("a@example.com", null, 100, "cus_0", null))
+                .thenReturn(Flux.just(customer));
+
+        StepVerifier.create(customerService.getAllCustomer("a@example.com", null, 500L, "cus_0", null))
+                .expectNextMatches(customerDto -> customerDto.getId().equals("cus_1"))
+                .verifyComplete();
+
+        verifyNoInteractions(stripeGateway);
+    }
+
+    @Test
+    void reconcileFollowsStripePagesAndSkipsCustomersWithoutEmail() {
+        List<CustomerDto> firstPage = IntStream.range(0, 100)
+                .mapToObj(i -> CustomerDto.builder().id("cus_" + i).email(i + "@example.com").build())
+                .toList();
+        when(stripeGateway.getAllCustomers(100L, null, null)).thenReturn(Flux.fromIterable(firstPage));
+        when(stripeGateway.getAllCustomers(100L, "cus_99", null))
+                .thenReturn(Flux.just(CustomerDto.builder().id("cus_100").build()));
+        when(customerRepository.upsert(any())).thenReturn(Mono.just(1L));
+
+        StepVerifier.create(customerService.reconcileCustomers())
+                .expectNext(100L)
+                .verifyComplete();
+
+        verify(stripeGateway).getAllCustomers(eq(100L), eq("cus_99"), eq(null));
+        verify(customerRepository, times(100)).upsert(any());
+    }
+}
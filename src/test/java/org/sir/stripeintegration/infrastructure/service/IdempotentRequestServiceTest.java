@@ -0,0 +1,141 @@
+package org.sir.stripeintegration.infrastructure.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.sir.stripeintegration.core.application.dtos.idempotency.response.IdempotentResponseDto;
+import org.sir.stripeintegration.core.domain.IdempotentRequestEntity;
+import org.sir.stripeintegration.core.shared.exceptions.IdempotencyKeyInUseException;
+import org.sir.stripeintegration.core.shared.exceptions.IdempotencyKeyReusedException;
+import org.sir.stripeintegration.infrastructure.persistance.repository.IdempotentRequestRepository;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class IdempotentRequestServiceTest {
+    private static final byte[] BODY = "{\"id\":\"pi_1\"}".getBytes(StandardCharsets.UTF_8);
+
+    private IdempotentRequestRepository idempotentRequestRepository;
+    private IdempotentRequestService idempotentRequestService;
+
+    @BeforeEach
+    void setUp() {
+        idempotentRequestRepository = mock(IdempotentRequestRepository.class);
+        idempotentRequestService = new IdempotentRequestService(idempotentRequestRepository,
+                60000, 1000, 200, 100, 60000, new SimpleMeterRegistry());
+        when(idempotentRequestRepository.claim(anyString(), anyString(), any(), any())).thenReturn(Mono.just(1));
+        when(idempotentRequestRepository.complete(anyString(), any(), any(), any(), any(), any(), anyString(), any()))
+                .thenReturn(Mono.just(1));
+        when(idempotentRequestRepository.release(anyString())).thenReturn(Mono.just(1));
+        when(idempotentRequestRepository.releaseClaim(anyString(), any())).thenReturn(Mono.just(1));
+    }
+
+    @Test
+    void completedRequestIsReplayedFromMemory() {
+        StepVerifier.create(idempotentRequestService.begin("jane", "key_1", "hash_1")).verifyComplete();
+        idempotentRequestService.complete("jane", "key_1", response("hash_1")).block();
+
+        StepVerifier.create(idempotentRequestService.begin("jane", "key_1", "hash_1"))
+                .assertNext(replayed -> assertEquals(201, replayed.statusCode))
+                .verifyComplete();
+        StepVerifier.create(idempotentRequestService.begin("jane", "key_1", "hash_2"))
+                .expectError(IdempotencyKeyReusedException.class)
+                .verify();
+        verify(idempotentRequestRepository, times(1)).claim(anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    void responseOfALostClaimIsNotStored() {
+        ArgumentCaptor<Instant> claimedOn = ArgumentCaptor.forClass(Instant.class);
+        when(idempotentRequestRepository.complete(anyString(), any(), any(), any(), any(), any(), anyString(), any()))
+                .thenReturn(Mono.just(0));
+
+        StepVerifier.create(idempotentRequestService.begin("jane", "key_1", "hash_1")).verifyComplete();
+        StepVerifier.create(idempotentRequestService.complete("jane", "key_1", response("hash_1"))).verifyComplete();
+
+        String id = IdempotentRequestService.id("jane", "key_1");
+        verify(idempotentRequestRepository).claim(eq(id), eq("hash_1"), any(), claimedOn.capture());
+        verify(idempotentRequestRepository).complete(eq(id), eq(201), any(), any(), any(), any(), eq("hash_1"),
+                eq(claimedOn.getValue()));
+        // not replayed from memory, the key is claimed again
+        StepVerifier.create(idempotentRequestService.begin("jane", "key_1", "hash_1")).verifyComplete();
+        verify(idempotentRequestRepository, times(2)).claim(anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    void concurrentRepeatWaitsForTheFirstRequest() {
+        StepVerifier.create(idempotentRequestService.begin("jane", "key_1", "hash_1")).verifyComplete();
+
+        Mono<IdempotentResponseDto> repeat = idempotentRequestService.begin("jane", "key_1", "hash_1").cache();
+        repeat.subscribe();
+        idempotentRequestService.complete("jane", "key_1", response("hash_1")).block();
+
+        StepVerifier.create(repeat)
+                .assertNext(replayed -> assertEquals("hash_1", replayed.requestHash))
+                .verifyComplete();
+    }
+
+    @Test
+    void repeatOfFailedRequestIsRejectedAndKeyIsFreed() {
+        StepVerifier.create(idempotentRequestService.begin("jane", "key_1", "hash_1")).verifyComplete();
+
+        Mono<IdempotentResponseDto> repeat = idempotentRequestService.begin("jane", "key_1", "hash_1").cache();
+        repeat.subscribe(response -> { }, ex -> { });
+        idempotentRequestService.release("jane", "key_1").block();
+
+        StepVerifier.create(repeat).expectError(IdempotencyKeyInUseException.class).verify();
+        StepVerifier.create(idempotentRequestService.begin("jane", "key_1", "hash_1")).verifyComplete();
+    }
+
+    @Test
+    void cancelledClaimIsReleasedAndKeyIsFreed() {
+        when(idempotentRequestRepository.claim(anyString(), anyString(), any(), any()))
+                .thenReturn(Mono.never(), Mono.just(1));
+
+        StepVerifier.create(idempotentRequestService.begin("jane", "key_1", "hash_1"))
+                .thenCancel()
+                .verify();
+
+        verify(idempotentRequestRepository).releaseClaim(eq(IdempotentRequestService.id("jane", "key_1")), any());
+        StepVerifier.create(idempotentRequestService.begin("jane", "key_1", "hash_1")).verifyComplete();
+    }
+
+    @Test
+    void requestOnAnotherInstanceIsReadFromTheTable() {
+        when(idempotentRequestRepository.claim(anyString(), anyString(), any(), any())).thenReturn(Mono.just(0));
+        IdempotentRequestEntity entity = new IdempotentRequestEntity();
+        entity.setRequestHash("hash_1");
+        entity.setStatusCode(201);
+        entity.setContentType("application/json");
+        entity.setResponseBody(BODY);
+        entity.setExpiresOn(Instant.now().plusSeconds(60));
+        when(idempotentRequestRepository.findLive(eq(IdempotentRequestService.id("jane", "key_1")), any()))
+                .thenReturn(Mono.just(entity));
+
+        StepVerifier.create(idempotentRequestService.begin("jane", "key_1", "hash_1"))
+                .assertNext(replayed -> assertEquals("application/json", replayed.contentType))
+                .verifyComplete();
+        IdempotentRequestEntity inFlight = new IdempotentRequestEntity();
+        inFlight.setRequestHash("hash_1");
+        inFlight.setExpiresOn(Instant.now().plusSeconds(1));
+        when(idempotentRequestRepository.findLive(eq(IdempotentRequestService.id("john", "key_1")), any()))
+                .thenReturn(Mono.just(inFlight));
+
+        StepVerifier.create(idempotentRequestService.begin("john", "key_1", "hash_1"))
+                .expectError(IdempotencyKeyInUseException.class)
+                .verify();
+    }
+
+    private static IdempotentResponseDto response(String requestHash) {
+        return new IdempotentResponseDto(requestHash, 201, "application/json", BODY);
+    }
+}
@@ -0,0 +1,94 @@
+package org.sir.stripeintegration.infrastructure.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.mockito.ArgumentCaptor;
+import org.sir.stripeintegration.core.application.dtos.invoice.response.InvoiceDto;
+import org.sir.stripeintegration.core.application.dtos.invoice.response.InvoiceLineDto;
+import org.sir.stripeintegration.core.application.mappers.InvoiceMapper;
+import org.sir.stripeintegration.core.domain.CustomerEntity;
+import org.sir.stripeintegration.core.domain.InvoiceEntity;
+import org.sir.stripeintegration.core.domain.InvoiceLineEntity;
+import org.sir.stripeintegration.infrastructure.persistance.repository.CustomerRepository;
+import org.sir.stripeintegration.infrastructure.persistance.repository.InvoiceRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class InvoiceServiceTest {
+    private CustomerRepository customerRepository;
+    private InvoiceRepository invoiceRepository;
+    private InvoiceService invoiceService;
+
+    @BeforeEach
+    void setUp() {
+        customerRepository = mock(CustomerRepository.class);
+        invoiceRepository = mock(InvoiceRepository.class);
+        invoiceService = new InvoiceService(customerRepository, invoiceRepository,
+                Mappers.getMapper(InvoiceMapper.class));
+    }
+
+    @Test
+    void pageLinesAreLoadedInOneQuery() {
+        when(customerRepository.findById("cus_1")).thenReturn(Mono.just(new CustomerEntity()));
+        when(invoiceRepository.findCustomerInvoicePage("cus_1", null, 10, null, null))
+                .thenReturn(Flux.just(invoice("in_2"), invoice("in_1")));
+        when(invoiceRepository.findLines(List.of("in_2", "in_1")))
+                .thenReturn(Flux.just(line("il_1", "in_1", 0), line("il_2", "in_1", 1)));
+
+        StepVerifier.create(invoiceService.getCustomerAllInvoice("cus_1", null, null, null, null))
+                .assertNext(invoice -> assertEquals(0, invoice.getLines().size()))
+                .assertNext(invoice -> assertEquals(List.of("il_1", "il_2"),
+                        invoice.getLines().stream().map(InvoiceLineDto::getId).toList()))
+                .verifyComplete();
+
+        verify(invoiceRepository, times(1)).findLines(anyList());
+    }
+
+    @Test
+    void syncStoresLinesInStripeOrder() {
+        when(invoiceRepository.upsertWithLines(any(), anyList())).thenReturn(Mono.just(1L));
+        InvoiceDto invoiceDto = InvoiceDto.builder()
+                .id("in_1")
+                .customerId("cus_1")
+                .status("paid")
+                .created(1700000000L)
+                .lines(List.of(InvoiceLineDto.builder().id("il_b").build(), InvoiceLineDto.builder().id("il_a").build()))
+                .build();
+
+        StepVerifier.create(invoiceService.syncInvoice(invoiceDto)).verifyComplete();
+
+        ArgumentCaptor<InvoiceEntity> invoice = ArgumentCaptor.forClass(InvoiceEntity.class);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<InvoiceLineEntity>> lines = ArgumentCaptor.forClass(List.class);
+        verify(invoiceRepository).upsertWithLines(invoice.capture(), lines.capture());
+        assertEquals(Instant.ofEpochSecond(1700000000L), invoice.getValue().getCreatedOn());
+        assertEquals("il_a", lines.getValue().get(1).getId());
+        assertEquals(1, lines.getValue().get(1).getPosition());
+        assertEquals("in_1", lines.getValue().get(1).getInvoiceId());
+    }
+
+    private static InvoiceEntity invoice(String id) {
+        InvoiceEntity invoiceEntity = new InvoiceEntity();
+        invoiceEntity.setId(id);
+        invoiceEntity.setCustomerId("cus_1");
+        return invoiceEntity;
+    }
+
+    private static InvoiceLineEntity line(String id, String invoiceId, int position) {
+        InvoiceLineEntity invoiceLineEntity = new InvoiceLineEntity();
+        invoiceLineEntity.setId(id);
+        invoiceLineEntity.setInvoiceId(invoiceId);
+        invoiceLineEntity.setPosition(position);
+        return invoiceLineEntity;
+    }
+}
@@ -0,0 +1,50 @@
+package org.sir.stripeintegration.infrastructure.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.sir.stripeintegration.core.application.mappers.ProductMapper;
+import org.sir.stripeintegration.core.application.mappers.ProductPriceMapper;
+import org.sir.stripeintegration.core.domain.ProductPriceEntity;
+import org.sir.stripeintegration.infrastructure.persistance.repository.ProductPriceRepository;
+import org.sir.stripeintegration.infrastructure.persistance.repository.ProductRepository;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LocalCatalogReadServiceTest {
+    private ProductPriceRepository productPriceRepository;
+    private LocalCatalogReadService localCatalogReadService;
+
+    @BeforeEach
+    void setUp() {
+        productPriceRepository = mock(ProductPriceRepository.class);
+        localCatalogReadService = new LocalCatalogReadService(mock(ProductRepository.class), productPriceRepository,
+                Mappers.getMapper(ProductMapper.class), Mappers.getMapper(ProductPriceMapper.class));
+    }
+
+    @Test
+    void priceListUsesStoredTypeAndMapsRecurring() {
+        ProductPriceEntity price = new ProductPriceEntity("price_1", "prod_1", "recurring", null, "usd",
+                true, 1000L, "month", 1L, "licensed", null, false);
+        when(productPriceRepository.findPricePage("prod_1", true, "recurring", 10, null, null))
+                .thenReturn(Flux.just(price));
+
+        StepVerifier.create(localCatalogReadService.getProductAllPrices("prod_1", true, "RECURRING", null, null, null))
+                .assertNext(priceDto -> {
+                    assertEquals("price_1", priceDto.getId());
+                    assertEquals("month", priceDto.recurring.getInterval());
+                    assertEquals(1L, priceDto.recurring.getIntervalCount());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void limitIsClampedLikeStripe() {
+        assertEquals(10, LocalCatalogReadService.pageSize(null));
+        assertEquals(1, LocalCatalogReadService.pageSize(0L));
+        assertEquals(100, LocalCatalogReadService.pageSize(500L));
+    }
+}
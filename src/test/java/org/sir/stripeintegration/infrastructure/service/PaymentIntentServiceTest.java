@@ -0,0 +1,86 @@
+package org.sir.stripeintegration.infrastructure.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.sir.stripeintegration.core.application.dtos.paymentIntent.request.CreatePaymentIntentRequestDto;
+import org.sir.stripeintegration.core.application.dtos.paymentIntent.response.PaymentIntentDto;
+import org.sir.stripeintegration.core.application.interfaces.service.IStripeGateway;
+import org.sir.stripeintegration.core.application.mappers.PaymentIntentMapper;
+import org.sir.stripeintegration.core.domain.CustomerEntity;
+import org.sir.stripeintegration.core.shared.exceptions.CustomException;
+import org.sir.stripeintegration.infrastructure.persistance.repository.CustomerRepository;
+import org.sir.stripeintegration.infrastructure.persistance.repository.PaymentIntentRepository;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PaymentIntentServiceTest {
+    private static final CreatePaymentIntentRequestDto REQUEST = new CreatePaymentIntentRequestDto("cus_1", 2500, "usd");
+
+    private CustomerRepository customerRepository;
+    private IStripeGateway stripeGateway;
+    private PaymentIntentService paymentIntentService;
+
+    @BeforeEach
+    void setUp() {
+        PaymentIntentRepository paymentIntentRepository = mock(PaymentIntentRepository.class);
+        customerRepository = mock(CustomerRepository.class);
+        stripeGateway = mock(IStripeGateway.class);
+        paymentIntentService = new PaymentIntentService(paymentIntentRepository, customerRepository, stripeGateway,
+                Mappers.getMapper(PaymentIntentMapper.class));
+
+        when(paymentIntentRepository.save(any())).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(stripeGateway.createPaymentIntent(eq(REQUEST), anyString()))
+                .thenReturn(Mono.just(PaymentIntentDto.builder().id("pi_1").customerId("cus_1").build()));
+    }
+
+    @Test
+    void storedDefaultPaymentMethodNeedsOneStripeCall() {
+        when(customerRepository.findById("cus_1")).thenReturn(Mono.just(customer("pm_1")));
+
+        StepVerifier.create(paymentIntentService.addCustomerPaymentIntent(REQUEST))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verify(stripeGateway).createPaymentIntent(REQUEST, "pm_1");
+        verify(stripeGateway, never()).getCustomerDefaultPaymentMethodId(any());
+    }
+
+    @Test
+    void missingDefaultPaymentMethodIsLoadedOnceAndStored() {
+        when(customerRepository.findById("cus_1")).thenReturn(Mono.just(customer(null)));
+        when(stripeGateway.getCustomerDefaultPaymentMethodId("cus_1")).thenReturn(Mono.just("pm_2"));
+        when(customerRepository.updateDefaultPaymentMethod(eq("cus_1"), eq("pm_2"), any())).thenReturn(Mono.just(1L));
+
+        StepVerifier.create(paymentIntentService.addCustomerPaymentIntent(REQUEST))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verify(customerRepository).updateDefaultPaymentMethod(eq("cus_1"), eq("pm_2"), any());
+        verify(stripeGateway).createPaymentIntent(REQUEST, "pm_2");
+    }
+
+    @Test
+    void customerWithoutDefaultPaymentMethodIsRejected() {
+        when(customerRepository.findById("cus_1")).thenReturn(Mono.just(customer(null)));
+        when(stripeGateway.getCustomerDefaultPaymentMethodId("cus_1")).thenReturn(Mono.empty());
+
+        StepVerifier.create(paymentIntentService.addCustomerPaymentIntent(REQUEST))
+                .expectError(CustomException.class)
+                .verify();
+
+        verify(stripeGateway, never()).createPaymentIntent(any(), any());
+    }
+
+    private static CustomerEntity customer(String defaultPaymentMethodId) {
+        CustomerEntity customer = new CustomerEntity();
+        customer.setId("cus_1");
+        customer.setDefaultPaymentMethodId(defaultPaymentMethodId);
+        return customer;
+    }
+}
@@ -0,0 +1,110 @@
+package org.sir.stripeintegration.infrastructure.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.mockito.ArgumentCaptor;
+import org.sir.stripeintegration.core.application.dtos.subscription.response.SubscriptionDto;
+import org.sir.stripeintegration.core.application.interfaces.service.IStripeGateway;
+import org.sir.stripeintegration.core.application.mappers.SubscriptionMapper;
+import org.sir.stripeintegration.core.domain.SubscriptionEntity;
+import org.sir.stripeintegration.core.shared.dtoModels.SubscriptionItemDto;
+import org.sir.stripeintegration.core.shared.exceptions.CustomException;
+import org.sir.stripeintegration.infrastructure.persistance.repository.CustomerRepository;
+import org.sir.stripeintegration.infrastructure.persistance.repository.SubscriptionRepository;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SubscriptionServiceTest {
+    private SubscriptionRepository subscriptionRepository;
+    private IStripeGateway stripeGateway;
+    private SubscriptionService subscriptionService;
+
+    @BeforeEach
+    void setUp() {
+        subscriptionRepository = mock(SubscriptionRepository.class);
+        stripeGateway = mock(IStripeGateway.class);
+        subscriptionService = new SubscriptionService(mock(CustomerRepository.class), subscriptionRepository,
+                stripeGateway, Mappers.getMapper(SubscriptionMapper.class));
+    }
+
+    @Test
+    void subscriptionIsReadLocally() {
+        SubscriptionEntity subscriptionEntity = new SubscriptionEntity();
+        subscriptionEntity.setId("sub_1");
+        subscriptionEntity.setStatus("active");
+        subscriptionEntity.setItemPriceIds(List.of("price_1", "price_2"));
+        subscriptionEntity.setItemQuantities(List.of(1L, 3L));
+        when(subscriptionRepository.findById("sub_1")).thenReturn(Mono.just(subscriptionEntity));
+
+        StepVerifier.create(subscriptionService.getSubscription("sub_1"))
+                .assertNext(subscription -> {
+                    assertEquals("active", subscription.getStatus());
+                    assertEquals(new SubscriptionItemDto("price_2", 3L), subscription.getItems().get(1));
+                })
+                .verifyComplete();
+
+        verifyNoInteractions(stripeGateway);
+    }
+
+    @Test
+    void missingSubscriptionIsNotLoadedFromStripe() {
+        when(subscriptionRepository.findById("sub_1")).thenReturn(Mono.empty());
+
+        StepVerifier.create(subscriptionService.getSubscription("sub_1"))
+                .expectError(CustomException.class)
+                .verify();
+
+        verifyNoInteractions(stripeGateway);
+    }
+
+    @Test
+    void refreshStoresStripeState() {
+        SubscriptionDto subscriptionDto = SubscriptionDto.builder()
+                .id("sub_1")
+                .customerId("cus_1")
+                .status("past_due")
+                .created(1700000000L)
+                .items(List.of(new SubscriptionItemDto("price_1", 2L)))
+                .build();
+        when(stripeGateway.getSubscription("sub_1")).thenReturn(Mono.just(subscriptionDto));
+        when(subscriptionRepository.upsert(any())).thenReturn(Mono.just(1L));
+
+        StepVerifier.create(subscriptionService.refreshSubscription("sub_1"))
+                .expectNext(subscriptionDto)
+                .verifyComplete();
+
+        ArgumentCaptor<SubscriptionEntity> stored = ArgumentCaptor.forClass(SubscriptionEntity.class);
+        verify(subscriptionRepository).upsert(stored.capture());
+        assertEquals("past_due", stored.getValue().getStatus());
+        assertEquals(List.of("price_1"), stored.getValue().getItemPriceIds());
+        assertEquals(List.of(2L), stored.getValue().getItemQuantities());
+        assertEquals(Instant.ofEpochSecond(1700000000L), stored.getValue().getCreatedOn());
+        assertNotNull(stored.getValue().getStripeUpdatedAt());
+    }
+
+    @Test
+    void webhookStateCarriesEventTime() {
+        SubscriptionDto subscriptionDto = SubscriptionDto.builder()
+                .id("sub_1")
+                .customerId("cus_1")
+                .status("active")
+                .build();
+        when(subscriptionRepository.upsert(any())).thenReturn(Mono.just(0L));
+
+        StepVerifier.create(subscriptionService.syncSubscription(subscriptionDto, Instant.ofEpochSecond(1700000500L)))
+                .verifyComplete();
+
+        ArgumentCaptor<SubscriptionEntity> stored = ArgumentCaptor.forClass(SubscriptionEntity.class);
+        verify(subscriptionRepository).upsert(stored.capture());
+        assertEquals(Instant.ofEpochSecond(1700000500L), stored.getValue().getStripeUpdatedAt());
+    }
+}
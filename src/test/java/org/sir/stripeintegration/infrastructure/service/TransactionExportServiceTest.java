@@ -0,0 +1,90 @@
+package org.sir.stripeintegration.infrastructure.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.sir.stripeintegration.core.application.mappers.TransactionMapper;
+import org.sir.stripeintegration.core.domain.TransactionEntity;
+import org.sir.stripeintegration.core.shared.constant.ExportFormat;
+import org.sir.stripeintegration.core.shared.exceptions.CustomException;
+import org.sir.stripeintegration.infrastructure.persistance.repository.TransactionRepository;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TransactionExportServiceTest {
+    private static final UUID ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final Instant CREATED_ON = Instant.parse("2024-01-01T10:00:00Z");
+
+    private TransactionRepository transactionRepository;
+    private TransactionExportService transactionExportService;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository = mock(TransactionRepository.class);
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        transactionExportService = new TransactionExportService(
+                transactionRepository, objectMapper, 2, Mappers.getMapper(TransactionMapper.class));
+
+        when(transactionRepository.streamTransactions(any(), any(), any(), eq(2)))
+                .thenReturn(Flux.just(transaction("cus_1"), transaction("cus,\"quoted\""), transaction("cus_3")));
+    }
+
+    @Test
+    void csvExportHasHeaderAndEscapedRowsInChunks() {
+        StepVerifier.create(transactionExportService.exportTransactions(ExportFormat.CSV, null, null, null))
+                .assertNext(header -> assertTrue(header.startsWith("id,eventId,customerId")))
+                .assertNext(chunk -> assertEquals(
+                        ID + ",evt_1,cus_1,pi_1,1000,true,2024-01-01T10:00:00Z\n" +
+                                ID + ",evt_1,\"cus,\"\"quoted\"\"\",pi_1,1000,true,2024-01-01T10:00:00Z\n", chunk))
+                .assertNext(chunk -> assertTrue(chunk.contains("cus_3")))
+                .verifyComplete();
+    }
+
+    @Test
+    void ndjsonExportHasOneObjectPerLine() {
+        StepVerifier.create(transactionExportService.exportTransactions(ExportFormat.NDJSON, null, null, null)
+                        .collectList())
+                .assertNext(chunks -> {
+                    String[] lines = String.join("", chunks).split("\n");
+                    assertEquals(3, lines.length);
+                    assertTrue(lines[0].contains("\"customerId\":\"cus_1\""));
+                    assertTrue(lines[0].contains("\"createdOn\":\"2024-01-01T10:00:00Z\""));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void invalidRangeIsRejected() {
+        StepVerifier.create(transactionExportService.exportTransactions(
+                        ExportFormat.CSV, null, CREATED_ON, CREATED_ON.minusSeconds(1)))
+                .expectError(CustomException.class)
+                .verify();
+    }
+
+    private static TransactionEntity transaction(String customerId) {
+        TransactionEntity transactionEntity = TransactionEntity.builder()
+                .id(ID)
+                .eventId("evt_1")
+                .customerId(customerId)
+                .paymentIntentId("pi_1")
+                .amount(1000L)
+                .isSuccess(true)
+                .build();
+        transactionEntity.setCreatedOn(CREATED_ON);
+        return transactionEntity;
+    }
+}
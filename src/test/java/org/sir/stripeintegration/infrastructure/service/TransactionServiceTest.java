@@ -0,0 +1,84 @@
+package org.sir.stripeintegration.infrastructure.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.sir.stripeintegration.core.application.mappers.TransactionMapper;
+import org.sir.stripeintegration.core.domain.TransactionEntity;
+import org.sir.stripeintegration.core.shared.exceptions.CustomException;
+import org.sir.stripeintegration.infrastructure.persistance.repository.TransactionRepository;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TransactionServiceTest {
+    private TransactionRepository transactionRepository;
+    private TransactionService transactionService;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository = mock(TransactionRepository.class);
+        transactionService = new TransactionService(transactionRepository, Mappers.getMapper(TransactionMapper.class));
+    }
+
+    @Test
+    void fullPageReturnsTokenOfLastRow() {
+        TransactionEntity first = transaction(Instant.parse("2024-01-03T00:00:00Z"));
+        TransactionEntity second = transaction(Instant.parse("2024-01-02T00:00:00Z"));
+        TransactionEntity extra = transaction(Instant.parse("2024-01-01T00:00:00Z"));
+        when(transactionRepository.getTransactionFirstPage("cus_1", 3)).thenReturn(Flux.just(first, second, extra));
+        when(transactionRepository.getTransactionPageAfter(any(), any(), any(), any())).thenReturn(Flux.empty());
+
+        String token = transactionService.getCustomerAllTransaction("cus_1", 2, null).block().getNextPageToken();
+        assertNotNull(token);
+
+        StepVerifier.create(transactionService.getCustomerAllTransaction("cus_1", 2, token))
+                .assertNext(page -> {
+                    assertTrue(page.getItems().isEmpty());
+                    assertNull(page.getNextPageToken());
+                })
+                .verifyComplete();
+
+        verify(transactionRepository).getTransactionPageAfter(
+                eq("cus_1"), eq(second.getCreatedOn()), eq(second.getId()), eq(3));
+    }
+
+    @Test
+    void lastPageHasNoToken() {
+        when(transactionRepository.getTransactionFirstPage("cus_1", 11))
+                .thenReturn(Flux.just(transaction(Instant.now())));
+
+        StepVerifier.create(transactionService.getCustomerAllTransaction("cus_1", null, null))
+                .assertNext(page -> {
+                    assertEquals(1, page.getItems().size());
+                    assertNull(page.getNextPageToken());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void invalidTokenIsRejected() {
+        StepVerifier.create(transactionService.getCustomerAllTransaction("cus_1", 10, "not-a-token"))
+                .expectError(CustomException.class)
+                .verify();
+    }
+
+    private static TransactionEntity transaction(Instant createdOn) {
+        TransactionEntity transactionEntity = TransactionEntity.builder()
+                .id(UUID.randomUUID())
+                .customerId("cus_1")
+                .paymentIntentId("pi_1")
+                .amount(1000L)
+                .isSuccess(true)
+                .build();
+        transactionEntity.setCreatedOn(createdOn);
+        return transactionEntity;
+    }
+}
@@ -0,0 +1,127 @@
+package org.sir.stripeintegration.infrastructure.service.stripe;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sir.stripeintegration.core.application.dtos.product.response.ProductDto;
+import org.sir.stripeintegration.core.application.interfaces.service.ICatalogSyncService;
+import org.sir.stripeintegration.core.application.interfaces.service.IStripeGateway;
+import org.sir.stripeintegration.core.domain.ProductEntity;
+import org.sir.stripeintegration.core.shared.constant.StripeOperation;
+import org.sir.stripeintegration.core.shared.exceptions.StripeGatewayException;
+import org.sir.stripeintegration.infrastructure.persistance.repository.ProductRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class CatalogReconciliationJobTest {
+    private IStripeGateway stripeGateway;
+    private ICatalogSyncService catalogSyncService;
+    private ProductRepository productRepository;
+    private CatalogReconciliationJob job;
+
+    @BeforeEach
+    void setUp() {
+        stripeGateway = mock(IStripeGateway.class);
+        catalogSyncService = mock(ICatalogSyncService.class);
+        productRepository = mock(ProductRepository.class);
+        job = new CatalogReconciliationJob(stripeGateway, catalogSyncService, productRepository, 60000);
+
+        when(catalogSyncService.upsertProduct(any())).thenReturn(Mono.empty());
+        when(catalogSyncService.deleteProduct(any())).thenReturn(Mono.empty());
+        when(stripeGateway.getProductAllPrices(any(), any(), any(), any(), any(), any())).thenReturn(Flux.empty());
+    }
+
+    @Test
+    void followsPagesAndDeletesProductsMissingInStripe() {
+        Flux<ProductDto> firstPage = Flux.range(0, (int) CatalogReconciliationJob.PAGE_SIZE)
+                .map(i -> product("prod_" + i));
+        when(stripeGateway.getAllProducts(isNull(), isNull(), any(), isNull(), isNull())).thenReturn(firstPage);
+        when(stripeGateway.getAllProducts(isNull(), isNull(), any(), eq("prod_99"), isNull()))
+                .thenReturn(Flux.just(product("prod_100")));
+        when(productRepository.findAll()).thenReturn(Flux.just(entity("prod_5"), entity("prod_gone")));
+        when(stripeGateway.getProductById("prod_gone")).thenReturn(Mono.error(notFound()));
+
+        StepVerifier.create(job.reconcile()).verifyComplete();
+
+        verify(catalogSyncService, times(101)).upsertProduct(any());
+        verify(catalogSyncService).deleteProduct("prod_gone");
+        verify(catalogSyncService, never()).deleteProduct("prod_5");
+    }
+
+    @Test
+    void productCreatedDuringScanIsKept() {
+        when(stripeGateway.getAllProducts(any(), any(), any(), any(), any())).thenReturn(Flux.just(product("prod_1")));
+        ProductEntity createdDuringScan = entity("prod_new");
+        createdDuringScan.setCreatedOn(Instant.now().plusSeconds(60));
+        when(productRepository.findAll()).thenReturn(Flux.just(createdDuringScan));
+
+        StepVerifier.create(job.reconcile()).verifyComplete();
+
+        verify(stripeGateway, never()).getProductById(any());
+        verify(catalogSyncService, never()).deleteProduct(any());
+    }
+
+    @Test
+    void productStillInStripeIsKept() {
+        when(stripeGateway.getAllProducts(any(), any(), any(), any(), any())).thenReturn(Flux.empty());
+        when(productRepository.findAll()).thenReturn(Flux.just(entity("prod_missed")));
+        when(stripeGateway.getProductById("prod_missed")).thenReturn(Mono.just(product("prod_missed")));
+
+        StepVerifier.create(job.reconcile()).verifyComplete();
+
+        verify(catalogSyncService).upsertProduct(argThat(productDto -> "prod_missed".equals(productDto.id)));
+        verify(catalogSyncService, never()).deleteProduct(any());
+    }
+
+    @Test
+    void failedCheckKeepsProduct() {
+        when(stripeGateway.getAllProducts(any(), any(), any(), any(), any())).thenReturn(Flux.empty());
+        when(productRepository.findAll()).thenReturn(Flux.just(entity("prod_1")));
+        when(stripeGateway.getProductById("prod_1")).thenReturn(Mono.error(new StripeGatewayException(
+                StripeOperation.PRODUCT_RETRIEVE, 503, null, null, "unavailable", null)));
+
+        StepVerifier.create(job.reconcile()).verifyComplete();
+
+        verify(catalogSyncService, never()).deleteProduct(any());
+    }
+
+    @Test
+    void failedScanDeletesNothing() {
+        when(stripeGateway.getAllProducts(any(), any(), any(), any(), any()))
+                .thenReturn(Flux.concat(
+                        Flux.fromStream(IntStream.range(0, 3).mapToObj(i -> product("prod_" + i))),
+                        Flux.error(new IllegalStateException("stripe down"))));
+        when(productRepository.findAll()).thenReturn(Flux.just(entity("prod_gone")));
+
+        StepVerifier.create(job.reconcile()).expectError(IllegalStateException.class).verify();
+
+        verify(catalogSyncService, never()).deleteProduct(any());
+    }
+
+    private static ProductDto product(String id) {
+        ProductDto productDto = new ProductDto();
+        productDto.setId(id);
+        return productDto;
+    }
+
+    private static ProductEntity entity(String id) {
+        ProductEntity productEntity = new ProductEntity();
+        productEntity.setId(id);
+        productEntity.setCreatedOn(Instant.parse("2024-01-01T00:00:00Z"));
+        return productEntity;
+    }
+
+    private static StripeGatewayException notFound() {
+        return new StripeGatewayException(StripeOperation.PRODUCT_RETRIEVE, 404, "resource_missing", null,
+                "No such product", null);
+    }
+}
@@ -0,0 +1,65 @@
+package org.sir.stripeintegration.infrastructure.service.stripe;
+
+import com.stripe.model.Customer;
+import com.stripe.net.ApiResource;
+import com.stripe.net.LiveStripeResponseGetter;
+import com.stripe.net.RequestOptions;
+import com.stripe.net.StripeResponseGetter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sir.stripeintegration.support.FakeStripeServer;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReactorNettyStripeHttpClientTest {
+    private static final RequestOptions OPTIONS = RequestOptions.builder().setApiKey("sk_test_fake").build();
+
+    private FakeStripeServer stripeServer;
+    private SimpleMeterRegistry meterRegistry;
+    private StripeHttpTransport transport;
+    private StripeResponseGetter responseGetter;
+
+    @BeforeEach
+    void setUp() {
+        stripeServer = FakeStripeServer.start();
+        meterRegistry = new SimpleMeterRegistry();
+        Metrics.addRegistry(meterRegistry);
+        transport = newTransport(stripeServer.getBaseUrl());
+        responseGetter = new LiveStripeResponseGetter(new ReactorNettyStripeHttpClient(transport));
+    }
+
+    @AfterEach
+    void tearDown() {
+        transport.close();
+        stripeServer.close();
+        Metrics.removeRegistry(meterRegistry);
+    }
+
+    @Test
+    void sdkRequestsShareOnePooledConnection() throws Exception {
+        Customer created = responseGetter.request(ApiResource.RequestMethod.POST,
+                stripeServer.getBaseUrl() + "/v1/customers", Map.of("email", "jane@example.com", "name", "Jane"),
+                Customer.class, OPTIONS);
+        Customer retrieved = responseGetter.request(ApiResource.RequestMethod.GET,
+                stripeServer.getBaseUrl() + "/v1/customers/" + created.getId(), Map.of(), Customer.class, OPTIONS);
+
+        assertEquals("jane@example.com", retrieved.getEmail());
+        assertEquals("Jane", retrieved.getName());
+        assertEquals(2, stripeServer.getRequestCount());
+        assertEquals(1, meterRegistry.find("reactor.netty.connection.provider.total.connections")
+                .tag("name", StripeHttpTransport.POOL_NAME)
+                .gauges().stream()
+                .mapToDouble(Gauge::value)
+                .sum());
+    }
+
+    static StripeHttpTransport newTransport(String apiBase) {
+        return new StripeHttpTransport(apiBase, 10, 5000, 30000, 300000, 5000, 10000, true);
+    }
+}
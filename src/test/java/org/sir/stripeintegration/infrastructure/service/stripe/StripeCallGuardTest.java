@@ -0,0 +1,110 @@
+package org.sir.stripeintegration.infrastructure.service.stripe;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sir.stripeintegration.core.shared.constant.StripeOperation;
+import org.sir.stripeintegration.core.shared.exceptions.StripeGatewayException;
+import org.sir.stripeintegration.core.shared.exceptions.StripeUnavailableException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StripeCallGuardTest {
+    private AtomicLong nanoTime;
+    private AtomicInteger stripeCalls;
+    private StripeCallGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        nanoTime = new AtomicLong();
+        stripeCalls = new AtomicInteger();
+        CircuitBreakerConfig circuitBreakerConfig = CircuitBreakerConfig.custom()
+                .failureRateThreshold(100)
+                .slidingWindowSize(2)
+                .minimumNumberOfCalls(2)
+                .recordException(ex -> ex instanceof StripeGatewayException stripeGatewayException
+                        && stripeGatewayException.isTransient() && !stripeGatewayException.isRateLimited())
+                .build();
+        guard = new StripeCallGuard(1, 1, 0, 1000, circuitBreakerConfig, nanoTime::get, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void readAndWriteCallsHaveSeparateBudgets() {
+        StepVerifier.create(guard.guard(StripeOperation.CUSTOMER_CREATE, ok())).expectNext("ok").verifyComplete();
+        StepVerifier.create(guard.guard(StripeOperation.CUSTOMER_UPDATE, ok()))
+                .expectError(StripeUnavailableException.class)
+                .verify();
+        StepVerifier.create(guard.guard(StripeOperation.CUSTOMER_LIST, ok())).expectNext("ok").verifyComplete();
+
+        nanoTime.addAndGet(Duration.ofSeconds(1).toNanos());
+        StepVerifier.create(guard.guard(StripeOperation.CUSTOMER_UPDATE, ok())).expectNext("ok").verifyComplete();
+        assertEquals(3, stripeCalls.get());
+    }
+
+    @Test
+    void rateLimitedResponsePausesItsBudgetForRetryAfter() {
+        StepVerifier.create(guard.guard(StripeOperation.PRICE_CREATE, failure(429, Duration.ofSeconds(5), null)))
+                .expectError(StripeGatewayException.class)
+                .verify();
+
+        nanoTime.addAndGet(Duration.ofSeconds(2).toNanos());
+        StepVerifier.create(guard.guard(StripeOperation.PRICE_CREATE, ok()))
+                .expectError(StripeUnavailableException.class)
+                .verify();
+
+        nanoTime.addAndGet(Duration.ofSeconds(3).toNanos());
+        StepVerifier.create(guard.guard(StripeOperation.PRICE_CREATE, ok())).expectNext("ok").verifyComplete();
+        assertEquals(CircuitBreaker.State.CLOSED, guard.getCircuitBreakerState());
+    }
+
+    @Test
+    void serverErrorsOpenTheCircuitButClientErrorsDoNot() {
+        StepVerifier.create(guard.guard(StripeOperation.PRODUCT_RETRIEVE, failure(404, null, null)))
+                .expectError(StripeGatewayException.class)
+                .verify();
+        nanoTime.addAndGet(Duration.ofSeconds(1).toNanos());
+        StepVerifier.create(guard.guard(StripeOperation.PRODUCT_RETRIEVE, failure(409, null, false)))
+                .expectError(StripeGatewayException.class)
+                .verify();
+        assertEquals(CircuitBreaker.State.CLOSED, guard.getCircuitBreakerState());
+
+        nanoTime.addAndGet(Duration.ofSeconds(1).toNanos());
+        StepVerifier.create(guard.guard(StripeOperation.PRODUCT_RETRIEVE, failure(500, null, null)))
+                .expectError(StripeGatewayException.class)
+                .verify();
+        nanoTime.addAndGet(Duration.ofSeconds(1).toNanos());
+        StepVerifier.create(guard.guard(StripeOperation.PRODUCT_RETRIEVE, failure(503, null, null)))
+                .expectError(StripeGatewayException.class)
+                .verify();
+        assertEquals(CircuitBreaker.State.OPEN, guard.getCircuitBreakerState());
+
+        int callsBefore = stripeCalls.get();
+        StepVerifier.create(guard.guard(StripeOperation.PRODUCT_CREATE, ok()))
+                .expectError(StripeUnavailableException.class)
+                .verify();
+        assertEquals(callsBefore, stripeCalls.get());
+    }
+
+    private Mono<String> ok() {
+        return Mono.fromSupplier(() -> {
+            stripeCalls.incrementAndGet();
+            return "ok";
+        });
+    }
+
+    private Mono<String> failure(int httpStatus, Duration retryAfter, Boolean shouldRetry) {
+        return Mono.defer(() -> {
+            stripeCalls.incrementAndGet();
+            return Mono.error(new StripeGatewayException(StripeOperation.PRODUCT_RETRIEVE, httpStatus, null,
+                    "req_1", "failed", retryAfter, shouldRetry, null));
+        });
+    }
+}
@@ -0,0 +1,83 @@
+package org.sir.stripeintegration.infrastructure.service.stripe;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sir.stripeintegration.core.application.dtos.product.response.ProductDto;
+import org.sir.stripeintegration.core.shared.exceptions.CustomException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StripeCatalogCacheTest {
+    private SimpleMeterRegistry meterRegistry;
+    private StripeCatalogCache cache;
+    private AtomicInteger stripeCalls;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new StripeCatalogCache(60000, 100, meterRegistry);
+        stripeCalls = new AtomicInteger();
+    }
+
+    @Test
+    void secondLookupIsServedFromCache() {
+        cache.getProduct("prod_1", () -> load("prod_1")).block();
+        cache.getProduct("prod_1", () -> load("prod_1")).block();
+
+        assertEquals(1, stripeCalls.get());
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "stripe.products").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void evictedProductIsLoadedAgain() {
+        cache.getProduct("prod_1", () -> load("prod_1")).block();
+        cache.evictProduct("prod_1");
+        cache.getProduct("prod_1", () -> load("prod_1")).block();
+
+        assertEquals(2, stripeCalls.get());
+    }
+
+    @Test
+    void failedLoadIsNotCached() {
+        StepVerifier.create(cache.getProduct("prod_1", () -> Mono.error(new CustomException("stripe down"))))
+                .expectError(CustomException.class)
+                .verify();
+
+        StepVerifier.create(cache.getProduct("prod_1", () -> load("prod_1")))
+                .assertNext(product -> assertEquals("prod_1", product.getId()))
+                .verifyComplete();
+    }
+
+    @Test
+    void productListIsCachedPerParametersAndEvictedWithProducts() {
+        cache.getProducts(Arrays.asList(true, null, 10L, null, null), this::loadList).collectList().block();
+        cache.getProducts(Arrays.asList(true, null, 10L, null, null), this::loadList).collectList().block();
+        cache.getProducts(Arrays.asList(false, null, 10L, null, null), this::loadList).collectList().block();
+        assertEquals(2, stripeCalls.get());
+
+        cache.evictProduct("prod_1");
+        cache.getProducts(Arrays.asList(true, null, 10L, null, null), this::loadList).collectList().block();
+        assertEquals(3, stripeCalls.get());
+    }
+
+    private Mono<ProductDto> load(String id) {
+        return Mono.fromSupplier(() -> {
+            stripeCalls.incrementAndGet();
+            ProductDto productDto = new ProductDto();
+            productDto.setId(id);
+            return productDto;
+        });
+    }
+
+    private Flux<ProductDto> loadList() {
+        return load("prod_1").flux();
+    }
+}
@@ -0,0 +1,62 @@
+package org.sir.stripeintegration.infrastructure.service.stripe;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.sir.stripeintegration.core.shared.constant.StripeOperation;
+import org.sir.stripeintegration.core.shared.exceptions.CustomException;
+import org.sir.stripeintegration.core.shared.utility.RequestIdentityUtil;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripeIdempotencyCacheTest {
+    private final StripeIdempotencyCache cache = new StripeIdempotencyCache(60000, 100, new SimpleMeterRegistry());
+
+    @Test
+    void keyDependsOnRequestIdentityNotOnParameters() {
+        assertEquals("payment_intent.create-request-1",
+                StripeIdempotencyCache.idempotencyKey(StripeOperation.PAYMENT_INTENT_CREATE, "request-1"));
+        assertNotEquals(StripeIdempotencyCache.idempotencyKey(StripeOperation.CUSTOMER_CREATE, "request-1"),
+                StripeIdempotencyCache.idempotencyKey(StripeOperation.PAYMENT_INTENT_CREATE, "request-1"));
+    }
+
+    @Test
+    void completedResponseIsReusedWithinRequestAndFailureIsNot() {
+        AtomicInteger stripeCalls = new AtomicInteger();
+
+        StepVerifier.create(cache.execute(StripeOperation.CUSTOMER_CREATE,
+                                key -> Mono.error(new CustomException("stripe down")))
+                        .contextWrite(context -> RequestIdentityUtil.put(context, "request-1")))
+                .expectError(CustomException.class)
+                .verify();
+
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.create(cache.execute(StripeOperation.CUSTOMER_CREATE,
+                                    key -> Mono.fromSupplier(() -> key + "#" + stripeCalls.incrementAndGet()))
+                            .contextWrite(context -> RequestIdentityUtil.put(context, "request-1")))
+                    .assertNext(response -> assertEquals("customer.create-request-1#1", response))
+                    .verifyComplete();
+        }
+        assertEquals(1, stripeCalls.get());
+    }
+
+    @Test
+    void createsWithoutRequestIdentityGetOwnKeysAndAreNotCached() {
+        List<String> keys = new ArrayList<>();
+
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.create(cache.execute(StripeOperation.CUSTOMER_CREATE,
+                            key -> Mono.fromSupplier(() -> keys.add(key))))
+                    .expectNext(true)
+                    .verifyComplete();
+        }
+        assertEquals(2, keys.size());
+        assertNotEquals(keys.get(0), keys.get(1));
+        assertTrue(keys.get(0).startsWith("customer.create-"));
+    }
+}
@@ -0,0 +1,100 @@
+package org.sir.stripeintegration.infrastructure.service.stripe;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sir.stripeintegration.core.shared.constant.StripeOperation;
+import org.sir.stripeintegration.core.shared.exceptions.StripeGatewayException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StripeRetryPolicyTest {
+    private AtomicLong nanoTime;
+    private AtomicInteger stripeCalls;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        nanoTime = new AtomicLong();
+        stripeCalls = new AtomicInteger();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void transientFailureOfIdempotentCallIsRetried() {
+        StripeRetryPolicy policy = policy(10, 0);
+
+        StepVerifier.create(policy.retry(StripeOperation.PRODUCT_RETRIEVE, false, failThenSucceed(2, 503, null)))
+                .expectNext("ok")
+                .verifyComplete();
+
+        assertEquals(3, stripeCalls.get());
+        assertEquals(2, meterRegistry.get("stripe.client.retries").tag("operation", "product.retrieve")
+                .counter().count());
+    }
+
+    @Test
+    void createIsRetriedOnlyWithIdempotencyKey() {
+        StripeRetryPolicy policy = policy(10, 0);
+
+        StepVerifier.create(policy.retry(StripeOperation.CUSTOMER_CREATE, false, failThenSucceed(1, 503, null)))
+                .expectError(StripeGatewayException.class)
+                .verify();
+        StepVerifier.create(policy.retry(StripeOperation.CUSTOMER_CREATE, true, failThenSucceed(1, 503, null)))
+                .expectNext("ok")
+                .verifyComplete();
+
+        assertEquals(3, stripeCalls.get());
+    }
+
+    @Test
+    void shouldRetryFalseIsHonored() {
+        StepVerifier.create(policy(10, 0).retry(StripeOperation.PRODUCT_RETRIEVE, false,
+                        failThenSucceed(1, 503, false)))
+                .expectError(StripeGatewayException.class)
+                .verify();
+
+        assertEquals(1, stripeCalls.get());
+    }
+
+    @Test
+    void retriesStopWhenBudgetIsUsedUp() {
+        StripeRetryPolicy policy = policy(1, 0);
+
+        StepVerifier.create(policy.retry(StripeOperation.PRODUCT_RETRIEVE, false, failThenSucceed(1, 500, null)))
+                .expectNext("ok")
+                .verifyComplete();
+        StepVerifier.create(policy.retry(StripeOperation.PRODUCT_RETRIEVE, false, failThenSucceed(1, 500, null)))
+                .expectError(StripeGatewayException.class)
+                .verify();
+        assertEquals(1, meterRegistry.get("stripe.client.retry-budget.exhausted")
+                .tag("operation", "product.retrieve").counter().count());
+
+        nanoTime.addAndGet(Duration.ofSeconds(1).toNanos());
+        StepVerifier.create(policy.retry(StripeOperation.PRODUCT_RETRIEVE, false, failThenSucceed(1, 500, null)))
+                .expectNext("ok")
+                .verifyComplete();
+    }
+
+    private StripeRetryPolicy policy(double minPerSecond, double ratio) {
+        return new StripeRetryPolicy(3, 1, 5, ratio, minPerSecond, minPerSecond, nanoTime::get,
+                new StripeCallMetrics(meterRegistry), meterRegistry);
+    }
+
+    private Mono<String> failThenSucceed(int failures, int httpStatus, Boolean shouldRetry) {
+        AtomicInteger attempts = new AtomicInteger();
+        return Mono.defer(() -> {
+            stripeCalls.incrementAndGet();
+            return attempts.incrementAndGet() <= failures
+                    ? Mono.error(new StripeGatewayException(StripeOperation.PRODUCT_RETRIEVE, httpStatus, null,
+                    "req_1", "boom", null, shouldRetry, null))
+                    : Mono.just("ok");
+        });
+    }
+}
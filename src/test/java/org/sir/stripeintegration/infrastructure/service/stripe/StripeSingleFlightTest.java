@@ -0,0 +1,109 @@
+package org.sir.stripeintegration.infrastructure.service.stripe;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sir.stripeintegration.core.shared.constant.StripeOperation;
+import org.sir.stripeintegration.core.shared.exceptions.CustomException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StripeSingleFlightTest {
+    private SimpleMeterRegistry meterRegistry;
+    private StripeSingleFlight singleFlight;
+    private AtomicInteger stripeCalls;
+    private Sinks.One<String> response;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new StripeSingleFlight(meterRegistry);
+        stripeCalls = new AtomicInteger();
+        response = Sinks.one();
+    }
+
+    @Test
+    void concurrentRetrievesShareOneCall() {
+        Mono<String> first = singleFlight.execute(StripeOperation.PRICE_RETRIEVE, "price_1", this::call).cache();
+        Mono<String> second = singleFlight.execute(StripeOperation.PRICE_RETRIEVE, "price_1", this::call).cache();
+        first.subscribe();
+        second.subscribe();
+        singleFlight.execute(StripeOperation.PRICE_RETRIEVE, "price_2", this::call).subscribe();
+
+        response.tryEmitValue("price");
+
+        StepVerifier.create(first).expectNext("price").verifyComplete();
+        StepVerifier.create(second).expectNext("price").verifyComplete();
+        assertEquals(2, stripeCalls.get());
+        assertEquals(1, counter("joined"));
+    }
+
+    @Test
+    void errorIsDeliveredToEveryWaiterAndNotKept() {
+        Mono<String> first = singleFlight.execute(StripeOperation.SUBSCRIPTION_RETRIEVE, "sub_1", this::call).cache();
+        Mono<String> second = singleFlight.execute(StripeOperation.SUBSCRIPTION_RETRIEVE, "sub_1", this::call).cache();
+        first.subscribe(value -> { }, ex -> { });
+        second.subscribe(value -> { }, ex -> { });
+
+        response.tryEmitError(new CustomException("stripe down"));
+
+        StepVerifier.create(first).expectError(CustomException.class).verify();
+        StepVerifier.create(second).expectError(CustomException.class).verify();
+        assertEquals(0, singleFlight.inFlightCount());
+
+        response = Sinks.one();
+        response.tryEmitValue("subscription");
+        StepVerifier.create(singleFlight.execute(StripeOperation.SUBSCRIPTION_RETRIEVE, "sub_1", this::call))
+                .expectNext("subscription")
+                .verifyComplete();
+        assertEquals(2, stripeCalls.get());
+    }
+
+    @Test
+    void throwingSupplierFailsTheCallAndFreesTheKey() {
+        StepVerifier.create(singleFlight.execute(StripeOperation.CUSTOMER_RETRIEVE, "cus_1", () -> {
+                    throw new CustomException("bad params");
+                }))
+                .expectError(CustomException.class)
+                .verify(Duration.ofSeconds(5));
+        assertEquals(0, singleFlight.inFlightCount());
+
+        response.tryEmitValue("customer");
+        StepVerifier.create(singleFlight.execute(StripeOperation.CUSTOMER_RETRIEVE, "cus_1", this::call))
+                .expectNext("customer")
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void cancelledCallerDoesNotCancelTheSharedCall() {
+        singleFlight.execute(StripeOperation.PRODUCT_RETRIEVE, "prod_1", this::call).subscribe().dispose();
+        Mono<String> joined = singleFlight.execute(StripeOperation.PRODUCT_RETRIEVE, "prod_1", this::call);
+
+        StepVerifier.create(joined)
+                .then(() -> response.tryEmitValue("product"))
+                .expectNext("product")
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        assertEquals(1, stripeCalls.get());
+    }
+
+    private Mono<String> call() {
+        stripeCalls.incrementAndGet();
+        return response.asMono();
+    }
+
+    private double counter(String result) {
+        return meterRegistry.get("stripe.client.single-flight")
+                .tag("operation", StripeOperation.PRICE_RETRIEVE.getOperationName())
+                .tag("result", result)
+                .counter()
+                .count();
+    }
+}
@@ -0,0 +1,187 @@
+package org.sir.stripeintegration.infrastructure.service.stripe;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sir.stripeintegration.core.application.dtos.customer.request.CustomerCreateRequestDto;
+import org.sir.stripeintegration.core.application.dtos.paymentIntent.request.CreatePaymentIntentRequestDto;
+import org.sir.stripeintegration.core.application.dtos.product.request.CreateProductRequestDto;
+import org.sir.stripeintegration.core.application.dtos.subscription.request.CreateSubscriptionDto;
+import org.sir.stripeintegration.core.shared.dtoModels.SubscriptionItemDto;
+import org.sir.stripeintegration.core.shared.exceptions.CustomException;
+import org.sir.stripeintegration.core.shared.exceptions.StripeGatewayException;
+import org.sir.stripeintegration.core.shared.utility.RequestIdentityUtil;
+import org.sir.stripeintegration.support.FakeStripeServer;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WebClientStripeGatewayTest {
+    private static FakeStripeServer stripeServer;
+    private static StripeHttpTransport transport;
+    private SimpleMeterRegistry meterRegistry;
+    private WebClientStripeGateway stripeGateway;
+
+    @BeforeAll
+    static void startServer() {
+        stripeServer = FakeStripeServer.start();
+        transport = ReactorNettyStripeHttpClientTest.newTransport(stripeServer.getBaseUrl());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        transport.close();
+        stripeServer.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        stripeServer.reset();
+        meterRegistry = new SimpleMeterRegistry();
+        stripeGateway = new WebClientStripeGateway(WebClient.builder(), "sk_test_fake", stripeServer.getBaseUrl(),
+                new StripeCallMetrics(meterRegistry),
+                new StripeCallGuard(1000, 1000, 2000, 1000, 50, 20, 30000, meterRegistry),
+                new StripeSingleFlight(meterRegistry), transport,
+                new StripeRetryPolicy(1, 1, 1, 0, 0, 0, System::nanoTime, new StripeCallMetrics(meterRegistry),
+                        meterRegistry),
+                new StripeIdempotencyCache(60000, 100, meterRegistry));
+    }
+
+    @Test
+    void createdCustomerIsReturnedByList() {
+        StepVerifier.create(stripeGateway.createCustomer(
+                        new CustomerCreateRequestDto("jane@example.com", "Jane", null)))
+                .assertNext(customer -> {
+                    assertEquals("jane@example.com", customer.getEmail());
+                    assertEquals("Jane", customer.getName());
+                })
+                .verifyComplete();
+
+        StepVerifier.create(stripeGateway.getAllCustomers(10L, null, null))
+                .assertNext(customer -> assertEquals("Jane", customer.getName()))
+                .verifyComplete();
+    }
+
+    @Test
+    void repeatedRequestIsAnsweredFromIdempotencyCache() {
+        CustomerCreateRequestDto requestDto = new CustomerCreateRequestDto("jane@example.com", "Jane", null);
+
+        String firstId = stripeGateway.createCustomer(requestDto)
+                .contextWrite(context -> RequestIdentityUtil.put(context, "request-1")).block().getId();
+        String secondId = stripeGateway.createCustomer(requestDto)
+                .contextWrite(context -> RequestIdentityUtil.put(context, "request-1")).block().getId();
+
+        assertEquals(firstId, secondId);
+        assertEquals(1, stripeServer.getRequestCount());
+    }
+
+    @Test
+    void identicalCreatesOfDifferentRequestsAreNotMerged() {
+        CustomerCreateRequestDto requestDto = new CustomerCreateRequestDto("jane@example.com", "Jane", null);
+
+        String firstId = stripeGateway.createCustomer(requestDto).block().getId();
+        String secondId = stripeGateway.createCustomer(requestDto).block().getId();
+        String thirdId = stripeGateway.createCustomer(requestDto)
+                .contextWrite(context -> RequestIdentityUtil.put(context, "request-2")).block().getId();
+
+        assertNotEquals(firstId, secondId);
+        assertNotEquals(secondId, thirdId);
+        assertEquals(3, stripeServer.getRequestCount());
+    }
+
+    @Test
+    void productCanBeCreatedAndRetrieved() {
+        CreateProductRequestDto requestDto = new CreateProductRequestDto();
+        requestDto.name = "Gold plan";
+        requestDto.description = "Monthly gold plan";
+
+        String productId = stripeGateway.createProduct(requestDto).block().getId();
+
+        StepVerifier.create(stripeGateway.getProductById(productId))
+                .assertNext(product -> {
+                    assertEquals(productId, product.getId());
+                    assertEquals("Gold plan", product.name);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void paymentIntentUsesCustomerDefaultPaymentMethod() {
+        String customerId = stripeGateway.createCustomer(
+                new CustomerCreateRequestDto("john@example.com", "John", null)).block().getId();
+
+        String paymentMethodId = stripeGateway.getCustomerDefaultPaymentMethodId(customerId).block();
+
+        StepVerifier.create(stripeGateway.createPaymentIntent(
+                        new CreatePaymentIntentRequestDto(customerId, 2500, "usd"), paymentMethodId))
+                .assertNext(paymentIntent -> {
+                    assertEquals(customerId, paymentIntent.getCustomerId());
+                    assertEquals(2500, paymentIntent.getAmount());
+                    assertEquals("pm_fake_default", paymentIntent.getPaymentMethodId());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void subscriptionCanBeCreatedAndCanceled() {
+        CreateSubscriptionDto requestDto = new CreateSubscriptionDto();
+        requestDto.customerId = "cus_fake_default";
+        requestDto.items = List.of(new SubscriptionItemDto("price_gold", 2L));
+
+        String subscriptionId = stripeGateway.createSubscription(requestDto).block().getId();
+
+        StepVerifier.create(stripeGateway.getSubscription(subscriptionId))
+                .assertNext(subscription -> {
+                    assertEquals("price_gold", subscription.getItems().get(0).getPriceId());
+                    assertEquals(2L, subscription.getItems().get(0).getQuantity());
+                })
+                .verifyComplete();
+
+        StepVerifier.create(stripeGateway.cancelSubscription(subscriptionId))
+                .assertNext(subscription -> assertEquals("canceled", subscription.getStatus()))
+                .verifyComplete();
+    }
+
+    @Test
+    void paymentMethodOfAnotherCustomerIsRejected() {
+        StepVerifier.create(stripeGateway.getCustomerPaymentMethodById("pm_unknown", "cus_other"))
+                .expectError(CustomException.class)
+                .verify();
+    }
+
+    @Test
+    void callsAreTimedPerOperationAndStatus() {
+        CreateProductRequestDto requestDto = new CreateProductRequestDto();
+        requestDto.name = "Silver plan";
+        String productId = stripeGateway.createProduct(requestDto).block().getId();
+        stripeGateway.deleteProductById(productId).block();
+
+        StepVerifier.create(stripeGateway.getProductById(productId))
+                .expectErrorSatisfies(ex -> {
+                    StripeGatewayException failure = (StripeGatewayException) ex;
+                    assertEquals(404, failure.getHttpStatus());
+                    assertEquals("resource_missing", failure.getStripeErrorCode());
+                    assertTrue(failure.getRequestId().startsWith("req_fake_"));
+                })
+                .verify();
+
+        assertEquals(1, timerCount("product.create", "2xx", "none"));
+        assertEquals(1, timerCount("product.retrieve", "4xx", "resource_missing"));
+    }
+
+    private long timerCount(String operation, String status, String errorCode) {
+        return meterRegistry.get("stripe.client.requests")
+                .tag("operation", operation)
+                .tag("status", status)
+                .tag("error_code", errorCode)
+                .timer()
+                .count();
+    }
+}
@@ -0,0 +1,86 @@
+package org.sir.stripeintegration.infrastructure.service.stripe;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebhookEventDeduplicatorTest {
+    private MutableClock clock;
+    private SimpleMeterRegistry meterRegistry;
+    private WebhookEventDeduplicator deduplicator;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        meterRegistry = new SimpleMeterRegistry();
+        deduplicator = new WebhookEventDeduplicator(2, Duration.ofMinutes(1).toMillis(), clock, meterRegistry);
+    }
+
+    @Test
+    void seenEventIsDuplicateWithinWindow() {
+        assertFalse(deduplicator.isRecentDuplicate("evt_1"));
+        deduplicator.markSeen("evt_1");
+
+        assertTrue(deduplicator.isRecentDuplicate("evt_1"));
+        assertEquals(1, counter("hit"));
+        assertEquals(1, counter("miss"));
+    }
+
+    @Test
+    void eventExpiresAfterWindow() {
+        deduplicator.markSeen("evt_1");
+        clock.advance(Duration.ofMinutes(2));
+
+        assertFalse(deduplicator.isRecentDuplicate("evt_1"));
+    }
+
+    @Test
+    void oldestEventIsEvictedWhenFull() {
+        deduplicator.markSeen("evt_1");
+        deduplicator.markSeen("evt_2");
+        deduplicator.markSeen("evt_3");
+
+        assertEquals(2, deduplicator.size());
+        assertFalse(deduplicator.isRecentDuplicate("evt_1"));
+        assertTrue(deduplicator.isRecentDuplicate("evt_3"));
+    }
+
+    private double counter(String result) {
+        return meterRegistry.get("stripe.webhook.dedup")
+                .tag("layer", WebhookEventDeduplicator.LAYER_MEMORY)
+                .tag("result", result)
+                .counter()
+                .count();
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package org.sir.stripeintegration.infrastructure.service.stripe;
+
+import com.stripe.model.Customer;
+import com.stripe.model.Invoice;
+import com.stripe.model.InvoiceLineItem;
+import com.stripe.model.InvoiceLineItemCollection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.sir.stripeintegration.core.application.dtos.invoice.response.InvoiceDto;
+import org.sir.stripeintegration.core.application.dtos.invoice.response.InvoiceLineDto;
+import org.sir.stripeintegration.core.application.interfaces.service.ICatalogSyncService;
+import org.sir.stripeintegration.core.application.interfaces.service.IInvoiceService;
+import org.sir.stripeintegration.core.application.interfaces.service.IStripeGateway;
+import org.sir.stripeintegration.core.application.interfaces.service.ISubscriptionService;
+import org.sir.stripeintegration.infrastructure.persistance.repository.CustomerRepository;
+import org.sir.stripeintegration.infrastructure.persistance.repository.TransactionRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class WebhookHandlerServiceTest {
+    private CustomerRepository customerRepository;
+    private IInvoiceService invoiceService;
+    private IStripeGateway stripeGateway;
+    private WebhookHandlerService webhookHandlerService;
+
+    @BeforeEach
+    void setUp() {
+        customerRepository = mock(CustomerRepository.class);
+        invoiceService = mock(IInvoiceService.class);
+        stripeGateway = mock(IStripeGateway.class);
+        webhookHandlerService = new WebhookHandlerService(mock(TransactionRepository.class),
+                customerRepository, mock(WebhookEventDeduplicator.class), mock(StripeCatalogCache.class),
+                mock(ICatalogSyncService.class), mock(ISubscriptionService.class), invoiceService, stripeGateway);
+
+        when(invoiceService.syncInvoice(any())).thenReturn(Mono.empty());
+    }
+
+    @Test
+    void completeInvoiceIsStoredWithoutListingLines() {
+        StepVerifier.create(webhookHandlerService.handleInvoiceEvent("evt_1", invoice(false), "invoice.paid"))
+                .verifyComplete();
+
+        assertEquals(List.of("il_0"), storedLineIds());
+        verifyNoInteractions(stripeGateway);
+    }
+
+    @Test
+    void remainingLinesAreListedBeforeInvoiceIsStored() {
+        long pageSize = WebhookHandlerService.INVOICE_LINE_PAGE_SIZE;
+        when(stripeGateway.getInvoiceLines("in_1", pageSize, "il_0"))
+                .thenReturn(Flux.fromStream(LongStream.rangeClosed(1, pageSize).mapToObj(i -> line("il_" + i))));
+        when(stripeGateway.getInvoiceLines("in_1", pageSize, "il_" + pageSize))
+                .thenReturn(Flux.just(line("il_last")));
+
+        StepVerifier.create(webhookHandlerService.handleInvoiceEvent("evt_1", invoice(true), "invoice.paid"))
+                .verifyComplete();
+
+        List<String> lineIds = storedLineIds();
+        assertEquals(pageSize + 2, lineIds.size());
+        assertEquals("il_0", lineIds.get(0));
+        assertEquals("il_last", lineIds.get(lineIds.size() - 1));
+        verify(stripeGateway, times(2)).getInvoiceLines(eq("in_1"), eq(pageSize), any());
+    }
+
+    @Test
+    void olderCustomerEventDoesNotSwitchDefaultPaymentMethodBack() {
+        Instant newer = Instant.parse("2024-01-01T00:00:10Z");
+        Instant older = Instant.parse("2024-01-01T00:00:05Z");
+        when(customerRepository.updateDefaultPaymentMethod("cus_1", "pm_new", newer)).thenReturn(Mono.just(1L));
+        when(customerRepository.updateDefaultPaymentMethod("cus_1", "pm_old", older)).thenReturn(Mono.just(0L));
+
+        StepVerifier.create(webhookHandlerService.handleCustomerEvent(
+                        "evt_2", newer, customer("pm_new"), "customer.updated"))
+                .verifyComplete();
+        StepVerifier.create(webhookHandlerService.handleCustomerEvent(
+                        "evt_1", older, customer("pm_old"), "customer.updated"))
+                .verifyComplete();
+
+        verify(customerRepository).updateDefaultPaymentMethod("cus_1", "pm_new", newer);
+        verify(customerRepository).updateDefaultPaymentMethod("cus_1", "pm_old", older);
+    }
+
+    private List<String> storedLineIds() {
+        ArgumentCaptor<InvoiceDto> stored = ArgumentCaptor.forClass(InvoiceDto.class);
+        verify(invoiceService).syncInvoice(stored.capture());
+        return stored.getValue().getLines().stream().map(InvoiceLineDto::getId).toList();
+    }
+
+    private static Invoice invoice(boolean hasMore) {
+        InvoiceLineItem lineItem = new InvoiceLineItem();
+        lineItem.setId("il_0");
+
+        InvoiceLineItemCollection lines = new InvoiceLineItemCollection();
+        lines.setData(List.of(lineItem));
+        lines.setHasMore(hasMore);
+
+        Invoice invoice = new Invoice();
+        invoice.setId("in_1");
+        invoice.setLines(lines);
+        return invoice;
+    }
+
+    private static Customer customer(String defaultPaymentMethodId) {
+        Customer.InvoiceSettings invoiceSettings = new Customer.InvoiceSettings();
+        invoiceSettings.setDefaultPaymentMethod(defaultPaymentMethodId);
+
+        Customer customer = new Customer();
+        customer.setId("cus_1");
+        customer.setInvoiceSettings(invoiceSettings);
+        return customer;
+    }
+
+    private static InvoiceLineDto line(String id) {
+        return InvoiceLineDto.builder().id(id).build();
+    }
+}
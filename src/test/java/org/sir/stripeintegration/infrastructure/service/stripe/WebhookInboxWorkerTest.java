@@ -0,0 +1,99 @@
+package org.sir.stripeintegration.infrastructure.service.stripe;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sir.stripeintegration.core.domain.WebhookEventEntity;
+import org.sir.stripeintegration.core.shared.exceptions.CustomException;
+import org.sir.stripeintegration.infrastructure.persistance.repository.WebhookEventRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class WebhookInboxWorkerTest {
+    private WebhookEventRepository webhookEventRepository;
+    private WebhookEventDispatcher webhookEventDispatcher;
+    private WebhookInboxWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        webhookEventRepository = mock(WebhookEventRepository.class);
+        webhookEventDispatcher = mock(WebhookEventDispatcher.class);
+        worker = new WebhookInboxWorker(webhookEventRepository, webhookEventDispatcher,
+                2, 2, 3, 1000, 60000, 5000, 3600000);
+
+        when(webhookEventRepository.markDone(anyString(), any())).thenReturn(Mono.just(1));
+        when(webhookEventRepository.markFailed(anyString(), anyString(), any(), anyString(), any()))
+                .thenReturn(Mono.just(1));
+        when(webhookEventRepository.markLeaseExpiredDead(any(), eq(3))).thenReturn(Flux.empty());
+    }
+
+    @Test
+    void handledEventIsMarkedDone() {
+        when(webhookEventRepository.claimBatch(anyInt(), any(), any(), eq(3)))
+                .thenReturn(Flux.just(event("evt_1", 1)));
+        when(webhookEventDispatcher.dispatch("payload_evt_1")).thenReturn(Mono.empty());
+
+        StepVerifier.create(worker.drain()).expectNext(1L).verifyComplete();
+
+        verify(webhookEventRepository).markDone(eq("evt_1"), any());
+        verify(webhookEventRepository, never()).markFailed(anyString(), anyString(), any(), anyString(), any());
+    }
+
+    @Test
+    void failedEventIsRescheduledUntilMaxAttempts() {
+        when(webhookEventRepository.claimBatch(anyInt(), any(), any(), eq(3)))
+                .thenReturn(Flux.just(event("evt_1", 1)));
+        when(webhookEventDispatcher.dispatch(anyString())).thenReturn(Mono.error(new CustomException("boom")));
+
+        StepVerifier.create(worker.drain()).expectNext(1L).verifyComplete();
+
+        verify(webhookEventRepository).markFailed(eq("evt_1"), eq("PENDING"), notNull(), eq("boom"), any());
+    }
+
+    @Test
+    void eventIsMarkedDeadAfterMaxAttempts() {
+        when(webhookEventRepository.claimBatch(anyInt(), any(), any(), eq(3)))
+                .thenReturn(Flux.just(event("evt_1", 3)));
+        when(webhookEventDispatcher.dispatch(anyString())).thenReturn(Mono.error(new CustomException("boom")));
+
+        StepVerifier.create(worker.drain()).expectNext(1L).verifyComplete();
+
+        verify(webhookEventRepository).markFailed(eq("evt_1"), eq("DEAD"), isNull(), eq("boom"), any());
+    }
+
+    @Test
+    void fullBatchIsFollowedByAnotherClaim() {
+        when(webhookEventRepository.claimBatch(anyInt(), any(), any(), eq(3)))
+                .thenReturn(Flux.just(event("evt_1", 1), event("evt_2", 1)))
+                .thenReturn(Flux.just(event("evt_3", 1)));
+        when(webhookEventDispatcher.dispatch(anyString())).thenReturn(Mono.empty());
+
+        StepVerifier.create(worker.drain()).expectNext(3L).verifyComplete();
+
+        verify(webhookEventRepository, times(2)).claimBatch(anyInt(), any(), any(), eq(3));
+    }
+
+    @Test
+    void expiredLeaseOnLastAttemptIsMarkedDeadInsteadOfClaimed() {
+        when(webhookEventRepository.markLeaseExpiredDead(any(), eq(3))).thenReturn(Flux.just("evt_poison"));
+        when(webhookEventRepository.claimBatch(anyInt(), any(), any(), eq(3))).thenReturn(Flux.empty());
+
+        StepVerifier.create(worker.drain()).expectNext(0L).verifyComplete();
+
+        verify(webhookEventRepository).markLeaseExpiredDead(any(), eq(3));
+        verifyNoInteractions(webhookEventDispatcher);
+    }
+
+    private static WebhookEventEntity event(String id, int attempts) {
+        WebhookEventEntity event = new WebhookEventEntity();
+        event.setId(id);
+        event.setType("payment_intent.succeeded");
+        event.setPayload("payload_" + id);
+        event.setStatus("PROCESSING");
+        event.setAttempts(attempts);
+        return event;
+    }
+}
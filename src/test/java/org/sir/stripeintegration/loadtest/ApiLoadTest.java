@@ -0,0 +1,170 @@
+package org.sir.stripeintegration.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.sir.stripeintegration.core.application.dtos.customer.response.CustomerDto;
+import org.sir.stripeintegration.core.application.dtos.loginSignup.request.LoginRequestDto;
+import org.sir.stripeintegration.core.application.dtos.product.response.ProductDto;
+import org.sir.stripeintegration.support.FakeStripeServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Drives the WebFlux controllers over real http with the Stripe api replaced by {@link FakeStripeServer},
+ * and logs p50/p99 latency and requests per second of each scenario. Needs the postgres database of the
+ * active profile. Excluded from the default build, run it with {@code mvn test -P load-test}.
+ * <p>
+ * Tunable with system properties: {@code loadtest.requests}, {@code loadtest.concurrency},
+ * {@code loadtest.warmup}, {@code loadtest.stripe.latency-ms} and {@code loadtest.stripe.jitter-ms}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ApiLoadTest {
+    private static final Logger logger = LoggerFactory.getLogger(ApiLoadTest.class);
+
+    private static final int REQUESTS = Integer.getInteger("loadtest.requests", 2000);
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 64);
+    private static final int WARMUP = Integer.getInteger("loadtest.warmup", 200);
+
+    private static final FakeStripeServer stripeServer = FakeStripeServer.start().withLatency(
+            Duration.ofMillis(Long.getLong("loadtest.stripe.latency-ms", 50)),
+            Duration.ofMillis(Long.getLong("loadtest.stripe.jitter-ms", 20)));
+
+    @LocalServerPort
+    private int port;
+
+    private WebClient client;
+
+    @DynamicPropertySource
+    static void stripeProperties(DynamicPropertyRegistry registry) {
+        registry.add("stripe.api.base", stripeServer::getBaseUrl);
+        registry.add("stripe.key.private", () -> "sk_test_fake");
+        // the fake server has no rate limit, measure the service instead of the client side limiter
+        registry.add("stripe.rate-limit.read-per-second", () -> "100000");
+        registry.add("stripe.rate-limit.write-per-second", () -> "100000");
+    }
+
+    @AfterAll
+    static void stopStripeServer() {
+        stripeServer.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("load-test")
+                .maxConnections(CONCURRENCY)
+                .pendingAcquireMaxCount(-1)
+                .build();
+
+        WebClient anonymous = WebClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)))
+                .build();
+
+        String token = anonymous.post().uri("/api/login")
+                .bodyValue(new LoginRequestDto("abc.test@abc.com", "12345"))
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .map(body -> body.get("token").asText())
+                .block();
+
+        client = anonymous.mutate()
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .build();
+    }
+
+    @Test
+    void addCustomer() {
+        String runId = Long.toString(System.nanoTime());
+
+        report(run("POST /api/customer/add", index -> client.post().uri("/api/customer/add")
+                .bodyValue(Map.of("email", "load" + runId + "." + index + "@example.com", "name", "Load " + index))
+                .retrieve()
+                .toBodilessEntity()));
+    }
+
+    @Test
+    void getCustomer() {
+        String customerId = client.post().uri("/api/customer/add")
+                .bodyValue(Map.of("email", "load." + System.nanoTime() + "@example.com", "name", "Load"))
+                .retrieve()
+                .bodyToMono(CustomerDto.class)
+                .block()
+                .getId();
+
+        report(run("GET /api/customer/{id}", index -> client.get().uri("/api/customer/{id}", customerId)
+                .retrieve()
+                .toBodilessEntity()));
+    }
+
+    @Test
+    void getProduct() {
+        String productId = client.post().uri("/api/product/add")
+                .bodyValue(Map.of("name", "Load product"))
+                .retrieve()
+                .bodyToMono(ProductDto.class)
+                .block()
+                .getId();
+
+        report(run("GET /api/product/{id}", index -> client.get().uri("/api/product/{id}", productId)
+                .retrieve()
+                .toBodilessEntity()));
+    }
+
+    @Test
+    void getAllProducts() {
+        report(run("GET /api/product/all", index -> client.get().uri("/api/product/all?limit=10")
+                .retrieve()
+                .toBodilessEntity()));
+    }
+
+    private LoadTestReport run(String scenario, IntFunction<Mono<?>> call) {
+        execute(WARMUP, call, new long[WARMUP], new AtomicLong());
+
+        long[] latencies = new long[REQUESTS];
+        AtomicLong errors = new AtomicLong();
+        long start = System.nanoTime();
+        execute(REQUESTS, call, latencies, errors);
+
+        return new LoadTestReport(scenario, REQUESTS, CONCURRENCY, errors.get(),
+                Duration.ofNanos(System.nanoTime() - start), latencies);
+    }
+
+    private void execute(int requests, IntFunction<Mono<?>> call, long[] latencies, AtomicLong errors) {
+        Flux.range(0, requests)
+                .flatMap(index -> Mono.defer(() -> {
+                    long start = System.nanoTime();
+                    return call.apply(index)
+                            .doOnError(ex -> errors.incrementAndGet())
+                            .onErrorResume(ex -> Mono.empty())
+                            .doFinally(signal -> latencies[index] = System.nanoTime() - start);
+                }), CONCURRENCY)
+                .blockLast();
+    }
+
+    private void report(LoadTestReport report) {
+        logger.info("{}", report);
+        assertEquals(0, report.errors(), report.scenario() + " had failed requests");
+    }
+}
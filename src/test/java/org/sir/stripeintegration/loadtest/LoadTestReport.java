@@ -0,0 +1,28 @@
+package org.sir.stripeintegration.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Latency and throughput summary of one load test scenario.
+ */
+public record LoadTestReport(String scenario, int requests, int concurrency, long errors,
+                             Duration elapsed, long[] latenciesNanos) {
+    public double requestsPerSecond() {
+        return requests / (elapsed.toNanos() / 1_000_000_000d);
+    }
+
+    public double percentileMillis(double percentile) {
+        long[] sorted = latenciesNanos.clone();
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100d * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000d;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-28s requests=%d concurrency=%d errors=%d rps=%.1f p50=%.2fms p99=%.2fms max=%.2fms",
+                scenario, requests, concurrency, errors, requestsPerSecond(),
+                percentileMillis(50), percentileMillis(99), percentileMillis(100));
+    }
+}
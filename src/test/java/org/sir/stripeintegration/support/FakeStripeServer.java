@@ -0,0 +1,434 @@
+package org.sir.stripeintegration.support;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Embedded stand-in for the Stripe REST api, used to test and load test the service without network access.
+ * <p>
+ * Every resource the service uses (customers, payment intents, payment methods, products, prices and
+ * subscriptions) answers with a canned json object. Objects created through the server are kept in memory,
+ * so a create followed by a retrieve, update, list or delete behaves like the real api. Each response is
+ * delayed by the configured latency plus a random jitter, to model the round trip to Stripe.
+ */
+public class FakeStripeServer implements AutoCloseable {
+    private static final Map<String, Resource> RESOURCES = Map.of(
+            "customers", new Resource("customer", "cus", FakeStripeServer::customer),
+            "payment_intents", new Resource("payment_intent", "pi", FakeStripeServer::paymentIntent),
+            "payment_methods", new Resource("payment_method", "pm", FakeStripeServer::paymentMethod),
+            "products", new Resource("product", "prod", FakeStripeServer::product),
+            "prices", new Resource("price", "price", FakeStripeServer::price),
+            "subscriptions", new Resource("subscription", "sub", FakeStripeServer::subscription)
+    );
+
+    private final Map<String, JsonObject> objects = new ConcurrentHashMap<>();
+    private final Set<String> deletedIds = ConcurrentHashMap.newKeySet();
+    private final AtomicLong idSequence = new AtomicLong();
+    private final AtomicLong requestCount = new AtomicLong();
+    private final DisposableServer server;
+
+    private volatile Duration latency = Duration.ZERO;
+    private volatile Duration jitter = Duration.ZERO;
+
+    private FakeStripeServer() {
+        this.server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .handle(this::handle)
+                .bindNow();
+    }
+
+    public static FakeStripeServer start() {
+        return new FakeStripeServer();
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.port();
+    }
+
+    public FakeStripeServer withLatency(Duration latency, Duration jitter) {
+        this.latency = latency;
+        this.jitter = jitter;
+        return this;
+    }
+
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    public void reset() {
+        objects.clear();
+        deletedIds.clear();
+        requestCount.set(0);
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+
+    private Publisher<Void> handle(HttpServerRequest request, HttpServerResponse response) {
+        requestCount.incrementAndGet();
+
+        return request.receive().aggregate().asString(StandardCharsets.UTF_8)
+                .defaultIfEmpty("")
+                .delayElement(nextDelay())
+                .flatMap(body -> {
+                    String uri = request.uri();
+                    int queryStart = uri.indexOf('?');
+                    String path = queryStart < 0 ? uri : uri.substring(0, queryStart);
+                    Map<String, String> params = new LinkedHashMap<>(
+                            parseForm(queryStart < 0 ? "" : uri.substring(queryStart + 1)));
+                    params.putAll(parseForm(body));
+
+                    Reply reply = route(request.method().name(), path, params);
+                    String json;
+                    synchronized (reply.body) {
+                        json = reply.body.toString();
+                    }
+
+                    return response.status(reply.status)
+                            .header("Content-Type", "application/json")
+                            .header("Request-Id", "req_fake_" + requestCount.get())
+                            .sendString(Mono.just(json))
+                            .then();
+                });
+    }
+
+    private Duration nextDelay() {
+        long jitterMillis = jitter.toMillis();
+        return jitterMillis <= 0
+                ? latency
+                : latency.plusMillis(ThreadLocalRandom.current().nextLong(jitterMillis + 1));
+    }
+
+    private Reply route(String method, String path, Map<String, String> params) {
+        String[] segments = path.replaceFirst("^/v1/", "").split("/");
+        Resource resource = RESOURCES.get(segments[0]);
+
+        if (!path.startsWith("/v1/") || resource == null) {
+            return notFound("Unrecognized request URL (" + method + ": " + path + ")");
+        }
+
+        if (segments.length == 1) {
+            return switch (method) {
+                case "POST" -> ok(create(resource, params));
+                case "GET" -> ok(list(resource, segments[0], params, object -> true));
+                default -> notFound("Unsupported method " + method + " for " + path);
+            };
+        }
+
+        String id = segments[1];
+        if (deletedIds.contains(id)) {
+            return resourceMissing(resource, id);
+        }
+        if (segments.length == 3) {
+            return switch (segments[2]) {
+                case "payment_methods" -> ok(list(RESOURCES.get("payment_methods"), path, params,
+                        object -> id.equals(stringOrNull(object, "customer"))));
+                case "attach" -> ok(update(resource, id, params));
+                case "detach" -> {
+                    JsonObject paymentMethod = retrieve(resource, id);
+                    synchronized (paymentMethod) {
+                        paymentMethod.add("customer", null);
+                    }
+                    yield ok(paymentMethod);
+                }
+                default -> notFound("Unrecognized request URL (" + method + ": " + path + ")");
+            };
+        }
+
+        return switch (method) {
+            case "GET" -> ok(retrieve(resource, id));
+            case "POST" -> ok(update(resource, id, params));
+            case "DELETE" -> ok(delete(resource, id));
+            default -> notFound("Unsupported method " + method + " for " + path);
+        };
+    }
+
+    //region Store
+    private JsonObject create(Resource resource, Map<String, String> params) {
+        String id = resource.idPrefix + "_fake" + idSequence.incrementAndGet();
+        JsonObject object = resource.template.get();
+        object.addProperty("id", id);
+        object.addProperty("object", resource.objectName);
+        object.addProperty("created", System.currentTimeMillis() / 1000);
+        merge(object, params);
+        objects.put(id, object);
+        return object;
+    }
+
+    private JsonObject retrieve(Resource resource, String id) {
+        return objects.computeIfAbsent(id, key -> {
+            JsonObject object = resource.template.get();
+            object.addProperty("id", key);
+            object.addProperty("object", resource.objectName);
+            return object;
+        });
+    }
+
+    private JsonObject update(Resource resource, String id, Map<String, String> params) {
+        JsonObject object = retrieve(resource, id);
+        synchronized (object) {
+            merge(object, params);
+        }
+        return object;
+    }
+
+    private JsonObject delete(Resource resource, String id) {
+        if ("subscription".equals(resource.objectName)) {
+            return update(resource, id, Map.of("status", "canceled"));
+        }
+
+        objects.remove(id);
+        deletedIds.add(id);
+        JsonObject deleted = new JsonObject();
+        deleted.addProperty("id", id);
+        deleted.addProperty("object", resource.objectName);
+        deleted.addProperty("deleted", true);
+        return deleted;
+    }
+
+    private JsonObject list(Resource resource, String url, Map<String, String> params,
+                            Predicate<JsonObject> filter) {
+        int limit = params.containsKey("limit") ? Integer.parseInt(params.get("limit")) : 10;
+        JsonArray data = new JsonArray();
+
+        objects.values().stream()
+                .filter(object -> resource.objectName.equals(stringOrNull(object, "object")))
+                .filter(filter)
+                .filter(object -> !params.containsKey("customer")
+                        || params.get("customer").equals(stringOrNull(object, "customer")))
+                .filter(object -> !params.containsKey("product")
+                        || params.get("product").equals(stringOrNull(object, "product")))
+                .limit(limit)
+                .forEach(data::add);
+
+        JsonObject collection = new JsonObject();
+        collection.addProperty("object", "list");
+        collection.addProperty("url", "/v1/" + url);
+        collection.addProperty("has_more", false);
+        collection.add("data", data);
+        return collection;
+    }
+
+    /**
+     * Applies form encoded Stripe params on a json object. Nested keys like
+     * {@code invoice_settings[default_payment_method]} become nested objects and list keys like
+     * {@code items[0][price]} are folded into the subscription item list.
+     */
+    private static void merge(JsonObject object, Map<String, String> params) {
+        Map<Integer, JsonObject> items = new TreeMap<>();
+
+        params.forEach((key, value) -> {
+            if (value == null || value.isEmpty() || key.equals("expand[]")) {
+                return;
+            }
+
+            List<String> path = splitKey(key);
+            if (path.get(0).equals("items") && path.size() == 3) {
+                JsonObject item = items.computeIfAbsent(Integer.parseInt(path.get(1)), index -> new JsonObject());
+                item.addProperty(path.get(2), value);
+                return;
+            }
+
+            JsonObject target = object;
+            for (int i = 0; i < path.size() - 1; i++) {
+                JsonElement child = target.get(path.get(i));
+                if (child == null || !child.isJsonObject()) {
+                    child = new JsonObject();
+                    target.add(path.get(i), child);
+                }
+                target = child.getAsJsonObject();
+            }
+            target.addProperty(path.get(path.size() - 1), value);
+        });
+
+        if (!items.isEmpty()) {
+            JsonArray data = new JsonArray();
+            items.values().forEach(item -> data.add(subscriptionItem(
+                    item.get("price").getAsString(),
+                    item.has("quantity") ? item.get("quantity").getAsLong() : 1L)));
+            object.getAsJsonObject("items").add("data", data);
+        }
+    }
+
+    private static List<String> splitKey(String key) {
+        List<String> path = new ArrayList<>();
+        for (String part : key.split("\\[")) {
+            path.add(part.replace("]", ""));
+        }
+        return path;
+    }
+
+    private static Map<String, String> parseForm(String form) {
+        Map<String, String> params = new LinkedHashMap<>();
+        if (form == null || form.isBlank()) {
+            return params;
+        }
+
+        for (String pair : form.split("&")) {
+            int separator = pair.indexOf('=');
+            String key = URLDecoder.decode(separator < 0 ? pair : pair.substring(0, separator), StandardCharsets.UTF_8);
+            String value = separator < 0 ? "" : URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8);
+            params.put(key, value);
+        }
+        return params;
+    }
+
+    private static String stringOrNull(JsonObject object, String member) {
+        JsonElement element = object.get(member);
+        return element == null || element.isJsonNull() ? null : element.getAsString();
+    }
+    //endregion
+
+    //region Templates
+    private static JsonObject customer() {
+        JsonObject customer = new JsonObject();
+        customer.addProperty("email", "fake.customer@example.com");
+        customer.addProperty("name", "Fake Customer");
+        customer.add("phone", null);
+
+        JsonObject invoiceSettings = new JsonObject();
+        invoiceSettings.addProperty("default_payment_method", "pm_fake_default");
+        customer.add("invoice_settings", invoiceSettings);
+        return customer;
+    }
+
+    private static JsonObject paymentIntent() {
+        JsonObject paymentIntent = new JsonObject();
+        paymentIntent.addProperty("amount", 1000);
+        paymentIntent.addProperty("currency", "usd");
+        paymentIntent.addProperty("status", "succeeded");
+        paymentIntent.addProperty("customer", "cus_fake_default");
+        paymentIntent.addProperty("payment_method", "pm_fake_default");
+        return paymentIntent;
+    }
+
+    private static JsonObject paymentMethod() {
+        JsonObject paymentMethod = new JsonObject();
+        paymentMethod.addProperty("type", "card");
+        paymentMethod.addProperty("customer", "cus_fake_default");
+
+        JsonObject billingDetails = new JsonObject();
+        billingDetails.addProperty("email", "fake.customer@example.com");
+        billingDetails.addProperty("name", "Fake Customer");
+        paymentMethod.add("billing_details", billingDetails);
+
+        JsonObject card = new JsonObject();
+        card.addProperty("brand", "visa");
+        card.addProperty("country", "US");
+        card.addProperty("exp_month", 12);
+        card.addProperty("exp_year", 2034);
+        card.addProperty("last4", "4242");
+        paymentMethod.add("card", card);
+        return paymentMethod;
+    }
+
+    private static JsonObject product() {
+        JsonObject product = new JsonObject();
+        product.addProperty("name", "Fake Product");
+        product.addProperty("description", "Canned product of the fake stripe server");
+        product.addProperty("active", true);
+        product.addProperty("shippable", true);
+        product.add("images", new JsonArray());
+        product.add("default_price", null);
+        return product;
+    }
+
+    private static JsonObject price() {
+        JsonObject price = new JsonObject();
+        price.addProperty("type", "recurring");
+        price.addProperty("active", true);
+        price.addProperty("product", "prod_fake_default");
+        price.addProperty("currency", "usd");
+        price.addProperty("nickname", "Fake Price");
+        price.addProperty("unit_amount", 1000);
+
+        JsonObject recurring = new JsonObject();
+        recurring.addProperty("interval", "month");
+        recurring.addProperty("interval_count", 1);
+        recurring.addProperty("usage_type", "licensed");
+        price.add("recurring", recurring);
+        return price;
+    }
+
+    private static JsonObject subscription() {
+        long now = System.currentTimeMillis() / 1000;
+
+        JsonObject subscription = new JsonObject();
+        subscription.addProperty("customer", "cus_fake_default");
+        subscription.addProperty("status", "active");
+        subscription.addProperty("currency", "usd");
+        subscription.addProperty("cancel_at_period_end", false);
+        subscription.addProperty("current_period_start", now);
+        subscription.addProperty("current_period_end", now + Duration.ofDays(30).toSeconds());
+        subscription.addProperty("default_payment_method", "pm_fake_default");
+
+        JsonArray data = new JsonArray();
+        data.add(subscriptionItem("price_fake_default", 1L));
+        JsonObject items = new JsonObject();
+        items.addProperty("object", "list");
+        items.add("data", data);
+        subscription.add("items", items);
+        return subscription;
+    }
+
+    private static JsonObject subscriptionItem(String priceId, long quantity) {
+        JsonObject price = price();
+        price.addProperty("id", priceId);
+        price.addProperty("object", "price");
+
+        JsonObject item = new JsonObject();
+        item.addProperty("id", "si_fake_" + priceId);
+        item.addProperty("object", "subscription_item");
+        item.addProperty("quantity", quantity);
+        item.add("price", price);
+        return item;
+    }
+    //endregion
+
+    private static Reply ok(JsonObject body) {
+        return new Reply(HttpResponseStatus.OK, body);
+    }
+
+    private static Reply notFound(String message) {
+        JsonObject error = new JsonObject();
+        error.addProperty("type", "invalid_request_error");
+        error.addProperty("message", message);
+
+        JsonObject body = new JsonObject();
+        body.add("error", error);
+        return new Reply(HttpResponseStatus.NOT_FOUND, body);
+    }
+
+    private static Reply resourceMissing(Resource resource, String id) {
+        Reply reply = notFound("No such " + resource.objectName + ": '" + id + "'");
+        reply.body.getAsJsonObject("error").addProperty("code", "resource_missing");
+        return reply;
+    }
+
+    private record Resource(String objectName, String idPrefix, Supplier<JsonObject> template) {
+    }
+
+    private record Reply(HttpResponseStatus status, JsonObject body) {
+    }
+}